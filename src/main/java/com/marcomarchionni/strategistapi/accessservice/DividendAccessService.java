@@ -1,6 +1,8 @@
 package com.marcomarchionni.strategistapi.accessservice;
 
 import com.marcomarchionni.strategistapi.domain.Dividend;
+import com.marcomarchionni.strategistapi.dtos.response.DividendSummary;
+import com.marcomarchionni.strategistapi.repositories.projections.DividendActionState;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -8,8 +10,8 @@ import java.util.Optional;
 
 public interface DividendAccessService {
 
-    List<Dividend> findByParams(LocalDate exDateFrom, LocalDate exDateTo, LocalDate payDateFrom, LocalDate payDateTo,
-                                Boolean tagged, String symbol);
+    List<DividendSummary> findSummariesByParams(LocalDate exDateFrom, LocalDate exDateTo, LocalDate payDateFrom,
+                                                LocalDate payDateTo, Boolean tagged, String symbol);
 
     Optional<Dividend> findById(Long id);
 
@@ -19,6 +21,8 @@ public interface DividendAccessService {
 
     List<Dividend> findOpenDividends();
 
+    List<DividendActionState> findActionStates();
+
     Dividend save(Dividend dividend);
 
     List<Dividend> saveAll(List<Dividend> dividends);
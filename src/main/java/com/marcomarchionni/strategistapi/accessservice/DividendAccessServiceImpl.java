@@ -1,7 +1,12 @@
 package com.marcomarchionni.strategistapi.accessservice;
 
 import com.marcomarchionni.strategistapi.domain.Dividend;
+import com.marcomarchionni.strategistapi.dtos.response.DividendSummary;
+import com.marcomarchionni.strategistapi.repositories.BulkInsertRepository;
 import com.marcomarchionni.strategistapi.repositories.DividendRepository;
+import com.marcomarchionni.strategistapi.repositories.SummaryRepository;
+import com.marcomarchionni.strategistapi.repositories.projections.DividendActionState;
+import com.marcomarchionni.strategistapi.repositories.specifications.DividendSpecifications;
 import com.marcomarchionni.strategistapi.services.UserService;
 import com.marcomarchionni.strategistapi.validators.AccountIdValidator;
 import lombok.RequiredArgsConstructor;
@@ -18,12 +23,15 @@ public class DividendAccessServiceImpl implements DividendAccessService {
     private final DividendRepository dividendRepository;
     private final UserService userService;
     private final AccountIdValidator<Dividend> accountIdValidator;
+    private final BulkInsertRepository bulkInsertRepository;
+    private final SummaryRepository summaryRepository;
 
     @Override
-    public List<Dividend> findByParams(LocalDate exDateFrom, LocalDate exDateTo, LocalDate payDateFrom,
-                                       LocalDate payDateTo, Boolean tagged, String symbol) {
+    public List<DividendSummary> findSummariesByParams(LocalDate exDateFrom, LocalDate exDateTo, LocalDate payDateFrom,
+                                                       LocalDate payDateTo, Boolean tagged, String symbol) {
         String accountId = userService.getUserAccountId();
-        return dividendRepository.findByParams(accountId, exDateFrom, exDateTo, payDateFrom, payDateTo, tagged, symbol);
+        return summaryRepository.findDividendSummaries(DividendSpecifications.byParams(accountId, exDateFrom,
+                exDateTo, payDateFrom, payDateTo, tagged, symbol));
     }
 
     @Override
@@ -50,6 +58,12 @@ public class DividendAccessServiceImpl implements DividendAccessService {
         return dividendRepository.findByOpenClosedAndAccountId(Dividend.OpenClosed.OPEN, accountId);
     }
 
+    @Override
+    public List<DividendActionState> findActionStates() {
+        String accountId = userService.getUserAccountId();
+        return dividendRepository.findActionStatesByAccountId(accountId);
+    }
+
     @Override
     public Dividend save(Dividend dividend) {
         String accountId = userService.getUserAccountId();
@@ -61,6 +75,9 @@ public class DividendAccessServiceImpl implements DividendAccessService {
     public List<Dividend> saveAll(@NotNull List<Dividend> dividends) {
         String accountId = userService.getUserAccountId();
         dividends.forEach(dividend -> accountIdValidator.hasValidAccountId(dividend, accountId));
+        if (dividends.stream().allMatch(dividend -> dividend.getId() == null)) {
+            return bulkInsertRepository.insertDividends(dividends);
+        }
         return dividendRepository.saveAll(dividends);
     }
 }
@@ -2,10 +2,16 @@ package com.marcomarchionni.strategistapi.accessservice;
 
 import com.marcomarchionni.strategistapi.domain.FlexStatement;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface FlexStatementAccessService {
     Optional<FlexStatement> findFirstOrderByToDateDesc();
 
+    List<FlexStatement> findAll();
+
     FlexStatement save(FlexStatement flexStatement);
+
+    List<FlexStatement> findAllById(Collection<Long> ids);
 }
@@ -8,6 +8,8 @@ import lombok.RequiredArgsConstructor;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Service
@@ -24,10 +26,22 @@ public class FlexStatementAccessServiceImpl implements FlexStatementAccessServic
         return flexStatementRepository.findFirstByAccountIdOrderByToDateDesc(accountId);
     }
 
+    @Override
+    public List<FlexStatement> findAll() {
+        String accountId = userService.getUserAccountId();
+        return flexStatementRepository.findAllByAccountId(accountId);
+    }
+
     @Override
     public FlexStatement save(@NotNull FlexStatement flexStatement) {
         String accountId = userService.getUserAccountId();
         accountIdValidator.hasValidAccountId(flexStatement, accountId);
         return flexStatementRepository.save(flexStatement);
     }
+
+    @Override
+    public List<FlexStatement> findAllById(Collection<Long> ids) {
+        String accountId = userService.getUserAccountId();
+        return flexStatementRepository.findAllByIdInAndAccountId(ids, accountId);
+    }
 }
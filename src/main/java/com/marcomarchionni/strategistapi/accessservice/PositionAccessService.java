@@ -1,7 +1,9 @@
 package com.marcomarchionni.strategistapi.accessservice;
 
 import com.marcomarchionni.strategistapi.domain.Position;
+import com.marcomarchionni.strategistapi.dtos.response.PositionSummary;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -10,7 +12,11 @@ public interface PositionAccessService {
 
     List<Position> saveAll(List<Position> positions);
 
-    List<Position> findByParams(Boolean tagged, String symbol, String assetCategory);
+    void upsertAll(List<Position> positions);
+
+    int deleteMissingPositions(Collection<Long> conIds);
+
+    List<PositionSummary> findSummariesByParams(Boolean tagged, String symbol, String assetCategory);
 
     List<Position> findAll();
 
@@ -1,13 +1,19 @@
 package com.marcomarchionni.strategistapi.accessservice;
 
 import com.marcomarchionni.strategistapi.domain.Position;
+import com.marcomarchionni.strategistapi.dtos.response.PositionSummary;
+import com.marcomarchionni.strategistapi.repositories.BulkInsertRepository;
 import com.marcomarchionni.strategistapi.repositories.PositionRepository;
+import com.marcomarchionni.strategistapi.repositories.PositionSnapshotRepository;
+import com.marcomarchionni.strategistapi.repositories.SummaryRepository;
+import com.marcomarchionni.strategistapi.repositories.specifications.PositionSpecifications;
 import com.marcomarchionni.strategistapi.services.UserService;
 import com.marcomarchionni.strategistapi.validators.AccountIdValidator;
 import lombok.RequiredArgsConstructor;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -18,6 +24,9 @@ public class PositionAccessServiceImpl implements PositionAccessService {
     private final PositionRepository positionRepository;
     private final UserService userService;
     private final AccountIdValidator<Position> accountIdValidator;
+    private final BulkInsertRepository bulkInsertRepository;
+    private final PositionSnapshotRepository positionSnapshotRepository;
+    private final SummaryRepository summaryRepository;
 
     @Override
     public void deleteAll(@NotNull List<Position> positions) {
@@ -34,13 +43,29 @@ public class PositionAccessServiceImpl implements PositionAccessService {
             return Collections.emptyList();
         }
         validateAccountIds(positions);
+        if (positions.stream().allMatch(position -> position.getId() == null)) {
+            return bulkInsertRepository.insertPositions(positions);
+        }
         return positionRepository.saveAll(positions);
     }
 
     @Override
-    public List<Position> findByParams(Boolean tagged, String symbol, String assetCategory) {
+    public void upsertAll(@NotNull List<Position> positions) {
+        validateAccountIds(positions);
+        positionSnapshotRepository.upsertPositions(positions);
+    }
+
+    @Override
+    public int deleteMissingPositions(@NotNull Collection<Long> conIds) {
+        String accountId = userService.getUserAccountId();
+        return positionSnapshotRepository.deleteMissingPositions(accountId, conIds);
+    }
+
+    @Override
+    public List<PositionSummary> findSummariesByParams(Boolean tagged, String symbol, String assetCategory) {
         String accountId = userService.getUserAccountId();
-        return positionRepository.findByParams(accountId, tagged, symbol, assetCategory);
+        return summaryRepository.findPositionSummaries(
+                PositionSpecifications.byParams(accountId, tagged, symbol, assetCategory));
     }
 
     @Override
@@ -1,18 +1,28 @@
 package com.marcomarchionni.strategistapi.accessservice;
 
 import com.marcomarchionni.strategistapi.domain.Trade;
+import com.marcomarchionni.strategistapi.dtos.response.TradeSummary;
+import com.marcomarchionni.strategistapi.services.util.LongHashSet;
+import com.marcomarchionni.strategistapi.services.util.TradeCursor;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface TradeAccessService {
 
-    List<Trade> findByParams(LocalDate startDate, LocalDate endDate, Boolean tagged, String symbol,
-                             String assetCategory);
+    List<TradeSummary> findSummaryPageByParams(LocalDate startDate, LocalDate endDate, Boolean tagged, String symbol,
+                                               String assetCategory, TradeCursor after, int limit);
+
+    void forEachSummaryByParams(LocalDate startDate, LocalDate endDate, Boolean tagged, String symbol,
+                                String assetCategory, Consumer<TradeSummary> action);
 
     boolean existsByIbOrderId(Long ibOrderId);
 
+    LongHashSet findExistingIbOrderIds(Collection<Long> ibOrderIds);
+
     Trade save(Trade trade);
 
     List<Trade> saveAll(List<Trade> trades);
@@ -1,30 +1,65 @@
 package com.marcomarchionni.strategistapi.accessservice;
 
 import com.marcomarchionni.strategistapi.domain.Trade;
+import com.marcomarchionni.strategistapi.dtos.response.TradeSummary;
+import com.marcomarchionni.strategistapi.repositories.BulkInsertRepository;
+import com.marcomarchionni.strategistapi.repositories.SummaryRepository;
 import com.marcomarchionni.strategistapi.repositories.TradeRepository;
+import com.marcomarchionni.strategistapi.repositories.specifications.TradeSpecifications;
 import com.marcomarchionni.strategistapi.services.UserService;
+import com.marcomarchionni.strategistapi.services.util.LongHashSet;
+import com.marcomarchionni.strategistapi.services.util.TradeCursor;
 import com.marcomarchionni.strategistapi.validators.AccountIdValidator;
 import lombok.RequiredArgsConstructor;
 import org.jetbrains.annotations.NotNull;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class TradeAccessServiceImpl implements TradeAccessService {
 
+    // Keeps the IN clause within the limits of the database drivers
+    private static final int IB_ORDER_IDS_BATCH_SIZE = 1000;
+
     private final UserService userService;
     private final TradeRepository tradeRepository;
     private final AccountIdValidator<Trade> accountIdValidator;
+    private final BulkInsertRepository bulkInsertRepository;
+    private final SummaryRepository summaryRepository;
+
+    @Override
+    public List<TradeSummary> findSummaryPageByParams(LocalDate startDate, LocalDate endDate, Boolean tagged,
+                                                      String symbol, String assetCategory, TradeCursor after,
+                                                      int limit) {
+        String accountId = userService.getUserAccountId();
+        Specification<Trade> specification = TradeSpecifications.byParams(accountId, startDate, endDate, tagged,
+                symbol, assetCategory);
+        if (after != null) {
+            specification = specification.and(TradeSpecifications.after(after.tradeDate(), after.id()));
+        }
+        return summaryRepository.findTradeSummaries(specification, limit);
+    }
 
+    // Summaries are not managed entities, the persistence context stays empty while the rows are read
     @Override
-    public List<Trade> findByParams(LocalDate startDate, LocalDate endDate, Boolean tagged, String symbol,
-                                    String assetCategory) {
+    @Transactional(readOnly = true)
+    public void forEachSummaryByParams(LocalDate startDate, LocalDate endDate, Boolean tagged, String symbol,
+                                       String assetCategory, Consumer<TradeSummary> action) {
         String accountId = userService.getUserAccountId();
-        return tradeRepository.findByParams(accountId, startDate, endDate, tagged, symbol, assetCategory);
+        try (Stream<TradeSummary> trades = summaryRepository.streamTradeSummaries(
+                TradeSpecifications.byParams(accountId, startDate, endDate, tagged, symbol, assetCategory))) {
+            trades.forEach(action);
+        }
     }
 
     @Override
@@ -33,6 +68,18 @@ public class TradeAccessServiceImpl implements TradeAccessService {
         return tradeRepository.existsByAccountIdAndIbOrderId(accountId, ibOrderId);
     }
 
+    @Override
+    public LongHashSet findExistingIbOrderIds(Collection<Long> ibOrderIds) {
+        String accountId = userService.getUserAccountId();
+        List<Long> ids = ibOrderIds.stream().filter(Objects::nonNull).distinct().toList();
+        LongHashSet existingIds = new LongHashSet(ids.size());
+        for (int from = 0; from < ids.size(); from += IB_ORDER_IDS_BATCH_SIZE) {
+            List<Long> batch = ids.subList(from, Math.min(from + IB_ORDER_IDS_BATCH_SIZE, ids.size()));
+            existingIds.addAll(tradeRepository.findIbOrderIdsByAccountIdAndIbOrderIdIn(accountId, batch));
+        }
+        return existingIds;
+    }
+
     @Override
     public Trade save(@NotNull Trade trade) {
         String accountId = userService.getUserAccountId();
@@ -44,6 +91,9 @@ public class TradeAccessServiceImpl implements TradeAccessService {
     public List<Trade> saveAll(@NotNull List<Trade> trades) {
         String accountId = userService.getUserAccountId();
         trades.forEach(trade -> accountIdValidator.hasValidAccountId(trade, accountId));
+        if (trades.stream().allMatch(trade -> trade.getId() == null)) {
+            return bulkInsertRepository.insertTrades(trades);
+        }
         return tradeRepository.saveAll(trades);
     }
 
@@ -6,25 +6,15 @@ import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
 
 import java.io.IOException;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 
 public class CustomLocalDateTimeDeserializer extends StdDeserializer<LocalDateTime> {
 
-    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd;HHmmss");
-
     public CustomLocalDateTimeDeserializer() {
         super(LocalDateTime.class);
     }
 
     @Override
     public LocalDateTime deserialize(JsonParser parser, DeserializationContext deserializationContext) throws IOException {
-        String value = parser.getValueAsString();
-        if (value == null || value.trim().isEmpty()) {
-            return null;
-        }
-        if (value.length() == 8) {
-            value = value + ";000000";
-        }
-        return LocalDateTime.parse(value, FORMATTER);
+        return FlexDateTimeParser.parseDateTime(parser, deserializationContext);
     }
 }
@@ -0,0 +1,48 @@
+package com.marcomarchionni.strategistapi.config;
+
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import com.marcomarchionni.strategistapi.dtos.flex.FlexQueryResponseDto;
+import com.marcomarchionni.strategistapi.services.util.FlexContentDigest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.converter.xml.MappingJackson2XmlHttpMessageConverter;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+
+/**
+ * Xml converter that hashes flex query responses while they are read and stores the hash in the response.
+ */
+class DigestingXmlHttpMessageConverter extends MappingJackson2XmlHttpMessageConverter {
+
+    DigestingXmlHttpMessageConverter(XmlMapper xmlMapper) {
+        super(xmlMapper);
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+        if (type != FlexQueryResponseDto.class) {
+            return super.read(type, contextClass, inputMessage);
+        }
+        FlexContentDigest digest = new FlexContentDigest();
+        InputStream body = digest.wrap(inputMessage.getBody());
+        Object result = super.read(type, contextClass, new HttpInputMessage() {
+            @Override
+            public InputStream getBody() {
+                return StreamUtils.nonClosing(body);
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return inputMessage.getHeaders();
+            }
+        });
+        // the parser stops at the end of the root element, hash what is left
+        body.transferTo(OutputStream.nullOutputStream());
+        ((FlexQueryResponseDto) result).setContentHash(digest.hex());
+        return result;
+    }
+}
@@ -0,0 +1,125 @@
+package com.marcomarchionni.strategistapi.config;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Parses the fixed-width dates of flex queries, yyyyMMdd dates and yyyyMMdd;HHmmss timestamps, by reading the
+ * digits from the text of the current token. Parsers exposing their char buffer are read in place, the xml parser
+ * already holds attribute values as strings.
+ */
+final class FlexDateTimeParser {
+
+    private static final int DATE_LENGTH = 8;
+    private static final int DATE_TIME_LENGTH = 15;
+
+    private FlexDateTimeParser() {
+    }
+
+    static LocalDate parseDate(JsonParser parser, DeserializationContext context) throws IOException {
+        CharSequence text = text(parser, context, LocalDate.class);
+        int start = start(text);
+        int end = end(text, start);
+        if (start == end) {
+            return null;
+        }
+        if (end - start == DATE_LENGTH) {
+            try {
+                LocalDate date = date(text, start);
+                if (date != null) {
+                    return date;
+                }
+            } catch (DateTimeException e) {
+                // reported below as an invalid value
+            }
+        }
+        return (LocalDate) context.handleWeirdStringValue(LocalDate.class, text.toString(),
+                "expected a date in yyyyMMdd format");
+    }
+
+    static LocalDateTime parseDateTime(JsonParser parser, DeserializationContext context) throws IOException {
+        CharSequence text = text(parser, context, LocalDateTime.class);
+        int start = start(text);
+        int end = end(text, start);
+        if (start == end) {
+            return null;
+        }
+        try {
+            if (end - start == DATE_LENGTH) {
+                LocalDate date = date(text, start);
+                if (date != null) {
+                    return date.atStartOfDay();
+                }
+            } else if (end - start == DATE_TIME_LENGTH && text.charAt(start + DATE_LENGTH) == ';') {
+                int year = digits(text, start, 4);
+                int month = digits(text, start + 4, 2);
+                int day = digits(text, start + 6, 2);
+                int hour = digits(text, start + 9, 2);
+                int minute = digits(text, start + 11, 2);
+                int second = digits(text, start + 13, 2);
+                if ((year | month | day | hour | minute | second) >= 0) {
+                    return LocalDateTime.of(year, month, day, hour, minute, second);
+                }
+            }
+        } catch (DateTimeException e) {
+            // reported below as an invalid value
+        }
+        return (LocalDateTime) context.handleWeirdStringValue(LocalDateTime.class, text.toString(),
+                "expected a timestamp in yyyyMMdd;HHmmss format");
+    }
+
+    private static CharSequence text(JsonParser parser, DeserializationContext context, Class<?> type)
+            throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token != JsonToken.VALUE_STRING && token != JsonToken.VALUE_NUMBER_INT) {
+            return (CharSequence) context.handleUnexpectedToken(type, parser);
+        }
+        if (parser.hasTextCharacters()) {
+            return CharBuffer.wrap(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+        }
+        return parser.getText();
+    }
+
+    private static LocalDate date(CharSequence text, int start) {
+        int year = digits(text, start, 4);
+        int month = digits(text, start + 4, 2);
+        int day = digits(text, start + 6, 2);
+        return (year | month | day) < 0 ? null : LocalDate.of(year, month, day);
+    }
+
+    // value of the digits, or -1 when a char is not a digit
+    private static int digits(CharSequence text, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static int start(CharSequence text) {
+        int start = 0;
+        while (start < text.length() && Character.isWhitespace(text.charAt(start))) {
+            start++;
+        }
+        return start;
+    }
+
+    private static int end(CharSequence text, int start) {
+        int end = text.length();
+        while (end > start && Character.isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+        return end;
+    }
+}
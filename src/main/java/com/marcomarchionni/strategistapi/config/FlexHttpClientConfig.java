@@ -0,0 +1,90 @@
+package com.marcomarchionni.strategistapi.config;
+
+import io.micrometer.core.instrument.LongTaskTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.DefaultConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Pooled http client used to call the IB flex web service.
+ * Pool usage, lease time and requests waiting for a response are published as flexservice.http.* metrics.
+ */
+@Configuration
+public class FlexHttpClientConfig {
+
+    private static final String METRICS_PREFIX = "flexservice.http";
+
+    @Bean(name = "flexConnectionManager", destroyMethod = "close")
+    public PoolingHttpClientConnectionManager flexConnectionManager(
+            @Value("${flexservice.http.max-total:20}") int maxTotal,
+            @Value("${flexservice.http.max-per-route:10}") int maxPerRoute,
+            @Value("${flexservice.http.connect-timeout-ms:5000}") long connectTimeout,
+            @Value("${flexservice.http.read-timeout-ms:60000}") long readTimeout,
+            @Value("${flexservice.http.time-to-live-ms:300000}") long timeToLive,
+            ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        MeterRegistry meterRegistry = meterRegistryProvider.getIfAvailable(CompositeMeterRegistry::new);
+        Timer leaseTimer = Timer.builder(METRICS_PREFIX + ".pool.lease")
+                .description("Time spent waiting for a pooled connection")
+                .register(meterRegistry);
+
+        TimedConnectionManager connectionManager = new TimedConnectionManager(leaseTimer);
+        connectionManager.setMaxTotal(maxTotal);
+        connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+        connectionManager.setDefaultConnectionConfig(ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.ofMilliseconds(connectTimeout))
+                .setSocketTimeout(Timeout.ofMilliseconds(readTimeout))
+                .setTimeToLive(TimeValue.ofMilliseconds(timeToLive))
+                .setValidateAfterInactivity(TimeValue.ofSeconds(10))
+                .build());
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, METRICS_PREFIX).bindTo(meterRegistry);
+        return connectionManager;
+    }
+
+    @Bean(name = "flexHttpClient", destroyMethod = "close")
+    public CloseableHttpClient flexHttpClient(
+            @Qualifier("flexConnectionManager") PoolingHttpClientConnectionManager connectionManager,
+            @Value("${flexservice.http.connection-request-timeout-ms:10000}") long connectionRequestTimeout,
+            @Value("${flexservice.http.read-timeout-ms:60000}") long readTimeout,
+            @Value("${flexservice.http.keep-alive-ms:30000}") long keepAlive,
+            @Value("${flexservice.http.evict-idle-after-ms:30000}") long evictIdleAfter,
+            @Value("${flexservice.http.compression:true}") boolean compression,
+            ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        MeterRegistry meterRegistry = meterRegistryProvider.getIfAvailable(CompositeMeterRegistry::new);
+        LongTaskTimer inFlightTimer = LongTaskTimer.builder(METRICS_PREFIX + ".requests.in-flight")
+                .description("Requests sent to the flex web service and waiting for a response")
+                .register(meterRegistry);
+
+        TimeValue maxKeepAlive = TimeValue.ofMilliseconds(keepAlive);
+        HttpClientBuilder builder = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setRequestExecutor(new InFlightRequestExecutor(inFlightTimer))
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(connectionRequestTimeout))
+                        .setResponseTimeout(Timeout.ofMilliseconds(readTimeout))
+                        .build())
+                // keep connections alive as long as the server allows, but not longer than the configured time
+                .setKeepAliveStrategy((response, context) -> DefaultConnectionKeepAliveStrategy.INSTANCE
+                        .getKeepAliveDuration(response, context).min(maxKeepAlive))
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(evictIdleAfter));
+        if (!compression) {
+            builder.disableContentCompression();
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,20 @@
+package com.marcomarchionni.strategistapi.config;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+public class FlexLocalDateDeserializer extends StdDeserializer<LocalDate> {
+
+    public FlexLocalDateDeserializer() {
+        super(LocalDate.class);
+    }
+
+    @Override
+    public LocalDate deserialize(JsonParser parser, DeserializationContext deserializationContext) throws IOException {
+        return FlexDateTimeParser.parseDate(parser, deserializationContext);
+    }
+}
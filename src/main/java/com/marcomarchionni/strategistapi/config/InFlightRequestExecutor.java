@@ -0,0 +1,36 @@
+package com.marcomarchionni.strategistapi.config;
+
+import io.micrometer.core.instrument.LongTaskTimer;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.HttpException;
+import org.apache.hc.core5.http.impl.io.HttpRequestExecutor;
+import org.apache.hc.core5.http.io.HttpClientConnection;
+import org.apache.hc.core5.http.io.HttpResponseInformationCallback;
+import org.apache.hc.core5.http.protocol.HttpContext;
+
+import java.io.IOException;
+
+/**
+ * Request executor that tracks the requests waiting for a response.
+ */
+class InFlightRequestExecutor extends HttpRequestExecutor {
+
+    private final LongTaskTimer inFlightTimer;
+
+    InFlightRequestExecutor(LongTaskTimer inFlightTimer) {
+        this.inFlightTimer = inFlightTimer;
+    }
+
+    @Override
+    public ClassicHttpResponse execute(ClassicHttpRequest request, HttpClientConnection conn,
+                                       HttpResponseInformationCallback informationCallback, HttpContext context)
+            throws IOException, HttpException {
+        LongTaskTimer.Sample sample = inFlightTimer.start();
+        try {
+            return super.execute(request, conn, informationCallback, context);
+        } finally {
+            sample.stop();
+        }
+    }
+}
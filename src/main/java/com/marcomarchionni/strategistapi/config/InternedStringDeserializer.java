@@ -0,0 +1,30 @@
+package com.marcomarchionni.strategistapi.config;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StringDeserializer;
+import com.marcomarchionni.strategistapi.services.util.FlexStrings;
+
+import java.io.IOException;
+
+/**
+ * Reads a string value and returns its instance from the {@link FlexStrings} intern table of the parse. Readers
+ * share a table between calls through the FlexStrings attribute, otherwise each call gets its own.
+ */
+public class InternedStringDeserializer extends StdScalarDeserializer<String> {
+
+    public InternedStringDeserializer() {
+        super(String.class);
+    }
+
+    @Override
+    public String deserialize(JsonParser parser, DeserializationContext deserializationContext) throws IOException {
+        FlexStrings strings = (FlexStrings) deserializationContext.getAttribute(FlexStrings.class);
+        if (strings == null) {
+            strings = new FlexStrings();
+            deserializationContext.setAttribute(FlexStrings.class, strings);
+        }
+        return strings.intern(StringDeserializer.instance.deserialize(parser, deserializationContext));
+    }
+}
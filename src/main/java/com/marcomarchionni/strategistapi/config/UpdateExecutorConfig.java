@@ -0,0 +1,54 @@
+package com.marcomarchionni.strategistapi.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+@Configuration
+public class UpdateExecutorConfig {
+
+    @Bean(name = "flexReaderExecutor")
+    public ThreadPoolTaskExecutor flexReaderExecutor(@Value("${update.pipeline.reader-threads:4}") int readerThreads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(readerThreads);
+        executor.setMaxPoolSize(readerThreads);
+        // Updates waiting for a reader would keep their transaction open, they are rejected instead
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("flex-reader-");
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean(name = "updateJobExecutor")
+    public ThreadPoolTaskExecutor updateJobExecutor(@Value("${update.jobs.threads:2}") int threads,
+                                                    @Value("${update.jobs.queue-capacity:20}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("update-job-");
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean(name = "flexPollingScheduler")
+    public ThreadPoolTaskScheduler flexPollingScheduler(@Value("${flexservice.poll.threads:1}") int threads) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(threads);
+        scheduler.setThreadNamePrefix("flex-poll-");
+        scheduler.initialize();
+        return scheduler;
+    }
+
+    @Bean(name = "flexRequestExecutor")
+    public ThreadPoolTaskExecutor flexRequestExecutor(@Value("${flexservice.poll.request-threads:8}") int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix("flex-request-");
+        executor.initialize();
+        return executor;
+    }
+}
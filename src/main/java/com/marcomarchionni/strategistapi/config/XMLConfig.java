@@ -5,18 +5,18 @@ import com.fasterxml.jackson.dataformat.xml.JacksonXmlModule;
 import com.fasterxml.jackson.dataformat.xml.XmlMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
-import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
-import org.springframework.http.converter.xml.MappingJackson2XmlHttpMessageConverter;
-import org.springframework.retry.annotation.EnableRetry;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Configuration
-@EnableRetry
+@Import(FlexHttpClientConfig.class)
 public class XMLConfig {
 
     @Bean(name = "XmlMapper")
@@ -25,8 +25,9 @@ public class XMLConfig {
         xmlModule.setDefaultUseWrapper(false);
         XmlMapper xmlMapper = new XmlMapper(xmlModule);
 
-        // configure and register JavaTimeModule
+        // configure and register JavaTimeModule, flex dates are read by the fixed-width parsers
         JavaTimeModule javaTimeModule = new JavaTimeModule();
+        javaTimeModule.addDeserializer(LocalDate.class, new FlexLocalDateDeserializer());
         javaTimeModule.addDeserializer(LocalDateTime.class, new CustomLocalDateTimeDeserializer());
         xmlMapper.registerModule(javaTimeModule);
 
@@ -35,15 +36,13 @@ public class XMLConfig {
     }
 
     @Bean(name = "XmlRestTemplate")
-    public RestTemplate xmlRestTemplate(XmlMapper xmlMapper) {
-        CloseableHttpClient httpClient = HttpClients.createDefault();
+    public RestTemplate xmlRestTemplate(XmlMapper xmlMapper,
+                                        @Qualifier("flexHttpClient") CloseableHttpClient httpClient) {
         RestTemplate restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
 
         // Add custom xml message converter to the rest template
-        MappingJackson2XmlHttpMessageConverter mappingJackson2XmlHttpMessageConverter =
-                new MappingJackson2XmlHttpMessageConverter(xmlMapper);
         restTemplate.getMessageConverters().clear();
-        restTemplate.getMessageConverters().add(mappingJackson2XmlHttpMessageConverter);
+        restTemplate.getMessageConverters().add(new DigestingXmlHttpMessageConverter(xmlMapper));
 
         return restTemplate;
     }
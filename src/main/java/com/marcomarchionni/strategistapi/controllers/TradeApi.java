@@ -9,12 +9,16 @@ import io.swagger.v3.oas.annotations.enums.ParameterIn;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 
+import java.io.IOException;
 import java.util.List;
 
 @Tag(name = "4. Trades", description = "List trades or assign them to a strategy")
@@ -22,8 +26,33 @@ import java.util.List;
 @SecurityRequirement(name = "bearerAuth")
 public interface TradeApi {
 
+    String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     @GetMapping
-    @Operation(summary = "Find trades by filter",
+    @Operation(summary = "Find trades by filter, ordered by trade date. All the matching trades are returned " +
+            "unless a limit or a cursor is sent: then a page is returned and, when more trades match the filter, the " +
+            "cursor of the next page is returned in the X-Next-Cursor header",
+            parameters = {
+                    @Parameter(name = "tradeDateAfter", description = "Trade date after", example = "2021-01-01", in
+                            = ParameterIn.QUERY, schema = @Schema(type = "string", format = "date")),
+                    @Parameter(name = "tradeDateBefore", description = "Trade date before", example = "2024-02-02",
+                            in = ParameterIn.QUERY, schema = @Schema(type = "string", format = "date")),
+                    @Parameter(name = "tagged", description = "Trade assigned to a strategy", example = "false", in =
+                            ParameterIn.QUERY, schema = @Schema(type = "boolean")),
+                    @Parameter(name = "symbol", description = "Symbol", example = "AAPL", in = ParameterIn.QUERY,
+                            schema = @Schema(type = "string")),
+                    @Parameter(name = "assetCategory", description = "Asset category. Allowed values: STK, OPT, FUT, " +
+                            "CASH", example = "STK", in = ParameterIn.QUERY, schema = @Schema(type = "string")),
+                    @Parameter(name = "cursor", description = "Cursor of the page", in = ParameterIn.QUERY,
+                            schema = @Schema(type = "string")),
+                    @Parameter(name = "limit", description = "Maximum number of trades of the page", example = "100",
+                            in = ParameterIn.QUERY, schema = @Schema(type = "integer"))
+            })
+    @Parameter(name = "tradeFind", hidden = true)
+    ResponseEntity<List<TradeSummary>> findByFilter(@Valid TradeFind tradeFind);
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream all the trades matching the filter as newline delimited json, ordered by trade date",
             parameters = {
                     @Parameter(name = "tradeDateAfter", description = "Trade date after", example = "2021-01-01", in
                             = ParameterIn.QUERY, schema = @Schema(type = "string", format = "date")),
@@ -37,7 +66,8 @@ public interface TradeApi {
                             "CASH", example = "STK", in = ParameterIn.QUERY, schema = @Schema(type = "string"))
             })
     @Parameter(name = "tradeFind", hidden = true)
-    List<TradeSummary> findByFilter(@Valid TradeFind tradeFind);
+    void streamByFilter(@Valid TradeFind tradeFind, @Parameter(hidden = true) HttpServletResponse response)
+            throws IOException;
 
     @PutMapping
     @Operation(summary = "Assign a trade to a strategy. If strategyId is null, the trade will be unassigned from any " +
@@ -1,14 +1,22 @@
 package com.marcomarchionni.strategistapi.controllers;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.marcomarchionni.strategistapi.dtos.request.StrategyAssign;
 import com.marcomarchionni.strategistapi.dtos.request.TradeFind;
+import com.marcomarchionni.strategistapi.dtos.response.TradePage;
 import com.marcomarchionni.strategistapi.dtos.response.TradeSummary;
 import com.marcomarchionni.strategistapi.services.TradeService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @RestController
@@ -16,12 +24,36 @@ import java.util.List;
 public class TradeController implements TradeApi {
 
     private final TradeService tradeService;
+    private final ObjectMapper objectMapper;
 
-    public List<TradeSummary> findByFilter(@Valid TradeFind tradeFind) {
-        return tradeService.findByFilter(tradeFind);
+    public ResponseEntity<List<TradeSummary>> findByFilter(@Valid TradeFind tradeFind) {
+        TradePage page = tradeService.findByFilter(tradeFind);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getTrades());
+    }
+
+    public void streamByFilter(@Valid TradeFind tradeFind, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        // Each trade is written as soon as it is read, one json object per line
+        try (JsonGenerator generator = objectMapper.createGenerator(response.getOutputStream())) {
+            generator.setRootValueSeparator(null);
+            tradeService.streamByFilter(tradeFind, trade -> writeLine(generator, trade));
+        }
     }
 
     public TradeSummary updateStrategyId(@RequestBody @Valid StrategyAssign strategyAssign) {
         return tradeService.updateStrategyId(strategyAssign);
     }
+
+    private static void writeLine(JsonGenerator generator, TradeSummary trade) {
+        try {
+            generator.writeObject(trade);
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
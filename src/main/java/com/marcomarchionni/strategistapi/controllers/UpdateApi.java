@@ -2,16 +2,18 @@ package com.marcomarchionni.strategistapi.controllers;
 
 import com.marcomarchionni.strategistapi.dtos.request.UpdateContext;
 import com.marcomarchionni.strategistapi.dtos.response.update.CombinedUpdateReport;
+import com.marcomarchionni.strategistapi.dtos.response.update.UpdateJobStatus;
 import io.swagger.v3.oas.annotations.Hidden;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import org.springframework.web.bind.annotation.PostMapping;
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.InputStream;
+
 @Tag(name = "1. Update", description = "Load trading data from an external source")
 @RequestMapping("/update")
 @SecurityRequirement(name = "bearerAuth")
@@ -39,4 +41,56 @@ public interface UpdateApi {
             @RequestParam("sourceType") UpdateContext.SourceType sourceType,
             @RequestParam(value = "queryId", required = false) String queryId,
             @RequestParam(value = "token", required = false) String token) throws Exception;
+
+    @PostMapping(value = "/upload", consumes = {"application/xml", "text/xml", "application/gzip", "application/zip",
+            "application/octet-stream"})
+    @Operation(summary = "Update data from a flex query xml file sent as the request body",
+            description = "The file can be gzip or zip compressed. Larger files than the multipart upload are " +
+                    "accepted, they are read as a stream and never held in memory as a whole.")
+    CombinedUpdateReport updateWithUpload(
+            @Parameter(description = "Name of the uploaded file")
+            @RequestParam(value = "filename", required = false) String filename,
+            @Parameter(hidden = true) InputStream body) throws Exception;
+
+    @PostMapping(value = "/jobs", consumes = {"multipart/form-data"})
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    @Operation(summary = "Start an update job in the background",
+            description = "Returns immediately with the job id. If an update is already running for the user's " +
+                    "account, the running job is returned instead.")
+    UpdateJobStatus submitJobWithFile(
+            @Parameter(description =
+                    "SERVER: fetch data online from Interactive Brokers WebFlexService, " +
+                            "FILE: fetch data from a flex query xml file, " +
+                            "SAMPLEDATA: fetch sample data for testing purposes."
+            )
+            @RequestParam("sourceType") UpdateContext.SourceType sourceType,
+            @Parameter(description = "Flex Query xml file generated from an Interactive Brokers user's account " +
+                    "(ignored if sourceType is not FILE)")
+            @RequestParam(value = "file", required = false) MultipartFile file,
+            @Parameter(description = "Query id (ignored if sourceType is not SERVER)")
+            @RequestParam(value = "queryId", required = false) String queryId,
+            @Parameter(description = "Token (ignored if sourceType is not SERVER)")
+            @RequestParam(value = "token", required = false) String token) throws Exception;
+
+    @PostMapping("/jobs")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    @Hidden
+    UpdateJobStatus submitJobWithoutFile(
+            @RequestParam("sourceType") UpdateContext.SourceType sourceType,
+            @RequestParam(value = "queryId", required = false) String queryId,
+            @RequestParam(value = "token", required = false) String token) throws Exception;
+
+    @PostMapping(value = "/jobs/upload", consumes = {"application/xml", "text/xml", "application/gzip",
+            "application/zip", "application/octet-stream"})
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    @Operation(summary = "Start an update job from a flex query xml file sent as the request body",
+            description = "The file can be gzip or zip compressed. Returns immediately with the job id.")
+    UpdateJobStatus submitJobWithUpload(
+            @Parameter(description = "Name of the uploaded file")
+            @RequestParam(value = "filename", required = false) String filename,
+            @Parameter(hidden = true) InputStream body) throws Exception;
+
+    @GetMapping("/jobs/{id}")
+    @Operation(summary = "Find the progress and the report of an update job")
+    UpdateJobStatus findJob(@PathVariable String id);
 }
@@ -2,7 +2,11 @@ package com.marcomarchionni.strategistapi.controllers;
 
 import com.marcomarchionni.strategistapi.dtos.request.UpdateContext;
 import com.marcomarchionni.strategistapi.dtos.response.update.CombinedUpdateReport;
+import com.marcomarchionni.strategistapi.dtos.response.update.UpdateJobStatus;
+import com.marcomarchionni.strategistapi.services.UpdateJobService;
 import com.marcomarchionni.strategistapi.services.UpdateOrchestrator;
+import com.marcomarchionni.strategistapi.services.util.FlexUpload;
+import com.marcomarchionni.strategistapi.services.util.FlexUploadReader;
 import com.marcomarchionni.strategistapi.validators.DtoValidator;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.RequestParam;
@@ -10,6 +14,7 @@ import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 
 
 @RestController
@@ -17,7 +22,9 @@ import java.io.IOException;
 public class UpdateController implements UpdateApi {
 
     private final UpdateOrchestrator updateOrchestrator;
+    private final UpdateJobService updateJobService;
     private final DtoValidator<UpdateContext> contextValidator;
+    private final FlexUploadReader flexUploadReader;
 
     public CombinedUpdateReport updateWithFile(
             @RequestParam("sourceType") UpdateContext.SourceType sourceType,
@@ -41,8 +48,63 @@ public class UpdateController implements UpdateApi {
                 .build());
     }
 
+    public CombinedUpdateReport updateWithUpload(String filename, InputStream body) throws Exception {
+        FlexUpload upload = flexUploadReader.read(body, filename);
+        try {
+            return update(UpdateContext.builder()
+                    .sourceType(UpdateContext.SourceType.FILE)
+                    .file(upload)
+                    .build());
+        } finally {
+            upload.delete();
+        }
+    }
+
+    public UpdateJobStatus submitJobWithFile(
+            @RequestParam("sourceType") UpdateContext.SourceType sourceType,
+            @RequestParam(value = "file", required = false) MultipartFile file,
+            @RequestParam(value = "queryId", required = false) String queryId,
+            @RequestParam(value = "token", required = false) String token
+    ) throws Exception {
+        return submitJob(UpdateContext.builder()
+                .sourceType(sourceType)
+                .file(file)
+                .queryId(queryId)
+                .token(token)
+                .build());
+    }
+
+    public UpdateJobStatus submitJobWithoutFile(UpdateContext.SourceType sourceType, String queryId, String token) throws Exception {
+        return submitJob(UpdateContext.builder()
+                .sourceType(sourceType)
+                .queryId(queryId)
+                .token(token)
+                .build());
+    }
+
+    public UpdateJobStatus submitJobWithUpload(String filename, InputStream body) throws Exception {
+        FlexUpload upload = flexUploadReader.read(body, filename);
+        try {
+            return submitJob(UpdateContext.builder()
+                    .sourceType(UpdateContext.SourceType.FILE)
+                    .file(upload)
+                    .build());
+        } finally {
+            upload.delete();
+        }
+    }
+
+    public UpdateJobStatus findJob(String id) {
+        return updateJobService.getStatus(id);
+    }
+
     private CombinedUpdateReport update(UpdateContext context) throws IOException {
         contextValidator.validate(context);
         return updateOrchestrator.update(context);
     }
+
+    private UpdateJobStatus submitJob(UpdateContext context) throws IOException {
+        contextValidator.validate(context);
+        return updateJobService.submit(context);
+    }
 }
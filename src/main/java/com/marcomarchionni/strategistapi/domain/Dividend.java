@@ -11,7 +11,9 @@ import java.time.LocalDate;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity(name = "dividend")
-@Table(name = "dividend", uniqueConstraints = @UniqueConstraint(columnNames = {"action_id", "account_id"}))
+@Table(name = "dividend", uniqueConstraints = @UniqueConstraint(name = "uk_dividend_account_action",
+        columnNames = {"account_id", "action_id"}),
+        indexes = @Index(name = "idx_dividend_account_pay_date", columnList = "account_id, pay_date"))
 public class Dividend implements AccountIdEntity {
 
     @Id
@@ -30,7 +32,7 @@ public class Dividend implements AccountIdEntity {
 
     @ToString.Exclude
     @EqualsAndHashCode.Exclude
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "dividend_strategy_id")
     private Strategy strategy;
 
@@ -14,6 +14,8 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity(name="flex_statement")
+@Table(name = "flex_statement", indexes = @Index(name = "idx_flex_statement_account_to_date",
+        columnList = "account_id, to_date"))
 public class FlexStatement implements AccountIdEntity {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -34,4 +36,12 @@ public class FlexStatement implements AccountIdEntity {
 
     @Column(name="when_generated")
     private LocalDateTime whenGenerated;
+
+    // Whether the statement holds all the trades and closed dividends of its period, only those periods
+    // are skipped by the delta updates
+    @Column(name="trades_included")
+    private Boolean tradesIncluded;
+
+    @Column(name="dividends_included")
+    private Boolean dividendsIncluded;
 }
@@ -14,7 +14,7 @@ import java.util.List;
 @Entity(name="portfolio")
 @Table(
         name = "portfolio",
-        uniqueConstraints = @UniqueConstraint(columnNames = {"name", "account_id"})
+        uniqueConstraints = @UniqueConstraint(name = "uk_portfolio_account_name", columnNames = {"account_id", "name"})
 )
 public class Portfolio implements AccountIdEntity {
 
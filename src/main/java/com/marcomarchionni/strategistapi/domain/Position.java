@@ -12,6 +12,8 @@ import java.time.LocalDate;
 @AllArgsConstructor
 
 @Entity(name = "position")
+@Table(name = "position", uniqueConstraints = @UniqueConstraint(name = "uk_position_account_con",
+        columnNames = {"account_id", "con_id"}))
 public class Position implements AccountIdEntity {
 
     @Id
@@ -27,7 +29,7 @@ public class Position implements AccountIdEntity {
 
     @ToString.Exclude
     @EqualsAndHashCode.Exclude
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name= "position_strategy_id")
     private Strategy strategy;
 
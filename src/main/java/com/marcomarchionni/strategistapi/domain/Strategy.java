@@ -14,7 +14,7 @@ import java.util.List;
 @Entity(name="strategy")
 @Table(
         name = "strategy",
-        uniqueConstraints = @UniqueConstraint(columnNames = {"name", "account_id"})
+        uniqueConstraints = @UniqueConstraint(name = "uk_strategy_account_name", columnNames = {"account_id", "name"})
 )
 public class Strategy implements AccountIdEntity {
 
@@ -28,7 +28,7 @@ public class Strategy implements AccountIdEntity {
 
     @ToString.Exclude
     @EqualsAndHashCode.Exclude
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name= "strategy_portfolio_id")
     private Portfolio portfolio;
 
@@ -12,6 +12,10 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity(name = "trade")
+@Table(name = "trade", indexes = {
+        @Index(name = "idx_trade_account_date", columnList = "account_id, trade_date"),
+        @Index(name = "uk_trade_account_order", columnList = "account_id, ib_order_id", unique = true)
+})
 public class Trade implements AccountIdEntity {
     @Id
     @Column(name = "id")
@@ -32,7 +36,7 @@ public class Trade implements AccountIdEntity {
 
     @ToString.Exclude
     @EqualsAndHashCode.Exclude
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "trade_strategy_id")
     private Strategy strategy;
 
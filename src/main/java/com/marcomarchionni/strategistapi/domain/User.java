@@ -36,6 +36,11 @@ public class User implements UserDetails {
     @Column(name = "role")
     @Enumerated(EnumType.STRING)
     Role role;
+    // Last flex payload saved for the account, written by the ContentHashIndex only
+    @Column(name = "last_payload_hash", length = 64, insertable = false, updatable = false)
+    String lastPayloadHash;
+    @Column(name = "last_payload_report", columnDefinition = "TEXT", insertable = false, updatable = false)
+    String lastPayloadReport;
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
@@ -1,7 +1,10 @@
 package com.marcomarchionni.strategistapi.dtos.flex;
 
-import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.marcomarchionni.strategistapi.config.InternedStringDeserializer;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
@@ -14,8 +17,10 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
+// yyyyMMdd dates and yyyyMMdd;HHmmss timestamps are read by the deserializers registered in XMLConfig,
+// attribute values repeated on every row are interned while read
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class FlexQueryResponseDto implements FlexResponse {
@@ -25,24 +30,50 @@ public class FlexQueryResponseDto implements FlexResponse {
     private String queryName;
     private String type;
 
+    // set when the statement is not available and IB answers with a FlexStatementResponse
+    @JsonProperty("ErrorCode")
+    private String errorCode;
+    @JsonProperty("ErrorMessage")
+    private String errorMessage;
+
+    // SHA-256 of the raw payload, set when the payload is read
+    @JsonIgnore
+    private String contentHash;
+
     @Override
     public boolean isPopulated() {
         return getQueryName() != null && getFlexStatements().getFlexStatement() != null;
     }
 
     @Data
-    @Builder
+    @Builder(toBuilder = true)
     @NoArgsConstructor
     @AllArgsConstructor
     public static class FlexStatements {
-        @NotNull
+        // multi-account exports have one statement per account
+        @NotEmpty
+        @Singular("flexStatement")
         @JsonProperty("FlexStatement")
-        private FlexStatement flexStatement;
+        private List<FlexStatement> flexStatementList;
         private int count;
+
+        // allows non-consecutive elements to be grouped in the same list
+        @SuppressWarnings("unused")
+        public void setFlexStatementList(List<FlexStatement> values) {
+            if (flexStatementList == null) {
+                flexStatementList = new ArrayList<>(values.size());
+            }
+            flexStatementList.addAll(values);
+        }
+
+        @JsonIgnore
+        public FlexStatement getFlexStatement() {
+            return flexStatementList == null || flexStatementList.isEmpty() ? null : flexStatementList.get(0);
+        }
     }
 
     @Data
-    @Builder
+    @Builder(toBuilder = true)
     @NoArgsConstructor
     @AllArgsConstructor
     public static class FlexStatement {
@@ -57,34 +88,35 @@ public class FlexQueryResponseDto implements FlexResponse {
         @JsonProperty("OpenDividendAccruals")
         private OpenDividendAccruals openDividendAccruals;
         @NotNull
+        @JsonDeserialize(using = InternedStringDeserializer.class)
         private String accountId;
-        @JsonFormat(pattern = "yyyyMMdd")
         private LocalDate fromDate;
-        @JsonFormat(pattern = "yyyyMMdd")
         private LocalDate toDate;
         private String period;
         private LocalDateTime whenGenerated;
+        // Set on merged statements whose trades or dividends do not cover the whole period
+        @JsonIgnore
+        private boolean incomplete;
     }
 
     @Data
-    @Builder
+    @Builder(toBuilder = true)
     @NoArgsConstructor
     @AllArgsConstructor
     public static class AccountInformation {
+        @JsonDeserialize(using = InternedStringDeserializer.class)
         private String accountId;
         private String acctAlias;
         private String model;
+        @JsonDeserialize(using = InternedStringDeserializer.class)
         private String currency;
         private String name;
         private String accountType;
         private String customerType;
         private String accountCapabilities;
         private String tradingPermissions;
-        @JsonFormat(pattern = "yyyyMMdd")
         private LocalDate dateOpened;
-        @JsonFormat(pattern = "yyyyMMdd")
         private LocalDate dateFunded;
-        @JsonFormat(pattern = "yyyyMMdd")
         private LocalDate dateClosed;
         private String street;
         private String street2;
@@ -119,15 +151,18 @@ public class FlexQueryResponseDto implements FlexResponse {
     }
 
     @Data
-    @Builder
+    @Builder(toBuilder = true)
     @NoArgsConstructor
     @AllArgsConstructor
     public static class OpenPosition {
+        @JsonDeserialize(using = InternedStringDeserializer.class)
         private String accountId;
         private String acctAlias;
         private String model;
+        @JsonDeserialize(using = InternedStringDeserializer.class)
         private String currency;
         private BigDecimal fxRateToBase;
+        @JsonDeserialize(using = InternedStringDeserializer.class)
         private String assetCategory;
         private String symbol;
         private String description;
@@ -141,10 +176,9 @@ public class FlexQueryResponseDto implements FlexResponse {
         private String issuer;
         private int multiplier;
         private BigDecimal strike;
-        @JsonFormat(pattern = "yyyyMMdd")
         private LocalDate expiry;
+        @JsonDeserialize(using = InternedStringDeserializer.class)
         private String putCall;
-        @JsonFormat(pattern = "yyyyMMdd")
         private LocalDate reportDate;
         private BigDecimal position;
         private BigDecimal markPrice;
@@ -155,9 +189,11 @@ public class FlexQueryResponseDto implements FlexResponse {
         private BigDecimal percentOfNAV;
         private BigDecimal fifoPnlUnrealized;
         private String side;
+        @JsonDeserialize(using = InternedStringDeserializer.class)
         private String levelOfDetail;
         private LocalDateTime openDateTime;
         private String holdingPeriodDateTime;
+        @JsonDeserialize(using = InternedStringDeserializer.class)
         private String code;
         private String originatingOrderID;
         private String originatingTransactionID;
@@ -166,7 +202,6 @@ public class FlexQueryResponseDto implements FlexResponse {
         private String listingExchange;
         private String underlyingSecurityID;
         private String underlyingListingExchange;
-        @JsonFormat(pattern = "yyyyMMdd")
         private LocalDate vestingDate;
         private String serialNumber;
         private String deliveryType;
@@ -202,15 +237,18 @@ public class FlexQueryResponseDto implements FlexResponse {
 
 
     @Data
-    @Builder
+    @Builder(toBuilder = true)
     @NoArgsConstructor
     @AllArgsConstructor
     public static class Trade {
+        @JsonDeserialize(using = InternedStringDeserializer.class)
         private String accountId;
         private String acctAlias;
         private String model;
+        @JsonDeserialize(using = InternedStringDeserializer.class)
         private String currency;
         private BigDecimal fxRateToBase;
+        @JsonDeserialize(using = InternedStringDeserializer.class)
         private String assetCategory;
         private String symbol;
         private String description;
@@ -224,15 +262,12 @@ public class FlexQueryResponseDto implements FlexResponse {
         private String issuer;
         private int multiplier;
         private BigDecimal strike;
-        @JsonFormat(pattern = "yyyyMMdd")
         private LocalDate expiry;
+        @JsonDeserialize(using = InternedStringDeserializer.class)
         private String putCall;
         private Long tradeID;
-        @JsonFormat(pattern = "yyyyMMdd")
         private LocalDate reportDate;
-        @JsonFormat(pattern = "yyyyMMdd")
         private LocalDate tradeDate;
-        @JsonFormat(pattern = "yyyyMMdd")
         private LocalDate settleDateTarget;
         private String transactionType;
         private String exchange;
@@ -250,12 +285,12 @@ public class FlexQueryResponseDto implements FlexResponse {
         private BigDecimal fifoPnlRealized;
         private BigDecimal mtmPnl;
         private BigDecimal origTradePrice;
-        @JsonFormat(pattern = "yyyyMMdd")
         private LocalDate origTradeDate;
         private String origTradeID;
         private String origOrderID;
         private String clearingFirmID;
         private String transactionID;
+        @JsonDeserialize(using = InternedStringDeserializer.class)
         private String buySell;
         private String ibOrderID;
         private String ibExecID;
@@ -269,6 +304,7 @@ public class FlexQueryResponseDto implements FlexResponse {
         private LocalDateTime holdingPeriodDateTime;
         private String whenRealized;
         private String whenReopened;
+        @JsonDeserialize(using = InternedStringDeserializer.class)
         private String levelOfDetail;
         private BigDecimal changeInPrice;
         private BigDecimal changeInQuantity;
@@ -291,15 +327,18 @@ public class FlexQueryResponseDto implements FlexResponse {
     }
 
     @Data
-    @Builder
+    @Builder(toBuilder = true)
     @NoArgsConstructor
     @AllArgsConstructor
     public static class Order {
+        @JsonDeserialize(using = InternedStringDeserializer.class)
         private String accountId;
         private String acctAlias;
         private String model;
+        @JsonDeserialize(using = InternedStringDeserializer.class)
         private String currency;
         private BigDecimal fxRateToBase;
+        @JsonDeserialize(using = InternedStringDeserializer.class)
         private String assetCategory;
         private String symbol;
         private String description;
@@ -313,15 +352,12 @@ public class FlexQueryResponseDto implements FlexResponse {
         private String issuer;
         private int multiplier;
         private BigDecimal strike;
-        @JsonFormat(pattern = "yyyyMMdd")
         private LocalDate expiry;
+        @JsonDeserialize(using = InternedStringDeserializer.class)
         private String putCall;
         private Long tradeID;
-        @JsonFormat(pattern = "yyyyMMdd")
         private LocalDate reportDate;
-        @JsonFormat(pattern = "yyyyMMdd")
         private LocalDate tradeDate;
-        @JsonFormat(pattern = "yyyyMMdd")
         private LocalDate settleDateTarget;
         private String transactionType;
         private String exchange;
@@ -339,12 +375,12 @@ public class FlexQueryResponseDto implements FlexResponse {
         private BigDecimal fifoPnlRealized;
         private BigDecimal mtmPnl;
         private BigDecimal origTradePrice;
-        @JsonFormat(pattern = "yyyyMMdd")
         private LocalDate origTradeDate;
         private String origTradeID;
         private String origOrderID;
         private String clearingFirmID;
         private String transactionID;
+        @JsonDeserialize(using = InternedStringDeserializer.class)
         private String buySell;
         private Long ibOrderID;
         private String ibExecID;
@@ -358,6 +394,7 @@ public class FlexQueryResponseDto implements FlexResponse {
         private LocalDateTime holdingPeriodDateTime;
         private String whenRealized;
         private String whenReopened;
+        @JsonDeserialize(using = InternedStringDeserializer.class)
         private String levelOfDetail;
         private BigDecimal changeInPrice;
         private BigDecimal changeInQuantity;
@@ -394,14 +431,17 @@ public class FlexQueryResponseDto implements FlexResponse {
         }
     }
     @Data
-    @SuperBuilder
+    @SuperBuilder(toBuilder = true)
     @NoArgsConstructor
     public static abstract class DividendAccrual {
+        @JsonDeserialize(using = InternedStringDeserializer.class)
         private String accountId;
         private String acctAlias;
         private String model;
+        @JsonDeserialize(using = InternedStringDeserializer.class)
         private String currency;
         private BigDecimal fxRateToBase;
+        @JsonDeserialize(using = InternedStringDeserializer.class)
         private String assetCategory;
         private String symbol;
         private String description;
@@ -415,12 +455,10 @@ public class FlexQueryResponseDto implements FlexResponse {
         private String issuer;
         private int multiplier;
         private BigDecimal strike;
-        @JsonFormat(pattern = "yyyyMMdd")
         private LocalDate expiry;
+        @JsonDeserialize(using = InternedStringDeserializer.class)
         private String putCall;
-        @JsonFormat(pattern = "yyyyMMdd")
         private LocalDate exDate;
-        @JsonFormat(pattern = "yyyyMMdd")
         private LocalDate payDate;
         private BigDecimal quantity;
         private BigDecimal tax;
@@ -428,6 +466,7 @@ public class FlexQueryResponseDto implements FlexResponse {
         private BigDecimal grossRate;
         private BigDecimal grossAmount;
         private BigDecimal netAmount;
+        @JsonDeserialize(using = InternedStringDeserializer.class)
         private String code;
         private String fromAcct;
         private String toAcct;
@@ -445,13 +484,12 @@ public class FlexQueryResponseDto implements FlexResponse {
     }
     @EqualsAndHashCode(callSuper = true)
     @Data
-    @SuperBuilder
+    @SuperBuilder(toBuilder = true)
     @NoArgsConstructor
     public static class ChangeInDividendAccrual extends DividendAccrual {
-        @JsonFormat(pattern = "yyyyMMdd")
         private LocalDate date;
-        @JsonFormat(pattern = "yyyyMMdd")
         private LocalDate reportDate;
+        @JsonDeserialize(using = InternedStringDeserializer.class)
         private String levelOfDetail;
 
     }
@@ -471,13 +509,30 @@ public class FlexQueryResponseDto implements FlexResponse {
     }
     @EqualsAndHashCode(callSuper = true)
     @Data
-    @SuperBuilder
+    @SuperBuilder(toBuilder = true)
     @NoArgsConstructor
     public static class OpenDividendAccrual extends DividendAccrual {
 
     }
 
     // helper methods to avoid null checks
+    /**
+     * Splits a multi-statement response in responses of one statement each.
+     */
+    public List<FlexQueryResponseDto> splitByFlexStatement() {
+        List<FlexStatement> statements = Optional.ofNullable(flexStatements)
+                .map(FlexStatements::getFlexStatementList)
+                .orElse(Collections.emptyList());
+        if (statements.size() <= 1) {
+            return List.of(this);
+        }
+        return statements.stream()
+                .map(statement -> toBuilder()
+                        .flexStatements(FlexStatements.builder().flexStatement(statement).count(1).build())
+                        .build())
+                .toList();
+    }
+
     public FlexQueryResponseDto.FlexStatement nullSafeGetFlexStatement() {
         return Optional.ofNullable(flexStatements)
                 .map(FlexStatements::getFlexStatement)
@@ -2,4 +2,8 @@ package com.marcomarchionni.strategistapi.dtos.flex;
 
 public interface FlexResponse {
     boolean isPopulated();
+
+    String getErrorCode();
+
+    String getErrorMessage();
 }
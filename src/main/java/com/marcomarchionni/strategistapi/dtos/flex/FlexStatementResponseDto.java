@@ -28,6 +28,12 @@ public class FlexStatementResponseDto implements FlexResponse {
     @JsonProperty("Url")
     private String url;
 
+    @JsonProperty("ErrorCode")
+    private String errorCode;
+
+    @JsonProperty("ErrorMessage")
+    private String errorMessage;
+
     @JacksonXmlProperty(isAttribute = true)
     private String timestamp;
 
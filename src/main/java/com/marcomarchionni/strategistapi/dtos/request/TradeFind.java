@@ -4,6 +4,7 @@ import com.marcomarchionni.strategistapi.validators.AssetCategory;
 import com.marcomarchionni.strategistapi.validators.DateInterval;
 import com.marcomarchionni.strategistapi.validators.NullOrNotBlank;
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -44,4 +45,11 @@ public class TradeFind {
     @AssetCategory
     @Schema(description = "Asset category. Allowed values: STK, OPT, FUT, CASH", example = "STK")
     private String assetCategory;
+
+    @Schema(description = "Cursor of the page, returned by the previous page in the X-Next-Cursor header")
+    private String cursor;
+
+    @Positive
+    @Schema(description = "Maximum number of trades of the page", example = "100")
+    private Integer limit;
 }
@@ -10,6 +10,9 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.Arrays;
+import java.util.List;
+
 @Data
 @Builder
 @NoArgsConstructor
@@ -21,13 +24,25 @@ public class UpdateContext {
             "FILE (fetch data from a flex query xml file), SAMPLEDATA (fetch sample data for testing " +
             "purposes)", example = "SAMPLEDATA")
     SourceType sourceType;
-    @Schema(description = "Query id (ignored if sourceType is not SERVER)")
+    @Schema(description = "Query id, or comma separated query ids of the same account fetched together " +
+            "(ignored if sourceType is not SERVER)", example = "123456,234567")
     String queryId;
     @Schema(description = "Token (ignored if sourceType is not SERVER)")
     String token;
     @Schema(name = "file", description = "File (ignored if sourceType is not FILE)", type = "string", format = "binary")
     MultipartFile file;
 
+    public List<String> getQueryIds() {
+        if (queryId == null) {
+            return List.of();
+        }
+        return Arrays.stream(queryId.split(","))
+                .map(String::trim)
+                .filter(id -> !id.isEmpty())
+                .distinct()
+                .toList();
+    }
+
     public enum SourceType {
         SERVER, FILE, SAMPLEDATA
     }
@@ -0,0 +1,16 @@
+package com.marcomarchionni.strategistapi.dtos.response;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+
+@Builder
+@Getter
+@ToString
+public class TradePage {
+    private final List<TradeSummary> trades;
+    // null on the last page
+    private final String nextCursor;
+}
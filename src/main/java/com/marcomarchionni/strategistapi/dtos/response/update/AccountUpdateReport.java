@@ -0,0 +1,15 @@
+package com.marcomarchionni.strategistapi.dtos.response.update;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+@Builder
+@Getter
+@ToString
+public class AccountUpdateReport {
+    private final String accountId;
+    // null when the statements of the account are rejected
+    private final CombinedUpdateReport report;
+    private final String error;
+}
@@ -8,6 +8,8 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.ToString;
 
+import java.util.List;
+
 @Builder
 @Getter
 @ToString
@@ -16,4 +18,6 @@ public class CombinedUpdateReport {
     private final UpdateReport<TradeSummary> trades;
     private final UpdateReport<PositionSummary> positions;
     private final UpdateReport<DividendSummary> dividends;
+    @Builder.Default
+    private final List<AccountUpdateReport> accounts = List.of();
 }
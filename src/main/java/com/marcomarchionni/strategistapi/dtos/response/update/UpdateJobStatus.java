@@ -0,0 +1,45 @@
+package com.marcomarchionni.strategistapi.dtos.response.update;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.http.ProblemDetail;
+
+import java.util.Map;
+
+@Builder
+@Getter
+@ToString
+public class UpdateJobStatus {
+    @Schema(description = "Job id", example = "5b0b0a5e-6c1f-4a53-a3a4-3f4a8f3a2b1c")
+    private final String id;
+    @Schema(description = "Account id", example = "U1111111")
+    private final String accountId;
+    @Schema(description = "Job state", example = "RUNNING")
+    private final JobState state;
+    @Schema(description = "Progress of each stage of the update")
+    private final Map<UpdateStage, StageProgress> stages;
+    @Schema(description = "Update report, available when the job is completed")
+    private final CombinedUpdateReport report;
+    @Schema(description = "Error details, available when the job is failed")
+    private final ProblemDetail error;
+
+    public enum JobState {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    public enum StageState {
+        PENDING, RUNNING, COMPLETED
+    }
+
+    @Builder
+    @Getter
+    @ToString
+    public static class StageProgress {
+        @Schema(description = "Stage state", example = "COMPLETED")
+        private final StageState state;
+        @Schema(description = "Rows processed in the stage", example = "500")
+        private final long rows;
+    }
+}
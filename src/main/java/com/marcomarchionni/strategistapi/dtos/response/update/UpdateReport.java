@@ -19,4 +19,7 @@ public class UpdateReport<T> {
     private final List<T> deleted = List.of();
     @Builder.Default
     private final List<T> skipped = List.of();
+    // Rows of a payload identical to the last one saved, which are counted but not listed
+    @Builder.Default
+    private final int unchanged = 0;
 }
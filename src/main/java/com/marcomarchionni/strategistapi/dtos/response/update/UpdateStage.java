@@ -0,0 +1,5 @@
+package com.marcomarchionni.strategistapi.dtos.response.update;
+
+public enum UpdateStage {
+    FETCH, PARSE, POSITIONS, TRADES, DIVIDENDS
+}
@@ -0,0 +1,11 @@
+package com.marcomarchionni.strategistapi.errorhandling.exceptions;
+
+import org.springframework.http.HttpStatus;
+
+public class FlexReadTimeoutException extends CustomException {
+
+    public FlexReadTimeoutException(long timeout) {
+        super("No data read from the flex query in " + timeout + " ms", "Flex query read timeout",
+                HttpStatus.GATEWAY_TIMEOUT);
+    }
+}
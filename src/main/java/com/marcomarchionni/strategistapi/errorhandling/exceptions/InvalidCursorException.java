@@ -0,0 +1,10 @@
+package com.marcomarchionni.strategistapi.errorhandling.exceptions;
+
+import org.springframework.http.HttpStatus;
+
+public class InvalidCursorException extends CustomException {
+
+    public InvalidCursorException(String cursor) {
+        super("Cursor " + cursor + " is not valid", "Invalid cursor", HttpStatus.BAD_REQUEST);
+    }
+}
@@ -0,0 +1,10 @@
+package com.marcomarchionni.strategistapi.errorhandling.exceptions;
+
+import org.springframework.http.HttpStatus;
+
+public class UpdateJobNotFoundException extends CustomException {
+
+    public UpdateJobNotFoundException(String jobId) {
+        super("Update job with id " + jobId + " not found", "Update job not found", HttpStatus.NOT_FOUND);
+    }
+}
@@ -0,0 +1,10 @@
+package com.marcomarchionni.strategistapi.errorhandling.exceptions;
+
+import org.springframework.http.HttpStatus;
+
+public class UpdateJobRejectedException extends CustomException {
+
+    public UpdateJobRejectedException(Exception e) {
+        super("Too many updates in progress, retry later", "Update job rejected", HttpStatus.SERVICE_UNAVAILABLE, e);
+    }
+}
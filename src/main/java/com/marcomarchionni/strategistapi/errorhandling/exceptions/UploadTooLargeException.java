@@ -0,0 +1,10 @@
+package com.marcomarchionni.strategistapi.errorhandling.exceptions;
+
+import org.springframework.http.HttpStatus;
+
+public class UploadTooLargeException extends CustomException {
+
+    public UploadTooLargeException(long maxSize) {
+        super("Uploaded file is larger than " + maxSize + " bytes", "Upload too large", HttpStatus.PAYLOAD_TOO_LARGE);
+    }
+}
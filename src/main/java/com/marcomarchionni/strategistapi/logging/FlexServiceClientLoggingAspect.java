@@ -8,13 +8,13 @@ import static com.marcomarchionni.strategistapi.logging.LoggingUtils.*;
 
 @Aspect
 @Component
-public class FlexServiceClientManagerLoggingAspect {
+public class FlexServiceClientLoggingAspect {
 
-    @Pointcut("execution(* com.marcomarchionni.strategistapi.services.fetchers.flexserviceclientmanagers.*.*(..))")
-    public void flexServiceClientManagers() {
+    @Pointcut("execution(* com.marcomarchionni.strategistapi.services.fetchers.flexserviceclients.*.*(..))")
+    public void flexServiceClients() {
     }
 
-    @Before("flexServiceClientManagers()")
+    @Before("flexServiceClients()")
     public void logMethodCall(JoinPoint joinPoint) {
         String classAndMethodName = getClassAndMethodName(joinPoint);
         String parameterAndValues = getParamNamesAndValues(joinPoint);
@@ -23,14 +23,14 @@ public class FlexServiceClientManagerLoggingAspect {
         logOk("Fetching " + returnTypeName + " from Flex Service");
     }
 
-    @AfterReturning("flexServiceClientManagers()")
+    @AfterReturning("flexServiceClients()")
     public void logMethodReturn(JoinPoint joinPoint) {
         String classAndMethodName = getClassAndMethodName(joinPoint);
         String returnTypeName = getReturnTypeName(joinPoint);
         logReturn(returnTypeName + " returned successfully by " + classAndMethodName);
     }
 
-    @AfterThrowing(value = "flexServiceClientManagers()", throwing = "ex")
+    @AfterThrowing(value = "flexServiceClients()", throwing = "ex")
     public void logMethodException(JoinPoint joinPoint, Exception ex) {
         String classAndMethodName = getClassAndMethodName(joinPoint);
         String message = ex.getMessage();
@@ -1,38 +1,98 @@
 package com.marcomarchionni.strategistapi.mappers;
 
 import com.marcomarchionni.strategistapi.domain.Dividend;
+import com.marcomarchionni.strategistapi.domain.Strategy;
 import com.marcomarchionni.strategistapi.dtos.flex.FlexQueryResponseDto;
 import com.marcomarchionni.strategistapi.dtos.response.DividendSummary;
-import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Component;
 
+import java.math.BigDecimal;
+
 @Component
 public class DividendMapperImpl implements DividendMapper {
 
-    ModelMapper mapper;
-
-    public DividendMapperImpl(ModelMapper mapper) {
-        this.mapper = mapper;
-    }
-
     @Override
     public DividendSummary toDividendSummary(Dividend dividend) {
-        return mapper.map(dividend, DividendSummary.class);
+        Strategy strategy = dividend.getStrategy();
+        return DividendSummary.builder()
+                .id(dividend.getId())
+                .conId(dividend.getConId())
+                .strategyId(strategy != null ? strategy.getId() : null)
+                .strategyName(strategy != null ? strategy.getName() : null)
+                .symbol(dividend.getSymbol())
+                .description(dividend.getDescription())
+                .exDate(dividend.getExDate())
+                .payDate(dividend.getPayDate())
+                .grossRate(dividend.getGrossRate())
+                .quantity(dividend.getQuantity())
+                .grossAmount(dividend.getGrossAmount())
+                .tax(dividend.getTax())
+                .netAmount(dividend.getNetAmount())
+                .openClosed(dividend.getOpenClosed() != null ? dividend.getOpenClosed().name() : null)
+                .build();
     }
 
+    // Id and strategy of the existing dividend are kept
     @Override
     public Dividend mergeFlexProperties(Dividend source, Dividend target) {
-        mapper.map(source, target);
+        target.setConId(source.getConId());
+        target.setAccountId(source.getAccountId());
+        target.setActionId(source.getActionId());
+        target.setSymbol(source.getSymbol());
+        target.setDescription(source.getDescription());
+        target.setExDate(source.getExDate());
+        target.setPayDate(source.getPayDate());
+        target.setGrossRate(source.getGrossRate());
+        target.setQuantity(source.getQuantity());
+        target.setGrossAmount(source.getGrossAmount());
+        target.setTax(source.getTax());
+        target.setNetAmount(source.getNetAmount());
+        target.setOpenClosed(source.getOpenClosed());
         return target;
     }
 
+    // Closed dividends are reported as reversals of the accrual, amounts are stored as positive values
     @Override
     public Dividend toClosedDividend(FlexQueryResponseDto.ChangeInDividendAccrual closedDividendDto) {
-        return mapper.map(closedDividendDto, Dividend.class);
+        return toDividendBuilder(closedDividendDto)
+                .grossAmount(abs(closedDividendDto.getGrossAmount()))
+                .tax(abs(closedDividendDto.getTax()))
+                .netAmount(abs(closedDividendDto.getNetAmount()))
+                .openClosed(Dividend.OpenClosed.CLOSED)
+                .build();
     }
 
     @Override
     public Dividend toOpenDividend(FlexQueryResponseDto.OpenDividendAccrual openDividendDto) {
-        return mapper.map(openDividendDto, Dividend.class);
+        return toDividendBuilder(openDividendDto)
+                .grossAmount(openDividendDto.getGrossAmount())
+                .tax(openDividendDto.getTax())
+                .netAmount(openDividendDto.getNetAmount())
+                .openClosed(Dividend.OpenClosed.OPEN)
+                .build();
+    }
+
+    private static Dividend.DividendBuilder toDividendBuilder(FlexQueryResponseDto.DividendAccrual dividendDto) {
+        return Dividend.builder()
+                .conId(dividendDto.getConid())
+                .accountId(dividendDto.getAccountId())
+                .actionId(parseActionId(dividendDto.getActionID()))
+                .symbol(dividendDto.getSymbol())
+                .description(dividendDto.getDescription())
+                .exDate(dividendDto.getExDate())
+                .payDate(dividendDto.getPayDate())
+                .grossRate(dividendDto.getGrossRate())
+                .quantity(dividendDto.getQuantity());
+    }
+
+    private static Long parseActionId(String actionId) {
+        if (actionId == null || actionId.isBlank()) {
+            return null;
+        }
+        return Long.valueOf(actionId.trim());
+    }
+
+    private static BigDecimal abs(BigDecimal value) {
+        return value == null ? null : value.abs();
     }
 }
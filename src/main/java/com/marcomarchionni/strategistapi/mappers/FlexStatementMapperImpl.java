@@ -2,20 +2,22 @@ package com.marcomarchionni.strategistapi.mappers;
 
 import com.marcomarchionni.strategistapi.domain.FlexStatement;
 import com.marcomarchionni.strategistapi.dtos.flex.FlexQueryResponseDto;
-import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Component;
 
 @Component
 public class FlexStatementMapperImpl implements FlexStatementMapper {
 
-    ModelMapper modelMapper;
-
-    public FlexStatementMapperImpl(ModelMapper modelMapper) {
-        this.modelMapper = modelMapper;
-    }
-
     @Override
     public FlexStatement toFlexStatement(FlexQueryResponseDto.FlexStatement flexStatementDto) {
-        return modelMapper.map(flexStatementDto, FlexStatement.class);
+        return FlexStatement.builder()
+                .accountId(flexStatementDto.getAccountId())
+                .fromDate(flexStatementDto.getFromDate())
+                .toDate(flexStatementDto.getToDate())
+                .period(flexStatementDto.getPeriod())
+                .whenGenerated(flexStatementDto.getWhenGenerated())
+                .tradesIncluded(!flexStatementDto.isIncomplete() && flexStatementDto.getTrades() != null)
+                .dividendsIncluded(!flexStatementDto.isIncomplete() &&
+                        flexStatementDto.getChangeInDividendAccruals() != null)
+                .build();
     }
 }
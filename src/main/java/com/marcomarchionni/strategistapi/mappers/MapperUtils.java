@@ -0,0 +1,22 @@
+package com.marcomarchionni.strategistapi.mappers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+class MapperUtils {
+
+    private MapperUtils() {
+    }
+
+    static <S, D> List<D> mapList(List<S> source, Function<S, D> mapper) {
+        if (source == null) {
+            return null;
+        }
+        List<D> destination = new ArrayList<>(source.size());
+        for (S element : source) {
+            destination.add(mapper.apply(element));
+        }
+        return destination;
+    }
+}
@@ -4,30 +4,43 @@ import com.marcomarchionni.strategistapi.domain.Portfolio;
 import com.marcomarchionni.strategistapi.dtos.request.PortfolioSave;
 import com.marcomarchionni.strategistapi.dtos.response.PortfolioDetail;
 import com.marcomarchionni.strategistapi.dtos.response.PortfolioSummary;
-import org.modelmapper.ModelMapper;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
 @Component
+@RequiredArgsConstructor
 public class PortfolioMapperImpl implements PortfolioMapper {
 
-    ModelMapper modelMapper;
-
-    public PortfolioMapperImpl(ModelMapper modelMapper) {
-        this.modelMapper = modelMapper;
-    }
+    private final StrategyMapper strategyMapper;
 
     @Override
     public PortfolioSummary portfolioToPortfolioSummary(Portfolio portfolio) {
-        return modelMapper.map(portfolio, PortfolioSummary.class);
+        return PortfolioSummary.builder()
+                .id(portfolio.getId())
+                .accountId(portfolio.getAccountId())
+                .createdAt(portfolio.getCreatedAt())
+                .name(portfolio.getName())
+                .description(portfolio.getDescription())
+                .build();
     }
 
     @Override
     public PortfolioDetail toPortfolioDetailDto(Portfolio portfolio) {
-        return modelMapper.map(portfolio, PortfolioDetail.class);
+        return PortfolioDetail.builder()
+                .id(portfolio.getId())
+                .accountId(portfolio.getAccountId())
+                .name(portfolio.getName())
+                .createdAt(portfolio.getCreatedAt() != null ? portfolio.getCreatedAt().toString() : null)
+                .description(portfolio.getDescription())
+                .strategies(MapperUtils.mapList(portfolio.getStrategies(), strategyMapper::toStrategySummaryDto))
+                .build();
     }
 
+    // Id and account of the existing portfolio are kept
     @Override
     public void mergePortfolioSaveToPortfolio(PortfolioSave portfolioSave, Portfolio portfolio) {
-        modelMapper.map(portfolioSave, portfolio);
+        portfolio.setCreatedAt(portfolioSave.getCreatedAt());
+        portfolio.setName(portfolioSave.getName());
+        portfolio.setDescription(portfolioSave.getDescription());
     }
 }
@@ -1,34 +1,80 @@
 package com.marcomarchionni.strategistapi.mappers;
 
 import com.marcomarchionni.strategistapi.domain.Position;
+import com.marcomarchionni.strategistapi.domain.Strategy;
 import com.marcomarchionni.strategistapi.dtos.flex.FlexQueryResponseDto;
 import com.marcomarchionni.strategistapi.dtos.response.PositionSummary;
-import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Component;
 
 @Component
 public class PositionMapperImpl implements PositionMapper {
 
-    ModelMapper modelMapper;
-
-    public PositionMapperImpl(ModelMapper modelMapper) {
-        this.modelMapper = modelMapper;
-    }
-
     @Override
     public PositionSummary toPositionSummary(Position position) {
-        return modelMapper.map(position, PositionSummary.class);
+        Strategy strategy = position.getStrategy();
+        return PositionSummary.builder()
+                .id(position.getId())
+                .conId(position.getConId())
+                .reportDate(position.getReportDate())
+                .strategyId(strategy != null ? strategy.getId() : null)
+                .strategyName(strategy != null ? strategy.getName() : null)
+                .symbol(position.getSymbol())
+                .description(position.getDescription())
+                .assetCategory(position.getAssetCategory())
+                .putCall(position.getPutCall())
+                .strike(position.getStrike())
+                .expiry(position.getExpiry())
+                .quantity(position.getQuantity())
+                .costBasisPrice(position.getCostBasisPrice())
+                .costBasisMoney(position.getCostBasisMoney())
+                .markPrice(position.getMarkPrice())
+                .multiplier(position.getMultiplier())
+                .positionValue(position.getPositionValue())
+                .fifoPnlUnrealized(position.getFifoPnlUnrealized())
+                .build();
     }
 
     @Override
     public Position toPosition(FlexQueryResponseDto.OpenPosition positionDto) {
-        return modelMapper.map(positionDto, Position.class);
+        return Position.builder()
+                .accountId(positionDto.getAccountId())
+                .conId(positionDto.getConid())
+                .reportDate(positionDto.getReportDate())
+                .symbol(positionDto.getSymbol())
+                .description(positionDto.getDescription())
+                .assetCategory(positionDto.getAssetCategory())
+                .putCall(positionDto.getPutCall())
+                .strike(positionDto.getStrike())
+                .expiry(positionDto.getExpiry())
+                .quantity(positionDto.getPosition())
+                .costBasisPrice(positionDto.getCostBasisPrice())
+                .costBasisMoney(positionDto.getCostBasisMoney())
+                .markPrice(positionDto.getMarkPrice())
+                .multiplier(positionDto.getMultiplier())
+                .positionValue(positionDto.getPositionValue())
+                .fifoPnlUnrealized(positionDto.getFifoPnlUnrealized())
+                .build();
     }
 
+    // Id and strategy of the existing position are kept
     @Override
     public Position mergeFlexProperties(Position source, Position target) {
-        modelMapper.map(source, target);
+        target.setAccountId(source.getAccountId());
+        target.setConId(source.getConId());
+        target.setReportDate(source.getReportDate());
+        target.setSymbol(source.getSymbol());
+        target.setDescription(source.getDescription());
+        target.setAssetCategory(source.getAssetCategory());
+        target.setPutCall(source.getPutCall());
+        target.setStrike(source.getStrike());
+        target.setExpiry(source.getExpiry());
+        target.setQuantity(source.getQuantity());
+        target.setCostBasisPrice(source.getCostBasisPrice());
+        target.setCostBasisMoney(source.getCostBasisMoney());
+        target.setMarkPrice(source.getMarkPrice());
+        target.setMultiplier(source.getMultiplier());
+        target.setPositionValue(source.getPositionValue());
+        target.setFifoPnlUnrealized(source.getFifoPnlUnrealized());
         return target;
     }
 }
-
@@ -5,17 +5,16 @@ import com.marcomarchionni.strategistapi.domain.Strategy;
 import com.marcomarchionni.strategistapi.dtos.request.StrategyCreate;
 import com.marcomarchionni.strategistapi.dtos.response.StrategyDetail;
 import com.marcomarchionni.strategistapi.dtos.response.StrategySummary;
-import org.modelmapper.ModelMapper;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
 @Component
+@RequiredArgsConstructor
 public class StrategyMapperImpl implements StrategyMapper {
 
-    ModelMapper modelMapper;
-
-    public StrategyMapperImpl(ModelMapper modelMapper) {
-        this.modelMapper = modelMapper;
-    }
+    private final TradeMapper tradeMapper;
+    private final PositionMapper positionMapper;
+    private final DividendMapper dividendMapper;
 
     @Override
     public Strategy toEntity(StrategyCreate strategyCreate) {
@@ -25,11 +24,28 @@ public class StrategyMapperImpl implements StrategyMapper {
 
     @Override
     public StrategySummary toStrategySummaryDto(Strategy strategy) {
-        return modelMapper.map(strategy, StrategySummary.class);
+        Portfolio portfolio = strategy.getPortfolio();
+        return StrategySummary.builder()
+                .id(strategy.getId())
+                .name(strategy.getName())
+                .portfolioId(portfolio != null ? portfolio.getId() : null)
+                .accountId(strategy.getAccountId())
+                .portfolioName(portfolio != null ? portfolio.getName() : null)
+                .build();
     }
 
     @Override
     public StrategyDetail toStrategyDetailDto(Strategy strategy) {
-        return modelMapper.map(strategy, StrategyDetail.class);
+        Portfolio portfolio = strategy.getPortfolio();
+        return StrategyDetail.builder()
+                .id(strategy.getId())
+                .name(strategy.getName())
+                .portfolioId(portfolio != null ? portfolio.getId() : null)
+                .portfolioName(portfolio != null ? portfolio.getName() : null)
+                .accountId(strategy.getAccountId())
+                .trades(MapperUtils.mapList(strategy.getTrades(), tradeMapper::toTradeSummary))
+                .positions(MapperUtils.mapList(strategy.getPositions(), positionMapper::toPositionSummary))
+                .dividends(MapperUtils.mapList(strategy.getDividends(), dividendMapper::toDividendSummary))
+                .build();
     }
 }
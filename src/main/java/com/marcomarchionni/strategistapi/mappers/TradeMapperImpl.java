@@ -1,27 +1,60 @@
 package com.marcomarchionni.strategistapi.mappers;
 
+import com.marcomarchionni.strategistapi.domain.Strategy;
 import com.marcomarchionni.strategistapi.domain.Trade;
 import com.marcomarchionni.strategistapi.dtos.flex.FlexQueryResponseDto;
 import com.marcomarchionni.strategistapi.dtos.response.TradeSummary;
-import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Component;
 
 @Component
 public class TradeMapperImpl implements TradeMapper {
 
-    ModelMapper modelMapper;
-
-    public TradeMapperImpl(ModelMapper modelMapper) {
-        this.modelMapper = modelMapper;
-    }
-
     @Override
     public TradeSummary toTradeSummary(Trade trade) {
-        return modelMapper.map(trade, TradeSummary.class);
+        Strategy strategy = trade.getStrategy();
+        return TradeSummary.builder()
+                .id(trade.getId())
+                .strategyId(strategy != null ? strategy.getId() : null)
+                .strategyName(strategy != null ? strategy.getName() : null)
+                .symbol(trade.getSymbol())
+                .description(trade.getDescription())
+                .assetCategory(trade.getAssetCategory())
+                .multiplier(trade.getMultiplier())
+                .strike(trade.getStrike())
+                .expiry(trade.getExpiry())
+                .putCall(trade.getPutCall())
+                .tradeDate(trade.getTradeDate())
+                .quantity(trade.getQuantity())
+                .tradePrice(trade.getTradePrice())
+                .tradeMoney(trade.getTradeMoney())
+                .fifoPnlRealized(trade.getFifoPnlRealized())
+                .ibCommission(trade.getIbCommission())
+                .buySell(trade.getBuySell())
+                .build();
     }
 
     @Override
     public Trade toTrade(FlexQueryResponseDto.Order orderDto) {
-        return modelMapper.map(orderDto, Trade.class);
+        return Trade.builder()
+                .accountId(orderDto.getAccountId())
+                .tradeId(orderDto.getTradeID())
+                .ibOrderId(orderDto.getIbOrderID())
+                .conId(orderDto.getConid())
+                .symbol(orderDto.getSymbol())
+                .description(orderDto.getDescription())
+                .assetCategory(orderDto.getAssetCategory())
+                .multiplier(orderDto.getMultiplier())
+                .strike(orderDto.getStrike())
+                .expiry(orderDto.getExpiry())
+                .putCall(orderDto.getPutCall())
+                .tradeDate(orderDto.getTradeDate())
+                .dateTime(orderDto.getDateTime())
+                .quantity(orderDto.getQuantity())
+                .tradePrice(orderDto.getTradePrice())
+                .tradeMoney(orderDto.getTradeMoney())
+                .fifoPnlRealized(orderDto.getFifoPnlRealized())
+                .ibCommission(orderDto.getIbCommission())
+                .buySell(orderDto.getBuySell())
+                .build();
     }
 }
@@ -0,0 +1,186 @@
+package com.marcomarchionni.strategistapi.migrations;
+
+import org.flywaydb.core.api.FlywayException;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.*;
+import java.util.*;
+
+/**
+ * Brings the V1 schema up to the entities and adds the indexes leading with account_id, which every repository
+ * query filters on first. Deployed databases have been changed by hand since V1, so nothing is assumed about them:
+ * only the missing tables, columns and indexes are added, and the unique constraints not leading with account_id
+ * are looked up by their columns, whatever their name, and replaced. Rows that a new unique index would reject
+ * fail the migration before anything is changed, since only the user can tell which of them to keep.
+ */
+public class V2__Account_columns_and_indexes extends BaseJavaMigration {
+
+    private static final String CREATE_USER_DETAILS = "CREATE TABLE IF NOT EXISTS `user_details` (" +
+            "`id` BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY, " +
+            "`account_id` VARCHAR(255) NOT NULL, " +
+            "`email` VARCHAR(255) NOT NULL, " +
+            "`first_name` VARCHAR(255), " +
+            "`last_name` VARCHAR(255), " +
+            "`password` VARCHAR(255) NOT NULL, " +
+            "`role` VARCHAR(255), " +
+            "CONSTRAINT `uk_user_details_account` UNIQUE (`account_id`), " +
+            "CONSTRAINT `uk_user_details_email` UNIQUE (`email`))";
+
+    // Columns of the entities missing from the V1 schema
+    private static final List<Column> COLUMNS = List.of(
+            new Column("portfolio", "account_id", "VARCHAR(255)"),
+            new Column("portfolio", "description", "VARCHAR(255)"),
+            new Column("portfolio", "created_at", "DATE"),
+            new Column("strategy", "account_id", "VARCHAR(255)"),
+            new Column("trade", "account_id", "VARCHAR(255)"),
+            new Column("trade", "date_time", "TIMESTAMP(6) NULL"),
+            new Column("position", "account_id", "VARCHAR(255)"),
+            new Column("dividend", "account_id", "VARCHAR(255)"),
+            new Column("dividend", "action_id", "BIGINT"));
+
+    // Tables of the entities with IDENTITY ids
+    private static final List<String> IDENTITY_TABLES = List.of("trade", "position", "dividend");
+
+    private static final List<String> ACCOUNT_TABLES = List.of("portfolio", "strategy", "position", "dividend");
+
+    private static final List<Index> INDEXES = List.of(
+            new Index("trade", "idx_trade_account_date", false, "account_id", "trade_date"),
+            new Index("trade", "uk_trade_account_order", true, "account_id", "ib_order_id"),
+            new Index("position", "uk_position_account_con", true, "account_id", "con_id"),
+            new Index("dividend", "uk_dividend_account_action", true, "account_id", "action_id"),
+            new Index("dividend", "idx_dividend_account_pay_date", false, "account_id", "pay_date"),
+            new Index("strategy", "uk_strategy_account_name", true, "account_id", "name"),
+            new Index("portfolio", "uk_portfolio_account_name", true, "account_id", "name"),
+            new Index("flex_statement", "idx_flex_statement_account_to_date", false, "account_id", "to_date"));
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(CREATE_USER_DETAILS);
+            Map<String, Map<String, Boolean>> columns = autoIncrementByColumn(connection);
+            for (Index index : INDEXES) {
+                if (index.unique() && columns.get(index.table()).keySet().containsAll(List.of(index.columns()))
+                        && !indexNames(connection, index.table()).contains(index.name())) {
+                    failOnDuplicates(connection, index);
+                }
+            }
+            for (Column column : COLUMNS) {
+                if (!columns.get(column.table()).containsKey(column.name())) {
+                    statement.execute("ALTER TABLE `" + column.table() + "` ADD COLUMN `" + column.name() + "` " +
+                            column.definition());
+                }
+            }
+            for (String table : IDENTITY_TABLES) {
+                if (!columns.get(table).get("id")) {
+                    statement.execute("ALTER TABLE `" + table + "` MODIFY `id` BIGINT NOT NULL AUTO_INCREMENT");
+                }
+            }
+            for (String table : ACCOUNT_TABLES) {
+                for (String constraint : uniqueConstraintsNotLeadingWithAccountId(connection, table)) {
+                    statement.execute("ALTER TABLE `" + table + "` DROP CONSTRAINT `" + constraint + "`");
+                }
+            }
+            for (Index index : INDEXES) {
+                if (!indexNames(connection, index.table()).contains(index.name())) {
+                    statement.execute("CREATE " + (index.unique() ? "UNIQUE " : "") + "INDEX `" + index.name() +
+                            "` ON `" + index.table() + "` (`" + String.join("`, `", index.columns()) + "`)");
+                }
+            }
+        }
+    }
+
+    private static void failOnDuplicates(Connection connection, Index index) throws SQLException {
+        String columns = "`" + String.join("`, `", index.columns()) + "`";
+        StringJoiner notNull = new StringJoiner(" AND ");
+        for (String column : index.columns()) {
+            notNull.add("`" + column + "` IS NOT NULL");
+        }
+        List<String> duplicates = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT " + columns + ", COUNT(*) FROM `" + index.table() +
+                     "` WHERE " + notNull + " GROUP BY " + columns + " HAVING COUNT(*) > 1")) {
+            while (rs.next()) {
+                StringJoiner values = new StringJoiner(", ", "(", ")");
+                for (int i = 1; i <= index.columns().length; i++) {
+                    values.add(rs.getString(i));
+                }
+                duplicates.add(values + " x" + rs.getLong(index.columns().length + 1));
+            }
+        }
+        if (!duplicates.isEmpty()) {
+            throw new FlywayException("Cannot create the unique index " + index.name() + ", rows of " +
+                    index.table() + " repeat " + duplicates.size() + " values of (" +
+                    String.join(", ", index.columns()) + "): " +
+                    String.join(", ", duplicates.subList(0, Math.min(10, duplicates.size()))) +
+                    ". Delete the duplicate rows, then repair and migrate again.");
+        }
+    }
+
+    /**
+     * Whether each column is auto-incremented, by lower case table and column names.
+     */
+    private static Map<String, Map<String, Boolean>> autoIncrementByColumn(Connection connection)
+            throws SQLException {
+        Map<String, Map<String, Boolean>> columns = new HashMap<>();
+        try (ResultSet rs = connection.getMetaData().getColumns(connection.getCatalog(), connection.getSchema(),
+                "%", "%")) {
+            while (rs.next()) {
+                columns.computeIfAbsent(rs.getString("TABLE_NAME").toLowerCase(Locale.ROOT), t -> new HashMap<>())
+                        .put(rs.getString("COLUMN_NAME").toLowerCase(Locale.ROOT),
+                                "YES".equals(rs.getString("IS_AUTOINCREMENT")));
+            }
+        }
+        return columns;
+    }
+
+    private static List<String> uniqueConstraintsNotLeadingWithAccountId(Connection connection, String table)
+            throws SQLException {
+        // MySQL reports databases as catalogs, H2 as schemas
+        String schema = connection.getSchema() != null ? connection.getSchema() : connection.getCatalog();
+        List<String> constraints = new ArrayList<>();
+        try (PreparedStatement ps = connection.prepareStatement("SELECT tc.CONSTRAINT_NAME, kcu.COLUMN_NAME " +
+                "FROM INFORMATION_SCHEMA.TABLE_CONSTRAINTS tc JOIN INFORMATION_SCHEMA.KEY_COLUMN_USAGE kcu " +
+                "ON kcu.CONSTRAINT_SCHEMA = tc.CONSTRAINT_SCHEMA AND kcu.CONSTRAINT_NAME = tc.CONSTRAINT_NAME " +
+                "AND kcu.TABLE_NAME = tc.TABLE_NAME " +
+                "WHERE tc.CONSTRAINT_TYPE = 'UNIQUE' AND tc.TABLE_SCHEMA = ? AND LOWER(tc.TABLE_NAME) = ? " +
+                "AND kcu.ORDINAL_POSITION = 1")) {
+            ps.setString(1, schema);
+            ps.setString(2, table);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    if (!"account_id".equalsIgnoreCase(rs.getString("COLUMN_NAME"))) {
+                        constraints.add(rs.getString("CONSTRAINT_NAME"));
+                    }
+                }
+            }
+        }
+        return constraints;
+    }
+
+    /**
+     * Lower case names of the indexes of the table.
+     */
+    private static Set<String> indexNames(Connection connection, String table) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        Set<String> names = new HashSet<>();
+        for (String tableName : Set.of(table, table.toUpperCase(Locale.ROOT))) {
+            try (ResultSet rs = metaData.getIndexInfo(connection.getCatalog(), connection.getSchema(), tableName,
+                    false, true)) {
+                while (rs.next()) {
+                    if (rs.getString("INDEX_NAME") != null) {
+                        names.add(rs.getString("INDEX_NAME").toLowerCase(Locale.ROOT));
+                    }
+                }
+            }
+        }
+        return names;
+    }
+
+    private record Column(String table, String name, String definition) {
+    }
+
+    private record Index(String table, String name, boolean unique, String... columns) {
+    }
+}
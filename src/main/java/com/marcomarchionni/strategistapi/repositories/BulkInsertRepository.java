@@ -0,0 +1,22 @@
+package com.marcomarchionni.strategistapi.repositories;
+
+import com.marcomarchionni.strategistapi.domain.Dividend;
+import com.marcomarchionni.strategistapi.domain.Position;
+import com.marcomarchionni.strategistapi.domain.Trade;
+
+import java.util.List;
+
+/**
+ * Inserts new entities with multi-row JDBC statements. Hibernate can't batch inserts of entities with IDENTITY
+ * ids, it needs the generated id of each row before the next one, so the access services save the lists of new
+ * trades, positions and dividends of an update here and the other lists with the JPA repositories. The generated ids
+ * are set on the given entities, which are returned detached from the persistence context.
+ */
+public interface BulkInsertRepository {
+
+    List<Trade> insertTrades(List<Trade> trades);
+
+    List<Position> insertPositions(List<Position> positions);
+
+    List<Dividend> insertDividends(List<Dividend> dividends);
+}
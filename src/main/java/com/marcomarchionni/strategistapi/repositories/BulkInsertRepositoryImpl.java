@@ -0,0 +1,123 @@
+package com.marcomarchionni.strategistapi.repositories;
+
+import com.marcomarchionni.strategistapi.domain.Dividend;
+import com.marcomarchionni.strategistapi.domain.Position;
+import com.marcomarchionni.strategistapi.domain.Strategy;
+import com.marcomarchionni.strategistapi.domain.Trade;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SqlTypeValue;
+import org.springframework.jdbc.core.StatementCreatorUtils;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+@Repository
+public class BulkInsertRepositoryImpl implements BulkInsertRepository {
+
+    private static final List<String> TRADE_COLUMNS = List.of("account_id", "trade_id", "ib_order_id", "con_id",
+            "trade_strategy_id", "symbol", "description", "asset_category", "multiplier", "strike", "expiry",
+            "put_call", "trade_date", "date_time", "quantity", "trade_price", "trade_money", "fifo_pnl_realized",
+            "ib_commission", "buy_sell");
+
+    private static final List<String> POSITION_COLUMNS = List.of("account_id", "con_id", "position_strategy_id",
+            "report_date", "symbol", "description", "asset_category", "put_call", "strike", "expiry", "quantity",
+            "cost_basis_price", "cost_basis_money", "mark_price", "multiplier", "position_value",
+            "fifo_pnl_unrealized");
+
+    private static final List<String> DIVIDEND_COLUMNS = List.of("con_id", "account_id", "action_id",
+            "dividend_strategy_id", "symbol", "description", "ex_date", "pay_date", "gross_rate", "quantity",
+            "gross_amount", "tax", "net_amount", "open_closed");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    public BulkInsertRepositoryImpl(JdbcTemplate jdbcTemplate, @Value("${update.insert-batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public List<Trade> insertTrades(List<Trade> trades) {
+        return insert("trade", TRADE_COLUMNS, trades, Trade::setId, t -> new Object[]{
+                t.getAccountId(), t.getTradeId(), t.getIbOrderId(), t.getConId(), strategyId(t.getStrategy()),
+                t.getSymbol(), t.getDescription(), t.getAssetCategory(), t.getMultiplier(), t.getStrike(),
+                t.getExpiry(), t.getPutCall(), t.getTradeDate(), t.getDateTime(), t.getQuantity(),
+                t.getTradePrice(), t.getTradeMoney(), t.getFifoPnlRealized(), t.getIbCommission(), t.getBuySell()});
+    }
+
+    @Override
+    public List<Position> insertPositions(List<Position> positions) {
+        return insert("position", POSITION_COLUMNS, positions, Position::setId, p -> new Object[]{
+                p.getAccountId(), p.getConId(), strategyId(p.getStrategy()), p.getReportDate(), p.getSymbol(),
+                p.getDescription(), p.getAssetCategory(), p.getPutCall(), p.getStrike(), p.getExpiry(),
+                p.getQuantity(), p.getCostBasisPrice(), p.getCostBasisMoney(), p.getMarkPrice(),
+                p.getMultiplier(), p.getPositionValue(), p.getFifoPnlUnrealized()});
+    }
+
+    @Override
+    public List<Dividend> insertDividends(List<Dividend> dividends) {
+        return insert("dividend", DIVIDEND_COLUMNS, dividends, Dividend::setId, d -> new Object[]{
+                d.getConId(), d.getAccountId(), d.getActionId(), strategyId(d.getStrategy()), d.getSymbol(),
+                d.getDescription(), d.getExDate(), d.getPayDate(), d.getGrossRate(), d.getQuantity(),
+                d.getGrossAmount(), d.getTax(), d.getNetAmount(),
+                d.getOpenClosed() == null ? null : d.getOpenClosed().name()});
+    }
+
+    private <T> List<T> insert(String table, List<String> columns, List<T> entities, BiConsumer<T, Long> idSetter,
+                               Function<T, Object[]> values) {
+        if (entities.isEmpty()) {
+            return Collections.emptyList();
+        }
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            for (int from = 0; from < entities.size(); from += batchSize) {
+                List<T> batch = entities.subList(from, Math.min(from + batchSize, entities.size()));
+                insertBatch(connection, table, columns, batch, idSetter, values);
+            }
+            return null;
+        });
+        return entities;
+    }
+
+    private <T> void insertBatch(Connection connection, String table, List<String> columns, List<T> batch,
+                                 BiConsumer<T, Long> idSetter, Function<T, Object[]> values) throws SQLException {
+        String sql = insertSql(table, columns, batch.size());
+        try (PreparedStatement ps = connection.prepareStatement(sql, new String[]{"id"})) {
+            int index = 1;
+            for (T entity : batch) {
+                for (Object value : values.apply(entity)) {
+                    StatementCreatorUtils.setParameterValue(ps, index++, SqlTypeValue.TYPE_UNKNOWN, value);
+                }
+            }
+            ps.executeUpdate();
+
+            // Generated keys are returned in the order of the inserted rows
+            try (ResultSet keys = ps.getGeneratedKeys()) {
+                for (T entity : batch) {
+                    if (!keys.next()) {
+                        throw new SQLException("Missing generated id for a row inserted into " + table);
+                    }
+                    idSetter.accept(entity, keys.getLong(1));
+                }
+            }
+        }
+    }
+
+    private static String insertSql(String table, List<String> columns, int rows) {
+        String row = "(" + String.join(",", Collections.nCopies(columns.size(), "?")) + ")";
+        return "INSERT INTO " + table + " (" + String.join(",", columns) + ") VALUES " +
+                String.join(",", Collections.nCopies(rows, row));
+    }
+
+    private static Long strategyId(Strategy strategy) {
+        return strategy == null ? null : strategy.getId();
+    }
+}
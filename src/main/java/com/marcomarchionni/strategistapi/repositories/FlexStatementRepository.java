@@ -4,6 +4,7 @@ import com.marcomarchionni.strategistapi.domain.FlexStatement;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,5 +14,7 @@ public interface FlexStatementRepository extends JpaRepository<FlexStatement, Lo
 
     void deleteByAccountId(String accountId);
 
+    List<FlexStatement> findAllByIdInAndAccountId(Collection<Long> ids, String accountId);
+
     List<FlexStatement> findAllByAccountId(String accountId);
 }
\ No newline at end of file
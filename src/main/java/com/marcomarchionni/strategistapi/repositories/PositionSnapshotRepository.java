@@ -0,0 +1,17 @@
+package com.marcomarchionni.strategistapi.repositories;
+
+import com.marcomarchionni.strategistapi.domain.Position;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Replaces the positions of an account with the snapshot of a flex statement using set-based statements.
+ * Positions are matched on (account_id, con_id), the strategy assigned to a position is kept.
+ */
+public interface PositionSnapshotRepository {
+
+    void upsertPositions(List<Position> positions);
+
+    int deleteMissingPositions(String accountId, Collection<Long> conIds);
+}
@@ -0,0 +1,140 @@
+package com.marcomarchionni.strategistapi.repositories;
+
+import com.marcomarchionni.strategistapi.domain.Position;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SqlTypeValue;
+import org.springframework.jdbc.core.StatementCreatorUtils;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Repository
+public class PositionSnapshotRepositoryImpl implements PositionSnapshotRepository {
+
+    private static final String SNAPSHOT_TABLE = "position_snapshot_con_id";
+
+    private static final List<String> KEY_COLUMNS = List.of("account_id", "con_id");
+
+    // Columns owned by the flex statement, position_strategy_id is managed by the users
+    private static final List<String> FLEX_COLUMNS = List.of("report_date", "symbol", "description",
+            "asset_category", "put_call", "strike", "expiry", "quantity", "cost_basis_price", "cost_basis_money",
+            "mark_price", "multiplier", "position_value", "fifo_pnl_unrealized");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+    private volatile Boolean mySql;
+
+    public PositionSnapshotRepositoryImpl(JdbcTemplate jdbcTemplate,
+                                          @Value("${update.insert-batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void upsertPositions(List<Position> positions) {
+        if (positions.isEmpty()) {
+            return;
+        }
+        boolean useMySqlSyntax = isMySql();
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            for (int from = 0; from < positions.size(); from += batchSize) {
+                List<Position> batch = positions.subList(from, Math.min(from + batchSize, positions.size()));
+                String sql = useMySqlSyntax ? insertOnDuplicateKeyUpdateSql(batch.size()) : mergeSql(batch.size());
+                try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                    int index = 1;
+                    for (Position position : batch) {
+                        for (Object value : valuesOf(position)) {
+                            StatementCreatorUtils.setParameterValue(ps, index++, SqlTypeValue.TYPE_UNKNOWN, value);
+                        }
+                    }
+                    ps.executeUpdate();
+                }
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public int deleteMissingPositions(String accountId, Collection<Long> conIds) {
+        if (conIds.isEmpty()) {
+            return jdbcTemplate.update("DELETE FROM position WHERE account_id = ?", accountId);
+        }
+        // The con ids of the snapshot are staged in a temporary table of the connection, instead of a NOT IN list
+        // as long as the snapshot, and the positions missing from it are deleted with an anti-join
+        String createTable = isMySql() ? "CREATE TEMPORARY TABLE IF NOT EXISTS " + SNAPSHOT_TABLE +
+                " (con_id BIGINT PRIMARY KEY)" : "CREATE LOCAL TEMPORARY TABLE IF NOT EXISTS " + SNAPSHOT_TABLE +
+                " (con_id BIGINT PRIMARY KEY) TRANSACTIONAL";
+        List<Long> snapshotConIds = List.copyOf(new LinkedHashSet<>(conIds));
+        return jdbcTemplate.execute((ConnectionCallback<Integer>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(createTable);
+                statement.executeUpdate("DELETE FROM " + SNAPSHOT_TABLE);
+            }
+            for (int from = 0; from < snapshotConIds.size(); from += batchSize) {
+                List<Long> batch = snapshotConIds.subList(from, Math.min(from + batchSize, snapshotConIds.size()));
+                try (PreparedStatement ps = connection.prepareStatement("INSERT INTO " + SNAPSHOT_TABLE +
+                        " (con_id) VALUES " + String.join(",", Collections.nCopies(batch.size(), "(?)")))) {
+                    for (int i = 0; i < batch.size(); i++) {
+                        ps.setLong(i + 1, batch.get(i));
+                    }
+                    ps.executeUpdate();
+                }
+            }
+            try (PreparedStatement ps = connection.prepareStatement("DELETE FROM position WHERE account_id = ? " +
+                    "AND NOT EXISTS (SELECT 1 FROM " + SNAPSHOT_TABLE + " s WHERE s.con_id = position.con_id)");
+                 Statement statement = connection.createStatement()) {
+                ps.setString(1, accountId);
+                int deleted = ps.executeUpdate();
+                statement.executeUpdate("DELETE FROM " + SNAPSHOT_TABLE);
+                return deleted;
+            }
+        });
+    }
+
+    private static Object[] valuesOf(Position p) {
+        return new Object[]{p.getAccountId(), p.getConId(), p.getReportDate(), p.getSymbol(), p.getDescription(),
+                p.getAssetCategory(), p.getPutCall(), p.getStrike(), p.getExpiry(), p.getQuantity(),
+                p.getCostBasisPrice(), p.getCostBasisMoney(), p.getMarkPrice(), p.getMultiplier(),
+                p.getPositionValue(), p.getFifoPnlUnrealized()};
+    }
+
+    private static String columns() {
+        List<String> columns = new ArrayList<>(KEY_COLUMNS);
+        columns.addAll(FLEX_COLUMNS);
+        return String.join(",", columns);
+    }
+
+    private static String values(int rows) {
+        String row = "(" + String.join(",", Collections.nCopies(KEY_COLUMNS.size() + FLEX_COLUMNS.size(), "?")) + ")";
+        return String.join(",", Collections.nCopies(rows, row));
+    }
+
+    private static String insertOnDuplicateKeyUpdateSql(int rows) {
+        return "INSERT INTO position (" + columns() + ") VALUES " + values(rows) + " ON DUPLICATE KEY UPDATE " +
+                FLEX_COLUMNS.stream().map(column -> column + " = VALUES(" + column + ")")
+                        .collect(Collectors.joining(","));
+    }
+
+    private static String mergeSql(int rows) {
+        return "MERGE INTO position (" + columns() + ") KEY (" + String.join(",", KEY_COLUMNS) + ") VALUES " +
+                values(rows);
+    }
+
+    private boolean isMySql() {
+        if (mySql == null) {
+            String productName = jdbcTemplate.execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            mySql = productName != null && productName.toLowerCase().contains("mysql");
+        }
+        return mySql;
+    }
+}
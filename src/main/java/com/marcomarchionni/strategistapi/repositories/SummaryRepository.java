@@ -0,0 +1,33 @@
+package com.marcomarchionni.strategistapi.repositories;
+
+import com.marcomarchionni.strategistapi.domain.Dividend;
+import com.marcomarchionni.strategistapi.domain.Position;
+import com.marcomarchionni.strategistapi.domain.Trade;
+import com.marcomarchionni.strategistapi.dtos.response.DividendSummary;
+import com.marcomarchionni.strategistapi.dtos.response.PositionSummary;
+import com.marcomarchionni.strategistapi.dtos.response.TradeSummary;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Selects the summaries of the entities matching a specification with criteria queries, the summaries are built
+ * by the query and the strategy is joined in the same statement.
+ */
+public interface SummaryRepository {
+
+    /**
+     * First trades by tradeDate and id.
+     */
+    List<TradeSummary> findTradeSummaries(Specification<Trade> specification, int limit);
+
+    /**
+     * Trades by tradeDate and id, read in fetch size batches. The stream must be closed.
+     */
+    Stream<TradeSummary> streamTradeSummaries(Specification<Trade> specification);
+
+    List<PositionSummary> findPositionSummaries(Specification<Position> specification);
+
+    List<DividendSummary> findDividendSummaries(Specification<Dividend> specification);
+}
@@ -0,0 +1,92 @@
+package com.marcomarchionni.strategistapi.repositories;
+
+import com.marcomarchionni.strategistapi.domain.Dividend;
+import com.marcomarchionni.strategistapi.domain.Position;
+import com.marcomarchionni.strategistapi.domain.Strategy;
+import com.marcomarchionni.strategistapi.domain.Trade;
+import com.marcomarchionni.strategistapi.dtos.response.DividendSummary;
+import com.marcomarchionni.strategistapi.dtos.response.PositionSummary;
+import com.marcomarchionni.strategistapi.dtos.response.TradeSummary;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.*;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+@Repository
+@RequiredArgsConstructor
+public class SummaryRepositoryImpl implements SummaryRepository {
+
+    // MySQL streams the rows in fetch size batches only when useCursorFetch=true is set on the connection url
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<TradeSummary> findTradeSummaries(Specification<Trade> specification, int limit) {
+        return tradeSummaryQuery(specification).setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public Stream<TradeSummary> streamTradeSummaries(Specification<Trade> specification) {
+        return tradeSummaryQuery(specification).setHint(AvailableHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .getResultStream();
+    }
+
+    @Override
+    public List<PositionSummary> findPositionSummaries(Specification<Position> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<PositionSummary> query = cb.createQuery(PositionSummary.class);
+        Root<Position> p = query.from(Position.class);
+        Join<Position, Strategy> s = p.join("strategy", JoinType.LEFT);
+        // Arguments in the order of the PositionSummary fields
+        query.select(cb.construct(PositionSummary.class, p.get("id"), p.get("conId"), p.get("reportDate"),
+                s.get("id"), s.get("name"), p.get("symbol"), p.get("description"), p.get("assetCategory"),
+                p.get("putCall"), p.get("strike"), p.get("expiry"), p.get("quantity"), p.get("costBasisPrice"),
+                p.get("costBasisMoney"), p.get("markPrice"), p.get("multiplier"), p.get("positionValue"),
+                p.get("fifoPnlUnrealized")));
+        where(query, specification.toPredicate(p, query, cb));
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    @Override
+    public List<DividendSummary> findDividendSummaries(Specification<Dividend> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<DividendSummary> query = cb.createQuery(DividendSummary.class);
+        Root<Dividend> d = query.from(Dividend.class);
+        Join<Dividend, Strategy> s = d.join("strategy", JoinType.LEFT);
+        // Arguments in the order of the DividendSummary fields
+        query.select(cb.construct(DividendSummary.class, d.get("id"), d.get("conId"), s.get("id"), s.get("name"),
+                d.get("symbol"), d.get("description"), d.get("exDate"), d.get("payDate"), d.get("grossRate"),
+                d.get("quantity"), d.get("grossAmount"), d.get("tax"), d.get("netAmount"),
+                d.get("openClosed").as(String.class)));
+        where(query, specification.toPredicate(d, query, cb));
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    private TypedQuery<TradeSummary> tradeSummaryQuery(Specification<Trade> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TradeSummary> query = cb.createQuery(TradeSummary.class);
+        Root<Trade> t = query.from(Trade.class);
+        Join<Trade, Strategy> s = t.join("strategy", JoinType.LEFT);
+        // Arguments in the order of the TradeSummary fields
+        query.select(cb.construct(TradeSummary.class, t.get("id"), s.get("id"), s.get("name"), t.get("symbol"),
+                t.get("description"), t.get("assetCategory"), t.get("multiplier"), t.get("strike"), t.get("expiry"),
+                t.get("putCall"), t.get("tradeDate"), t.get("quantity"), t.get("tradePrice"), t.get("tradeMoney"),
+                t.get("fifoPnlRealized"), t.get("ibCommission"), t.get("buySell")));
+        where(query, specification.toPredicate(t, query, cb));
+        query.orderBy(cb.asc(t.get("tradeDate")), cb.asc(t.get("id")));
+        return entityManager.createQuery(query);
+    }
+
+    private static void where(CriteriaQuery<?> query, Predicate predicate) {
+        if (predicate != null) {
+            query.where(predicate);
+        }
+    }
+}
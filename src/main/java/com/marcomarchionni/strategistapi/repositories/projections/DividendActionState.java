@@ -0,0 +1,12 @@
+package com.marcomarchionni.strategistapi.repositories.projections;
+
+import com.marcomarchionni.strategistapi.domain.Dividend;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+@Value
+@AllArgsConstructor
+public class DividendActionState {
+    Long actionId;
+    Dividend.OpenClosed openClosed;
+}
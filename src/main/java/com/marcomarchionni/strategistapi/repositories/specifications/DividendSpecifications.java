@@ -0,0 +1,27 @@
+package com.marcomarchionni.strategistapi.repositories.specifications;
+
+import com.marcomarchionni.strategistapi.domain.Dividend;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+
+import static com.marcomarchionni.strategistapi.repositories.specifications.FilterSpecifications.*;
+
+public final class DividendSpecifications {
+
+    private DividendSpecifications() {
+    }
+
+    // Date bounds are exclusive
+    public static Specification<Dividend> byParams(String accountId, LocalDate exDateFrom, LocalDate exDateTo,
+                                                   LocalDate payDateFrom, LocalDate payDateTo, Boolean tagged,
+                                                   String symbol) {
+        return Specification.<Dividend>where(ofAccount(accountId))
+                .and(greaterThan("exDate", exDateFrom))
+                .and(lessThan("exDate", exDateTo))
+                .and(greaterThan("payDate", payDateFrom))
+                .and(lessThan("payDate", payDateTo))
+                .and(tagged(tagged))
+                .and(equal("symbol", symbol));
+    }
+}
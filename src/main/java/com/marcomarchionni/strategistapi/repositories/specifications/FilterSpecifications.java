@@ -0,0 +1,55 @@
+package com.marcomarchionni.strategistapi.repositories.specifications;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Objects;
+
+/**
+ * Specifications of the optional filters of the searches. A filter without a value gives a null specification,
+ * which Specification.and skips, so each search only gets the predicates of the filters present. The account
+ * filter is not optional.
+ */
+public final class FilterSpecifications {
+
+    private FilterSpecifications() {
+    }
+
+    /**
+     * Entities of the account, which every search is scoped to.
+     */
+    public static <T> Specification<T> ofAccount(String accountId) {
+        Objects.requireNonNull(accountId, "accountId");
+        return (root, query, cb) -> cb.equal(root.get("accountId"), accountId);
+    }
+
+    public static <T> Specification<T> equal(String attribute, Object value) {
+        return value == null ? null : (root, query, cb) -> cb.equal(root.get(attribute), value);
+    }
+
+    public static <T, Y extends Comparable<? super Y>> Specification<T> greaterThan(String attribute, Y value) {
+        return value == null ? null : (root, query, cb) -> cb.greaterThan(root.get(attribute), value);
+    }
+
+    public static <T, Y extends Comparable<? super Y>> Specification<T> greaterThanOrEqual(String attribute,
+                                                                                            Y value) {
+        return value == null ? null : (root, query, cb) -> cb.greaterThanOrEqualTo(root.get(attribute), value);
+    }
+
+    public static <T, Y extends Comparable<? super Y>> Specification<T> lessThan(String attribute, Y value) {
+        return value == null ? null : (root, query, cb) -> cb.lessThan(root.get(attribute), value);
+    }
+
+    public static <T, Y extends Comparable<? super Y>> Specification<T> lessThanOrEqual(String attribute, Y value) {
+        return value == null ? null : (root, query, cb) -> cb.lessThanOrEqualTo(root.get(attribute), value);
+    }
+
+    /**
+     * Entities assigned to a strategy when tagged is true, the ones without a strategy when it is false.
+     */
+    public static <T> Specification<T> tagged(Boolean tagged) {
+        if (tagged == null) {
+            return null;
+        }
+        return (root, query, cb) -> tagged ? cb.isNotNull(root.get("strategy")) : cb.isNull(root.get("strategy"));
+    }
+}
@@ -0,0 +1,22 @@
+package com.marcomarchionni.strategistapi.repositories.specifications;
+
+import com.marcomarchionni.strategistapi.domain.Position;
+import org.springframework.data.jpa.domain.Specification;
+
+import static com.marcomarchionni.strategistapi.repositories.specifications.FilterSpecifications.equal;
+import static com.marcomarchionni.strategistapi.repositories.specifications.FilterSpecifications.ofAccount;
+import static com.marcomarchionni.strategistapi.repositories.specifications.FilterSpecifications.tagged;
+
+public final class PositionSpecifications {
+
+    private PositionSpecifications() {
+    }
+
+    public static Specification<Position> byParams(String accountId, Boolean tagged, String symbol,
+                                                   String assetCategory) {
+        return Specification.<Position>where(ofAccount(accountId))
+                .and(tagged(tagged))
+                .and(equal("symbol", symbol))
+                .and(equal("assetCategory", assetCategory));
+    }
+}
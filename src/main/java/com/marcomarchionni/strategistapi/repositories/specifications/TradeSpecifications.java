@@ -0,0 +1,33 @@
+package com.marcomarchionni.strategistapi.repositories.specifications;
+
+import com.marcomarchionni.strategistapi.domain.Trade;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+
+import static com.marcomarchionni.strategistapi.repositories.specifications.FilterSpecifications.*;
+
+public final class TradeSpecifications {
+
+    private TradeSpecifications() {
+    }
+
+    public static Specification<Trade> byParams(String accountId, LocalDate startDate, LocalDate endDate,
+                                                Boolean tagged, String symbol, String assetCategory) {
+        return Specification.<Trade>where(ofAccount(accountId))
+                .and(greaterThanOrEqual("tradeDate", startDate))
+                .and(lessThanOrEqual("tradeDate", endDate))
+                .and(tagged(tagged))
+                .and(equal("symbol", symbol))
+                .and(equal("assetCategory", assetCategory));
+    }
+
+    /**
+     * Trades after the given (tradeDate, id) in the order of the keyset pagination.
+     */
+    public static Specification<Trade> after(LocalDate tradeDate, Long id) {
+        return (root, query, cb) -> cb.or(
+                cb.greaterThan(root.get("tradeDate"), tradeDate),
+                cb.and(cb.equal(root.get("tradeDate"), tradeDate), cb.greaterThan(root.get("id"), id)));
+    }
+}
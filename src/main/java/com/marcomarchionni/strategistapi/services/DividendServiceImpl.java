@@ -11,6 +11,7 @@ import com.marcomarchionni.strategistapi.dtos.response.update.UpdateReport;
 import com.marcomarchionni.strategistapi.errorhandling.exceptions.EntityNotFoundException;
 import com.marcomarchionni.strategistapi.errorhandling.exceptions.UnableToSaveEntitiesException;
 import com.marcomarchionni.strategistapi.mappers.DividendMapper;
+import com.marcomarchionni.strategistapi.services.util.DividendsIndex;
 import com.marcomarchionni.strategistapi.services.util.OpenDividendsCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -18,7 +19,6 @@ import org.springframework.stereotype.Service;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -30,7 +30,7 @@ public class DividendServiceImpl implements DividendService {
 
     @Override
     public List<DividendSummary> findByFilter(DividendFind dividendFind) {
-        List<Dividend> dividends = dividendAccessService.findByParams(
+        return dividendAccessService.findSummariesByParams(
                 dividendFind.getExDateAfter(),
                 dividendFind.getExDateBefore(),
                 dividendFind.getPayDateAfter(),
@@ -38,7 +38,6 @@ public class DividendServiceImpl implements DividendService {
                 dividendFind.getTagged(),
                 dividendFind.getSymbol()
         );
-        return dividends.stream().map(mapper::toDividendSummary).collect(Collectors.toList());
     }
 
     @Override
@@ -71,17 +70,20 @@ public class DividendServiceImpl implements DividendService {
         List<Dividend> toMerge = new ArrayList<>();
         List<Dividend> skipped = new ArrayList<>();
 
-        // Retrieve existing open dividends in an OpenDividendsMap instance
-        List<Dividend> dbOpenDividends = dividendAccessService.findOpenDividends();
+        // Retrieve action id and state of the existing dividends with a single query
+        DividendsIndex dbIndex = DividendsIndex.createDividendsIndex(dividendAccessService.findActionStates());
+
+        // Open dividends are loaded only when some of them have to be merged
+        boolean anyOpenMatch = dividends.stream().anyMatch(dbIndex::isOpen);
         OpenDividendsCache dbCache = OpenDividendsCache.createOpenDividendCache(
-                dbOpenDividends);
+                anyOpenMatch ? dividendAccessService.findOpenDividends() : List.of());
 
         // Assign dividends to target lists
         for (Dividend dividend : dividends) {
             if (dbCache.existMatch(dividend)) {
                 var dbDividend = dbCache.getMatchingDividend(dividend);
                 toMerge.add(mapper.mergeFlexProperties(dividend, dbDividend));
-            } else if (!this.existsInDb(dividend)) {
+            } else if (!dbIndex.exists(dividend)) {
                 toAdd.add(dividend);
             } else {
                 skipped.add(dividend);
@@ -95,10 +97,6 @@ public class DividendServiceImpl implements DividendService {
                 skipped);
     }
 
-    private boolean existsInDb(Dividend d) {
-        return dividendAccessService.existsByActionId(d.getActionId());
-    }
-
     private Dividend save(Dividend dividend) {
         try {
             return dividendAccessService.save(dividend);
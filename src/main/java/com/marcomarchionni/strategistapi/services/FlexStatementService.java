@@ -2,13 +2,26 @@ package com.marcomarchionni.strategistapi.services;
 
 import com.marcomarchionni.strategistapi.domain.FlexStatement;
 import com.marcomarchionni.strategistapi.dtos.response.update.UpdateReport;
+import com.marcomarchionni.strategistapi.services.util.DateRanges;
 
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
 
 public interface FlexStatementService {
 
     LocalDate findLatestToDate();
 
+    /**
+     * Dates of the trades and closed dividends already saved, empty when delta updates are disabled.
+     */
+    DateRanges findIngestedDates();
+
     UpdateReport<FlexStatement> updateFlexStatements(FlexStatement flexStatement);
+
+    /**
+     * Flex statements with the given ids, empty if any of them is no longer saved.
+     */
+    Optional<List<FlexStatement>> findAllSaved(List<Long> ids);
 }
 
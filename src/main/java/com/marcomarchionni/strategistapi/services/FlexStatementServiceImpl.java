@@ -4,7 +4,8 @@ import com.marcomarchionni.strategistapi.accessservice.FlexStatementAccessServic
 import com.marcomarchionni.strategistapi.domain.FlexStatement;
 import com.marcomarchionni.strategistapi.dtos.response.update.UpdateReport;
 import com.marcomarchionni.strategistapi.errorhandling.exceptions.UnableToSaveEntitiesException;
-import lombok.RequiredArgsConstructor;
+import com.marcomarchionni.strategistapi.services.util.DateRanges;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
@@ -12,10 +13,16 @@ import java.util.List;
 import java.util.Optional;
 
 @Service
-@RequiredArgsConstructor
 public class FlexStatementServiceImpl implements FlexStatementService {
 
     private final FlexStatementAccessService flexStatementAccessService;
+    private final boolean deltaEnabled;
+
+    public FlexStatementServiceImpl(FlexStatementAccessService flexStatementAccessService,
+                                    @Value("${update.delta.enabled:false}") boolean deltaEnabled) {
+        this.flexStatementAccessService = flexStatementAccessService;
+        this.deltaEnabled = deltaEnabled;
+    }
 
     @Override
     public LocalDate findLatestToDate() {
@@ -24,6 +31,11 @@ public class FlexStatementServiceImpl implements FlexStatementService {
         return optionalLastFlex.map(FlexStatement::getToDate).orElse(LocalDate.MIN);
     }
 
+    @Override
+    public DateRanges findIngestedDates() {
+        return deltaEnabled ? DateRanges.of(flexStatementAccessService.findAll()) : DateRanges.EMPTY;
+    }
+
     @Override
     public UpdateReport<FlexStatement> updateFlexStatements(FlexStatement flexStatement) {
         try {
@@ -35,4 +47,13 @@ public class FlexStatementServiceImpl implements FlexStatementService {
             throw new UnableToSaveEntitiesException("Unable to save FlexStatement: " + e.getMessage());
         }
     }
+
+    @Override
+    public Optional<List<FlexStatement>> findAllSaved(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return Optional.empty();
+        }
+        List<FlexStatement> flexStatements = flexStatementAccessService.findAllById(ids);
+        return flexStatements.size() == ids.size() ? Optional.of(flexStatements) : Optional.empty();
+    }
 }
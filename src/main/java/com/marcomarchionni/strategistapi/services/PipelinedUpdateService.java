@@ -0,0 +1,12 @@
+package com.marcomarchionni.strategistapi.services;
+
+import com.marcomarchionni.strategistapi.dtos.request.UpdateContext;
+import com.marcomarchionni.strategistapi.dtos.response.update.CombinedUpdateReport;
+import com.marcomarchionni.strategistapi.services.fetchers.StreamingDataFetcher;
+import com.marcomarchionni.strategistapi.services.util.UpdateProgressListener;
+
+public interface PipelinedUpdateService {
+    CombinedUpdateReport update(UpdateContext context, StreamingDataFetcher fetcher);
+
+    CombinedUpdateReport update(UpdateContext context, StreamingDataFetcher fetcher, UpdateProgressListener listener);
+}
@@ -0,0 +1,317 @@
+package com.marcomarchionni.strategistapi.services;
+
+import com.marcomarchionni.strategistapi.domain.Dividend;
+import com.marcomarchionni.strategistapi.domain.FlexStatement;
+import com.marcomarchionni.strategistapi.dtos.request.UpdateContext;
+import com.marcomarchionni.strategistapi.dtos.response.update.AccountUpdateReport;
+import com.marcomarchionni.strategistapi.dtos.response.update.CombinedUpdateReport;
+import com.marcomarchionni.strategistapi.dtos.response.update.UpdateDto;
+import com.marcomarchionni.strategistapi.dtos.response.update.UpdateStage;
+import com.marcomarchionni.strategistapi.errorhandling.exceptions.FlexReadTimeoutException;
+import com.marcomarchionni.strategistapi.errorhandling.exceptions.UpdateJobRejectedException;
+import com.marcomarchionni.strategistapi.services.fetchers.StreamingDataFetcher;
+import com.marcomarchionni.strategistapi.services.parsers.FlexStreamHandler;
+import com.marcomarchionni.strategistapi.services.util.CombinedUpdateReportCollector;
+import com.marcomarchionni.strategistapi.services.util.DateRanges;
+import com.marcomarchionni.strategistapi.services.util.PositionsCache;
+import com.marcomarchionni.strategistapi.services.util.UpdateProgressListener;
+import com.marcomarchionni.strategistapi.validators.UpdateDtoValidator;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Updates the db while the flex query is still being read. A reader thread puts the parsed chunks in a bounded
+ * queue, and the calling thread validates and saves them, so that reading chunk N+1 overlaps with the db writes of
+ * chunk N and no more than a few chunks are kept in memory. Statements of multi-account flex queries are read one
+ * after the other and saved in the same transaction, statements of accounts other than the user's are skipped.
+ * <p>
+ * The chunks are not committed one by one: a flex statement is recorded and its closed positions deleted only after
+ * its last chunk, so a flex query that fails halfway must leave no trades, dividends or positions behind: the db
+ * stays consistent with the recorded flex statements and the update can simply be run again. Memory stays bounded
+ * by the queue, the transaction only holds the db changes.
+ */
+@Service
+public class PipelinedUpdateServiceImpl implements PipelinedUpdateService {
+
+    private static final UpdateDto END_OF_STREAM = UpdateDto.builder().build();
+
+    private final FlexStatementService flexStatementService;
+    private final PositionService positionService;
+    private final TradeService tradeService;
+    private final DividendService dividendService;
+    private final UpdateDtoValidator updateDtoValidator;
+    private final UserService userService;
+    private final AsyncTaskExecutor flexReaderExecutor;
+    private final int queueCapacity;
+    private final long chunkTimeout;
+
+    public PipelinedUpdateServiceImpl(FlexStatementService flexStatementService,
+                                      PositionService positionService,
+                                      TradeService tradeService,
+                                      DividendService dividendService,
+                                      UpdateDtoValidator updateDtoValidator,
+                                      UserService userService,
+                                      @Qualifier("flexReaderExecutor") AsyncTaskExecutor flexReaderExecutor,
+                                      @Value("${update.pipeline.queue-capacity:4}") int queueCapacity,
+                                      @Value("${update.pipeline.chunk-timeout-ms:600000}") long chunkTimeout) {
+        this.flexStatementService = flexStatementService;
+        this.positionService = positionService;
+        this.tradeService = tradeService;
+        this.dividendService = dividendService;
+        this.updateDtoValidator = updateDtoValidator;
+        this.userService = userService;
+        this.flexReaderExecutor = flexReaderExecutor;
+        this.queueCapacity = queueCapacity;
+        this.chunkTimeout = chunkTimeout;
+    }
+
+    @Override
+    @Transactional
+    public CombinedUpdateReport update(UpdateContext context, StreamingDataFetcher fetcher) {
+        return update(context, fetcher, UpdateProgressListener.NONE);
+    }
+
+    @Override
+    @Transactional
+    public CombinedUpdateReport update(UpdateContext context, StreamingDataFetcher fetcher,
+                                       UpdateProgressListener listener) {
+
+        String accountId = userService.getUserAccountId();
+        LocalDate latestToDateInDb = flexStatementService.findLatestToDate();
+        DateRanges ingestedDates = flexStatementService.findIngestedDates();
+
+        // Start reading the flex query on another thread
+        BlockingQueue<UpdateDto> queue = new ArrayBlockingQueue<>(queueCapacity);
+        ChunkProducer producer = new ChunkProducer(context, fetcher, queue, ingestedDates);
+        Future<?> producerFuture;
+        try {
+            producerFuture = flexReaderExecutor.submit(new DelegatingSecurityContextRunnable(producer));
+        } catch (TaskRejectedException e) {
+            throw new UpdateJobRejectedException(e);
+        }
+
+        AccountReports reports = new AccountReports();
+        StatementUpdate statementUpdate = null;
+        try {
+            UpdateDto chunk;
+            while ((chunk = takeChunk(queue)) != END_OF_STREAM) {
+                // Each flex statement is updated against the db state preceding the update
+                if (statementUpdate == null || statementUpdate.flexStatement != chunk.getFlexStatement()) {
+                    finishStatement(statementUpdate);
+                    boolean hasTheLatestData = chunk.getFlexStatement().getToDate().isAfter(latestToDateInDb);
+                    statementUpdate = new StatementUpdate(chunk.getFlexStatement(), hasTheLatestData,
+                            reports.of(chunk.getFlexStatement().getAccountId()));
+                    // Statements of other accounts are skipped, the rest of the flex query is still updated
+                    try {
+                        updateDtoValidator.hasValidAccountId(chunk, accountId);
+                    } catch (RuntimeException e) {
+                        statementUpdate.rejected = true;
+                        reports.reject(chunk.getFlexStatement().getAccountId(), e);
+                    }
+                }
+                if (statementUpdate.rejected) {
+                    continue;
+                }
+                UpdateDto updateDto = statementUpdate.hasTheLatestData ? chunk : toHistoricalData(chunk);
+                listener.rowsProcessed(UpdateStage.PARSE, updateDto.getTrades().size()
+                        + updateDto.getPositions().size() + updateDto.getDividends().size());
+
+                // Validate chunk
+                updateDtoValidator.validate(updateDto);
+
+                // Update flex statement, positions, trades and dividends
+                updateChunk(updateDto, statementUpdate, listener);
+            }
+            producer.rethrowFailure();
+            listener.stageCompleted(UpdateStage.FETCH);
+            listener.stageCompleted(UpdateStage.PARSE);
+            finishStatement(statementUpdate);
+            listener.stageCompleted(UpdateStage.POSITIONS);
+            listener.stageCompleted(UpdateStage.TRADES);
+            listener.stageCompleted(UpdateStage.DIVIDENDS);
+        } finally {
+            producerFuture.cancel(true);
+        }
+
+        return reports.build();
+    }
+
+    private void updateChunk(UpdateDto updateDto, StatementUpdate statementUpdate, UpdateProgressListener listener) {
+        CombinedUpdateReportCollector reports = statementUpdate.reports;
+        if (!updateDto.getPositions().isEmpty()) {
+            if (statementUpdate.positionsCache == null) {
+                statementUpdate.positionsCache = positionService.createPositionsCache();
+            }
+            positionService.upsertPositions(updateDto.getPositions(), statementUpdate.positionsCache);
+        }
+        listener.rowsProcessed(UpdateStage.POSITIONS, updateDto.getPositions().size());
+        reports.getTrades().collect(tradeService.updateTrades(updateDto.getTrades()));
+        listener.rowsProcessed(UpdateStage.TRADES, updateDto.getTrades().size());
+        reports.getDividends().collect(dividendService.updateDividends(updateDto.getDividends()));
+        listener.rowsProcessed(UpdateStage.DIVIDENDS, updateDto.getDividends().size());
+    }
+
+    private void finishStatement(StatementUpdate statementUpdate) {
+        // The sections of the statement are known once it is read
+        if (statementUpdate != null && !statementUpdate.rejected) {
+            statementUpdate.reports.getFlexStatements().collect(
+                    flexStatementService.updateFlexStatements(statementUpdate.flexStatement));
+        }
+        // Positions not in the flex statement are closed, delete them once all chunks are read
+        if (statementUpdate != null && statementUpdate.positionsCache != null) {
+            statementUpdate.reports.getPositions().collect(
+                    positionService.deleteMissingPositions(statementUpdate.positionsCache));
+        }
+    }
+
+    private UpdateDto toHistoricalData(UpdateDto chunk) {
+        return UpdateDto.builder()
+                .flexStatement(chunk.getFlexStatement())
+                .positions(Collections.emptyList())
+                .trades(chunk.getTrades())
+                .dividends(chunk.getDividends()
+                        .stream()
+                        .filter(dividend -> dividend.getOpenClosed() == Dividend.OpenClosed.CLOSED)
+                        .toList())
+                .build();
+    }
+
+    private UpdateDto takeChunk(BlockingQueue<UpdateDto> queue) {
+        try {
+            UpdateDto chunk = queue.poll(chunkTimeout, TimeUnit.MILLISECONDS);
+            if (chunk == null) {
+                throw new FlexReadTimeoutException(chunkTimeout);
+            }
+            return chunk;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Update interrupted");
+        }
+    }
+
+    private static class StatementUpdate {
+        private final FlexStatement flexStatement;
+        private final boolean hasTheLatestData;
+        private final CombinedUpdateReportCollector reports;
+        private boolean rejected = false;
+        private PositionsCache positionsCache;
+
+        StatementUpdate(FlexStatement flexStatement, boolean hasTheLatestData, CombinedUpdateReportCollector reports) {
+            this.flexStatement = flexStatement;
+            this.hasTheLatestData = hasTheLatestData;
+            this.reports = reports;
+        }
+    }
+
+    private static class AccountReports {
+        private final Map<String, CombinedUpdateReportCollector> reports = new LinkedHashMap<>();
+        private final Map<String, RuntimeException> failures = new LinkedHashMap<>();
+
+        CombinedUpdateReportCollector of(String accountId) {
+            return reports.computeIfAbsent(accountId, id -> new CombinedUpdateReportCollector());
+        }
+
+        void reject(String accountId, RuntimeException failure) {
+            failures.putIfAbsent(accountId, failure);
+        }
+
+        CombinedUpdateReport build() {
+            // An update where every statement is rejected fails
+            if (!failures.isEmpty() && failures.size() == reports.size()) {
+                throw failures.values().iterator().next();
+            }
+            CombinedUpdateReportCollector combined = new CombinedUpdateReportCollector();
+            List<AccountUpdateReport> accounts = new ArrayList<>();
+            reports.forEach((accountId, collector) -> {
+                RuntimeException failure = failures.get(accountId);
+                if (failure != null) {
+                    accounts.add(AccountUpdateReport.builder().accountId(accountId).error(failure.getMessage())
+                            .build());
+                } else {
+                    CombinedUpdateReport report = collector.build();
+                    combined.collect(report);
+                    accounts.add(AccountUpdateReport.builder().accountId(accountId).report(report).build());
+                }
+            });
+            return combined.build(accounts);
+        }
+    }
+
+    private static class ChunkProducer implements Runnable {
+        private final UpdateContext context;
+        private final StreamingDataFetcher fetcher;
+        private final BlockingQueue<UpdateDto> queue;
+        private final DateRanges ingestedDates;
+        private volatile Throwable failure;
+
+        ChunkProducer(UpdateContext context, StreamingDataFetcher fetcher, BlockingQueue<UpdateDto> queue,
+                      DateRanges ingestedDates) {
+            this.context = context;
+            this.fetcher = fetcher;
+            this.queue = queue;
+            this.ingestedDates = ingestedDates;
+        }
+
+        @Override
+        public void run() {
+            try {
+                fetcher.fetch(context, new FlexStreamHandler() {
+                    @Override
+                    public DateRanges ingestedDates() {
+                        return ingestedDates;
+                    }
+
+                    @Override
+                    public void onChunk(UpdateDto chunk) {
+                        put(chunk);
+                    }
+                });
+            } catch (Throwable e) {
+                failure = e;
+            } finally {
+                // The consumer stops at the end marker, unless it has already given up and cancelled the producer
+                if (!Thread.currentThread().isInterrupted()) {
+                    put(END_OF_STREAM);
+                }
+            }
+        }
+
+        private void put(UpdateDto chunk) {
+            try {
+                queue.put(chunk);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Flex query reading cancelled");
+            }
+        }
+
+        void rethrowFailure() {
+            if (failure instanceof RuntimeException e) {
+                throw e;
+            }
+            if (failure instanceof Error e) {
+                throw e;
+            }
+            if (failure != null) {
+                throw new IllegalStateException("Flex query reading failed", failure);
+            }
+        }
+    }
+}
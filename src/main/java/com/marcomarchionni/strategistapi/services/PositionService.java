@@ -5,6 +5,7 @@ import com.marcomarchionni.strategistapi.dtos.request.PositionFind;
 import com.marcomarchionni.strategistapi.dtos.request.StrategyAssign;
 import com.marcomarchionni.strategistapi.dtos.response.PositionSummary;
 import com.marcomarchionni.strategistapi.dtos.response.update.UpdateReport;
+import com.marcomarchionni.strategistapi.services.util.PositionsCache;
 
 import java.util.List;
 
@@ -16,6 +17,18 @@ public interface PositionService {
 
     UpdateReport<PositionSummary> updatePositions(List<Position> positions);
 
+    PositionsCache createPositionsCache();
+
+    /**
+     * Adds or merges the given positions of a flex statement read in chunks and records them in the cache.
+     */
+    void upsertPositions(List<Position> positions, PositionsCache cache);
+
+    /**
+     * Deletes the positions not recorded in the cache and reports the positions added, merged and deleted.
+     */
+    UpdateReport<PositionSummary> deleteMissingPositions(PositionsCache cache);
+
     PositionSummary updateStrategyId(StrategyAssign position);
 
     List<PositionSummary> findByFilter(PositionFind positionCriteria);
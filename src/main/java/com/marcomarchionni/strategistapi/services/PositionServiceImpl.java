@@ -16,10 +16,8 @@ import com.marcomarchionni.strategistapi.services.util.PositionsCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -31,12 +29,11 @@ public class PositionServiceImpl implements PositionService {
 
     @Override
     public List<PositionSummary> findByFilter(PositionFind positionFind) {
-        List<Position> positions = positionAccessService.findByParams(
+        return positionAccessService.findSummariesByParams(
                 positionFind.getTagged(),
                 positionFind.getSymbol(),
                 positionFind.getAssetCategory()
         );
-        return positions.stream().map(positionMapper::toPositionSummary).collect(Collectors.toList());
     }
 
 
@@ -47,32 +44,40 @@ public class PositionServiceImpl implements PositionService {
             return UpdateReport.<PositionSummary>builder().build();
         }
 
-        // Create a DbPositionsCache to map positions in db
-        List<Position> dbPositions = positionAccessService.findAll();
-        PositionsCache cache = PositionsCache.createPositionsCache(dbPositions);
-
-        // Select positions to add or merge
-        List<Position> newPositions = new ArrayList<>();
-        List<Position> mergedPositions = new ArrayList<>();
-
-        for (Position position : positions) {
-            if (cache.existMatch(position)) {
-                Position positionToMerge = cache.extractMatchingPosition(position);
-                mergedPositions.add(positionMapper.mergeFlexProperties(position, positionToMerge));
-            } else {
-                newPositions.add(position);
-            }
+        // Replace the positions in db with the new snapshot
+        PositionsCache cache = createPositionsCache();
+        upsertPositions(positions, cache);
+        return deleteMissingPositions(cache);
+    }
+
+    @Override
+    public PositionsCache createPositionsCache() {
+        // Positions are written with set-based statements, loading them as entities would leave them stale
+        return PositionsCache.createPositionsCache(findAllSummaries());
+    }
+
+    @Override
+    public void upsertPositions(List<Position> positions, PositionsCache cache) {
+        cache.addPositions(positions);
+        try {
+            positionAccessService.upsertAll(positions);
+        } catch (Exception e) {
+            throw new UnableToSaveEntitiesException(e.getMessage());
         }
+    }
 
-        // Select positions to delete
-        List<Position> positionsToDelete = cache.getUnmatchedPositions();
+    @Override
+    public UpdateReport<PositionSummary> deleteMissingPositions(PositionsCache cache) {
+        try {
+            positionAccessService.deleteMissingPositions(cache.getConIds());
+        } catch (Exception e) {
+            throw new UnableToDeleteEntitiesException(e.getMessage());
+        }
+        return cache.toUpdateReport(findAllSummaries());
+    }
 
-        // Perform database operations and return the result
-        return UpdateReport.<PositionSummary>builder()
-                .added(this.saveAll(newPositions))
-                .merged(this.saveAll(mergedPositions))
-                .deleted(this.deleteAll(positionsToDelete))
-                .build();
+    private List<PositionSummary> findAllSummaries() {
+        return positionAccessService.findSummariesByParams(null, null, null);
     }
 
     @Override
@@ -3,10 +3,12 @@ package com.marcomarchionni.strategistapi.services;
 import com.marcomarchionni.strategistapi.domain.Trade;
 import com.marcomarchionni.strategistapi.dtos.request.StrategyAssign;
 import com.marcomarchionni.strategistapi.dtos.request.TradeFind;
+import com.marcomarchionni.strategistapi.dtos.response.TradePage;
 import com.marcomarchionni.strategistapi.dtos.response.TradeSummary;
 import com.marcomarchionni.strategistapi.dtos.response.update.UpdateReport;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface TradeService {
 
@@ -14,7 +16,9 @@ public interface TradeService {
 
     TradeSummary updateStrategyId(StrategyAssign trade);
 
-    List<TradeSummary> findByFilter(TradeFind tradeCriteria);
+    TradePage findByFilter(TradeFind tradeCriteria);
+
+    void streamByFilter(TradeFind tradeCriteria, Consumer<TradeSummary> action);
 
     UpdateReport<TradeSummary> updateTrades(List<Trade> trades);
 }
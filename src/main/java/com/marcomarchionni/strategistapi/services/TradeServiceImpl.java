@@ -6,25 +6,41 @@ import com.marcomarchionni.strategistapi.domain.Strategy;
 import com.marcomarchionni.strategistapi.domain.Trade;
 import com.marcomarchionni.strategistapi.dtos.request.StrategyAssign;
 import com.marcomarchionni.strategistapi.dtos.request.TradeFind;
+import com.marcomarchionni.strategistapi.dtos.response.TradePage;
 import com.marcomarchionni.strategistapi.dtos.response.TradeSummary;
 import com.marcomarchionni.strategistapi.dtos.response.update.UpdateReport;
 import com.marcomarchionni.strategistapi.errorhandling.exceptions.EntityNotFoundException;
 import com.marcomarchionni.strategistapi.errorhandling.exceptions.UnableToSaveEntitiesException;
 import com.marcomarchionni.strategistapi.mappers.TradeMapper;
-import lombok.RequiredArgsConstructor;
+import com.marcomarchionni.strategistapi.services.util.LongHashSet;
+import com.marcomarchionni.strategistapi.services.util.TradeCursor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
 
 @Service
-@RequiredArgsConstructor
 public class TradeServiceImpl implements TradeService {
     private final TradeAccessService tradeAccessService;
     private final StrategyAccessService strategyAccessService;
     private final TradeMapper tradeMapper;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+
+    public TradeServiceImpl(TradeAccessService tradeAccessService,
+                            StrategyAccessService strategyAccessService,
+                            TradeMapper tradeMapper,
+                            @Value("${trades.page.default-size:500}") int defaultPageSize,
+                            @Value("${trades.page.max-size:5000}") int maxPageSize) {
+        this.tradeAccessService = tradeAccessService;
+        this.strategyAccessService = strategyAccessService;
+        this.tradeMapper = tradeMapper;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+    }
 
     @Override
     public TradeSummary updateStrategyId(StrategyAssign strategyAssign) {
@@ -47,14 +63,40 @@ public class TradeServiceImpl implements TradeService {
     }
 
     @Override
-    public List<TradeSummary> findByFilter(TradeFind tradeFind) {
-        List<Trade> trades = tradeAccessService.findByParams(
+    public TradePage findByFilter(TradeFind tradeFind) {
+        // Trades are paged only when the client asks for a page
+        if (tradeFind.getLimit() == null && tradeFind.getCursor() == null) {
+            List<TradeSummary> trades = new ArrayList<>();
+            streamByFilter(tradeFind, trades::add);
+            return TradePage.builder().trades(trades).build();
+        }
+        int limit = tradeFind.getLimit() == null ? defaultPageSize : Math.min(tradeFind.getLimit(), maxPageSize);
+        // One trade more than the page tells whether there is a next page
+        List<TradeSummary> trades = tradeAccessService.findSummaryPageByParams(
                 tradeFind.getTradeDateAfter(),
                 tradeFind.getTradeDateBefore(),
                 tradeFind.getTagged(),
                 tradeFind.getSymbol(),
-                tradeFind.getAssetCategory());
-        return trades.stream().map(tradeMapper::toTradeSummary).collect(Collectors.toList());
+                tradeFind.getAssetCategory(),
+                TradeCursor.decode(tradeFind.getCursor()),
+                limit + 1);
+        boolean hasNext = trades.size() > limit;
+        List<TradeSummary> page = hasNext ? trades.subList(0, limit) : trades;
+        return TradePage.builder()
+                .trades(page)
+                .nextCursor(hasNext ? TradeCursor.of(page.get(limit - 1)).encode() : null)
+                .build();
+    }
+
+    @Override
+    public void streamByFilter(TradeFind tradeFind, Consumer<TradeSummary> action) {
+        tradeAccessService.forEachSummaryByParams(
+                tradeFind.getTradeDateAfter(),
+                tradeFind.getTradeDateBefore(),
+                tradeFind.getTagged(),
+                tradeFind.getSymbol(),
+                tradeFind.getAssetCategory(),
+                action);
     }
 
     @Override
@@ -68,9 +110,12 @@ public class TradeServiceImpl implements TradeService {
         List<Trade> tradesToAdd = new ArrayList<>();
         List<TradeSummary> tradesToSkip = new ArrayList<>();
 
-        // Check if trade already exists in the database
+        // Load the ids of the trades already in the database with a single lookup
+        LongHashSet existingIbOrderIds = tradeAccessService.findExistingIbOrderIds(
+                trades.stream().map(Trade::getIbOrderId).toList());
+
         for (Trade t : trades) {
-            if (tradeAccessService.existsByIbOrderId(t.getIbOrderId())) {
+            if (t.getIbOrderId() != null && existingIbOrderIds.contains(t.getIbOrderId())) {
                 tradesToSkip.add(tradeMapper.toTradeSummary(t));
             } else {
                 tradesToAdd.add(t);
@@ -0,0 +1,12 @@
+package com.marcomarchionni.strategistapi.services;
+
+import com.marcomarchionni.strategistapi.dtos.request.UpdateContext;
+import com.marcomarchionni.strategistapi.dtos.response.update.UpdateJobStatus;
+
+import java.io.IOException;
+
+public interface UpdateJobService {
+    UpdateJobStatus submit(UpdateContext context) throws IOException;
+
+    UpdateJobStatus getStatus(String jobId);
+}
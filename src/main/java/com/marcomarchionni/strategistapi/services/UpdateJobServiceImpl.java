@@ -0,0 +1,138 @@
+package com.marcomarchionni.strategistapi.services;
+
+import com.marcomarchionni.strategistapi.dtos.request.UpdateContext;
+import com.marcomarchionni.strategistapi.dtos.response.update.CombinedUpdateReport;
+import com.marcomarchionni.strategistapi.dtos.response.update.UpdateJobStatus;
+import com.marcomarchionni.strategistapi.errorhandling.exceptions.UpdateJobNotFoundException;
+import com.marcomarchionni.strategistapi.errorhandling.exceptions.UpdateJobRejectedException;
+import com.marcomarchionni.strategistapi.services.util.TempFileMultipartFile;
+import com.marcomarchionni.strategistapi.services.util.UpdateJob;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs updates in the background on a bounded executor. Only one update runs per account: requests for an account
+ * with an update in progress join the running job.
+ */
+@Service
+@Slf4j
+public class UpdateJobServiceImpl implements UpdateJobService {
+
+    private final UpdateOrchestrator updateOrchestrator;
+    private final UserService userService;
+    private final AsyncTaskExecutor updateJobExecutor;
+    private final Duration retention;
+    private final Map<String, UpdateJob> jobs = new ConcurrentHashMap<>();
+    private final Map<String, UpdateJob> activeJobsByAccountId = new ConcurrentHashMap<>();
+
+    public UpdateJobServiceImpl(UpdateOrchestrator updateOrchestrator,
+                                UserService userService,
+                                @Qualifier("updateJobExecutor") AsyncTaskExecutor updateJobExecutor,
+                                @Value("${update.jobs.retention-minutes:60}") long retentionMinutes) {
+        this.updateOrchestrator = updateOrchestrator;
+        this.userService = userService;
+        this.updateJobExecutor = updateJobExecutor;
+        this.retention = Duration.ofMinutes(retentionMinutes);
+    }
+
+    @Override
+    public UpdateJobStatus submit(UpdateContext context) throws IOException {
+        String accountId = userService.getUserAccountId();
+        removeExpiredJobs();
+
+        // Join the running job of the account, if any
+        UpdateJob newJob = new UpdateJob(accountId);
+        UpdateJob job = activeJobsByAccountId.computeIfAbsent(accountId, id -> newJob);
+        if (job != newJob) {
+            return job.toStatus();
+        }
+        jobs.put(job.getId(), job);
+
+        UpdateContext jobContext;
+        try {
+            jobContext = copyOf(context);
+        } catch (IOException e) {
+            unregister(job);
+            throw e;
+        }
+        try {
+            updateJobExecutor.execute(new DelegatingSecurityContextRunnable(() -> run(job, jobContext)));
+        } catch (TaskRejectedException e) {
+            unregister(job);
+            deleteFile(jobContext);
+            throw new UpdateJobRejectedException(e);
+        }
+        return job.toStatus();
+    }
+
+    @Override
+    public UpdateJobStatus getStatus(String jobId) {
+        UpdateJob job = jobs.get(jobId);
+        if (job == null || !job.getAccountId().equals(userService.getUserAccountId())) {
+            throw new UpdateJobNotFoundException(jobId);
+        }
+        return job.toStatus();
+    }
+
+    private void unregister(UpdateJob job) {
+        jobs.remove(job.getId());
+        activeJobsByAccountId.remove(job.getAccountId(), job);
+    }
+
+    private void run(UpdateJob job, UpdateContext context) {
+        job.start();
+        CombinedUpdateReport report = null;
+        Exception failure = null;
+        try {
+            report = updateOrchestrator.update(context, job);
+        } catch (Exception e) {
+            log.warn("Update job {} failed: {}", job.getId(), e.getMessage());
+            failure = e;
+        } finally {
+            // Let a new update for the account start before the job is reported as finished
+            activeJobsByAccountId.remove(job.getAccountId(), job);
+            deleteFile(context);
+        }
+        if (failure != null) {
+            job.fail(failure);
+        } else {
+            job.complete(report);
+        }
+    }
+
+    // The uploaded file is deleted at the end of the request, keep a copy for the job
+    private UpdateContext copyOf(UpdateContext context) throws IOException {
+        return UpdateContext.builder()
+                .sourceType(context.getSourceType())
+                .queryId(context.getQueryId())
+                .token(context.getToken())
+                .file(context.getFile() == null ? null : TempFileMultipartFile.copyOf(context.getFile()))
+                .build();
+    }
+
+    private void deleteFile(UpdateContext context) {
+        if (context.getFile() instanceof TempFileMultipartFile file) {
+            try {
+                file.delete();
+            } catch (IOException e) {
+                log.warn("Unable to delete update file: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void removeExpiredJobs() {
+        Instant expiration = Instant.now().minus(retention);
+        jobs.values().removeIf(job -> job.isFinishedBefore(expiration));
+    }
+}
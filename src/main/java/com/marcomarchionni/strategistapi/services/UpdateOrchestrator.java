@@ -2,9 +2,12 @@ package com.marcomarchionni.strategistapi.services;
 
 import com.marcomarchionni.strategistapi.dtos.request.UpdateContext;
 import com.marcomarchionni.strategistapi.dtos.response.update.CombinedUpdateReport;
+import com.marcomarchionni.strategistapi.services.util.UpdateProgressListener;
 
 import java.io.IOException;
 
 public interface UpdateOrchestrator {
     CombinedUpdateReport update(UpdateContext dto) throws IOException;
+
+    CombinedUpdateReport update(UpdateContext context, UpdateProgressListener listener) throws IOException;
 }
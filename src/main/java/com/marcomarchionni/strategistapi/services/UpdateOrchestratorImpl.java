@@ -3,32 +3,111 @@ package com.marcomarchionni.strategistapi.services;
 import com.marcomarchionni.strategistapi.dtos.flex.FlexQueryResponseDto;
 import com.marcomarchionni.strategistapi.dtos.request.UpdateContext;
 import com.marcomarchionni.strategistapi.dtos.response.update.CombinedUpdateReport;
+import com.marcomarchionni.strategistapi.dtos.response.update.UpdateStage;
 import com.marcomarchionni.strategistapi.services.fetchers.DataFetcher;
+import com.marcomarchionni.strategistapi.services.fetchers.StreamingDataFetcher;
 import com.marcomarchionni.strategistapi.services.fetchers.datafetcherresolvers.DataFetcherResolver;
-import lombok.RequiredArgsConstructor;
+import com.marcomarchionni.strategistapi.services.util.ContentHashIndex;
+import com.marcomarchionni.strategistapi.services.util.UpdateProgressListener;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.util.Optional;
+import java.util.function.Supplier;
 
 /**
  * This class is responsible for orchestrating the update process.
  */
 @Service
-@RequiredArgsConstructor
 public class UpdateOrchestratorImpl implements UpdateOrchestrator {
 
     private final DataFetcherResolver dataFetcherResolver;
     private final UpdateService updateService;
+    private final PipelinedUpdateService pipelinedUpdateService;
+    private final FlexStatementService flexStatementService;
+    private final UserService userService;
+    private final ContentHashIndex contentHashIndex;
+    private final boolean pipelineEnabled;
+    private final boolean dedupeEnabled;
+
+    public UpdateOrchestratorImpl(DataFetcherResolver dataFetcherResolver,
+                                  UpdateService updateService,
+                                  PipelinedUpdateService pipelinedUpdateService,
+                                  FlexStatementService flexStatementService,
+                                  UserService userService,
+                                  ContentHashIndex contentHashIndex,
+                                  @Value("${update.pipeline.enabled:false}") boolean pipelineEnabled,
+                                  @Value("${update.dedupe.enabled:true}") boolean dedupeEnabled) {
+        this.dataFetcherResolver = dataFetcherResolver;
+        this.updateService = updateService;
+        this.pipelinedUpdateService = pipelinedUpdateService;
+        this.flexStatementService = flexStatementService;
+        this.userService = userService;
+        this.contentHashIndex = contentHashIndex;
+        this.pipelineEnabled = pipelineEnabled;
+        this.dedupeEnabled = dedupeEnabled;
+    }
 
     @Override
     public CombinedUpdateReport update(UpdateContext context) throws IOException {
+        return update(context, UpdateProgressListener.NONE);
+    }
+
+    @Override
+    public CombinedUpdateReport update(UpdateContext context, UpdateProgressListener listener) throws IOException {
         // Resolve data fetcher
         DataFetcher fetcher = dataFetcherResolver.resolve(context.getSourceType());
+        listener.stageStarted(UpdateStage.FETCH);
+        // Skip the update if the same payload was already saved
+        String accountId = dedupeEnabled ? userService.getUserAccountId() : null;
+        String contentHash = dedupeEnabled ? fetcher.contentHash(context) : null;
+        Optional<CombinedUpdateReport> unchanged = findUnchanged(accountId, contentHash);
+        if (unchanged.isPresent()) {
+            listener.stageCompleted(UpdateStage.FETCH);
+            return unchanged.get();
+        }
+        // Read, parse and save the data in chunks when the fetcher supports it
+        if (pipelineEnabled && fetcher instanceof StreamingDataFetcher streamingFetcher) {
+            return indexed(accountId, contentHash, () -> pipelinedUpdateService.update(context, streamingFetcher,
+                    listener));
+        }
         // Fetch dto
         FlexQueryResponseDto dto = fetcher.fetch(context);
+        listener.stageCompleted(UpdateStage.FETCH);
+        if (contentHash == null && dedupeEnabled) {
+            contentHash = dto.getContentHash();
+            unchanged = findUnchanged(accountId, contentHash);
+            if (unchanged.isPresent()) {
+                return unchanged.get();
+            }
+        }
         // Save dto data to db
-        return updateService.update(dto);
+        return indexed(accountId, contentHash, () -> updateService.update(dto, listener));
     }
-}
 
+    private Optional<CombinedUpdateReport> findUnchanged(String accountId, String contentHash) {
+        if (contentHash == null) {
+            return Optional.empty();
+        }
+        // The flex statements saved by the previous update are gone if the account data was deleted since
+        return contentHashIndex.find(accountId, contentHash)
+                .flatMap(entry -> flexStatementService.findAllSaved(entry.flexStatementIds())
+                        .map(entry::noChangesReport));
+    }
 
+    private CombinedUpdateReport indexed(String accountId, String contentHash,
+                                         Supplier<CombinedUpdateReport> update) {
+        if (!dedupeEnabled) {
+            return update.get();
+        }
+        try {
+            CombinedUpdateReport report = update.get();
+            contentHashIndex.put(accountId, contentHash, report);
+            return report;
+        } catch (RuntimeException e) {
+            contentHashIndex.remove(accountId);
+            throw e;
+        }
+    }
+}
@@ -2,7 +2,10 @@ package com.marcomarchionni.strategistapi.services;
 
 import com.marcomarchionni.strategistapi.dtos.flex.FlexQueryResponseDto;
 import com.marcomarchionni.strategistapi.dtos.response.update.CombinedUpdateReport;
+import com.marcomarchionni.strategistapi.services.util.UpdateProgressListener;
 
 public interface UpdateService {
     CombinedUpdateReport update(FlexQueryResponseDto dto);
+
+    CombinedUpdateReport update(FlexQueryResponseDto dto, UpdateProgressListener listener);
 }
@@ -1,18 +1,35 @@
 package com.marcomarchionni.strategistapi.services;
 
 import com.marcomarchionni.strategistapi.dtos.flex.FlexQueryResponseDto;
+import com.marcomarchionni.strategistapi.dtos.response.update.AccountUpdateReport;
 import com.marcomarchionni.strategistapi.dtos.response.update.CombinedUpdateReport;
 import com.marcomarchionni.strategistapi.dtos.response.update.UpdateDto;
+import com.marcomarchionni.strategistapi.dtos.response.update.UpdateStage;
+import com.marcomarchionni.strategistapi.errorhandling.exceptions.InvalidUserDataException;
 import com.marcomarchionni.strategistapi.services.parsers.ResponseParser;
+import com.marcomarchionni.strategistapi.services.util.CombinedUpdateReportCollector;
+import com.marcomarchionni.strategistapi.services.util.DateRanges;
+import com.marcomarchionni.strategistapi.services.util.UpdateProgressListener;
 import com.marcomarchionni.strategistapi.validators.UpdateDtoValidator;
-import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
-
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Updates the db with a flex query. Multi-account flex queries have one statement per account: the statements of
+ * the user account are updated in one transaction from the oldest one, the statements of the other accounts are
+ * rejected.
+ */
 @Service
-@RequiredArgsConstructor
 public class UpdateServiceImpl implements UpdateService {
 
     private final ResponseParser parser;
@@ -29,36 +46,139 @@ public class UpdateServiceImpl implements UpdateService {
 
     private final UserService userService;
 
+    private final TransactionTemplate transactionTemplate;
+
+    public UpdateServiceImpl(ResponseParser parser,
+                             TradeService tradeService,
+                             DividendService dividendService,
+                             FlexStatementService flexStatementService,
+                             PositionService positionService,
+                             UpdateDtoValidator updateDtoValidator,
+                             UserService userService,
+                             PlatformTransactionManager transactionManager) {
+        this.parser = parser;
+        this.tradeService = tradeService;
+        this.dividendService = dividendService;
+        this.flexStatementService = flexStatementService;
+        this.positionService = positionService;
+        this.updateDtoValidator = updateDtoValidator;
+        this.userService = userService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
     @Override
-    @Transactional
     public CombinedUpdateReport update(FlexQueryResponseDto dto) {
+        return update(dto, UpdateProgressListener.NONE);
+    }
+
+    @Override
+    public CombinedUpdateReport update(FlexQueryResponseDto dto, UpdateProgressListener listener) {
+        String accountId = userService.getUserAccountId();
+
+        // Group the statements by account
+        Map<String, List<FlexQueryResponseDto>> statementsByAccount = new LinkedHashMap<>();
+        for (FlexQueryResponseDto statement : dto.splitByFlexStatement()) {
+            String statementAccountId = Optional.ofNullable(statement.nullSafeGetFlexStatement())
+                    .map(FlexQueryResponseDto.FlexStatement::getAccountId)
+                    .orElse(null);
+            statementsByAccount.computeIfAbsent(statementAccountId, id -> new ArrayList<>()).add(statement);
+        }
+
+        // Statements of other accounts are rejected before being parsed, the user data is scoped to the user account
+        List<AccountUpdate> accountUpdates = new ArrayList<>();
+        statementsByAccount.forEach((statementAccountId, statements) -> accountUpdates.add(
+                accountId.equals(statementAccountId) ?
+                        updateAccount(statementAccountId, statements, accountId, listener) :
+                        rejectAccount(statementAccountId)));
+
+        // An update where every account is rejected fails
+        if (accountUpdates.stream().allMatch(accountUpdate -> accountUpdate.failure() != null)) {
+            throw accountUpdates.get(0).failure();
+        }
+
+        // Return report
+        CombinedUpdateReportCollector reports = new CombinedUpdateReportCollector();
+        accountUpdates.stream()
+                .map(accountUpdate -> accountUpdate.report().getReport())
+                .filter(Objects::nonNull)
+                .forEach(reports::collect);
+        return reports.build(accountUpdates.stream().map(AccountUpdate::report).toList());
+    }
+
+    private AccountUpdate rejectAccount(String statementAccountId) {
+        InvalidUserDataException e = new InvalidUserDataException();
+        return new AccountUpdate(AccountUpdateReport.builder().accountId(statementAccountId).error(e.getMessage())
+                .build(), e);
+    }
+
+    private AccountUpdate updateAccount(String statementAccountId, List<FlexQueryResponseDto> statements,
+                                        String accountId, UpdateProgressListener listener) {
+        List<FlexQueryResponseDto> sortedStatements = statements.size() == 1 ? statements : statements.stream()
+                .sorted(Comparator.comparing(statement -> statement.nullSafeGetFlexStatement().getToDate(),
+                        Comparator.nullsFirst(Comparator.naturalOrder())))
+                .toList();
+        try {
+            CombinedUpdateReport report = transactionTemplate.execute(status -> {
+                CombinedUpdateReportCollector reports = new CombinedUpdateReportCollector();
+                sortedStatements.forEach(statement -> reports.collect(updateStatement(statement, accountId, listener)));
+                return reports.build();
+            });
+            return new AccountUpdate(AccountUpdateReport.builder().accountId(statementAccountId).report(report)
+                    .build(), null);
+        } catch (RuntimeException e) {
+            return new AccountUpdate(AccountUpdateReport.builder().accountId(statementAccountId)
+                    .error(e.getMessage()).build(), e);
+        }
+    }
+
+    private CombinedUpdateReport updateStatement(FlexQueryResponseDto dto, String accountId,
+                                                 UpdateProgressListener listener) {
 
         // Check if dto has the latest data
         LocalDate latestToDateInDb = flexStatementService.findLatestToDate();
         LocalDate toDateInFlexQuery = dto.nullSafeGetFlexStatement().getToDate();
         boolean flexQueryHasTheLatestData = toDateInFlexQuery.isAfter(latestToDateInDb);
+        // Trades and closed dividends of the dates covered by saved statements are already in the db
+        DateRanges ingestedDates = flexStatementService.findIngestedDates();
 
         // Parse dto
+        listener.stageStarted(UpdateStage.PARSE);
         UpdateDto updateDto;
         if (flexQueryHasTheLatestData) {
-            updateDto = parser.parseAllData(dto);
+            updateDto = parser.parseAllData(dto, ingestedDates);
         } else {
-            updateDto = parser.parseHistoricalData(dto);
+            updateDto = parser.parseHistoricalData(dto, ingestedDates);
         }
+        listener.rowsProcessed(UpdateStage.PARSE, updateDto.getTrades().size() + updateDto.getPositions().size()
+                + updateDto.getDividends().size());
+        listener.stageCompleted(UpdateStage.PARSE);
 
         // Validate update dto
-        String accountId = userService.getUserAccountId();
         updateDtoValidator.validate(updateDto);
         updateDtoValidator.hasValidAccountId(updateDto, accountId);
 
         // Update flex statement, positions, open dividends, closed dividends
         var flexStatementReport = flexStatementService.updateFlexStatements(updateDto.getFlexStatement());
+        listener.stageStarted(UpdateStage.POSITIONS);
         var positionReport = positionService.updatePositions(updateDto.getPositions());
+        listener.rowsProcessed(UpdateStage.POSITIONS, updateDto.getPositions().size());
+        listener.stageCompleted(UpdateStage.POSITIONS);
+
+        listener.stageStarted(UpdateStage.TRADES);
         var tradeReport = tradeService.updateTrades(updateDto.getTrades());
+        listener.rowsProcessed(UpdateStage.TRADES, updateDto.getTrades().size());
+        listener.stageCompleted(UpdateStage.TRADES);
+
+        listener.stageStarted(UpdateStage.DIVIDENDS);
         var dividendReport = dividendService.updateDividends(updateDto.getDividends());
+        listener.rowsProcessed(UpdateStage.DIVIDENDS, updateDto.getDividends().size());
+        listener.stageCompleted(UpdateStage.DIVIDENDS);
 
         // Return report
         return CombinedUpdateReport.builder().flexStatements(flexStatementReport).trades(tradeReport)
                 .positions(positionReport).dividends(dividendReport).build();
     }
+
+    private record AccountUpdate(AccountUpdateReport report, RuntimeException failure) {
+    }
 }
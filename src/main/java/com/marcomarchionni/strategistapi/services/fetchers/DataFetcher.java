@@ -5,4 +5,12 @@ import com.marcomarchionni.strategistapi.dtos.request.UpdateContext;
 
 public interface DataFetcher {
     FlexQueryResponseDto fetch(UpdateContext context);
+
+    /**
+     * Hash of the payload computed without parsing it, or null when the hash is only known once the payload is
+     * fetched.
+     */
+    default String contentHash(UpdateContext context) {
+        return null;
+    }
 }
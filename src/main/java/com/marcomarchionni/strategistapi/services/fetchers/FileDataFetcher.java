@@ -6,31 +6,59 @@ import com.marcomarchionni.strategistapi.dtos.request.UpdateContext;
 import com.marcomarchionni.strategistapi.errorhandling.exceptions.EmptyFileException;
 import com.marcomarchionni.strategistapi.errorhandling.exceptions.InvalidXMLFileException;
 import com.marcomarchionni.strategistapi.errorhandling.exceptions.NoXMLExtensionException;
+import com.marcomarchionni.strategistapi.services.parsers.FlexStreamHandler;
+import com.marcomarchionni.strategistapi.services.parsers.FlexStreamReader;
+import com.marcomarchionni.strategistapi.services.util.DigestedFile;
+import com.marcomarchionni.strategistapi.services.util.FlexContentDigest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.util.Objects;
 
 
 @Component
 @RequiredArgsConstructor
-public class FileDataFetcher implements DataFetcher {
+public class FileDataFetcher implements StreamingDataFetcher {
 
     private final XmlMapper xmlMapper;
+    private final FlexStreamReader flexStreamReader;
 
     @Override
     public FlexQueryResponseDto fetch(UpdateContext context) {
         validateFile(context.getFile());
 
-        try (InputStream stream = context.getFile().getInputStream()) {
-            return xmlMapper.readValue(stream, FlexQueryResponseDto.class);
+        FlexContentDigest digest = new FlexContentDigest();
+        try (InputStream stream = digest.wrap(context.getFile().getInputStream())) {
+            FlexQueryResponseDto dto = xmlMapper.readValue(stream, FlexQueryResponseDto.class);
+            dto.setContentHash(digest.hex());
+            return dto;
         } catch (Exception ex) {
             throw new InvalidXMLFileException(ex);
         }
     }
 
+    @Override
+    public void fetch(UpdateContext context, FlexStreamHandler handler) {
+        validateFile(context.getFile());
+
+        try (InputStream stream = context.getFile().getInputStream()) {
+            flexStreamReader.read(stream, handler);
+        } catch (IOException ex) {
+            throw new InvalidXMLFileException(ex);
+        }
+    }
+
+    /**
+     * Hash computed while the file was received, other files are hashed while they are parsed.
+     */
+    @Override
+    public String contentHash(UpdateContext context) {
+        return context.getFile() instanceof DigestedFile file ? file.getContentHash() : null;
+    }
+
     private void validateFile(MultipartFile file) {
         if (file.isEmpty()) {
             throw new EmptyFileException();
@@ -0,0 +1,160 @@
+package com.marcomarchionni.strategistapi.services.fetchers;
+
+import com.marcomarchionni.strategistapi.dtos.flex.FlexQueryResponseDto;
+import com.marcomarchionni.strategistapi.services.util.DateRanges;
+import com.marcomarchionni.strategistapi.services.util.FlexContentDigest;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Merges the statements of several flex queries into one statement per account. Rows returned by more
+ * than one query are kept once: orders by ibOrderID, trades by tradeID, open positions by conid and dividend
+ * accruals by actionID.
+ */
+public final class FlexStatementMerger {
+
+    private FlexStatementMerger() {
+    }
+
+    public static FlexQueryResponseDto merge(List<FlexQueryResponseDto> responses) {
+        if (responses.size() == 1) {
+            return responses.get(0);
+        }
+        // Multi-account queries return one statement per account, statements are merged per account
+        Map<String, List<FlexQueryResponseDto>> responsesByAccount = new LinkedHashMap<>();
+        for (FlexQueryResponseDto response : responses) {
+            for (FlexQueryResponseDto statement : response.splitByFlexStatement()) {
+                if (statement.nullSafeGetFlexStatement() != null) {
+                    responsesByAccount.computeIfAbsent(statement.nullSafeGetFlexStatement().getAccountId(),
+                            accountId -> new ArrayList<>()).add(statement);
+                }
+            }
+        }
+        List<FlexQueryResponseDto.FlexStatement> merged = responsesByAccount.values().stream()
+                .map(FlexStatementMerger::mergeStatements)
+                .toList();
+
+        FlexQueryResponseDto firstResponse = responses.get(0);
+        List<String> hashes = responses.stream().map(FlexQueryResponseDto::getContentHash).toList();
+        return FlexQueryResponseDto.builder()
+                .queryName(firstResponse.getQueryName())
+                .type(firstResponse.getType())
+                .contentHash(hashes.contains(null) ? null : FlexContentDigest.combine(hashes))
+                .flexStatements(FlexQueryResponseDto.FlexStatements.builder()
+                        .flexStatementList(merged)
+                        .count(merged.size())
+                        .build())
+                .build();
+    }
+
+    private static FlexQueryResponseDto.FlexStatement mergeStatements(List<FlexQueryResponseDto> responses) {
+        List<FlexQueryResponseDto.FlexStatement> statements = responses.stream()
+                .map(FlexQueryResponseDto::nullSafeGetFlexStatement)
+                .toList();
+        FlexQueryResponseDto.FlexStatement first = statements.get(0);
+        if (statements.size() == 1) {
+            return first;
+        }
+
+        FlexQueryResponseDto.OpenPositions openPositions = new FlexQueryResponseDto.OpenPositions();
+        openPositions.setOpenPositionList(distinct(responses, FlexQueryResponseDto::nullSafeGetOpenPositions,
+                p -> List.of(String.valueOf(p.getLevelOfDetail()), String.valueOf(p.getConid()),
+                        String.valueOf(p.getOpenDateTime()), String.valueOf(p.getOriginatingTransactionID()))));
+        FlexQueryResponseDto.Trades trades = new FlexQueryResponseDto.Trades();
+        trades.setTradeList(distinct(responses, FlexQueryResponseDto::nullSafeGetTrades,
+                FlexQueryResponseDto.Trade::getTradeID));
+        trades.setOrderList(distinct(responses, FlexQueryResponseDto::nullSafeGetOrders,
+                FlexQueryResponseDto.Order::getIbOrderID));
+        // the same dividend has one change row per accrual step, the action id identifies the dividend only
+        FlexQueryResponseDto.ChangeInDividendAccruals changeInDividendAccruals =
+                new FlexQueryResponseDto.ChangeInDividendAccruals();
+        changeInDividendAccruals.setChangeInDividendAccrualList(distinct(responses,
+                FlexQueryResponseDto::nullSafeGetChangeInDividendAccruals,
+                d -> List.of(String.valueOf(d.getActionID()), String.valueOf(d.getLevelOfDetail()),
+                        String.valueOf(d.getCode()), String.valueOf(d.getDate()))));
+        FlexQueryResponseDto.OpenDividendAccruals openDividendAccruals =
+                new FlexQueryResponseDto.OpenDividendAccruals();
+        openDividendAccruals.setOpenDividendAccrualList(distinct(responses,
+                FlexQueryResponseDto::nullSafeGetOpenDividendAccruals,
+                FlexQueryResponseDto.OpenDividendAccrual::getActionID));
+
+        LocalDate fromDate = statements.stream().map(FlexQueryResponseDto.FlexStatement::getFromDate)
+                .filter(Objects::nonNull).min(Comparator.naturalOrder()).orElse(null);
+        LocalDate toDate = statements.stream().map(FlexQueryResponseDto.FlexStatement::getToDate)
+                .filter(Objects::nonNull).max(Comparator.naturalOrder()).orElse(null);
+        LocalDateTime whenGenerated = statements.stream().map(FlexQueryResponseDto.FlexStatement::getWhenGenerated)
+                .filter(Objects::nonNull).max(Comparator.naturalOrder()).orElse(null);
+
+        return FlexQueryResponseDto.FlexStatement.builder()
+                .accountInformation(statements.stream()
+                        .map(FlexQueryResponseDto.FlexStatement::getAccountInformation)
+                        .filter(Objects::nonNull)
+                        .findFirst()
+                        .orElse(null))
+                .openPositions(openPositions)
+                .trades(trades)
+                .changeInDividendAccruals(changeInDividendAccruals)
+                .openDividendAccruals(openDividendAccruals)
+                .accountId(first.getAccountId())
+                .fromDate(fromDate)
+                .toDate(toDate)
+                .period(first.getPeriod())
+                .whenGenerated(whenGenerated)
+                .incomplete(isIncomplete(statements, fromDate, toDate, whenGenerated))
+                .build();
+    }
+
+    /**
+     * Whether the statements holding both trades and dividends leave days of the merged period uncovered, as
+     * queries over disjoint periods or without those sections do.
+     */
+    private static boolean isIncomplete(List<FlexQueryResponseDto.FlexStatement> statements, LocalDate fromDate,
+                                        LocalDate toDate, LocalDateTime whenGenerated) {
+        if (fromDate == null || toDate == null) {
+            return true;
+        }
+        List<FlexQueryResponseDto.FlexStatement> complete = statements.stream()
+                .filter(statement -> !statement.isIncomplete() && statement.getTrades() != null &&
+                        statement.getChangeInDividendAccruals() != null && statement.getFromDate() != null &&
+                        statement.getToDate() != null)
+                .sorted(Comparator.comparing(FlexQueryResponseDto.FlexStatement::getFromDate))
+                .toList();
+        LocalDate coveredUntil = fromDate.minusDays(1);
+        for (FlexQueryResponseDto.FlexStatement statement : complete) {
+            if (statement.getFromDate().isAfter(coveredUntil.plusDays(1))) {
+                break;
+            }
+            LocalDate end = DateRanges.lastCoveredDay(statement.getToDate(), statement.getWhenGenerated());
+            if (end.isAfter(coveredUntil)) {
+                coveredUntil = end;
+            }
+        }
+        return coveredUntil.isBefore(DateRanges.lastCoveredDay(toDate, whenGenerated));
+    }
+
+    private static <T> List<T> distinct(List<FlexQueryResponseDto> responses,
+                                        Function<FlexQueryResponseDto, List<T>> rows, Function<T, ?> key) {
+        List<T> result = new ArrayList<>();
+        Set<Object> keys = new HashSet<>();
+        for (FlexQueryResponseDto response : responses) {
+            for (T row : rows.apply(response)) {
+                // rows without id, like the summaries of the trades, are compared whole
+                Object rowKey = Objects.requireNonNullElse(key.apply(row), row);
+                if (keys.add(rowKey)) {
+                    result.add(row);
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -5,21 +5,30 @@ import com.marcomarchionni.strategistapi.dtos.flex.FlexQueryResponseDto;
 import com.marcomarchionni.strategistapi.dtos.request.UpdateContext;
 import com.marcomarchionni.strategistapi.errorhandling.exceptions.SampleDataFileNotAvailableException;
 import com.marcomarchionni.strategistapi.services.UserService;
+import com.marcomarchionni.strategistapi.services.util.FlexContentDigest;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.ResourceLoader;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
 
 import java.io.InputStream;
-import java.util.Optional;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.function.Function;
 
+/**
+ * Fetches the sample flex statement. The sample file is read once, every fetch returns a copy of it with the
+ * account id of the authenticated user. Rows are copied field by field, the field values are immutable and shared
+ * with the template.
+ */
 @Component
-
 public class SampleDataFetcher implements DataFetcher {
 
     private final String path;
     private final XmlMapper xmlMapper;
     private final UserService userService;
     private final ResourceLoader resourceLoader;
+    private volatile FlexQueryResponseDto template;
 
     public SampleDataFetcher(@Value("${sample.data.file.path}") String path,
                              XmlMapper xmlMapper,
@@ -33,35 +42,92 @@ public class SampleDataFetcher implements DataFetcher {
 
     @Override
     public FlexQueryResponseDto fetch(UpdateContext context) {
+        FlexQueryResponseDto sample = getTemplate();
+        // Copy the sample with the accountId of the authenticated user
+        String accountId = userService.getUserAccountId();
+        return copy(sample, accountId);
+    }
+
+    @Override
+    public String contentHash(UpdateContext context) {
+        return getTemplate().getContentHash();
+    }
+
+    private FlexQueryResponseDto getTemplate() {
+        FlexQueryResponseDto sample = template;
+        if (sample == null) {
+            synchronized (this) {
+                sample = template;
+                if (sample == null) {
+                    sample = readTemplate();
+                    template = sample;
+                }
+            }
+        }
+        return sample;
+    }
 
+    private FlexQueryResponseDto readTemplate() {
         try (InputStream stream = resourceLoader.getResource(path).getInputStream()) {
             // Read data from the sample xml file
-            var dto = xmlMapper.readValue(stream, FlexQueryResponseDto.class);
-            // Replace the accountId in the dto with the one from the authenticated user
-            String accountId = userService.getUserAccountId();
-            replaceAccountId(dto, accountId);
+            FlexContentDigest digest = new FlexContentDigest();
+            InputStream digestStream = digest.wrap(stream);
+            var dto = xmlMapper.readValue(StreamUtils.nonClosing(digestStream), FlexQueryResponseDto.class);
+            digestStream.transferTo(OutputStream.nullOutputStream());
+            dto.setContentHash(digest.hex());
             return dto;
         } catch (Exception e) {
             throw new SampleDataFileNotAvailableException(e);
         }
     }
 
-    private void replaceAccountId(FlexQueryResponseDto dto, String accountId) {
-
-        var optionalFlexStatement = Optional.ofNullable(dto.getFlexStatements())
-                .map(FlexQueryResponseDto.FlexStatements::getFlexStatement);
+    private static FlexQueryResponseDto copy(FlexQueryResponseDto template, String accountId) {
+        FlexQueryResponseDto.FlexStatements flexStatements = null;
+        if (template.getFlexStatements() != null) {
+            flexStatements = template.getFlexStatements().toBuilder()
+                    .clearFlexStatementList()
+                    .flexStatementList(template.splitByFlexStatement().stream()
+                            .filter(statement -> statement.nullSafeGetFlexStatement() != null)
+                            .map(statement -> copy(statement, statement.nullSafeGetFlexStatement(), accountId))
+                            .toList())
+                    .build();
+        }
+        return template.toBuilder()
+                .flexStatements(flexStatements)
+                .build();
+    }
 
-        optionalFlexStatement.ifPresent(flexStatement -> flexStatement.setAccountId(accountId));
+    private static FlexQueryResponseDto.FlexStatement copy(FlexQueryResponseDto template,
+                                                           FlexQueryResponseDto.FlexStatement flexStatement,
+                                                           String accountId) {
+        FlexQueryResponseDto.OpenPositions openPositions = new FlexQueryResponseDto.OpenPositions();
+        openPositions.setOpenPositionList(copy(template.nullSafeGetOpenPositions(),
+                p -> p.toBuilder().accountId(accountId).build()));
+        FlexQueryResponseDto.Trades trades = new FlexQueryResponseDto.Trades();
+        trades.setTradeList(copy(template.nullSafeGetTrades(), t -> t.toBuilder().accountId(accountId).build()));
+        trades.setOrderList(copy(template.nullSafeGetOrders(), o -> o.toBuilder().accountId(accountId).build()));
+        FlexQueryResponseDto.ChangeInDividendAccruals changeInDividendAccruals =
+                new FlexQueryResponseDto.ChangeInDividendAccruals();
+        changeInDividendAccruals.setChangeInDividendAccrualList(copy(
+                template.nullSafeGetChangeInDividendAccruals(), d -> d.toBuilder().accountId(accountId).build()));
+        FlexQueryResponseDto.OpenDividendAccruals openDividendAccruals =
+                new FlexQueryResponseDto.OpenDividendAccruals();
+        openDividendAccruals.setOpenDividendAccrualList(copy(template.nullSafeGetOpenDividendAccruals(),
+                d -> d.toBuilder().accountId(accountId).build()));
 
-        optionalFlexStatement.map(FlexQueryResponseDto.FlexStatement::getAccountInformation)
-                .ifPresent(accountInformation -> accountInformation.setAccountId(accountId));
+        FlexQueryResponseDto.AccountInformation accountInformation = flexStatement.getAccountInformation();
+        return flexStatement.toBuilder()
+                .accountId(accountId)
+                .accountInformation(accountInformation == null ? null :
+                        accountInformation.toBuilder().accountId(accountId).build())
+                .openPositions(openPositions)
+                .trades(trades)
+                .changeInDividendAccruals(changeInDividendAccruals)
+                .openDividendAccruals(openDividendAccruals)
+                .build();
+    }
 
-        dto.nullSafeGetOpenPositions().forEach(openPosition -> openPosition.setAccountId(accountId));
-        dto.nullSafeGetOrders().forEach(order -> order.setAccountId(accountId));
-        dto.nullSafeGetTrades().forEach(trade -> trade.setAccountId(accountId));
-        dto.nullSafeGetChangeInDividendAccruals()
-                .forEach(changeInDividendAccrual -> changeInDividendAccrual.setAccountId(accountId));
-        dto.nullSafeGetOpenDividendAccruals()
-                .forEach(openDividendAccrual -> openDividendAccrual.setAccountId(accountId));
+    private static <T> List<T> copy(List<T> rows, Function<T, T> copyRow) {
+        return rows.stream().map(copyRow).toList();
     }
 }
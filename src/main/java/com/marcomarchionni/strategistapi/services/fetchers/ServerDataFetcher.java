@@ -1,29 +1,59 @@
 package com.marcomarchionni.strategistapi.services.fetchers;
 
 import com.marcomarchionni.strategistapi.dtos.flex.FlexQueryResponseDto;
-import com.marcomarchionni.strategistapi.dtos.flex.FlexStatementResponseDto;
 import com.marcomarchionni.strategistapi.dtos.request.UpdateContext;
-import com.marcomarchionni.strategistapi.services.fetchers.flexserviceclientmanagers.FlexServiceClientManager;
-import lombok.RequiredArgsConstructor;
+import com.marcomarchionni.strategistapi.errorhandling.exceptions.IbServerErrorException;
+import com.marcomarchionni.strategistapi.services.fetchers.flexstatementpollers.FlexStatementPoller;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+
 @Component
-@RequiredArgsConstructor
 public class ServerDataFetcher implements DataFetcher {
-    private final FlexServiceClientManager clientManager;
+    private final FlexStatementPoller flexStatementPoller;
+    private final int maxConcurrentQueries;
+
+    public ServerDataFetcher(FlexStatementPoller flexStatementPoller,
+                             @Value("${flexservice.poll.max-concurrent-queries:3}") int maxConcurrentQueries) {
+        this.flexStatementPoller = flexStatementPoller;
+        this.maxConcurrentQueries = maxConcurrentQueries;
+    }
 
     @Override
     public FlexQueryResponseDto fetch(UpdateContext context) {
-        // Extract token and query id from context
-        String token = context.getToken();
-        String queryId = context.getQueryId();
-
-        // Fetch flex statement response dto using token and query id
-        FlexStatementResponseDto flexStatementResponseDto = clientManager.fetchFlexStatementResponseWithRetry(queryId
-                , token);
-
-        // Fetch flex query response dto using url and code from first response
-        return clientManager.fetchFlexQueryResponseWithRetry(flexStatementResponseDto, token);
+        // Poll the flex service for the statements of the query ids, at most maxConcurrentQueries at a time
+        List<String> queryIds = context.getQueryIds();
+        Semaphore permits = new Semaphore(maxConcurrentQueries);
+        List<CompletableFuture<FlexQueryResponseDto>> statements = new ArrayList<>(queryIds.size());
+        try {
+            for (String queryId : queryIds) {
+                permits.acquire();
+                if (statements.stream().anyMatch(CompletableFuture::isCompletedExceptionally)) {
+                    break;
+                }
+                statements.add(flexStatementPoller.poll(queryId, context.getToken())
+                        .whenComplete((statement, e) -> permits.release()));
+            }
+            List<FlexQueryResponseDto> responses = new ArrayList<>(statements.size());
+            for (CompletableFuture<FlexQueryResponseDto> statement : statements) {
+                responses.add(statement.get());
+            }
+            return FlexStatementMerger.merge(responses);
+        } catch (ExecutionException e) {
+            statements.forEach(statement -> statement.cancel(true));
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IbServerErrorException(e);
+        } catch (InterruptedException e) {
+            statements.forEach(statement -> statement.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IbServerErrorException(e);
+        }
     }
 }
-
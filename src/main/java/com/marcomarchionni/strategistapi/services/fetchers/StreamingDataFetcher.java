@@ -0,0 +1,8 @@
+package com.marcomarchionni.strategistapi.services.fetchers;
+
+import com.marcomarchionni.strategistapi.dtos.request.UpdateContext;
+import com.marcomarchionni.strategistapi.services.parsers.FlexStreamHandler;
+
+public interface StreamingDataFetcher extends DataFetcher {
+    void fetch(UpdateContext context, FlexStreamHandler handler);
+}
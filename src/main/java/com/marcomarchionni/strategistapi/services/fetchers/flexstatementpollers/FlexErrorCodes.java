@@ -0,0 +1,33 @@
+package com.marcomarchionni.strategistapi.services.fetchers.flexstatementpollers;
+
+import java.util.Set;
+
+/**
+ * Error codes of the IB flex web service that mean the request can be sent again later.
+ * Other codes, like an invalid token or query, fail the request without retrying. Responses without an error
+ * code, like server errors, are retried.
+ */
+public final class FlexErrorCodes {
+
+    public static final String STATEMENT_GENERATION_IN_PROGRESS = "1019";
+
+    private static final Set<String> RETRYABLE = Set.of(
+            "1001", // Statement could not be generated at this time
+            "1004", // Statement is incomplete at this time
+            "1005", // Settlement data is not ready at this time
+            "1006", // FIFO P/L data is not ready at this time
+            "1007", // MTM P/L data is not ready at this time
+            "1008", // MTM and FIFO P/L data is not ready at this time
+            "1009", // The server is under heavy load
+            "1018", // Too many requests have been made from this token
+            STATEMENT_GENERATION_IN_PROGRESS,
+            "1021"  // Statement could not be retrieved at this time
+    );
+
+    private FlexErrorCodes() {
+    }
+
+    public static boolean isRetryable(String errorCode) {
+        return errorCode == null || RETRYABLE.contains(errorCode);
+    }
+}
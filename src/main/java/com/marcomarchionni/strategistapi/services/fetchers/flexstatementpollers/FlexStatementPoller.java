@@ -0,0 +1,14 @@
+package com.marcomarchionni.strategistapi.services.fetchers.flexstatementpollers;
+
+import com.marcomarchionni.strategistapi.dtos.flex.FlexQueryResponseDto;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface FlexStatementPoller {
+
+    /**
+     * Requests the statement of a flex query and polls IB until it is generated.
+     * The returned future completes on a scheduler thread, the calling thread is not blocked.
+     */
+    CompletableFuture<FlexQueryResponseDto> poll(String queryId, String token);
+}
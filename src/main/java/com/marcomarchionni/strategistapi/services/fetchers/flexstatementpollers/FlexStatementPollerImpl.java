@@ -0,0 +1,178 @@
+package com.marcomarchionni.strategistapi.services.fetchers.flexstatementpollers;
+
+import com.marcomarchionni.strategistapi.dtos.flex.FlexQueryResponseDto;
+import com.marcomarchionni.strategistapi.dtos.flex.FlexResponse;
+import com.marcomarchionni.strategistapi.dtos.flex.FlexStatementResponseDto;
+import com.marcomarchionni.strategistapi.errorhandling.exceptions.IbServerErrorException;
+import com.marcomarchionni.strategistapi.services.fetchers.flexserviceclients.FlexServiceClient;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Sends the two requests of the flex web service and schedules the next attempt when IB answers with an error that
+ * can be retried, like "statement generation in progress", or the connection fails. No thread sleeps between
+ * attempts: the scheduler only starts them, the blocking http calls run on the request executor.
+ * The delay between attempts grows exponentially up to a maximum, and a random part of it is dropped so that
+ * the polls of different updates do not reach IB at the same time.
+ */
+@Slf4j
+@Component
+public class FlexStatementPollerImpl implements FlexStatementPoller {
+
+    private final FlexServiceClient flexServiceClient;
+    private final TaskScheduler scheduler;
+    private final Executor requestExecutor;
+    private final long initialDelay;
+    private final double multiplier;
+    private final long maxDelay;
+    private final double jitter;
+    private final int maxAttempts;
+
+    public FlexStatementPollerImpl(FlexServiceClient flexServiceClient,
+                                   @Qualifier("flexPollingScheduler") TaskScheduler scheduler,
+                                   @Qualifier("flexRequestExecutor") Executor requestExecutor,
+                                   @Value("${flexservice.poll.initial-delay-ms:1000}") long initialDelay,
+                                   @Value("${flexservice.poll.multiplier:2}") double multiplier,
+                                   @Value("${flexservice.poll.max-delay-ms:30000}") long maxDelay,
+                                   @Value("${flexservice.poll.jitter:0.5}") double jitter,
+                                   @Value("${flexservice.poll.max-attempts:10}") int maxAttempts) {
+        this.flexServiceClient = flexServiceClient;
+        this.scheduler = scheduler;
+        this.requestExecutor = requestExecutor;
+        this.initialDelay = initialDelay;
+        this.multiplier = multiplier;
+        this.maxDelay = maxDelay;
+        this.jitter = jitter;
+        this.maxAttempts = maxAttempts;
+    }
+
+    @Override
+    public CompletableFuture<FlexQueryResponseDto> poll(String queryId, String token) {
+        CompletableFuture<FlexQueryResponseDto> poll = new CompletableFuture<>();
+        CompletableFuture<FlexStatementResponseDto> statementRequest = request(
+                () -> flexServiceClient.fetchFlexStatementResponse(queryId, token), FlexStatementResponseDto.class);
+        cancelWhenDone(poll, statementRequest);
+        statementRequest.whenComplete((statementResponse, statementError) -> {
+            if (statementError != null) {
+                poll.completeExceptionally(statementError);
+                return;
+            }
+            CompletableFuture<FlexQueryResponseDto> queryRequest = request(
+                    () -> flexServiceClient.fetchFlexQueryResponse(statementResponse, token),
+                    FlexQueryResponseDto.class);
+            cancelWhenDone(poll, queryRequest);
+            queryRequest.whenComplete((queryResponse, queryError) -> {
+                if (queryError != null) {
+                    poll.completeExceptionally(queryError);
+                } else {
+                    poll.complete(queryResponse);
+                }
+            });
+        });
+        return poll;
+    }
+
+    /**
+     * Cancels the request once the poll is done, so that cancelling the poll stops the attempts still scheduled.
+     */
+    private static void cancelWhenDone(CompletableFuture<?> poll, CompletableFuture<?> request) {
+        poll.whenComplete((response, e) -> request.cancel(false));
+    }
+
+    private <T extends FlexResponse> CompletableFuture<T> request(Supplier<ResponseEntity<T>> call, Class<T> clazz) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        schedule(call, clazz, 1, Instant.now(), result);
+        return result;
+    }
+
+    private <T extends FlexResponse> void schedule(Supplier<ResponseEntity<T>> call, Class<T> clazz, int attempt,
+                                                   Instant startTime, CompletableFuture<T> result) {
+        ScheduledFuture<?> scheduledAttempt = scheduler.schedule(() -> {
+            try {
+                requestExecutor.execute(() -> attempt(call, clazz, attempt, result));
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        }, startTime);
+        result.whenComplete((response, e) -> scheduledAttempt.cancel(false));
+    }
+
+    private <T extends FlexResponse> void attempt(Supplier<ResponseEntity<T>> call, Class<T> clazz, int attempt,
+                                                  CompletableFuture<T> result) {
+        // The request was cancelled while the attempt was waiting
+        if (result.isDone()) {
+            return;
+        }
+        try {
+            ResponseEntity<T> response = call.get();
+            if (!hasErrors(response)) {
+                result.complete(response.getBody());
+                return;
+            }
+            String errorCode = response.getBody() == null ? null : response.getBody().getErrorCode();
+            IbServerErrorException error = new IbServerErrorException(response, clazz);
+            if (!FlexErrorCodes.isRetryable(errorCode)) {
+                result.completeExceptionally(error);
+                return;
+            }
+            retry(call, clazz, attempt, result, error);
+        } catch (RuntimeException e) {
+            if (isTransient(e)) {
+                retry(call, clazz, attempt, result, e);
+            } else {
+                result.completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * Server errors and i/o failures, like a connection reset or a read timeout, are worth another attempt.
+     */
+    private static boolean isTransient(RuntimeException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof IbServerErrorException || cause instanceof ResourceAccessException
+                    || cause instanceof UncheckedIOException || cause instanceof IOException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private <T extends FlexResponse> void retry(Supplier<ResponseEntity<T>> call, Class<T> clazz, int attempt,
+                                                CompletableFuture<T> result, RuntimeException error) {
+        if (attempt >= maxAttempts) {
+            result.completeExceptionally(error);
+            return;
+        }
+        long delay = delay(attempt);
+        log.warn("Attempt {} to fetch {} failed, next attempt in {} ms. {}", attempt, clazz.getSimpleName(), delay,
+                error.getMessage());
+        schedule(call, clazz, attempt + 1, Instant.now().plusMillis(delay), result);
+    }
+
+    long delay(int attempt) {
+        double exponentialDelay = Math.min(maxDelay, initialDelay * Math.pow(multiplier, attempt - 1));
+        return Math.round(exponentialDelay * (1 - jitter * ThreadLocalRandom.current().nextDouble()));
+    }
+
+    private <T extends FlexResponse> boolean hasErrors(ResponseEntity<T> response) {
+        return response.getStatusCode() != HttpStatus.OK ||
+                response.getBody() == null ||
+                !response.getBody().isPopulated();
+    }
+}
@@ -0,0 +1,39 @@
+package com.marcomarchionni.strategistapi.services.parsers;
+
+import com.marcomarchionni.strategistapi.dtos.flex.FlexQueryResponseDto;
+import com.marcomarchionni.strategistapi.services.util.DateRanges;
+import com.marcomarchionni.strategistapi.services.util.FlexStrings;
+
+import java.time.LocalDate;
+
+/**
+ * Row level filters shared by the tree based and the streaming flex parsers.
+ */
+public final class FlexRowFilters {
+
+    private FlexRowFilters() {
+    }
+
+    public static boolean isValidOpenPosition(FlexQueryResponseDto.OpenPosition p) {
+        return FlexStrings.SUMMARY.equalsIgnoreCase(p.getLevelOfDetail());
+    }
+
+    public static boolean isNewOrder(FlexQueryResponseDto.Order order, DateRanges ingestedDates) {
+        LocalDate tradeDate = order.getTradeDate();
+        if (tradeDate == null && order.getDateTime() != null) {
+            tradeDate = order.getDateTime().toLocalDate();
+        }
+        return !ingestedDates.contains(tradeDate);
+    }
+
+    public static boolean isNewClosedDividend(FlexQueryResponseDto.ChangeInDividendAccrual cd,
+                                              DateRanges ingestedDates) {
+        return !ingestedDates.contains(cd.getDate());
+    }
+
+    public static boolean isValidClosedDividend(FlexQueryResponseDto.ChangeInDividendAccrual cd) {
+        return FlexStrings.DETAIL.equalsIgnoreCase(cd.getLevelOfDetail()) &&
+                FlexStrings.REINVESTMENT.equalsIgnoreCase(cd.getCode()) &&
+                cd.getDate().equals(cd.getPayDate());
+    }
+}
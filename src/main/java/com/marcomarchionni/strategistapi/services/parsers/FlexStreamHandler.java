@@ -0,0 +1,27 @@
+package com.marcomarchionni.strategistapi.services.parsers;
+
+import com.marcomarchionni.strategistapi.domain.FlexStatement;
+import com.marcomarchionni.strategistapi.dtos.response.update.UpdateDto;
+import com.marcomarchionni.strategistapi.services.util.DateRanges;
+
+/**
+ * Receives the entities produced by a {@link FlexStreamReader} while the xml is being read.
+ * Every chunk carries the flex statement it belongs to and at most chunk-size rows.
+ */
+public interface FlexStreamHandler {
+
+    /**
+     * Trades and closed dividends dated inside these dates are skipped before they are mapped.
+     */
+    default DateRanges ingestedDates() {
+        return DateRanges.EMPTY;
+    }
+
+    default void onFlexStatement(FlexStatement flexStatement) {
+    }
+
+    void onChunk(UpdateDto chunk);
+
+    default void onFlexStatementEnd(FlexStatement flexStatement) {
+    }
+}
@@ -0,0 +1,8 @@
+package com.marcomarchionni.strategistapi.services.parsers;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface FlexStreamReader {
+    void read(InputStream stream, FlexStreamHandler handler) throws IOException;
+}
@@ -0,0 +1,237 @@
+package com.marcomarchionni.strategistapi.services.parsers;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import com.marcomarchionni.strategistapi.domain.Dividend;
+import com.marcomarchionni.strategistapi.domain.FlexStatement;
+import com.marcomarchionni.strategistapi.domain.Position;
+import com.marcomarchionni.strategistapi.domain.Trade;
+import com.marcomarchionni.strategistapi.dtos.flex.FlexQueryResponseDto;
+import com.marcomarchionni.strategistapi.dtos.response.update.UpdateDto;
+import com.marcomarchionni.strategistapi.errorhandling.exceptions.InvalidXMLFileException;
+import com.marcomarchionni.strategistapi.mappers.DividendMapper;
+import com.marcomarchionni.strategistapi.mappers.FlexStatementMapper;
+import com.marcomarchionni.strategistapi.mappers.PositionMapper;
+import com.marcomarchionni.strategistapi.mappers.TradeMapper;
+import com.marcomarchionni.strategistapi.services.util.DateRanges;
+import com.marcomarchionni.strategistapi.services.util.FlexStrings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Reads a flex query xml one row element at a time. Rows are mapped to entities as soon as they are read and
+ * handed over in chunks, so the memory used does not depend on the size of the file.
+ */
+@Component
+public class FlexStreamReaderImpl implements FlexStreamReader {
+
+    private final XmlMapper xmlMapper;
+    private final FlexStatementMapper flexStatementMapper;
+    private final TradeMapper tradeMapper;
+    private final PositionMapper positionMapper;
+    private final DividendMapper dividendMapper;
+    private final int chunkSize;
+
+    public FlexStreamReaderImpl(XmlMapper xmlMapper,
+                                FlexStatementMapper flexStatementMapper,
+                                TradeMapper tradeMapper,
+                                PositionMapper positionMapper,
+                                DividendMapper dividendMapper,
+                                @Value("${update.chunk-size:500}") int chunkSize) {
+        this.xmlMapper = xmlMapper;
+        this.flexStatementMapper = flexStatementMapper;
+        this.tradeMapper = tradeMapper;
+        this.positionMapper = positionMapper;
+        this.dividendMapper = dividendMapper;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public void read(InputStream stream, FlexStreamHandler handler) throws IOException {
+        int statementCount = 0;
+        // The rows of the flex query share one intern table
+        ObjectReader rowReader = xmlMapper.reader().withAttribute(FlexStrings.class, new FlexStrings());
+        try (JsonParser parser = xmlMapper.getFactory().createParser(stream)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new InvalidXMLFileException();
+            }
+            // FlexQueryResponse -> FlexStatements -> FlexStatement
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken token = parser.nextToken();
+                if (name.equals("FlexStatements") && token == JsonToken.START_OBJECT) {
+                    statementCount += readFlexStatements(parser, rowReader, handler);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        if (statementCount == 0) {
+            throw new InvalidXMLFileException();
+        }
+    }
+
+    private int readFlexStatements(JsonParser parser, ObjectReader rowReader, FlexStreamHandler handler)
+            throws IOException {
+        int statementCount = 0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken token = parser.nextToken();
+            if (name.equals("FlexStatement") && token == JsonToken.START_OBJECT) {
+                readFlexStatement(parser, rowReader, handler);
+                statementCount++;
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return statementCount;
+    }
+
+    private void readFlexStatement(JsonParser parser, ObjectReader rowReader, FlexStreamHandler handler)
+            throws IOException {
+        ObjectNode attributes = xmlMapper.createObjectNode();
+        StatementChunker chunker = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken token = parser.nextToken();
+
+            // Attributes come first and, unlike child elements, are camel case
+            if (Character.isLowerCase(name.charAt(0))) {
+                if (chunker == null && token.isScalarValue()) {
+                    attributes.put(name, parser.getValueAsString());
+                }
+                parser.skipChildren();
+                continue;
+            }
+            if (chunker == null) {
+                chunker = startStatement(attributes, handler);
+            }
+            // Sections without rows are read as empty strings
+            switch (name) {
+                case "OpenPositions" -> readRows(parser, rowReader, "OpenPosition",
+                        FlexQueryResponseDto.OpenPosition.class, chunker::addOpenPosition);
+                case "Trades" -> {
+                    chunker.flexStatement.setTradesIncluded(true);
+                    readRows(parser, rowReader, "Order", FlexQueryResponseDto.Order.class, chunker::addOrder);
+                }
+                case "ChangeInDividendAccruals" -> {
+                    chunker.flexStatement.setDividendsIncluded(true);
+                    readRows(parser, rowReader, "ChangeInDividendAccrual",
+                            FlexQueryResponseDto.ChangeInDividendAccrual.class, chunker::addClosedDividend);
+                }
+                case "OpenDividendAccruals" -> readRows(parser, rowReader, "OpenDividendAccrual",
+                        FlexQueryResponseDto.OpenDividendAccrual.class, chunker::addOpenDividend);
+                default -> parser.skipChildren();
+            }
+        }
+        if (chunker == null) {
+            chunker = startStatement(attributes, handler);
+        }
+        chunker.finish();
+    }
+
+    private StatementChunker startStatement(ObjectNode attributes, FlexStreamHandler handler) throws IOException {
+        var flexStatementDto = xmlMapper.treeToValue(attributes, FlexQueryResponseDto.FlexStatement.class);
+        FlexStatement flexStatement = flexStatementMapper.toFlexStatement(flexStatementDto);
+        handler.onFlexStatement(flexStatement);
+        return new StatementChunker(flexStatement, handler);
+    }
+
+    private <T> void readRows(JsonParser parser, ObjectReader rowReader, String rowName, Class<T> rowType,
+                              Consumer<T> rowConsumer) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            return;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken token = parser.nextToken();
+            if (name.equals(rowName) && token == JsonToken.START_OBJECT) {
+                rowConsumer.accept(rowReader.readValue(parser, rowType));
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    private class StatementChunker {
+        private final FlexStatement flexStatement;
+        private final FlexStreamHandler handler;
+        private final DateRanges ingestedDates;
+        private List<Trade> trades = new ArrayList<>();
+        private List<Position> positions = new ArrayList<>();
+        private List<Dividend> dividends = new ArrayList<>();
+        private int rowCount = 0;
+        private boolean flushed = false;
+
+        StatementChunker(FlexStatement flexStatement, FlexStreamHandler handler) {
+            this.flexStatement = flexStatement;
+            this.handler = handler;
+            this.ingestedDates = handler.ingestedDates();
+        }
+
+        void addOpenPosition(FlexQueryResponseDto.OpenPosition openPosition) {
+            if (FlexRowFilters.isValidOpenPosition(openPosition)) {
+                positions.add(positionMapper.toPosition(openPosition));
+                rowAdded();
+            }
+        }
+
+        void addOrder(FlexQueryResponseDto.Order order) {
+            if (FlexRowFilters.isNewOrder(order, ingestedDates)) {
+                trades.add(tradeMapper.toTrade(order));
+                rowAdded();
+            }
+        }
+
+        void addClosedDividend(FlexQueryResponseDto.ChangeInDividendAccrual closedDividend) {
+            if (FlexRowFilters.isValidClosedDividend(closedDividend) &&
+                    FlexRowFilters.isNewClosedDividend(closedDividend, ingestedDates)) {
+                dividends.add(dividendMapper.toClosedDividend(closedDividend));
+                rowAdded();
+            }
+        }
+
+        void addOpenDividend(FlexQueryResponseDto.OpenDividendAccrual openDividend) {
+            dividends.add(dividendMapper.toOpenDividend(openDividend));
+            rowAdded();
+        }
+
+        void finish() {
+            // Always emit at least one chunk, so that statements without rows are reported too
+            if (rowCount > 0 || !flushed) {
+                flush();
+            }
+            handler.onFlexStatementEnd(flexStatement);
+        }
+
+        private void rowAdded() {
+            if (++rowCount >= chunkSize) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            handler.onChunk(UpdateDto.builder()
+                    .flexStatement(flexStatement)
+                    .trades(trades)
+                    .positions(positions)
+                    .dividends(dividends)
+                    .build());
+            trades = new ArrayList<>();
+            positions = new ArrayList<>();
+            dividends = new ArrayList<>();
+            rowCount = 0;
+            flushed = true;
+        }
+    }
+}
@@ -2,9 +2,18 @@ package com.marcomarchionni.strategistapi.services.parsers;
 
 import com.marcomarchionni.strategistapi.dtos.flex.FlexQueryResponseDto;
 import com.marcomarchionni.strategistapi.dtos.response.update.UpdateDto;
+import com.marcomarchionni.strategistapi.services.util.DateRanges;
 
 public interface ResponseParser {
     UpdateDto parseAllData(FlexQueryResponseDto dto);
 
     UpdateDto parseHistoricalData(FlexQueryResponseDto dto);
+
+    /**
+     * Like {@link #parseAllData(FlexQueryResponseDto)}, trades and closed dividends dated inside the ingested
+     * dates are left out.
+     */
+    UpdateDto parseAllData(FlexQueryResponseDto dto, DateRanges ingestedDates);
+
+    UpdateDto parseHistoricalData(FlexQueryResponseDto dto, DateRanges ingestedDates);
 }
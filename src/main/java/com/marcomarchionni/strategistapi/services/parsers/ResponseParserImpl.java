@@ -10,12 +10,12 @@ import com.marcomarchionni.strategistapi.mappers.DividendMapper;
 import com.marcomarchionni.strategistapi.mappers.FlexStatementMapper;
 import com.marcomarchionni.strategistapi.mappers.PositionMapper;
 import com.marcomarchionni.strategistapi.mappers.TradeMapper;
+import com.marcomarchionni.strategistapi.services.util.DateRanges;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
 import java.util.Collections;
 import java.util.List;
-import java.util.function.Predicate;
 import java.util.stream.Stream;
 
 @Component
@@ -26,37 +26,32 @@ public class ResponseParserImpl implements ResponseParser {
     private final PositionMapper positionMapper;
     private final DividendMapper dividendMapper;
 
-    private Predicate<FlexQueryResponseDto.OpenPosition> isValidOpenPosition() {
-        return p -> p.getLevelOfDetail().equalsIgnoreCase("SUMMARY");
-    }
-
-    private Predicate<FlexQueryResponseDto.ChangeInDividendAccrual> isValidClosedDividend() {
-        return cd ->
-                cd.getLevelOfDetail().equalsIgnoreCase("DETAIL") && cd.getCode().equalsIgnoreCase("Re") &&
-                        cd.getDate().equals(cd.getPayDate());
-    }
-
     private FlexStatement getFlexStatement(FlexQueryResponseDto dto) {
         FlexQueryResponseDto.FlexStatement fs = dto.nullSafeGetFlexStatement();
         return flexStatementMapper.toFlexStatement(fs);
     }
 
-    private List<Trade> getTrades(FlexQueryResponseDto dto) {
-        return dto.nullSafeGetOrders().stream().map(tradeMapper::toTrade).toList();
+    private List<Trade> getTrades(FlexQueryResponseDto dto, DateRanges ingestedDates) {
+        return dto.nullSafeGetOrders()
+                .stream()
+                .filter(order -> FlexRowFilters.isNewOrder(order, ingestedDates))
+                .map(tradeMapper::toTrade)
+                .toList();
     }
 
     private List<Position> getPositions(FlexQueryResponseDto dto) {
         return dto.nullSafeGetOpenPositions()
                 .stream()
-                .filter(isValidOpenPosition())
+                .filter(FlexRowFilters::isValidOpenPosition)
                 .map(positionMapper::toPosition)
                 .toList();
     }
 
-    private List<Dividend> getDividends(FlexQueryResponseDto dto) {
+    private List<Dividend> getDividends(FlexQueryResponseDto dto, DateRanges ingestedDates) {
         var closedDividendsStream = dto.nullSafeGetChangeInDividendAccruals()
                 .stream()
-                .filter(isValidClosedDividend())
+                .filter(FlexRowFilters::isValidClosedDividend)
+                .filter(cd -> FlexRowFilters.isNewClosedDividend(cd, ingestedDates))
                 .map(dividendMapper::toClosedDividend);
 
         var openDividendsStream = dto.nullSafeGetOpenDividendAccruals()
@@ -67,31 +62,42 @@ public class ResponseParserImpl implements ResponseParser {
 
     }
 
-    private List<Dividend> getClosedDividends(FlexQueryResponseDto dto) {
+    private List<Dividend> getClosedDividends(FlexQueryResponseDto dto, DateRanges ingestedDates) {
         return dto.nullSafeGetChangeInDividendAccruals()
                 .stream()
-                .filter(isValidClosedDividend())
+                .filter(FlexRowFilters::isValidClosedDividend)
+                .filter(cd -> FlexRowFilters.isNewClosedDividend(cd, ingestedDates))
                 .map(dividendMapper::toClosedDividend)
                 .toList();
     }
 
     @Override
     public UpdateDto parseAllData(FlexQueryResponseDto dto) {
+        return parseAllData(dto, DateRanges.EMPTY);
+    }
+
+    @Override
+    public UpdateDto parseHistoricalData(FlexQueryResponseDto dto) {
+        return parseHistoricalData(dto, DateRanges.EMPTY);
+    }
+
+    @Override
+    public UpdateDto parseAllData(FlexQueryResponseDto dto, DateRanges ingestedDates) {
         return UpdateDto.builder()
                 .flexStatement(getFlexStatement(dto))
-                .trades(getTrades(dto))
+                .trades(getTrades(dto, ingestedDates))
                 .positions(getPositions(dto))
-                .dividends(getDividends(dto))
+                .dividends(getDividends(dto, ingestedDates))
                 .build();
     }
 
     @Override
-    public UpdateDto parseHistoricalData(FlexQueryResponseDto dto) {
+    public UpdateDto parseHistoricalData(FlexQueryResponseDto dto, DateRanges ingestedDates) {
         return UpdateDto.builder()
                 .flexStatement(getFlexStatement(dto))
                 .positions(Collections.emptyList())
-                .trades(getTrades(dto))
-                .dividends(getClosedDividends(dto))
+                .trades(getTrades(dto, ingestedDates))
+                .dividends(getClosedDividends(dto, ingestedDates))
                 .build();
     }
 }
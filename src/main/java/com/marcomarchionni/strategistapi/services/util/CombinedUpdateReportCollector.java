@@ -0,0 +1,44 @@
+package com.marcomarchionni.strategistapi.services.util;
+
+import com.marcomarchionni.strategistapi.domain.FlexStatement;
+import com.marcomarchionni.strategistapi.dtos.response.DividendSummary;
+import com.marcomarchionni.strategistapi.dtos.response.PositionSummary;
+import com.marcomarchionni.strategistapi.dtos.response.TradeSummary;
+import com.marcomarchionni.strategistapi.dtos.response.update.AccountUpdateReport;
+import com.marcomarchionni.strategistapi.dtos.response.update.CombinedUpdateReport;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Merges the reports of the statements, or of the accounts, of an update.
+ */
+@Getter
+public class CombinedUpdateReportCollector {
+
+    private final UpdateReportCollector<FlexStatement> flexStatements = new UpdateReportCollector<>();
+    private final UpdateReportCollector<TradeSummary> trades = new UpdateReportCollector<>();
+    private final UpdateReportCollector<PositionSummary> positions = new UpdateReportCollector<>();
+    private final UpdateReportCollector<DividendSummary> dividends = new UpdateReportCollector<>();
+
+    public void collect(CombinedUpdateReport report) {
+        flexStatements.collect(report.getFlexStatements());
+        trades.collect(report.getTrades());
+        positions.collect(report.getPositions());
+        dividends.collect(report.getDividends());
+    }
+
+    public CombinedUpdateReport build() {
+        return build(List.of());
+    }
+
+    public CombinedUpdateReport build(List<AccountUpdateReport> accounts) {
+        return CombinedUpdateReport.builder()
+                .flexStatements(flexStatements.build())
+                .trades(trades.build())
+                .positions(positions.build())
+                .dividends(dividends.build())
+                .accounts(accounts)
+                .build();
+    }
+}
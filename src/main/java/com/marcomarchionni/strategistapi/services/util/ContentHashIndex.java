@@ -0,0 +1,137 @@
+package com.marcomarchionni.strategistapi.services.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.marcomarchionni.strategistapi.domain.FlexStatement;
+import com.marcomarchionni.strategistapi.dtos.response.update.AccountUpdateReport;
+import com.marcomarchionni.strategistapi.dtos.response.update.CombinedUpdateReport;
+import com.marcomarchionni.strategistapi.dtos.response.update.UpdateReport;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Hash of the last payload saved for each account, with the ids of the flex statements saved and the number of
+ * rows of each section. They are kept on the row of the account, so they survive restarts and are shared by the
+ * instances of the application. Only the last payload is kept, so a payload matches only if no other payload was
+ * saved for the account in between.
+ */
+@Component
+public class ContentHashIndex {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ContentHashIndex(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public Optional<Entry> find(String accountId, String contentHash) {
+        List<String> entries = jdbcTemplate.queryForList("SELECT last_payload_report FROM user_details " +
+                "WHERE account_id = ? AND last_payload_hash = ?", String.class, accountId, contentHash);
+        return entries.stream().filter(Objects::nonNull).findFirst().map(ContentHashIndex::readEntry);
+    }
+
+    public void put(String accountId, String contentHash, CombinedUpdateReport report) {
+        if (contentHash == null) {
+            remove(accountId);
+        } else {
+            Entry entry = new Entry(contentHash,
+                    report.getFlexStatements().getAdded().stream().map(FlexStatement::getId).toList(),
+                    RowCounts.of(report),
+                    report.getAccounts().stream().map(AccountRowCounts::of).toList());
+            jdbcTemplate.update("UPDATE user_details SET last_payload_hash = ?, last_payload_report = ? " +
+                    "WHERE account_id = ?", contentHash, writeEntry(entry), accountId);
+        }
+    }
+
+    public void remove(String accountId) {
+        jdbcTemplate.update("UPDATE user_details SET last_payload_hash = NULL, last_payload_report = NULL " +
+                "WHERE account_id = ?", accountId);
+    }
+
+    private static Entry readEntry(String json) {
+        try {
+            return OBJECT_MAPPER.readValue(json, Entry.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Invalid last payload report", e);
+        }
+    }
+
+    private static String writeEntry(Entry entry) {
+        try {
+            return OBJECT_MAPPER.writeValueAsString(entry);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public record Entry(String contentHash, List<Long> flexStatementIds, RowCounts rowCounts,
+                        List<AccountRowCounts> accounts) {
+
+        /**
+         * Report of an update of the same payload given the flex statements saved by the first one, nothing is
+         * saved and every row is unchanged.
+         */
+        public CombinedUpdateReport noChangesReport(List<FlexStatement> flexStatements) {
+            return rowCounts.noChangesReport(flexStatements, accounts.stream()
+                    .map(account -> account.noChangesReport(flexStatements))
+                    .toList());
+        }
+    }
+
+    /**
+     * Rows added, merged or skipped by an update, the rows deleted are not part of the payload.
+     */
+    public record RowCounts(int trades, int positions, int dividends) {
+
+        static RowCounts of(CombinedUpdateReport report) {
+            return new RowCounts(count(report.getTrades()), count(report.getPositions()),
+                    count(report.getDividends()));
+        }
+
+        CombinedUpdateReport noChangesReport(List<FlexStatement> flexStatements,
+                                             List<AccountUpdateReport> accounts) {
+            return CombinedUpdateReport.builder()
+                    .flexStatements(UpdateReport.<FlexStatement>builder().skipped(flexStatements).build())
+                    .trades(unchanged(trades))
+                    .positions(unchanged(positions))
+                    .dividends(unchanged(dividends))
+                    .accounts(accounts)
+                    .build();
+        }
+
+        private static int count(UpdateReport<?> report) {
+            return report.getAdded().size() + report.getMerged().size() + report.getSkipped().size() +
+                    report.getUnchanged();
+        }
+
+        private static <T> UpdateReport<T> unchanged(int count) {
+            return UpdateReport.<T>builder().unchanged(count).build();
+        }
+    }
+
+    public record AccountRowCounts(String accountId, RowCounts rowCounts, String error) {
+
+        static AccountRowCounts of(AccountUpdateReport account) {
+            return new AccountRowCounts(account.getAccountId(),
+                    account.getReport() == null ? null : RowCounts.of(account.getReport()), account.getError());
+        }
+
+        AccountUpdateReport noChangesReport(List<FlexStatement> flexStatements) {
+            if (rowCounts == null) {
+                return AccountUpdateReport.builder().accountId(accountId).error(error).build();
+            }
+            return AccountUpdateReport.builder()
+                    .accountId(accountId)
+                    .report(rowCounts.noChangesReport(flexStatements.stream()
+                            .filter(flexStatement -> accountId.equals(flexStatement.getAccountId()))
+                            .toList(), List.of()))
+                    .build();
+        }
+    }
+}
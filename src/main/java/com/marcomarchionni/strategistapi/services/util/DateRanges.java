@@ -0,0 +1,83 @@
+package com.marcomarchionni.strategistapi.services.util;
+
+import com.marcomarchionni.strategistapi.domain.FlexStatement;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Dates covered by the flex statements already saved, kept as sorted, non overlapping intervals of epoch days.
+ * Only statements holding both the trades and the closed dividends of their period count.
+ */
+public class DateRanges {
+
+    public static final DateRanges EMPTY = new DateRanges(new long[0], new long[0]);
+
+    private final long[] starts;
+    private final long[] ends;
+
+    private DateRanges(long[] starts, long[] ends) {
+        this.starts = starts;
+        this.ends = ends;
+    }
+
+    public static DateRanges of(List<FlexStatement> flexStatements) {
+        List<long[]> ranges = new ArrayList<>();
+        for (FlexStatement flexStatement : flexStatements) {
+            if (flexStatement.getFromDate() == null || flexStatement.getToDate() == null ||
+                    !Boolean.TRUE.equals(flexStatement.getTradesIncluded()) ||
+                    !Boolean.TRUE.equals(flexStatement.getDividendsIncluded())) {
+                continue;
+            }
+            LocalDate end = lastCoveredDay(flexStatement.getToDate(), flexStatement.getWhenGenerated());
+            if (!end.isBefore(flexStatement.getFromDate())) {
+                ranges.add(new long[]{flexStatement.getFromDate().toEpochDay(), end.toEpochDay()});
+            }
+        }
+        ranges.sort(Comparator.comparingLong(range -> range[0]));
+
+        long[] starts = new long[ranges.size()];
+        long[] ends = new long[ranges.size()];
+        int size = 0;
+        for (long[] range : ranges) {
+            if (size > 0 && range[0] <= ends[size - 1] + 1) {
+                ends[size - 1] = Math.max(ends[size - 1], range[1]);
+            } else {
+                starts[size] = range[0];
+                ends[size] = range[1];
+                size++;
+            }
+        }
+        return new DateRanges(Arrays.copyOf(starts, size), Arrays.copyOf(ends, size));
+    }
+
+    /**
+     * Last day whose trades are all in a statement ending on toDate.
+     */
+    public static LocalDate lastCoveredDay(LocalDate toDate, LocalDateTime whenGenerated) {
+        // A statement generated before the end of its last day may miss the trades of that day
+        if (whenGenerated != null && !whenGenerated.toLocalDate().isAfter(toDate)) {
+            return whenGenerated.toLocalDate().minusDays(1);
+        }
+        return toDate;
+    }
+
+    public boolean contains(LocalDate date) {
+        if (date == null || starts.length == 0) {
+            return false;
+        }
+        long day = date.toEpochDay();
+        int index = Arrays.binarySearch(starts, day);
+        // index of the last range starting on or before the day
+        int range = index >= 0 ? index : -index - 2;
+        return range >= 0 && day <= ends[range];
+    }
+
+    public boolean isEmpty() {
+        return starts.length == 0;
+    }
+}
@@ -0,0 +1,11 @@
+package com.marcomarchionni.strategistapi.services.util;
+
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * Uploaded file hashed with {@link FlexContentDigest} while it was received, so that it is not read again to hash it.
+ */
+public interface DigestedFile extends MultipartFile {
+
+    String getContentHash();
+}
@@ -0,0 +1,43 @@
+package com.marcomarchionni.strategistapi.services.util;
+
+import com.marcomarchionni.strategistapi.domain.Dividend;
+import com.marcomarchionni.strategistapi.repositories.projections.DividendActionState;
+
+import java.util.List;
+
+/**
+ * Open/closed state of the dividends in the database, as sets of primitive action ids.
+ */
+public class DividendsIndex {
+
+    private final LongHashSet openActionIds;
+    private final LongHashSet closedActionIds;
+
+    private DividendsIndex(int expectedSize) {
+        openActionIds = new LongHashSet(expectedSize);
+        closedActionIds = new LongHashSet(expectedSize);
+    }
+
+    public static DividendsIndex createDividendsIndex(List<DividendActionState> actionStates) {
+        DividendsIndex index = new DividendsIndex(actionStates.size());
+        for (DividendActionState actionState : actionStates) {
+            if (actionState.getActionId() == null) {
+                continue;
+            }
+            if (actionState.getOpenClosed() == Dividend.OpenClosed.OPEN) {
+                index.openActionIds.add(actionState.getActionId());
+            } else {
+                index.closedActionIds.add(actionState.getActionId());
+            }
+        }
+        return index;
+    }
+
+    public boolean exists(Dividend dividend) {
+        return isOpen(dividend) || (dividend.getActionId() != null && closedActionIds.contains(dividend.getActionId()));
+    }
+
+    public boolean isOpen(Dividend dividend) {
+        return dividend.getActionId() != null && openActionIds.contains(dividend.getActionId());
+    }
+}
@@ -0,0 +1,103 @@
+package com.marcomarchionni.strategistapi.services.util;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Streaming SHA-256 of a raw flex payload. The value of the whenGenerated attribute is left out of the hash,
+ * IB sets it to the time the statement is generated, so the same query run twice would never give the same hash.
+ */
+public class FlexContentDigest {
+
+    private static final byte[] WHEN_GENERATED = "whenGenerated=\"".getBytes(StandardCharsets.US_ASCII);
+
+    private final MessageDigest digest = sha256();
+    private int matched;
+    private boolean skipping;
+
+    public static String of(InputStream stream) throws IOException {
+        FlexContentDigest digest = new FlexContentDigest();
+        digest.wrap(stream).transferTo(OutputStream.nullOutputStream());
+        return digest.hex();
+    }
+
+    /**
+     * Hash of a payload made of several flex statements, in the given order.
+     */
+    public static String combine(List<String> hashes) {
+        MessageDigest digest = sha256();
+        hashes.forEach(hash -> digest.update(hash.getBytes(StandardCharsets.US_ASCII)));
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Stream updating the digest with the bytes read through it.
+     */
+    public InputStream wrap(InputStream stream) {
+        return new FilterInputStream(stream) {
+            @Override
+            public int read() throws IOException {
+                int b = super.read();
+                if (b != -1) {
+                    update(new byte[]{(byte) b}, 0, 1);
+                }
+                return b;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                int read = super.read(b, off, len);
+                if (read > 0) {
+                    update(b, off, read);
+                }
+                return read;
+            }
+        };
+    }
+
+    public String hex() {
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private void update(byte[] b, int off, int len) {
+        int start = off;
+        int end = off + len;
+        for (int i = off; i < end; i++) {
+            if (skipping) {
+                if (b[i] == '"') {
+                    skipping = false;
+                    start = i;
+                }
+                continue;
+            }
+            if (b[i] == WHEN_GENERATED[matched]) {
+                matched++;
+            } else {
+                matched = b[i] == WHEN_GENERATED[0] ? 1 : 0;
+            }
+            if (matched == WHEN_GENERATED.length) {
+                digest.update(b, start, i + 1 - start);
+                matched = 0;
+                skipping = true;
+            }
+        }
+        if (!skipping) {
+            digest.update(b, start, end - start);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
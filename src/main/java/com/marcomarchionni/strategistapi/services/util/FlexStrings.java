@@ -0,0 +1,39 @@
+package com.marcomarchionni.strategistapi.services.util;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Intern table for the flex attribute values repeated on every row (account ids, currencies, asset categories,
+ * codes...). A table is shared by the rows of a single parse and dropped with it. It stops growing at
+ * {@link #MAX_SIZE} entries, values read after that are returned as they are.
+ */
+public final class FlexStrings {
+
+    public static final String SUMMARY = "SUMMARY";
+    public static final String DETAIL = "DETAIL";
+    public static final String REINVESTMENT = "Re";
+
+    static final int MAX_SIZE = 1024;
+    static final int MAX_LENGTH = 32;
+
+    private final Map<String, String> table = new HashMap<>();
+
+    public String intern(String value) {
+        if (value == null || value.length() > MAX_LENGTH) {
+            return value;
+        }
+        String interned = table.get(value);
+        if (interned != null) {
+            return interned;
+        }
+        if (table.size() < MAX_SIZE) {
+            table.put(value, value);
+        }
+        return value;
+    }
+
+    int size() {
+        return table.size();
+    }
+}
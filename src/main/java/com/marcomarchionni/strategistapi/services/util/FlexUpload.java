@@ -0,0 +1,147 @@
+package com.marcomarchionni.strategistapi.services.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Flex query uploaded as the request body. Small uploads are kept in memory, large ones are spilled to a temp file
+ * that is memory-mapped, so that reading it does not copy the file on the heap.
+ */
+public class FlexUpload implements DigestedFile {
+
+    private final String originalFilename;
+    private final String contentType;
+    private final ByteBuffer content;
+    private final Path path;
+    private final String contentHash;
+
+    private FlexUpload(String originalFilename, String contentType, ByteBuffer content, Path path,
+                       String contentHash) {
+        this.originalFilename = originalFilename;
+        this.contentType = contentType;
+        this.content = content;
+        this.path = path;
+        this.contentHash = contentHash;
+    }
+
+    public static FlexUpload inMemory(String originalFilename, String contentType, byte[] content,
+                                      String contentHash) {
+        return new FlexUpload(originalFilename, contentType, ByteBuffer.wrap(content), null, contentHash);
+    }
+
+    /**
+     * Maps the temp file holding the upload, the file is deleted by {@link #delete()}.
+     */
+    public static FlexUpload mapped(String originalFilename, String contentType, Path path, String contentHash)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer content = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new FlexUpload(originalFilename, contentType, content, path, contentHash);
+        }
+    }
+
+    public boolean isMapped() {
+        return path != null;
+    }
+
+    @Override
+    public String getName() {
+        return "file";
+    }
+
+    @Override
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    @Override
+    public String getOriginalFilename() {
+        return originalFilename;
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return !content.hasRemaining();
+    }
+
+    @Override
+    public long getSize() {
+        return content.remaining();
+    }
+
+    @Override
+    public byte[] getBytes() {
+        byte[] bytes = new byte[content.remaining()];
+        content.duplicate().get(bytes);
+        return bytes;
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        return new ByteBufferInputStream(content.duplicate());
+    }
+
+    @Override
+    public void transferTo(File dest) throws IOException {
+        try (InputStream stream = getInputStream()) {
+            Files.copy(stream, dest.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    public void delete() throws IOException {
+        if (path != null) {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    private static class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int read = Math.min(len, buffer.remaining());
+            buffer.get(b, off, read);
+            return read;
+        }
+
+        @Override
+        public long skip(long n) {
+            int skipped = (int) Math.max(0, Math.min(n, buffer.remaining()));
+            buffer.position(buffer.position() + skipped);
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
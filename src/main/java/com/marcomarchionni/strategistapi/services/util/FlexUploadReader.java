@@ -0,0 +1,116 @@
+package com.marcomarchionni.strategistapi.services.util;
+
+import com.marcomarchionni.strategistapi.errorhandling.exceptions.InvalidXMLFileException;
+import com.marcomarchionni.strategistapi.errorhandling.exceptions.UploadTooLargeException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Reads a flex query uploaded as the request body. Gzip and zip uploads are decompressed while they are read, and
+ * the decompressed size is limited. Uploads larger than the memory threshold are written to a temp file instead of
+ * being kept on the heap. The decompressed content is hashed while it is read.
+ */
+@Component
+public class FlexUploadReader {
+
+    private static final String DEFAULT_FILENAME = "upload.xml";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final int memoryThreshold;
+    private final long maxSize;
+
+    public FlexUploadReader(@Value("${update.upload.memory-threshold:1MB}") DataSize memoryThreshold,
+                            @Value("${update.upload.max-size:500MB}") DataSize maxSize) {
+        // a mapped file holds at most Integer.MAX_VALUE bytes
+        this.maxSize = Math.min(maxSize.toBytes(), Integer.MAX_VALUE);
+        this.memoryThreshold = (int) Math.min(memoryThreshold.toBytes(), this.maxSize);
+    }
+
+    public FlexUpload read(InputStream body, String filename) throws IOException {
+        String name = filename == null || filename.isBlank() ? DEFAULT_FILENAME : filename;
+        BufferedInputStream stream = new BufferedInputStream(body, BUFFER_SIZE);
+        stream.mark(4);
+        byte[] magic = stream.readNBytes(4);
+        stream.reset();
+
+        try {
+            if (isGzip(magic)) {
+                return spill(new GZIPInputStream(stream, BUFFER_SIZE), removeSuffix(name, ".gz"));
+            }
+            if (isZip(magic)) {
+                // The first xml file of the archive is the flex query
+                ZipInputStream zip = new ZipInputStream(stream);
+                ZipEntry entry;
+                while ((entry = zip.getNextEntry()) != null) {
+                    if (!entry.isDirectory() && entry.getName().toLowerCase().endsWith(".xml")) {
+                        return spill(zip, Path.of(entry.getName()).getFileName().toString());
+                    }
+                }
+                throw new InvalidXMLFileException("Zip file does not contain an xml file", "Invalid zip file");
+            }
+            return spill(stream, name);
+        } catch (ZipException | EOFException e) {
+            throw new InvalidXMLFileException(e);
+        }
+    }
+
+    private FlexUpload spill(InputStream upload, String filename) throws IOException {
+        FlexContentDigest digest = new FlexContentDigest();
+        InputStream content = digest.wrap(upload);
+        byte[] head = content.readNBytes(memoryThreshold + 1);
+        if (head.length <= memoryThreshold) {
+            return FlexUpload.inMemory(filename, MediaType.APPLICATION_XML_VALUE, head, digest.hex());
+        }
+        if (head.length > maxSize) {
+            throw new UploadTooLargeException(maxSize);
+        }
+
+        Path path = Files.createTempFile("update-", ".upload");
+        try {
+            try (OutputStream file = Files.newOutputStream(path)) {
+                file.write(head);
+                long size = head.length;
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = content.read(buffer)) != -1) {
+                    size += read;
+                    if (size > maxSize) {
+                        throw new UploadTooLargeException(maxSize);
+                    }
+                    file.write(buffer, 0, read);
+                }
+            }
+            return FlexUpload.mapped(filename, MediaType.APPLICATION_XML_VALUE, path, digest.hex());
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(path);
+            throw e;
+        }
+    }
+
+    private static boolean isGzip(byte[] magic) {
+        return magic.length >= 2 && (magic[0] & 0xFF) == 0x1F && (magic[1] & 0xFF) == 0x8B;
+    }
+
+    private static boolean isZip(byte[] magic) {
+        return magic.length == 4 && magic[0] == 'P' && magic[1] == 'K' && magic[2] == 3 && magic[3] == 4;
+    }
+
+    private static String removeSuffix(String filename, String suffix) {
+        return filename.toLowerCase().endsWith(suffix) ?
+                filename.substring(0, filename.length() - suffix.length()) : filename;
+    }
+}
@@ -1,39 +1,60 @@
 package com.marcomarchionni.strategistapi.services.util;
 
 import com.marcomarchionni.strategistapi.domain.Position;
+import com.marcomarchionni.strategistapi.dtos.response.PositionSummary;
+import com.marcomarchionni.strategistapi.dtos.response.update.UpdateReport;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
+/**
+ * Positions in db before a flex statement is saved, by conid, and the conids of the positions of the statement.
+ * Tells added from merged positions and reports the deleted ones once the statement is saved.
+ */
 public class PositionsCache {
-    private final Map<Long, Position> positionsMap;
-    private final Map<Long, Position> unmatchedPositions;
+    private final Map<Long, PositionSummary> dbPositions;
+    private final Set<Long> conIds = new HashSet<>();
 
-    private PositionsCache(Map<Long, Position> positionsMap) {
-        this.positionsMap = positionsMap;
-        this.unmatchedPositions = new HashMap<>(positionsMap);
+    private PositionsCache(Map<Long, PositionSummary> dbPositions) {
+        this.dbPositions = dbPositions;
     }
 
-    public static PositionsCache createPositionsCache(List<Position> dbPositions) {
-        Map<Long, Position> dbPositionsMap = dbPositions.stream()
-                .collect(Collectors.toMap(Position::getConId, Function.identity()));
+    public static PositionsCache createPositionsCache(List<PositionSummary> dbPositions) {
+        Map<Long, PositionSummary> dbPositionsMap = dbPositions.stream()
+                .collect(Collectors.toMap(PositionSummary::getConId, Function.identity()));
         return new PositionsCache(dbPositionsMap);
     }
 
-    public boolean existMatch(Position position) {
-        return positionsMap.containsKey(position.getConId());
+    public void addPositions(List<Position> positions) {
+        positions.forEach(position -> conIds.add(position.getConId()));
     }
 
-    public Position extractMatchingPosition(Position source) {
-        unmatchedPositions.remove(source.getConId());
-        return positionsMap.get(source.getConId());
+    public Set<Long> getConIds() {
+        return Collections.unmodifiableSet(conIds);
     }
 
-    public List<Position> getUnmatchedPositions() {
-        return new ArrayList<>(unmatchedPositions.values());
+    /**
+     * Reports the positions in db after the statement is saved against the positions before.
+     */
+    public UpdateReport<PositionSummary> toUpdateReport(List<PositionSummary> savedPositions) {
+        List<PositionSummary> added = new ArrayList<>();
+        List<PositionSummary> merged = new ArrayList<>();
+        for (PositionSummary position : savedPositions) {
+            if (dbPositions.containsKey(position.getConId())) {
+                merged.add(position);
+            } else {
+                added.add(position);
+            }
+        }
+        List<PositionSummary> deleted = dbPositions.values().stream()
+                .filter(position -> !conIds.contains(position.getConId()))
+                .toList();
+        return UpdateReport.<PositionSummary>builder().added(added).merged(merged).deleted(deleted).build();
     }
 }
@@ -0,0 +1,95 @@
+package com.marcomarchionni.strategistapi.services.util;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Copy of an uploaded file that outlives the request, for updates that run in the background. The content is hashed
+ * while it is copied, unless the uploaded file was already hashed.
+ */
+public class TempFileMultipartFile implements DigestedFile {
+
+    private final String name;
+    private final String originalFilename;
+    private final String contentType;
+    private final Path path;
+    private final long size;
+    private final String contentHash;
+
+    private TempFileMultipartFile(MultipartFile source, Path path, String contentHash) throws IOException {
+        this.name = source.getName();
+        this.originalFilename = source.getOriginalFilename();
+        this.contentType = source.getContentType();
+        this.path = path;
+        this.size = Files.size(path);
+        this.contentHash = contentHash;
+    }
+
+    public static TempFileMultipartFile copyOf(MultipartFile file) throws IOException {
+        Path path = Files.createTempFile("update-", ".upload");
+        FlexContentDigest digest = file instanceof DigestedFile ? null : new FlexContentDigest();
+        try (InputStream stream = digest == null ? file.getInputStream() : digest.wrap(file.getInputStream())) {
+            Files.copy(stream, path, StandardCopyOption.REPLACE_EXISTING);
+            String contentHash = digest == null ? ((DigestedFile) file).getContentHash() : digest.hex();
+            return new TempFileMultipartFile(file, path, contentHash);
+        } catch (IOException e) {
+            Files.deleteIfExists(path);
+            throw e;
+        }
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    @Override
+    public String getOriginalFilename() {
+        return originalFilename;
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public long getSize() {
+        return size;
+    }
+
+    @Override
+    public byte[] getBytes() throws IOException {
+        return Files.readAllBytes(path);
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return Files.newInputStream(path);
+    }
+
+    @Override
+    public void transferTo(File dest) throws IOException {
+        Files.copy(path, dest.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    public void delete() throws IOException {
+        Files.deleteIfExists(path);
+    }
+}
@@ -0,0 +1,38 @@
+package com.marcomarchionni.strategistapi.services.util;
+
+import com.marcomarchionni.strategistapi.dtos.response.TradeSummary;
+import com.marcomarchionni.strategistapi.errorhandling.exceptions.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+
+/**
+ * Position of the last trade of a page in the (tradeDate, id) order. Encoded as an opaque url-safe token, the next
+ * page starts after it.
+ */
+public record TradeCursor(LocalDate tradeDate, long id) {
+
+    public static TradeCursor of(TradeSummary trade) {
+        return new TradeCursor(trade.getTradeDate(), trade.getId());
+    }
+
+    public static TradeCursor decode(String token) {
+        if (token == null) {
+            return null;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.US_ASCII);
+            int separator = value.indexOf(':');
+            return new TradeCursor(LocalDate.parse(value.substring(0, separator)),
+                    Long.parseLong(value.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new InvalidCursorException(token);
+        }
+    }
+
+    public String encode() {
+        String value = tradeDate + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.US_ASCII));
+    }
+}
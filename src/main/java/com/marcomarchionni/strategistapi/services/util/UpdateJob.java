@@ -0,0 +1,99 @@
+package com.marcomarchionni.strategistapi.services.util;
+
+import com.marcomarchionni.strategistapi.dtos.response.update.CombinedUpdateReport;
+import com.marcomarchionni.strategistapi.dtos.response.update.UpdateJobStatus;
+import com.marcomarchionni.strategistapi.dtos.response.update.UpdateJobStatus.JobState;
+import com.marcomarchionni.strategistapi.dtos.response.update.UpdateJobStatus.StageProgress;
+import com.marcomarchionni.strategistapi.dtos.response.update.UpdateJobStatus.StageState;
+import com.marcomarchionni.strategistapi.dtos.response.update.UpdateStage;
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.web.ErrorResponse;
+
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * State of an update running in the background. Progress is written by the job thread and read by the
+ * status requests, so every access is synchronized.
+ */
+public class UpdateJob implements UpdateProgressListener {
+
+    @Getter
+    private final String id = UUID.randomUUID().toString();
+    @Getter
+    private final String accountId;
+    private final Map<UpdateStage, StageState> stageStates = new EnumMap<>(UpdateStage.class);
+    private final Map<UpdateStage, Long> stageRows = new EnumMap<>(UpdateStage.class);
+    private JobState state = JobState.QUEUED;
+    private CombinedUpdateReport report;
+    private ProblemDetail error;
+    private Instant finishedAt;
+
+    public UpdateJob(String accountId) {
+        this.accountId = accountId;
+        for (UpdateStage stage : UpdateStage.values()) {
+            stageStates.put(stage, StageState.PENDING);
+            stageRows.put(stage, 0L);
+        }
+    }
+
+    public synchronized void start() {
+        state = JobState.RUNNING;
+    }
+
+    public synchronized void complete(CombinedUpdateReport report) {
+        this.report = report;
+        this.state = JobState.COMPLETED;
+        this.finishedAt = Instant.now();
+    }
+
+    public synchronized void fail(Exception e) {
+        if (e instanceof ErrorResponse errorResponse) {
+            this.error = errorResponse.getBody();
+        } else {
+            this.error = ProblemDetail.forStatusAndDetail(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage());
+        }
+        this.state = JobState.FAILED;
+        this.finishedAt = Instant.now();
+    }
+
+    public synchronized boolean isFinishedBefore(Instant instant) {
+        return finishedAt != null && finishedAt.isBefore(instant);
+    }
+
+    @Override
+    public synchronized void stageStarted(UpdateStage stage) {
+        stageStates.put(stage, StageState.RUNNING);
+    }
+
+    @Override
+    public synchronized void rowsProcessed(UpdateStage stage, int rows) {
+        stageStates.put(stage, StageState.RUNNING);
+        stageRows.merge(stage, (long) rows, Long::sum);
+    }
+
+    @Override
+    public synchronized void stageCompleted(UpdateStage stage) {
+        stageStates.put(stage, StageState.COMPLETED);
+    }
+
+    public synchronized UpdateJobStatus toStatus() {
+        Map<UpdateStage, StageProgress> stages = new EnumMap<>(UpdateStage.class);
+        stageStates.forEach((stage, stageState) -> stages.put(stage, StageProgress.builder()
+                .state(stageState)
+                .rows(stageRows.get(stage))
+                .build()));
+        return UpdateJobStatus.builder()
+                .id(id)
+                .accountId(accountId)
+                .state(state)
+                .stages(stages)
+                .report(report)
+                .error(error)
+                .build();
+    }
+}
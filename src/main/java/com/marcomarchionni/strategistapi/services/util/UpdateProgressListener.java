@@ -0,0 +1,21 @@
+package com.marcomarchionni.strategistapi.services.util;
+
+import com.marcomarchionni.strategistapi.dtos.response.update.UpdateStage;
+
+/**
+ * Receives the progress of an update, stage by stage.
+ */
+public interface UpdateProgressListener {
+
+    UpdateProgressListener NONE = new UpdateProgressListener() {
+    };
+
+    default void stageStarted(UpdateStage stage) {
+    }
+
+    default void rowsProcessed(UpdateStage stage, int rows) {
+    }
+
+    default void stageCompleted(UpdateStage stage) {
+    }
+}
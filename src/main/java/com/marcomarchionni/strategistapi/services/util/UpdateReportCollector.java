@@ -0,0 +1,36 @@
+package com.marcomarchionni.strategistapi.services.util;
+
+import com.marcomarchionni.strategistapi.dtos.response.update.UpdateReport;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Merges the partial reports returned while an update is processed in chunks.
+ */
+public class UpdateReportCollector<T> {
+
+    private final List<T> added = new ArrayList<>();
+    private final List<T> merged = new ArrayList<>();
+    private final List<T> deleted = new ArrayList<>();
+    private final List<T> skipped = new ArrayList<>();
+    private int unchanged = 0;
+
+    public void collect(UpdateReport<T> report) {
+        added.addAll(report.getAdded());
+        merged.addAll(report.getMerged());
+        deleted.addAll(report.getDeleted());
+        skipped.addAll(report.getSkipped());
+        unchanged += report.getUnchanged();
+    }
+
+    public UpdateReport<T> build() {
+        return UpdateReport.<T>builder()
+                .added(List.copyOf(added))
+                .merged(List.copyOf(merged))
+                .deleted(List.copyOf(deleted))
+                .skipped(List.copyOf(skipped))
+                .unchanged(unchanged)
+                .build();
+    }
+}
@@ -27,7 +27,7 @@ public class UpdateContextValidator implements ConstraintValidator<ValidUpdateCo
 
     private boolean checkQueryIdAndTokenParameters(UpdateContext dto, ConstraintValidatorContext context) {
         boolean valid = true;
-        if (dto.getQueryId() == null) {
+        if (dto.getQueryIds().isEmpty()) {
             context.disableDefaultConstraintViolation();
             context.buildConstraintViolationWithTemplate("QueryId parameter is required")
                     .addConstraintViolation();
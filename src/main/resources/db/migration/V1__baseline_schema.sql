@@ -1,8 +1,5 @@
-CREATE DATABASE IF NOT EXISTS `ibtest`;
--- Init Datatabase
-USE `ibtest`;
-DROP TABLE IF EXISTS `flex_statement`, `portfolio`, `strategy`, `trade`, `position`, `dividend`;
-
+-- Schema created by the former initIbTestDb.sql script, the one the deployed databases started from.
+-- Existing databases are baselined at this version, see spring.flyway.baseline-on-migrate.
 CREATE TABLE `flex_statement`
 (
     `id` BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
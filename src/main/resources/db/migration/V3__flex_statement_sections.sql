@@ -0,0 +1,3 @@
+-- Sections held by each flex statement, statements saved before are not known to hold trades or dividends
+ALTER TABLE `flex_statement` ADD COLUMN `trades_included` BOOLEAN;
+ALTER TABLE `flex_statement` ADD COLUMN `dividends_included` BOOLEAN;
@@ -0,0 +1,3 @@
+-- Hash of the last flex payload saved for each account, with the row counts of its update
+ALTER TABLE `user_details` ADD COLUMN `last_payload_hash` VARCHAR(64);
+ALTER TABLE `user_details` ADD COLUMN `last_payload_report` TEXT;
@@ -1,8 +1,12 @@
 package com.marcomarchionni.strategistapi.accessservice;
 
 import com.marcomarchionni.strategistapi.domain.Dividend;
+import com.marcomarchionni.strategistapi.dtos.response.DividendSummary;
 import com.marcomarchionni.strategistapi.errorhandling.exceptions.InvalidUserDataException;
+import com.marcomarchionni.strategistapi.mappers.DividendMapperImpl;
+import com.marcomarchionni.strategistapi.repositories.BulkInsertRepository;
 import com.marcomarchionni.strategistapi.repositories.DividendRepository;
+import com.marcomarchionni.strategistapi.repositories.SummaryRepository;
 import com.marcomarchionni.strategistapi.services.UserService;
 import com.marcomarchionni.strategistapi.validators.AccountIdEntityValidatorImpl;
 import org.junit.jupiter.api.BeforeEach;
@@ -25,6 +29,12 @@ class DividendAccessServiceImplTest {
     @Mock
     DividendRepository dividendRepository;
 
+    @Mock
+    BulkInsertRepository bulkInsertRepository;
+
+    @Mock
+    SummaryRepository summaryRepository;
+
     @Mock
     UserService userService;
 
@@ -38,17 +48,21 @@ class DividendAccessServiceImplTest {
         dividends = getSampleDividends();
         dividend = dividends.get(0);
         var accountIdValidator = new AccountIdEntityValidatorImpl<Dividend>();
-        dividendAccessService = new DividendAccessServiceImpl(dividendRepository, userService, accountIdValidator);
+        dividendAccessService = new DividendAccessServiceImpl(dividendRepository, userService, accountIdValidator,
+                bulkInsertRepository, summaryRepository);
 
         when(userService.getUserAccountId()).thenReturn("U1111111");
     }
 
     @Test
     void findByParams() {
-        when(dividendRepository.findByParams(eq("U1111111"), any(), any(), any(), any(), any(), any())).thenReturn(dividends);
-        List<Dividend> foundDividends = dividendAccessService.findByParams(null, null, null, null, null, "AAPL");
+        List<DividendSummary> dividendSummaries = dividends.stream()
+                .map(new DividendMapperImpl()::toDividendSummary).toList();
+        when(summaryRepository.findDividendSummaries(any())).thenReturn(dividendSummaries);
+        List<DividendSummary> foundDividends = dividendAccessService.findSummariesByParams(null, null, null, null,
+                null, "AAPL");
 
-        assertEquals(dividends, foundDividends);
+        assertEquals(dividendSummaries, foundDividends);
     }
 
     @Test
@@ -1,8 +1,13 @@
 package com.marcomarchionni.strategistapi.accessservice;
 
 import com.marcomarchionni.strategistapi.domain.Position;
+import com.marcomarchionni.strategistapi.dtos.response.PositionSummary;
 import com.marcomarchionni.strategistapi.errorhandling.exceptions.InvalidUserDataException;
+import com.marcomarchionni.strategistapi.mappers.PositionMapperImpl;
+import com.marcomarchionni.strategistapi.repositories.BulkInsertRepository;
 import com.marcomarchionni.strategistapi.repositories.PositionRepository;
+import com.marcomarchionni.strategistapi.repositories.PositionSnapshotRepository;
+import com.marcomarchionni.strategistapi.repositories.SummaryRepository;
 import com.marcomarchionni.strategistapi.services.UserService;
 import com.marcomarchionni.strategistapi.validators.AccountIdEntityValidatorImpl;
 import org.junit.jupiter.api.BeforeEach;
@@ -13,11 +18,14 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static com.marcomarchionni.strategistapi.util.TestUtils.getSamplePosition;
 import static com.marcomarchionni.strategistapi.util.TestUtils.getSamplePositions;
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class PositionAccessServiceImplTest {
@@ -25,6 +33,12 @@ class PositionAccessServiceImplTest {
     UserService userService;
     @Mock
     PositionRepository positionRepository;
+    @Mock
+    BulkInsertRepository bulkInsertRepository;
+    @Mock
+    PositionSnapshotRepository positionSnapshotRepository;
+    @Mock
+    SummaryRepository summaryRepository;
     PositionAccessService positionAccessService;
 
     Position expectedPosition;
@@ -36,7 +50,8 @@ class PositionAccessServiceImplTest {
         expectedPosition = getSamplePosition();
         expectedPositions = getSamplePositions();
         var accountIdValidator = new AccountIdEntityValidatorImpl<Position>();
-        positionAccessService = new PositionAccessServiceImpl(positionRepository, userService, accountIdValidator);
+        positionAccessService = new PositionAccessServiceImpl(positionRepository, userService, accountIdValidator,
+                bulkInsertRepository, positionSnapshotRepository, summaryRepository);
 
         when(userService.getUserAccountId()).thenReturn("U1111111");
     }
@@ -59,6 +74,28 @@ class PositionAccessServiceImplTest {
         assertEquals(expectedPositions, savedPositions);
     }
 
+    @Test
+    void upsertAll() {
+        positionAccessService.upsertAll(expectedPositions);
+
+        verify(positionSnapshotRepository).upsertPositions(expectedPositions);
+    }
+
+    @Test
+    void upsertAllEx() {
+        expectedPositions.get(0).setAccountId("U2222222");
+        assertThrows(InvalidUserDataException.class, () -> positionAccessService.upsertAll(expectedPositions));
+        verifyNoInteractions(positionSnapshotRepository);
+    }
+
+    @Test
+    void deleteMissingPositions() {
+        Set<Long> conIds = expectedPositions.stream().map(Position::getConId).collect(Collectors.toSet());
+        when(positionSnapshotRepository.deleteMissingPositions("U1111111", conIds)).thenReturn(2);
+
+        assertEquals(2, positionAccessService.deleteMissingPositions(conIds));
+    }
+
     @Test
     void saveAllEx() {
         expectedPositions.get(0).setAccountId("U2222222");
@@ -67,9 +104,11 @@ class PositionAccessServiceImplTest {
 
     @Test
     void findByParams() {
-        when(positionRepository.findByParams("U1111111", true, null, null)).thenReturn(expectedPositions);
-        var positions = positionAccessService.findByParams(true, null, null);
-        assertEquals(expectedPositions, positions);
+        List<PositionSummary> expectedSummaries = expectedPositions.stream()
+                .map(new PositionMapperImpl()::toPositionSummary).toList();
+        when(summaryRepository.findPositionSummaries(any())).thenReturn(expectedSummaries);
+        var positions = positionAccessService.findSummariesByParams(true, null, null);
+        assertEquals(expectedSummaries, positions);
     }
 
     @Test
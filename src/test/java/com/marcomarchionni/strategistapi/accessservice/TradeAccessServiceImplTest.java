@@ -0,0 +1,110 @@
+package com.marcomarchionni.strategistapi.accessservice;
+
+import com.marcomarchionni.strategistapi.domain.Trade;
+import com.marcomarchionni.strategistapi.dtos.response.TradeSummary;
+import com.marcomarchionni.strategistapi.mappers.TradeMapperImpl;
+import com.marcomarchionni.strategistapi.repositories.BulkInsertRepository;
+import com.marcomarchionni.strategistapi.repositories.SummaryRepository;
+import com.marcomarchionni.strategistapi.repositories.TradeRepository;
+import com.marcomarchionni.strategistapi.services.UserService;
+import com.marcomarchionni.strategistapi.services.util.LongHashSet;
+import com.marcomarchionni.strategistapi.validators.AccountIdEntityValidatorImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static com.marcomarchionni.strategistapi.util.TestUtils.getZMTrade;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TradeAccessServiceImplTest {
+
+    @Mock
+    TradeRepository tradeRepository;
+
+    @Mock
+    BulkInsertRepository bulkInsertRepository;
+
+    @Mock
+    SummaryRepository summaryRepository;
+
+    @Mock
+    UserService userService;
+
+    TradeAccessService tradeAccessService;
+
+    @BeforeEach
+    void setUp() {
+        tradeAccessService = new TradeAccessServiceImpl(userService, tradeRepository,
+                new AccountIdEntityValidatorImpl<Trade>(), bulkInsertRepository, summaryRepository);
+
+        when(userService.getUserAccountId()).thenReturn("U1111111");
+    }
+
+    @Test
+    void findExistingIbOrderIds() {
+        when(tradeRepository.findIbOrderIdsByAccountIdAndIbOrderIdIn(eq("U1111111"), anyList()))
+                .thenReturn(List.of(2L));
+
+        LongHashSet existingIds = tradeAccessService.findExistingIbOrderIds(Arrays.asList(1L, 2L, 2L, null));
+
+        assertEquals(1, existingIds.size());
+        assertTrue(existingIds.contains(2L));
+        verify(tradeRepository).findIbOrderIdsByAccountIdAndIbOrderIdIn("U1111111", List.of(1L, 2L));
+    }
+
+    @Test
+    void saveAllNewTrades() {
+        Trade trade = getZMTrade();
+        trade.setId(null);
+        List<Trade> trades = List.of(trade);
+        when(bulkInsertRepository.insertTrades(trades)).thenReturn(trades);
+
+        assertEquals(trades, tradeAccessService.saveAll(trades));
+        verify(tradeRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void saveAllExistingTrades() {
+        List<Trade> trades = List.of(getZMTrade());
+        when(tradeRepository.saveAll(trades)).thenReturn(trades);
+
+        assertEquals(trades, tradeAccessService.saveAll(trades));
+        verify(bulkInsertRepository, never()).insertTrades(anyList());
+    }
+
+    @Test
+    void findExistingIbOrderIdsInBatches() {
+        List<Long> ibOrderIds = new ArrayList<>(LongStream.rangeClosed(1, 2500).boxed().toList());
+        when(tradeRepository.findIbOrderIdsByAccountIdAndIbOrderIdIn(eq("U1111111"), anyList()))
+                .thenAnswer(invocation -> invocation.getArgument(1));
+
+        LongHashSet existingIds = tradeAccessService.findExistingIbOrderIds(ibOrderIds);
+
+        assertEquals(2500, existingIds.size());
+        verify(tradeRepository, times(3)).findIbOrderIdsByAccountIdAndIbOrderIdIn(eq("U1111111"), anyList());
+    }
+
+    @Test
+    void forEachSummaryByParams() {
+        TradeSummary trade = new TradeMapperImpl().toTradeSummary(getZMTrade());
+        when(summaryRepository.streamTradeSummaries(any())).thenReturn(Stream.of(trade));
+        List<TradeSummary> read = new ArrayList<>();
+
+        tradeAccessService.forEachSummaryByParams(null, null, null, null, null, read::add);
+
+        assertEquals(List.of(trade), read);
+    }
+}
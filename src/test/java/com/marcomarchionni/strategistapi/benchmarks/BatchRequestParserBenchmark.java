@@ -0,0 +1,94 @@
+package com.marcomarchionni.strategistapi.benchmarks;
+
+import ch.qos.logback.classic.Logger;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.marcomarchionni.strategistapi.dtos.request.BatchOperation;
+import com.marcomarchionni.strategistapi.dtos.request.PortfolioSave;
+import com.marcomarchionni.strategistapi.services.parsers.BatchRequestParser;
+import com.marcomarchionni.strategistapi.services.parsers.BatchRequestParserImpl;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link BatchRequestParserImpl#parseRequest} on a batch request with a single change set holding the
+ * given number of portfolio operations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchRequestParserBenchmark {
+
+    private static final String BATCH_BOUNDARY = "batch_3f4e49d5-96cb-4f7b-b2f5-4d26bcca5f6a";
+    private static final String CHANGE_SET_BOUNDARY = "changeset_c76c63f7-5ea6-45ce-b8a7-d3d092264da9";
+
+    @Param({"10", "100", "1000"})
+    int operations;
+
+    byte[] body;
+    BatchRequestParser batchRequestParser;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        body = createBatchRequest(operations).getBytes(StandardCharsets.UTF_8);
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        batchRequestParser = new BatchRequestParserImpl(objectMapper);
+
+        // The parser logs every line, keep the benchmark output readable
+        ((Logger) LoggerFactory.getLogger(BatchRequestParserImpl.class)).setLevel(ch.qos.logback.classic.Level.WARN);
+    }
+
+    @Benchmark
+    public List<BatchOperation<PortfolioSave>> parseRequest() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/portfolios/$batch");
+        request.setContentType("multipart/mixed; boundary=" + BATCH_BOUNDARY);
+        request.setContent(body);
+        return batchRequestParser.parseRequest(request, PortfolioSave.class);
+    }
+
+    private static String createBatchRequest(int operations) {
+        StringBuilder request = new StringBuilder()
+                .append("--").append(BATCH_BOUNDARY).append("\r\n")
+                .append("Content-Type: multipart/mixed; boundary=").append(CHANGE_SET_BOUNDARY).append("\r\n")
+                .append("\r\n");
+        for (int i = 0; i < operations; i++) {
+            String action = i % 2 == 0 ? "POST undefined" : "PUT Portfolios(" + i + ")";
+            request.append("--").append(CHANGE_SET_BOUNDARY).append("\r\n")
+                    .append("Content-Type: application/http\r\n")
+                    .append("Content-Transfer-Encoding: binary\r\n")
+                    .append("\r\n")
+                    .append(action).append(" HTTP/1.1\r\n")
+                    .append("Accept: application/json;odata=light;q=1,application/json;odata=verbose;q=0.5\r\n")
+                    .append("Content-Id: ").append(i).append("\r\n")
+                    .append("Content-Type: application/json; charset=utf-8\r\n")
+                    .append("\r\n")
+                    .append("{\"id\":").append(i).append(",\"createdAt\":\"2024-04-29\",\"name\":\"portfolio ")
+                    .append(i).append("\",\"description\":\"description ").append(i).append("\"}\r\n")
+                    .append("\r\n");
+        }
+        return request.append("--").append(CHANGE_SET_BOUNDARY).append("--\r\n")
+                .append("--").append(BATCH_BOUNDARY).append("--\r\n")
+                .toString();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(BatchRequestParserBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
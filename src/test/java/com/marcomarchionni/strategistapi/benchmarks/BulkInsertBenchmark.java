@@ -0,0 +1,134 @@
+package com.marcomarchionni.strategistapi.benchmarks;
+
+import com.marcomarchionni.strategistapi.domain.Trade;
+import com.marcomarchionni.strategistapi.repositories.BulkInsertRepository;
+import com.marcomarchionni.strategistapi.repositories.BulkInsertRepositoryImpl;
+import com.marcomarchionni.strategistapi.repositories.TradeRepository;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Compares saving new trades with the JPA repository, which inserts one row at a time because of the IDENTITY
+ * ids, with the multi-row inserts of {@link BulkInsertRepository}. Runs on H2 and on H2 in MySQL mode.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class BulkInsertBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    int rows;
+
+    @Param({"H2", "MYSQL"})
+    String database;
+
+    ConfigurableApplicationContext context;
+    TradeRepository tradeRepository;
+    BulkInsertRepository bulkInsertRepository;
+    JdbcTemplate jdbcTemplate;
+    TransactionTemplate transactionTemplate;
+    List<Trade> trades;
+
+    /**
+     * Starts only the persistence layer of the application.
+     */
+    @SpringBootConfiguration
+    @ImportAutoConfiguration({DataSourceAutoConfiguration.class, HibernateJpaAutoConfiguration.class,
+            JdbcTemplateAutoConfiguration.class, TransactionAutoConfiguration.class})
+    @EntityScan(basePackageClasses = Trade.class)
+    @EnableJpaRepositories(basePackageClasses = TradeRepository.class)
+    @Import(BulkInsertRepositoryImpl.class)
+    static class PersistenceConfig {
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String url = database.equals("MYSQL") ?
+                "jdbc:h2:mem:bulkInsert;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1" :
+                "jdbc:h2:mem:bulkInsert;DB_CLOSE_DELAY=-1";
+        context = new SpringApplicationBuilder(PersistenceConfig.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=" + url, "--logging.level.root=WARN");
+        tradeRepository = context.getBean(TradeRepository.class);
+        bulkInsertRepository = context.getBean(BulkInsertRepository.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Setup(Level.Invocation)
+    public void createTrades() {
+        jdbcTemplate.update("DELETE FROM trade");
+        trades = LongStream.range(0, rows).mapToObj(BulkInsertBenchmark::newTrade).toList();
+    }
+
+    private static Trade newTrade(long i) {
+        return Trade.builder()
+                .accountId("U1111111")
+                .tradeId(1_000_000L + i)
+                .ibOrderId(2_000_000L + i)
+                .conId(361181057L)
+                .symbol("ZM")
+                .description("ZOOM VIDEO COMMUNICATIONS-A")
+                .assetCategory("STK")
+                .multiplier(1)
+                .tradeDate(LocalDate.of(2022, 6, 7))
+                .dateTime(LocalDateTime.of(2022, 6, 7, 10, 0))
+                .quantity(new BigDecimal("15"))
+                .tradePrice(new BigDecimal("111.33"))
+                .tradeMoney(new BigDecimal("1669.95"))
+                .fifoPnlRealized(BigDecimal.ZERO)
+                .ibCommission(new BigDecimal("-1"))
+                .buySell("BUY")
+                .build();
+    }
+
+    @Benchmark
+    public List<Trade> jpaSaveAll() {
+        return transactionTemplate.execute(status -> tradeRepository.saveAll(trades));
+    }
+
+    @Benchmark
+    public List<Trade> bulkInsert() {
+        return transactionTemplate.execute(status -> bulkInsertRepository.insertTrades(trades));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(BulkInsertBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
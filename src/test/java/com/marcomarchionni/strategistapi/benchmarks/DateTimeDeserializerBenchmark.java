@@ -0,0 +1,119 @@
+package com.marcomarchionni.strategistapi.benchmarks;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.xml.JacksonXmlModule;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import com.marcomarchionni.strategistapi.config.CustomLocalDateTimeDeserializer;
+import com.marcomarchionni.strategistapi.config.FlexLocalDateDeserializer;
+import lombok.Data;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the fixed-width flex date parsers with the DateTimeFormatter based deserializers of
+ * {@link DateTimeFormatterBaseline}, on the formats found in flex queries: date and time, date only and empty
+ * values. Json arrays are read from the parser's char buffer, xml rows from the attribute strings of the xml parser.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DateTimeDeserializerBenchmark {
+
+    private static final String[] DATE_TIMES = {"20221228;124835", "20220503;140204", "20220630", ""};
+    private static final String[] DATES = {"20221228", "20220503", "20220630", ""};
+
+    @Param({"1000", "10000"})
+    int rows;
+
+    @Param({"formatter", "fixed-width"})
+    String deserializers;
+
+    byte[] dateTimesJson;
+    byte[] datesJson;
+    byte[] xml;
+    ObjectMapper objectMapper;
+    XmlMapper xmlMapper;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        StringJoiner dateTimes = new StringJoiner(",", "[", "]");
+        StringJoiner dates = new StringJoiner(",", "[", "]");
+        StringBuilder xmlRows = new StringBuilder("<Rows>");
+        for (int i = 0; i < rows; i++) {
+            String dateTime = DATE_TIMES[i % DATE_TIMES.length];
+            String date = DATES[(i + 1) % DATES.length];
+            dateTimes.add("\"" + dateTime + "\"");
+            dates.add("\"" + date + "\"");
+            xmlRows.append("<Row tradeDate=\"").append(date).append("\" reportDate=\"").append(date)
+                    .append("\" dateTime=\"").append(dateTime).append("\"/>");
+        }
+        dateTimesJson = dateTimes.toString().getBytes(StandardCharsets.UTF_8);
+        datesJson = dates.toString().getBytes(StandardCharsets.UTF_8);
+        xml = xmlRows.append("</Rows>").toString().getBytes(StandardCharsets.UTF_8);
+
+        SimpleModule module = deserializers.equals("formatter") ? DateTimeFormatterBaseline.module() :
+                new SimpleModule()
+                        .addDeserializer(LocalDate.class, new FlexLocalDateDeserializer())
+                        .addDeserializer(LocalDateTime.class, new CustomLocalDateTimeDeserializer());
+        objectMapper = new ObjectMapper().registerModule(module);
+        JacksonXmlModule xmlModule = new JacksonXmlModule();
+        xmlModule.setDefaultUseWrapper(false);
+        xmlMapper = new XmlMapper(xmlModule);
+        xmlMapper.registerModule(module);
+        xmlMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    }
+
+    @Benchmark
+    public LocalDateTime[] deserializeDateTimes() throws IOException {
+        return objectMapper.readValue(dateTimesJson, LocalDateTime[].class);
+    }
+
+    @Benchmark
+    public LocalDate[] deserializeDates() throws IOException {
+        return objectMapper.readValue(datesJson, LocalDate[].class);
+    }
+
+    @Benchmark
+    public Rows deserializeXmlRows() throws IOException {
+        return xmlMapper.readValue(xml, Rows.class);
+    }
+
+    @Data
+    public static class Rows {
+        @JsonProperty("Row")
+        private List<Row> rows;
+    }
+
+    @Data
+    public static class Row {
+        private LocalDate tradeDate;
+        private LocalDate reportDate;
+        private LocalDateTime dateTime;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(DateTimeDeserializerBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
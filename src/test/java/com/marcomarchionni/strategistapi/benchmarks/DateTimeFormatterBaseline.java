@@ -0,0 +1,50 @@
+package com.marcomarchionni.strategistapi.benchmarks;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateDeserializer;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * The DateTimeFormatter based deserializers flex dates were read with before the fixed-width parsers, kept as the
+ * baseline of {@link DateTimeDeserializerBenchmark} and to check that the parsers return the same values.
+ */
+public class DateTimeFormatterBaseline {
+
+    private DateTimeFormatterBaseline() {
+    }
+
+    public static SimpleModule module() {
+        return new SimpleModule()
+                // the deserializer @JsonFormat(pattern = "yyyyMMdd") created on every LocalDate field
+                .addDeserializer(LocalDate.class, new LocalDateDeserializer(DateTimeFormatter.ofPattern("yyyyMMdd")))
+                .addDeserializer(LocalDateTime.class, new LocalDateTimeDeserializer());
+    }
+
+    static class LocalDateTimeDeserializer extends StdDeserializer<LocalDateTime> {
+
+        private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd;HHmmss");
+
+        LocalDateTimeDeserializer() {
+            super(LocalDateTime.class);
+        }
+
+        @Override
+        public LocalDateTime deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            String value = parser.getValueAsString();
+            if (value == null || value.trim().isEmpty()) {
+                return null;
+            }
+            if (value.length() == 8) {
+                value = value + ";000000";
+            }
+            return LocalDateTime.parse(value, FORMATTER);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.marcomarchionni.strategistapi.benchmarks;
+
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import com.marcomarchionni.strategistapi.config.XMLConfig;
+import com.marcomarchionni.strategistapi.dtos.flex.FlexQueryResponseDto;
+import com.marcomarchionni.strategistapi.dtos.response.update.UpdateDto;
+import com.marcomarchionni.strategistapi.mappers.DividendMapperImpl;
+import com.marcomarchionni.strategistapi.mappers.FlexStatementMapperImpl;
+import com.marcomarchionni.strategistapi.mappers.PositionMapperImpl;
+import com.marcomarchionni.strategistapi.mappers.TradeMapperImpl;
+import com.marcomarchionni.strategistapi.services.parsers.ResponseParser;
+import com.marcomarchionni.strategistapi.services.parsers.ResponseParserImpl;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the two steps that turn a flex query into entities: the deserialisation of the xml into a
+ * {@link FlexQueryResponseDto} and the mapping of its rows done by {@link ResponseParser#parseAllData}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class FlexIngestionBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    int rows;
+
+    byte[] xml;
+    XmlMapper xmlMapper;
+    ResponseParser responseParser;
+    FlexQueryResponseDto dto;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        xml = SyntheticFlexXml.generate(rows);
+        xmlMapper = new XMLConfig().XmlMapper();
+        responseParser = new ResponseParserImpl(new FlexStatementMapperImpl(), new TradeMapperImpl(),
+                new PositionMapperImpl(), new DividendMapperImpl());
+        dto = xmlMapper.readValue(xml, FlexQueryResponseDto.class);
+    }
+
+    @Benchmark
+    public FlexQueryResponseDto deserialize() throws IOException {
+        return xmlMapper.readValue(xml, FlexQueryResponseDto.class);
+    }
+
+    @Benchmark
+    public UpdateDto parseAllData() {
+        return responseParser.parseAllData(dto);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(FlexIngestionBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,89 @@
+package com.marcomarchionni.strategistapi.benchmarks;
+
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import com.marcomarchionni.strategistapi.config.XMLConfig;
+import com.marcomarchionni.strategistapi.dtos.flex.FlexQueryResponseDto;
+import com.marcomarchionni.strategistapi.dtos.response.update.UpdateDto;
+import com.marcomarchionni.strategistapi.mappers.*;
+import com.marcomarchionni.strategistapi.services.parsers.FlexStreamReader;
+import com.marcomarchionni.strategistapi.services.parsers.FlexStreamReaderImpl;
+import com.marcomarchionni.strategistapi.services.parsers.ResponseParser;
+import com.marcomarchionni.strategistapi.services.parsers.ResponseParserImpl;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares reading a flex query file into a {@link FlexQueryResponseDto} tree with reading it as a stream.
+ * Run with the gc profiler to compare the allocation rate and the heap needed by the two paths.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class FlexXmlReadBenchmark {
+
+    @Param({"10", "100", "1000"})
+    int copies;
+
+    @Param({"500"})
+    int chunkSize;
+
+    Path file;
+    XmlMapper xmlMapper;
+    ResponseParser responseParser;
+    FlexStreamReader flexStreamReader;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = SyntheticFlexXml.inflate(copies);
+        xmlMapper = new XMLConfig().XmlMapper();
+        FlexStatementMapper flexStatementMapper = new FlexStatementMapperImpl();
+        TradeMapper tradeMapper = new TradeMapperImpl();
+        PositionMapper positionMapper = new PositionMapperImpl();
+        DividendMapper dividendMapper = new DividendMapperImpl();
+        responseParser = new ResponseParserImpl(flexStatementMapper, tradeMapper, positionMapper, dividendMapper);
+        flexStreamReader = new FlexStreamReaderImpl(xmlMapper, flexStatementMapper, tradeMapper, positionMapper,
+                dividendMapper, chunkSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public UpdateDto readTree() throws IOException {
+        try (InputStream is = Files.newInputStream(file)) {
+            FlexQueryResponseDto dto = xmlMapper.readValue(is, FlexQueryResponseDto.class);
+            return responseParser.parseAllData(dto);
+        }
+    }
+
+    @Benchmark
+    public void readStream(Blackhole blackhole) throws IOException {
+        try (InputStream is = Files.newInputStream(file)) {
+            flexStreamReader.read(is, blackhole::consume);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(FlexXmlReadBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
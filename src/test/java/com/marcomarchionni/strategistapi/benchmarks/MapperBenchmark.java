@@ -0,0 +1,208 @@
+package com.marcomarchionni.strategistapi.benchmarks;
+
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import com.marcomarchionni.strategistapi.config.XMLConfig;
+import com.marcomarchionni.strategistapi.domain.*;
+import com.marcomarchionni.strategistapi.dtos.flex.FlexQueryResponseDto;
+import com.marcomarchionni.strategistapi.dtos.response.*;
+import com.marcomarchionni.strategistapi.dtos.response.auth.UserSummary;
+import com.marcomarchionni.strategistapi.mappers.*;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures mapping a single row with every mapper, the row mappers are compared with the ModelMapper baseline.
+ * Run with the gc profiler to get the allocation per mapped row (gc.alloc.rate.norm).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+
+    ModelMapper modelMapper;
+    TradeMapper tradeMapper;
+    PositionMapper positionMapper;
+    DividendMapper dividendMapper;
+    FlexStatementMapper flexStatementMapper;
+    StrategyMapper strategyMapper;
+    PortfolioMapper portfolioMapper;
+    UserMapper userMapper;
+
+    FlexQueryResponseDto.FlexStatement flexStatementDto;
+    FlexQueryResponseDto.Order order;
+    FlexQueryResponseDto.OpenPosition openPosition;
+    FlexQueryResponseDto.ChangeInDividendAccrual closedDividend;
+    FlexQueryResponseDto.OpenDividendAccrual openDividend;
+    Trade trade;
+    Position position;
+    Dividend dividend;
+    Strategy strategy;
+    Portfolio portfolio;
+    User user;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        modelMapper = ModelMapperBaseline.configureModelMapper();
+        tradeMapper = new TradeMapperImpl();
+        positionMapper = new PositionMapperImpl();
+        dividendMapper = new DividendMapperImpl();
+        flexStatementMapper = new FlexStatementMapperImpl();
+        strategyMapper = new StrategyMapperImpl(tradeMapper, positionMapper, dividendMapper);
+        portfolioMapper = new PortfolioMapperImpl(strategyMapper);
+        userMapper = new UserMapperImpl();
+
+        XmlMapper xmlMapper = new XMLConfig().XmlMapper();
+        try (InputStream is = getClass().getClassLoader().getResourceAsStream("flex/Flex.xml")) {
+            flexStatementDto = xmlMapper.readValue(is, FlexQueryResponseDto.class).getFlexStatements()
+                    .getFlexStatement();
+        }
+        order = flexStatementDto.getTrades().getOrderList().get(0);
+        openPosition = flexStatementDto.getOpenPositions().getOpenPositionList().get(0);
+        closedDividend = flexStatementDto.getChangeInDividendAccruals().getChangeInDividendAccrualList().get(0);
+        openDividend = flexStatementDto.getOpenDividendAccruals().getOpenDividendAccrualList().get(0);
+
+        portfolio = Portfolio.builder().id(1L).accountId(order.getAccountId()).name("Portfolio").build();
+        strategy = Strategy.builder().id(1L).accountId(order.getAccountId()).name("Strategy").portfolio(portfolio)
+                .build();
+        portfolio.getStrategies().add(strategy);
+        user = User.builder().id(1L).firstName("First").lastName("Last").email("user@example.com")
+                .accountId(order.getAccountId()).build();
+        trade = tradeMapper.toTrade(order);
+        trade.setId(1L);
+        trade.setStrategy(strategy);
+        position = positionMapper.toPosition(openPosition);
+        position.setId(1L);
+        position.setStrategy(strategy);
+        dividend = dividendMapper.toClosedDividend(closedDividend);
+        dividend.setId(1L);
+        dividend.setStrategy(strategy);
+        strategy.getTrades().add(trade);
+        strategy.getPositions().add(position);
+        strategy.getDividends().add(dividend);
+    }
+
+    @Benchmark
+    public Trade toTradeModelMapper() {
+        return modelMapper.map(order, Trade.class);
+    }
+
+    @Benchmark
+    public Trade toTradeHandWritten() {
+        return tradeMapper.toTrade(order);
+    }
+
+    @Benchmark
+    public Position toPositionModelMapper() {
+        return modelMapper.map(openPosition, Position.class);
+    }
+
+    @Benchmark
+    public Position toPositionHandWritten() {
+        return positionMapper.toPosition(openPosition);
+    }
+
+    @Benchmark
+    public Dividend toClosedDividendModelMapper() {
+        return modelMapper.map(closedDividend, Dividend.class);
+    }
+
+    @Benchmark
+    public Dividend toClosedDividendHandWritten() {
+        return dividendMapper.toClosedDividend(closedDividend);
+    }
+
+    @Benchmark
+    public TradeSummary toTradeSummaryModelMapper() {
+        return modelMapper.map(trade, TradeSummary.class);
+    }
+
+    @Benchmark
+    public TradeSummary toTradeSummaryHandWritten() {
+        return tradeMapper.toTradeSummary(trade);
+    }
+
+    @Benchmark
+    public PositionSummary toPositionSummaryModelMapper() {
+        return modelMapper.map(position, PositionSummary.class);
+    }
+
+    @Benchmark
+    public PositionSummary toPositionSummaryHandWritten() {
+        return positionMapper.toPositionSummary(position);
+    }
+
+    @Benchmark
+    public DividendSummary toDividendSummaryModelMapper() {
+        return modelMapper.map(dividend, DividendSummary.class);
+    }
+
+    @Benchmark
+    public DividendSummary toDividendSummaryHandWritten() {
+        return dividendMapper.toDividendSummary(dividend);
+    }
+
+    @Benchmark
+    public Dividend toOpenDividend() {
+        return dividendMapper.toOpenDividend(openDividend);
+    }
+
+    @Benchmark
+    public Position mergePosition() {
+        return positionMapper.mergeFlexProperties(position, new Position());
+    }
+
+    @Benchmark
+    public Dividend mergeDividend() {
+        return dividendMapper.mergeFlexProperties(dividend, new Dividend());
+    }
+
+    @Benchmark
+    public FlexStatement toFlexStatement() {
+        return flexStatementMapper.toFlexStatement(flexStatementDto);
+    }
+
+    @Benchmark
+    public StrategySummary toStrategySummary() {
+        return strategyMapper.toStrategySummaryDto(strategy);
+    }
+
+    @Benchmark
+    public StrategyDetail toStrategyDetail() {
+        return strategyMapper.toStrategyDetailDto(strategy);
+    }
+
+    @Benchmark
+    public PortfolioSummary toPortfolioSummary() {
+        return portfolioMapper.portfolioToPortfolioSummary(portfolio);
+    }
+
+    @Benchmark
+    public PortfolioDetail toPortfolioDetail() {
+        return portfolioMapper.toPortfolioDetailDto(portfolio);
+    }
+
+    @Benchmark
+    public UserSummary toUserSummary() {
+        return userMapper.toUserSummary(user);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(MapperBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -1,4 +1,4 @@
-package com.marcomarchionni.strategistapi.config;
+package com.marcomarchionni.strategistapi.benchmarks;
 
 import com.marcomarchionni.strategistapi.domain.*;
 import com.marcomarchionni.strategistapi.dtos.flex.FlexQueryResponseDto;
@@ -6,16 +6,20 @@ import com.marcomarchionni.strategistapi.dtos.request.PortfolioSave;
 import org.modelmapper.Converter;
 import org.modelmapper.ModelMapper;
 import org.modelmapper.PropertyMap;
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
 
 import java.math.BigDecimal;
 
-@Configuration
-public class ModelMapperConfig {
+/**
+ * The ModelMapper configuration the mappers used before they were written by hand, kept as the baseline of
+ * {@link MapperBenchmark} and to check that the hand-written mappers produce the same results.
+ */
+public class ModelMapperBaseline {
     private static final Converter<BigDecimal, BigDecimal> absValue =
             ctx -> ctx.getSource() == null ? null : ctx.getSource().abs();
 
+    private ModelMapperBaseline() {
+    }
+
     public static ModelMapper configureModelMapper() {
         ModelMapper modelMapper = new ModelMapper();
         modelMapper.addMappings(getFlexStatementPropertyMap());
@@ -109,9 +113,4 @@ public class ModelMapperConfig {
             }
         };
     }
-
-    @Bean
-    public ModelMapper modelMapper() {
-        return configureModelMapper();
-    }
 }
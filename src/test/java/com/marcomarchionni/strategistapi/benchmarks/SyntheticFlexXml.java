@@ -0,0 +1,185 @@
+package com.marcomarchionni.strategistapi.benchmarks;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Builds large flex query files by repeating the row sections of the sample Flex.xml.
+ * The ids of the repeated rows are shifted, so every copy describes different trades, positions and dividends.
+ * Every account gets its own statement, with the rows of the sample shifted by account too. The first account is the
+ * one of the sample, so a single account statement of one copy is the sample itself.
+ */
+@Getter
+@Builder
+public class SyntheticFlexXml {
+
+    private static final String TEMPLATE_FILE = "flex/Flex.xml";
+    private static final String TEMPLATE = readTemplate();
+    private static final String TEMPLATE_ACCOUNT_ID = "U1111111";
+    private static final List<String> SECTIONS = List.of(
+            "OpenPositions", "Trades", "ChangeInDividendAccruals", "OpenDividendAccruals");
+    private static final Pattern ID_ATTRIBUTE = Pattern.compile("\\b(conid|tradeID|ibOrderID|actionID)=\"(\\d+)\"");
+    private static final long ID_SHIFT = 10_000_000_000L;
+    private static final long MAX_COPIES = 100_000L;
+
+    @Builder.Default
+    private final int accounts = 1;
+    @Builder.Default
+    private final int copies = 1;
+
+    public List<String> getAccountIds() {
+        List<String> accountIds = new ArrayList<>(accounts);
+        for (int i = 0; i < accounts; i++) {
+            accountIds.add(accountId(i));
+        }
+        return accountIds;
+    }
+
+    public static String accountId(int accountIndex) {
+        return "U" + (Integer.parseInt(TEMPLATE_ACCOUNT_ID.substring(1)) + accountIndex);
+    }
+
+    /**
+     * Flex query with the statement of the account.
+     */
+    public byte[] generate(String accountId) {
+        if (!getAccountIds().contains(accountId)) {
+            throw new IllegalArgumentException("Unknown account " + accountId);
+        }
+        return toBytes(List.of(accountId));
+    }
+
+    /**
+     * Statement of every account in the same flex query, as exported by advisor accounts.
+     */
+    public byte[] generateMultiAccount() {
+        return toBytes(getAccountIds());
+    }
+
+    /**
+     * Writes a copy of the sample file where the rows of every section are repeated the given number of times.
+     */
+    public static Path inflate(int copies) throws IOException {
+        Path file = Files.createTempFile("flex-" + copies + "-", ".xml");
+        file.toFile().deleteOnExit();
+
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            write(writer, List.of(TEMPLATE_ACCOUNT_ID), copies);
+        }
+        return file;
+    }
+
+    /**
+     * Returns a flex query with at least the given number of rows, counting all the row sections of the statement.
+     */
+    public static byte[] generate(int rows) {
+        return builder().copies(copiesFor(rows)).build().generate(TEMPLATE_ACCOUNT_ID);
+    }
+
+    /**
+     * Number of copies of the sample rows making at least the given number of rows.
+     */
+    public static int copiesFor(int rows) {
+        return Math.max(1, (rows + templateRows() - 1) / templateRows());
+    }
+
+    /**
+     * Number of rows in the row sections of the sample file.
+     */
+    public static int templateRows() {
+        int rows = 0;
+        for (String section : SECTIONS) {
+            String sectionRows = TEMPLATE.substring(rowsStart(TEMPLATE, section, 0), rowsEnd(TEMPLATE, section, 0));
+            rows += sectionRows.split("/>", -1).length - 1;
+        }
+        return rows;
+    }
+
+    private byte[] toBytes(List<String> accountIds) {
+        StringWriter writer = new StringWriter();
+        try {
+            write(writer, accountIds, copies);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return writer.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void write(Writer writer, List<String> accountIds, int copies) throws IOException {
+        // Each statement starts with the line break preceding it
+        int statementStart = TEMPLATE.lastIndexOf('\n', TEMPLATE.indexOf("<FlexStatement "));
+        int statementEnd = TEMPLATE.indexOf("</FlexStatement>") + "</FlexStatement>".length();
+        writer.write(TEMPLATE.substring(0, statementStart)
+                .replace("<FlexStatements count=\"1\"", "<FlexStatements count=\"" + accountIds.size() + "\""));
+        for (String accountId : accountIds) {
+            String statement = TEMPLATE.substring(statementStart, statementEnd)
+                    .replace("accountId=\"" + TEMPLATE_ACCOUNT_ID + "\"", "accountId=\"" + accountId + "\"");
+            long accountIndex = Integer.parseInt(accountId.substring(1)) -
+                    Integer.parseInt(TEMPLATE_ACCOUNT_ID.substring(1));
+            writeStatement(writer, statement, accountIndex * MAX_COPIES, copies);
+        }
+        writer.write(TEMPLATE, statementEnd, TEMPLATE.length() - statementEnd);
+    }
+
+    private static void writeStatement(Writer writer, String statement, long firstCopy, int copies)
+            throws IOException {
+        int position = 0;
+        for (String section : SECTIONS) {
+            int rowsStart = rowsStart(statement, section, position);
+            int rowsEnd = rowsEnd(statement, section, rowsStart);
+            writer.write(statement, position, rowsStart - position);
+            String rows = statement.substring(rowsStart, rowsEnd);
+            for (int i = 0; i < copies; i++) {
+                writer.write(shiftIds(rows, firstCopy + i));
+            }
+            position = rowsEnd;
+        }
+        writer.write(statement, position, statement.length() - position);
+    }
+
+    private static String shiftIds(String rows, long copy) {
+        if (copy == 0) {
+            return rows;
+        }
+        Matcher matcher = ID_ATTRIBUTE.matcher(rows);
+        StringBuilder shifted = new StringBuilder(rows.length() + 64);
+        while (matcher.find()) {
+            long id = Long.parseLong(matcher.group(2)) + copy * ID_SHIFT;
+            matcher.appendReplacement(shifted, matcher.group(1) + "=\"" + id + "\"");
+        }
+        matcher.appendTail(shifted);
+        return shifted.toString();
+    }
+
+    private static int rowsStart(String template, String section, int from) {
+        String openTag = "<" + section + ">";
+        return template.indexOf(openTag, from) + openTag.length();
+    }
+
+    private static int rowsEnd(String template, String section, int from) {
+        return template.indexOf("</" + section + ">", from);
+    }
+
+    private static String readTemplate() {
+        try (InputStream is = SyntheticFlexXml.class.getClassLoader().getResourceAsStream(TEMPLATE_FILE)) {
+            return new String(Objects.requireNonNull(is).readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.marcomarchionni.strategistapi.benchmarks;
+
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import com.marcomarchionni.strategistapi.config.XMLConfig;
+import com.marcomarchionni.strategistapi.domain.Dividend;
+import com.marcomarchionni.strategistapi.domain.Position;
+import com.marcomarchionni.strategistapi.dtos.flex.FlexQueryResponseDto;
+import com.marcomarchionni.strategistapi.dtos.response.PositionSummary;
+import com.marcomarchionni.strategistapi.dtos.response.update.UpdateDto;
+import com.marcomarchionni.strategistapi.mappers.DividendMapperImpl;
+import com.marcomarchionni.strategistapi.mappers.FlexStatementMapperImpl;
+import com.marcomarchionni.strategistapi.mappers.PositionMapperImpl;
+import com.marcomarchionni.strategistapi.mappers.TradeMapperImpl;
+import com.marcomarchionni.strategistapi.repositories.projections.DividendActionState;
+import com.marcomarchionni.strategistapi.services.parsers.ResponseParserImpl;
+import com.marcomarchionni.strategistapi.services.util.DividendsIndex;
+import com.marcomarchionni.strategistapi.services.util.OpenDividendsCache;
+import com.marcomarchionni.strategistapi.services.util.PositionsCache;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures building the caches used to match the rows of a flex query with the stored entities and looking up
+ * every row in them. Every other row of the flex query is stored, so half of the lookups miss.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UpdateCacheBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    int rows;
+
+    List<Position> positions;
+    List<PositionSummary> savedPositions;
+    List<PositionSummary> dbPositions;
+    List<Dividend> dividends;
+    List<Dividend> dbOpenDividends;
+    List<DividendActionState> dbActionStates;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        XmlMapper xmlMapper = new XMLConfig().XmlMapper();
+        FlexQueryResponseDto dto = xmlMapper.readValue(SyntheticFlexXml.generate(rows), FlexQueryResponseDto.class);
+        UpdateDto updateDto = new ResponseParserImpl(new FlexStatementMapperImpl(), new TradeMapperImpl(),
+                new PositionMapperImpl(), new DividendMapperImpl()).parseAllData(dto);
+
+        positions = updateDto.getPositions();
+        PositionMapperImpl positionMapper = new PositionMapperImpl();
+        savedPositions = positions.stream().map(positionMapper::toPositionSummary).toList();
+        dbPositions = new ArrayList<>();
+        for (int i = 0; i < savedPositions.size(); i += 2) {
+            dbPositions.add(savedPositions.get(i));
+        }
+
+        // Stored dividends are unique by action id
+        Set<Long> actionIds = new HashSet<>();
+        dividends = updateDto.getDividends().stream()
+                .filter(dividend -> dividend.getActionId() != null && actionIds.add(dividend.getActionId()))
+                .toList();
+        dbOpenDividends = new ArrayList<>();
+        dbActionStates = new ArrayList<>();
+        for (int i = 0; i < dividends.size(); i += 2) {
+            Dividend dividend = dividends.get(i);
+            dbOpenDividends.add(dividend);
+            dbActionStates.add(new DividendActionState(dividend.getActionId(), Dividend.OpenClosed.OPEN));
+        }
+    }
+
+    @Benchmark
+    public void positionsCache(Blackhole blackhole) {
+        PositionsCache cache = PositionsCache.createPositionsCache(dbPositions);
+        cache.addPositions(positions);
+        blackhole.consume(cache.toUpdateReport(savedPositions));
+    }
+
+    @Benchmark
+    public void openDividendsCache(Blackhole blackhole) {
+        OpenDividendsCache cache = OpenDividendsCache.createOpenDividendCache(dbOpenDividends);
+        for (Dividend dividend : dividends) {
+            if (cache.existMatch(dividend)) {
+                blackhole.consume(cache.getMatchingDividend(dividend));
+            }
+        }
+    }
+
+    @Benchmark
+    public void dividendsIndex(Blackhole blackhole) {
+        DividendsIndex index = DividendsIndex.createDividendsIndex(dbActionStates);
+        for (Dividend dividend : dividends) {
+            blackhole.consume(index.exists(dividend) && index.isOpen(dividend));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(UpdateCacheBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
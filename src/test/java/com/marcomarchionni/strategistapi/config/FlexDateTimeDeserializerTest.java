@@ -0,0 +1,65 @@
+package com.marcomarchionni.strategistapi.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import com.marcomarchionni.strategistapi.benchmarks.DateTimeFormatterBaseline;
+import com.marcomarchionni.strategistapi.dtos.flex.FlexQueryResponseDto;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlexDateTimeDeserializerTest {
+
+    ObjectMapper objectMapper = new ObjectMapper().registerModule(new SimpleModule()
+            .addDeserializer(LocalDate.class, new FlexLocalDateDeserializer())
+            .addDeserializer(LocalDateTime.class, new CustomLocalDateTimeDeserializer()));
+    ObjectMapper baseline = new ObjectMapper().registerModule(DateTimeFormatterBaseline.module());
+    XmlMapper xmlMapper = new XMLConfig().XmlMapper();
+
+    @ParameterizedTest
+    @ValueSource(strings = {"20221228;124835", "20220630", "20200229;000000", "20221231;235959", ""})
+    void deserializeDateTime(String value) throws IOException {
+        String json = "\"" + value + "\"";
+
+        assertEquals(baseline.readValue(json, LocalDateTime.class), objectMapper.readValue(json, LocalDateTime.class));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"20221228", "20200229", "19991231"})
+    void deserializeDate(String value) throws IOException {
+        String json = "\"" + value + "\"";
+
+        assertEquals(baseline.readValue(json, LocalDate.class), objectMapper.readValue(json, LocalDate.class));
+        assertNull(objectMapper.readValue("\" \"", LocalDate.class));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"2022123", "20221332", "20210229", "2022-12-28", "20221228;1248", "20221228;25000x"})
+    void rejectInvalidValues(String value) {
+        String json = "\"" + value + "\"";
+
+        assertThrows(InvalidFormatException.class, () -> objectMapper.readValue(json, LocalDateTime.class));
+        assertThrows(InvalidFormatException.class, () -> objectMapper.readValue(json, LocalDate.class));
+    }
+
+    @Test
+    void deserializeFlexAttributes() throws IOException {
+        String xml = "<Order accountId=\"U1111111\" tradeDate=\"20220607\" reportDate=\"\" " +
+                "dateTime=\"20220607;102536\" orderTime=\"20220607\"/>";
+
+        FlexQueryResponseDto.Order order = xmlMapper.readValue(xml, FlexQueryResponseDto.Order.class);
+
+        assertEquals(LocalDate.of(2022, 6, 7), order.getTradeDate());
+        assertNull(order.getReportDate());
+        assertEquals(LocalDateTime.of(2022, 6, 7, 10, 25, 36), order.getDateTime());
+        assertEquals(LocalDateTime.of(2022, 6, 7, 0, 0), order.getOrderTime());
+    }
+}
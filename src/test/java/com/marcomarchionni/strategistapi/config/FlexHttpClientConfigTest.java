@@ -0,0 +1,82 @@
+package com.marcomarchionni.strategistapi.config;
+
+import com.marcomarchionni.strategistapi.loadtest.FlexWebServiceStub;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlexHttpClientConfigTest {
+
+    FlexHttpClientConfig config = new FlexHttpClientConfig();
+    MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    PoolingHttpClientConnectionManager connectionManager;
+    CloseableHttpClient httpClient;
+    FlexWebServiceStub stub;
+
+    private void createClient(long readTimeout, long stubLatency) throws IOException {
+        ObjectProvider<MeterRegistry> meterRegistryProvider =
+                new StaticListableBeanFactory(Map.of("meterRegistry", meterRegistry))
+                        .getBeanProvider(MeterRegistry.class);
+        connectionManager = config.flexConnectionManager(8, 4, 1000, readTimeout, 60000, meterRegistryProvider);
+        httpClient = config.flexHttpClient(connectionManager, 1000, readTimeout, 30000, 30000, true,
+                meterRegistryProvider);
+        stub = FlexWebServiceStub.builder().latencyMillis(stubLatency).build();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        httpClient.close();
+        stub.close();
+    }
+
+    private String get(String url) throws IOException {
+        return httpClient.execute(new HttpGet(url), response -> EntityUtils.toString(response.getEntity()));
+    }
+
+    @Test
+    void poolSettings() throws IOException {
+        createClient(1000, 0);
+
+        assertEquals(8, connectionManager.getMaxTotal());
+        assertEquals(4, connectionManager.getDefaultMaxPerRoute());
+    }
+
+    @Test
+    void requestMetrics() throws IOException {
+        createClient(1000, 0);
+
+        String body = get(stub.getBaseUrl() + FlexWebServiceStub.SEND_REQUEST_PATH + "?t=token&q=U1111111&v=3");
+
+        assertTrue(body.contains("<Status>Success</Status>"));
+        assertEquals(1, meterRegistry.get("flexservice.http.pool.lease").timer().count());
+        assertEquals(0, meterRegistry.get("flexservice.http.requests.in-flight").longTaskTimer().activeTasks());
+        assertEquals(8, meterRegistry.get("httpcomponents.httpclient.pool.total.max")
+                .tag("httpclient", "flexservice.http").gauge().value());
+        // the connection is kept alive and reused by the next request
+        assertEquals(1, connectionManager.getTotalStats().getAvailable());
+        get(stub.getBaseUrl() + FlexWebServiceStub.SEND_REQUEST_PATH + "?t=token&q=U1111111&v=3");
+        assertEquals(1, connectionManager.getTotalStats().getAvailable());
+    }
+
+    @Test
+    void readTimeout() throws IOException {
+        createClient(100, 1000);
+
+        assertThrows(SocketTimeoutException.class,
+                () -> get(stub.getBaseUrl() + FlexWebServiceStub.SEND_REQUEST_PATH + "?t=token&q=U1111111&v=3"));
+        assertEquals(0, meterRegistry.get("flexservice.http.requests.in-flight").longTaskTimer().activeTasks());
+    }
+}
@@ -1,7 +1,6 @@
 package com.marcomarchionni.strategistapi.controllers;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.marcomarchionni.strategistapi.config.ModelMapperConfig;
 import com.marcomarchionni.strategistapi.domain.Dividend;
 import com.marcomarchionni.strategistapi.domain.Strategy;
 import com.marcomarchionni.strategistapi.domain.User;
@@ -15,7 +14,6 @@ import com.marcomarchionni.strategistapi.services.UserService;
 import com.marcomarchionni.strategistapi.util.TestUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -59,9 +57,7 @@ class DividendControllerTest {
     @BeforeEach
     void setUp() {
         // setup mapper
-        ModelMapperConfig modelMapperConfig = new ModelMapperConfig();
-        ModelMapper mapper = modelMapperConfig.modelMapper();
-        dividendMapper = new DividendMapperImpl(mapper);
+        dividendMapper = new DividendMapperImpl();
 
         //setup data
         user = getSampleUser();
@@ -8,15 +8,18 @@ import com.marcomarchionni.strategistapi.dtos.request.PortfolioSave;
 import com.marcomarchionni.strategistapi.dtos.response.PortfolioDetail;
 import com.marcomarchionni.strategistapi.dtos.response.PortfolioSummary;
 import com.marcomarchionni.strategistapi.errorhandling.exceptions.EntityNotFoundException;
+import com.marcomarchionni.strategistapi.mappers.DividendMapperImpl;
 import com.marcomarchionni.strategistapi.mappers.PortfolioMapper;
 import com.marcomarchionni.strategistapi.mappers.PortfolioMapperImpl;
+import com.marcomarchionni.strategistapi.mappers.PositionMapperImpl;
+import com.marcomarchionni.strategistapi.mappers.StrategyMapperImpl;
+import com.marcomarchionni.strategistapi.mappers.TradeMapperImpl;
 import com.marcomarchionni.strategistapi.services.BatchOperationService;
 import com.marcomarchionni.strategistapi.services.JwtService;
 import com.marcomarchionni.strategistapi.services.PortfolioService;
 import com.marcomarchionni.strategistapi.services.parsers.BatchRequestParser;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -61,7 +64,8 @@ class PortfolioControllerTest {
     @BeforeEach
     void setup() {
         mapper = new ObjectMapper();
-        portfolioMapper = new PortfolioMapperImpl(new ModelMapper());
+        portfolioMapper = new PortfolioMapperImpl(new StrategyMapperImpl(new TradeMapperImpl(),
+                new PositionMapperImpl(), new DividendMapperImpl()));
 
         userPortfolio = getSamplePortfolio("MFStockAdvisor");
         user = getSampleUser();
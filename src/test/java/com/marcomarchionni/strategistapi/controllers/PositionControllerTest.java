@@ -11,7 +11,6 @@ import com.marcomarchionni.strategistapi.services.PositionService;
 import com.marcomarchionni.strategistapi.services.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -58,7 +57,7 @@ class PositionControllerTest {
     @BeforeEach
     void setup() {
         positions = getSamplePositions();
-        positionMapper = new PositionMapperImpl(new ModelMapper());
+        positionMapper = new PositionMapperImpl();
         positionSummaries = positions
                 .stream()
                 .map(positionMapper::toPositionSummary)
@@ -9,14 +9,16 @@ import com.marcomarchionni.strategistapi.dtos.request.StrategyCreate;
 import com.marcomarchionni.strategistapi.dtos.request.StrategyFind;
 import com.marcomarchionni.strategistapi.dtos.response.StrategyDetail;
 import com.marcomarchionni.strategistapi.dtos.response.StrategySummary;
+import com.marcomarchionni.strategistapi.mappers.DividendMapperImpl;
+import com.marcomarchionni.strategistapi.mappers.PositionMapperImpl;
 import com.marcomarchionni.strategistapi.mappers.StrategyMapper;
 import com.marcomarchionni.strategistapi.mappers.StrategyMapperImpl;
+import com.marcomarchionni.strategistapi.mappers.TradeMapperImpl;
 import com.marcomarchionni.strategistapi.services.JwtService;
 import com.marcomarchionni.strategistapi.services.StrategyService;
 import com.marcomarchionni.strategistapi.services.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -50,7 +52,8 @@ class StrategyControllerTest {
     @MockBean
     UserService userService;
     ObjectMapper mapper = new ObjectMapper();
-    StrategyMapper strategyMapper = new StrategyMapperImpl(new ModelMapper());
+    StrategyMapper strategyMapper = new StrategyMapperImpl(new TradeMapperImpl(),
+            new PositionMapperImpl(), new DividendMapperImpl());
     User user;
     Strategy userStrategy;
 
@@ -1,8 +1,11 @@
 package com.marcomarchionni.strategistapi.controllers;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.marcomarchionni.strategistapi.domain.Trade;
 import com.marcomarchionni.strategistapi.domain.User;
 import com.marcomarchionni.strategistapi.dtos.request.StrategyAssign;
+import com.marcomarchionni.strategistapi.dtos.response.TradeSummary;
 import com.marcomarchionni.strategistapi.repositories.StrategyRepository;
 import com.marcomarchionni.strategistapi.repositories.TradeRepository;
 import org.junit.jupiter.api.AfterEach;
@@ -14,6 +17,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -21,9 +25,14 @@ import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
 import static com.marcomarchionni.strategistapi.util.TestUtils.getSampleUser;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
@@ -77,6 +86,53 @@ class TradeControllerIT {
                 .andExpect(jsonPath("$", hasSize(expectedSize)));
     }
 
+    @Test
+    @Sql("classpath:dbScripts/insertSampleData.sql")
+    void findByFilterPages() throws Exception {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            MockHttpServletResponse response = mockMvc.perform(get("/trades")
+                            .param("limit", "3")
+                            .param("cursor", cursor))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse();
+            List<TradeSummary> page = mapper.readValue(response.getContentAsString(), new TypeReference<>() {
+            });
+            page.forEach(trade -> ids.add(trade.getId()));
+            cursor = response.getHeader(TradeApi.NEXT_CURSOR_HEADER);
+        } while (cursor != null);
+
+        List<Long> expectedIds = tradeRepository.findAllByAccountId(user.getAccountId()).stream()
+                .sorted(Comparator.comparing(Trade::getTradeDate).thenComparing(Trade::getId))
+                .map(Trade::getId)
+                .toList();
+        assertEquals(expectedIds, ids);
+    }
+
+    @Test
+    @Sql("classpath:dbScripts/insertSampleData.sql")
+    void findByFilterWithoutLimit() throws Exception {
+        int trades = tradeRepository.findAllByAccountId(user.getAccountId()).size();
+
+        mockMvc.perform(get("/trades"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(TradeApi.NEXT_CURSOR_HEADER))
+                .andExpect(jsonPath("$", hasSize(trades)));
+    }
+
+    @Test
+    @Sql("classpath:dbScripts/insertSampleData.sql")
+    void streamByFilter() throws Exception {
+        String body = mockMvc.perform(get("/trades/stream")
+                        .param("symbol", "TTWO"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(2, body.lines().count());
+    }
+
     @ParameterizedTest
     @CsvSource({"pippo,,,,STK", ",,farse,ZM,", "1969-01-01,,,,,", "2022-06-14,2022-06-13,,,,"})
     void findByFilterBadRequest(String tradeDateFrom, String tradeDateTo, String tagged, String symbol, String assetCategory) throws Exception {
@@ -7,6 +7,7 @@ import com.marcomarchionni.strategistapi.domain.Trade;
 import com.marcomarchionni.strategistapi.domain.User;
 import com.marcomarchionni.strategistapi.dtos.request.StrategyAssign;
 import com.marcomarchionni.strategistapi.dtos.request.TradeFind;
+import com.marcomarchionni.strategistapi.dtos.response.TradePage;
 import com.marcomarchionni.strategistapi.dtos.response.TradeSummary;
 import com.marcomarchionni.strategistapi.mappers.TradeMapper;
 import com.marcomarchionni.strategistapi.mappers.TradeMapperImpl;
@@ -18,7 +19,6 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -27,12 +27,15 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 import static com.marcomarchionni.strategistapi.util.TestUtils.getSampleStrategy;
 import static com.marcomarchionni.strategistapi.util.TestUtils.getSampleTrade;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
@@ -55,7 +58,7 @@ class TradeControllerTest {
     @MockBean
     UserService userService;
     ObjectMapper objectMapper = new ObjectMapper();
-    TradeMapper tradeMapper = new TradeMapperImpl(new ModelMapper());
+    TradeMapper tradeMapper = new TradeMapperImpl();
     Trade trade = getSampleTrade();
     Strategy strategy = getSampleStrategy();
     List<TradeSummary> tradeSummaries;
@@ -66,7 +69,7 @@ class TradeControllerTest {
     void setUp() {
         user = TestUtils.getSampleUser();
         objectMapper.registerModule(new JavaTimeModule());
-        tradeMapper = new TradeMapperImpl(new ModelMapper());
+        tradeMapper = new TradeMapperImpl();
         tradeSummaries = TestUtils.getSampleTrades()
                 .stream()
                 .map(tradeMapper::toTradeSummary)
@@ -77,7 +80,7 @@ class TradeControllerTest {
     @Test
     void getTrades() throws Exception {
 
-        when(tradeService.findByFilter(any(TradeFind.class))).thenReturn(tradeSummaries);
+        when(tradeService.findByFilter(any(TradeFind.class))).thenReturn(TradePage.builder().trades(tradeSummaries).build());
 
         mockMvc.perform(get("/trades"))
                 .andExpect(status().isOk())
@@ -89,7 +92,7 @@ class TradeControllerTest {
     @CsvSource({",,,ZM,", ",2022-06-14,true,,"})
     void findTradesSuccess(String tradeDateFrom, String tradeDateTo, String tagged, String symbol, String assetCategory) throws Exception {
 
-        when(tradeService.findByFilter(any(TradeFind.class))).thenReturn(tradeSummaries);
+        when(tradeService.findByFilter(any(TradeFind.class))).thenReturn(TradePage.builder().trades(tradeSummaries).build());
 
         mockMvc.perform(get("/trades")
                         .param("tradeDateFrom", tradeDateFrom)
@@ -117,6 +120,41 @@ class TradeControllerTest {
                 .andExpect(status().is4xxClientError());
     }
 
+    @Test
+    void getTradesNextPage() throws Exception {
+        when(tradeService.findByFilter(any(TradeFind.class))).thenReturn(TradePage.builder()
+                .trades(tradeSummaries.subList(0, 2)).nextCursor("cursor").build());
+
+        mockMvc.perform(get("/trades").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(TradeApi.NEXT_CURSOR_HEADER, "cursor"))
+                .andExpect(jsonPath("$", hasSize(2)));
+    }
+
+    @Test
+    void getTradesInvalidLimit() throws Exception {
+        mockMvc.perform(get("/trades").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void streamTrades() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<TradeSummary> action = invocation.getArgument(1);
+            tradeSummaries.forEach(action);
+            return null;
+        }).when(tradeService).streamByFilter(any(TradeFind.class), any());
+
+        String body = mockMvc.perform(get("/trades/stream"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(tradeSummaries.size(), lines.length);
+        assertEquals(tradeSummaries.get(0).getId(), objectMapper.readValue(lines[0], TradeSummary.class).getId());
+    }
+
     @Test
     void updateStrategyIdTest() throws Exception {
 
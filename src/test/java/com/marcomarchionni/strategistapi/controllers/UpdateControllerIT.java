@@ -1,5 +1,6 @@
 package com.marcomarchionni.strategistapi.controllers;
 
+import com.jayway.jsonpath.JsonPath;
 import com.marcomarchionni.strategistapi.domain.User;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -107,4 +108,41 @@ class UpdateControllerIT {
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.trades").isNotEmpty());
     }
-}
\ No newline at end of file
+
+    @Test
+    void updateJobWithSampleData() throws Exception {
+        String response = mockMvc.perform(MockMvcRequestBuilders.post("/update/jobs")
+                        .param("sourceType", "SAMPLEDATA"))
+                .andDo(print())
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.id").isNotEmpty())
+                .andReturn().getResponse().getContentAsString();
+        String jobId = JsonPath.read(response, "$.id");
+
+        // Poll the job until it is finished
+        String state = null;
+        for (int i = 0; i < 100 && !"COMPLETED".equals(state) && !"FAILED".equals(state); i++) {
+            Thread.sleep(100);
+            String jobResponse = mockMvc.perform(MockMvcRequestBuilders.get("/update/jobs/" + jobId))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            state = JsonPath.read(jobResponse, "$.state");
+        }
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/update/jobs/" + jobId))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("COMPLETED"))
+                .andExpect(jsonPath("$.stages.TRADES.state").value("COMPLETED"))
+                .andExpect(jsonPath("$.report.trades").exists());
+    }
+
+    @Test
+    void findJobNotFound() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/update/jobs/unknown"))
+                .andDo(print())
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+                .andExpect(jsonPath("$.type").value("update-job-not-found"));
+    }
+}
@@ -4,8 +4,11 @@ import com.marcomarchionni.strategistapi.dtos.request.UpdateContext;
 import com.marcomarchionni.strategistapi.dtos.response.TradeSummary;
 import com.marcomarchionni.strategistapi.dtos.response.update.CombinedUpdateReport;
 import com.marcomarchionni.strategistapi.dtos.response.update.UpdateReport;
+import com.marcomarchionni.strategistapi.dtos.response.update.UpdateJobStatus;
 import com.marcomarchionni.strategistapi.services.JwtService;
+import com.marcomarchionni.strategistapi.services.UpdateJobService;
 import com.marcomarchionni.strategistapi.services.UpdateOrchestrator;
+import com.marcomarchionni.strategistapi.services.util.FlexUploadReader;
 import com.marcomarchionni.strategistapi.validators.DtoValidator;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
@@ -16,17 +19,23 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.zip.GZIPOutputStream;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.ArgumentMatchers.any;
@@ -36,11 +45,15 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 @WebMvcTest(UpdateController.class)
 @AutoConfigureMockMvc(addFilters = false)
+@Import(FlexUploadReader.class)
 class UpdateControllerTest {
 
     @MockBean
     UpdateOrchestrator updateOrchestrator;
 
+    @MockBean
+    UpdateJobService updateJobService;
+
     @MockBean
     DtoValidator<UpdateContext> updateContextDtoValidator;
 
@@ -111,6 +124,32 @@ class UpdateControllerTest {
         assertEquals(mockFile, contextDtoArgumentCaptor.getValue().getFile());
     }
 
+    @Test
+    void updateFromGzipUpload() throws Exception {
+        ByteArrayOutputStream gzip = new ByteArrayOutputStream();
+        try (OutputStream stream = new GZIPOutputStream(gzip)) {
+            stream.write(mockFile.getBytes());
+        }
+        List<byte[]> uploadedBytes = new ArrayList<>();
+        when(updateOrchestrator.update(any())).thenAnswer(invocation -> {
+            UpdateContext context = invocation.getArgument(0);
+            uploadedBytes.add(context.getFile().getBytes());
+            assertEquals("Flex.xml", context.getFile().getOriginalFilename());
+            return combinedUpdateReport;
+        });
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/update/upload")
+                        .param("filename", "Flex.xml.gz")
+                        .contentType("application/gzip")
+                        .content(gzip.toByteArray()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.trades").exists());
+
+        verify(updateOrchestrator).update(contextDtoArgumentCaptor.capture());
+        assertEquals(UpdateContext.SourceType.FILE, contextDtoArgumentCaptor.getValue().getSourceType());
+        assertArrayEquals(mockFile.getBytes(), uploadedBytes.get(0));
+    }
+
     @Test
     void updateFromServer() throws Exception {
 
@@ -206,4 +245,45 @@ class UpdateControllerTest {
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.trades").exists());
     }
-}
\ No newline at end of file
+
+    @Test
+    void submitJobFromFile() throws Exception {
+        UpdateJobStatus jobStatus = UpdateJobStatus.builder()
+                .id("job-id")
+                .accountId("U1111111")
+                .state(UpdateJobStatus.JobState.QUEUED)
+                .build();
+        when(updateJobService.submit(any())).thenReturn(jobStatus);
+
+        mockMvc.perform(MockMvcRequestBuilders.multipart("/update/jobs")
+                        .file(mockFile)
+                        .param("sourceType", "FILE"))
+                .andDo(print())
+                .andExpect(status().isAccepted())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.id").value("job-id"))
+                .andExpect(jsonPath("$.state").value("QUEUED"));
+
+        verify(updateJobService).submit(contextDtoArgumentCaptor.capture());
+        assertEquals(mockFile, contextDtoArgumentCaptor.getValue().getFile());
+        verify(updateOrchestrator, never()).update(any());
+    }
+
+    @Test
+    void findJob() throws Exception {
+        UpdateJobStatus jobStatus = UpdateJobStatus.builder()
+                .id("job-id")
+                .accountId("U1111111")
+                .state(UpdateJobStatus.JobState.COMPLETED)
+                .report(combinedUpdateReport)
+                .build();
+        when(updateJobService.getStatus("job-id")).thenReturn(jobStatus);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/update/jobs/job-id"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.state").value("COMPLETED"))
+                .andExpect(jsonPath("$.report.trades").exists());
+    }
+}
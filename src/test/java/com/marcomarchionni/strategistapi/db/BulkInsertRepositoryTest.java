@@ -0,0 +1,96 @@
+package com.marcomarchionni.strategistapi.db;
+
+import com.marcomarchionni.strategistapi.domain.Dividend;
+import com.marcomarchionni.strategistapi.domain.Position;
+import com.marcomarchionni.strategistapi.domain.Strategy;
+import com.marcomarchionni.strategistapi.domain.Trade;
+import com.marcomarchionni.strategistapi.repositories.*;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static com.marcomarchionni.strategistapi.util.TestUtils.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Transactional
+@Sql("classpath:dbScripts/insertSampleData.sql")
+@DataJpaTest
+@Import(BulkInsertRepositoryImpl.class)
+@TestPropertySource(properties = "update.insert-batch-size=2")
+class BulkInsertRepositoryTest {
+
+    @Autowired
+    BulkInsertRepository bulkInsertRepository;
+
+    @Autowired
+    TradeRepository tradeRepository;
+
+    @Autowired
+    PositionRepository positionRepository;
+
+    @Autowired
+    DividendRepository dividendRepository;
+
+    @Autowired
+    StrategyRepository strategyRepository;
+
+    @Test
+    void insertTrades() {
+        Strategy strategy = strategyRepository.findAll().get(0);
+        List<Trade> trades = LongStream.range(0, 5).mapToObj(i -> {
+            Trade trade = getZMTrade();
+            trade.setId(null);
+            trade.setIbOrderId(900_000L + i);
+            trade.setStrategy(strategy);
+            return trade;
+        }).toList();
+
+        List<Trade> inserted = bulkInsertRepository.insertTrades(trades);
+
+        // Ids are generated for every batch, in the order of the rows
+        assertEquals(5, inserted.size());
+        for (Trade trade : inserted) {
+            Trade dbTrade = tradeRepository.findById(trade.getId()).orElseThrow();
+            assertEquals(trade.getIbOrderId(), dbTrade.getIbOrderId());
+            assertEquals(strategy.getId(), dbTrade.getStrategy().getId());
+            assertEquals(0, trade.getTradePrice().compareTo(dbTrade.getTradePrice()));
+        }
+    }
+
+    @Test
+    void insertPositions() {
+        Position position = getADYENPosition();
+        position.setId(null);
+
+        bulkInsertRepository.insertPositions(List.of(position));
+
+        Position dbPosition = positionRepository.findById(position.getId()).orElseThrow();
+        assertEquals("ADYEN", dbPosition.getSymbol());
+        assertEquals(position.getReportDate(), dbPosition.getReportDate());
+        assertNull(dbPosition.getStrategy());
+    }
+
+    @Test
+    void insertDividends() {
+        Dividend dividend = getFDXOpenDividend();
+        dividend.setId(null);
+
+        bulkInsertRepository.insertDividends(List.of(dividend));
+
+        Dividend dbDividend = dividendRepository.findById(dividend.getId()).orElseThrow();
+        assertEquals(Dividend.OpenClosed.OPEN, dbDividend.getOpenClosed());
+        assertEquals(dividend.getActionId(), dbDividend.getActionId());
+    }
+
+    @Test
+    void insertEmptyList() {
+        assertTrue(bulkInsertRepository.insertTrades(List.of()).isEmpty());
+    }
+}
@@ -115,4 +115,15 @@ public class DbTest {
         d.setId(999999999999999L);
         assertDoesNotThrow(() -> dividendRepository.delete(d));
     }
+
+    @Test
+    void findIbOrderIdsTest() {
+        List<Long> ibOrderIds = tradeRepository.findIbOrderIdsByAccountIdAndIbOrderIdIn("U1111111",
+                List.of(339578772L, 339580463L, 999999999L));
+        assertEquals(2, ibOrderIds.size());
+        assertTrue(ibOrderIds.containsAll(List.of(339578772L, 339580463L)));
+
+        assertTrue(tradeRepository.findIbOrderIdsByAccountIdAndIbOrderIdIn("U2222222",
+                List.of(339578772L)).isEmpty());
+    }
 }
@@ -0,0 +1,96 @@
+package com.marcomarchionni.strategistapi.db;
+
+import com.marcomarchionni.strategistapi.domain.Position;
+import com.marcomarchionni.strategistapi.repositories.PositionRepository;
+import com.marcomarchionni.strategistapi.repositories.PositionSnapshotRepository;
+import com.marcomarchionni.strategistapi.repositories.PositionSnapshotRepositoryImpl;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static com.marcomarchionni.strategistapi.util.TestUtils.getAMZNPosition;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Transactional
+@Sql("classpath:dbScripts/insertSampleData.sql")
+@DataJpaTest
+@Import(PositionSnapshotRepositoryImpl.class)
+@TestPropertySource(properties = "update.insert-batch-size=2")
+class PositionSnapshotRepositoryTest {
+
+    @Autowired
+    PositionSnapshotRepository positionSnapshotRepository;
+
+    @Autowired
+    PositionRepository positionRepository;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Test
+    void replaceSnapshot() {
+        Map<Long, Position> dbPositions = positionRepository.findAllByAccountId("U1111111").stream()
+                .collect(Collectors.toMap(Position::getConId, position -> position));
+        Position dbNKEPosition = dbPositions.get(10291L);
+        assertNotNull(dbNKEPosition.getStrategy());
+        entityManager.clear();
+
+        // NKE is updated, a new position is added, the other positions are missing from the snapshot
+        Position NKEPosition = Position.builder()
+                .accountId("U1111111")
+                .conId(10291L)
+                .reportDate(LocalDate.of(2022, 7, 29))
+                .symbol("NKE")
+                .description("NIKE INC -CL B")
+                .assetCategory("STK")
+                .quantity(new BigDecimal(100))
+                .markPrice(new BigDecimal("110.5"))
+                .multiplier(1)
+                .build();
+        Position newPosition = getAMZNPosition();
+        newPosition.setId(null);
+        newPosition.setConId(999999L);
+        newPosition.setSymbol("NEW");
+
+        positionSnapshotRepository.upsertPositions(List.of(NKEPosition, newPosition));
+        int deleted = positionSnapshotRepository.deleteMissingPositions("U1111111", List.of(10291L, 999999L));
+
+        assertEquals(dbPositions.size() - 1, deleted);
+        List<Position> positions = positionRepository.findAllByAccountId("U1111111");
+        assertEquals(2, positions.size());
+
+        Position updatedNKEPosition = positionRepository.findById(dbNKEPosition.getId()).orElseThrow();
+        assertEquals(LocalDate.of(2022, 7, 29), updatedNKEPosition.getReportDate());
+        assertEquals(0, new BigDecimal(100).compareTo(updatedNKEPosition.getQuantity()));
+        // The strategy assigned by the user is kept
+        assertEquals(dbNKEPosition.getStrategy().getId(), updatedNKEPosition.getStrategy().getId());
+        assertTrue(positions.stream().anyMatch(position -> position.getSymbol().equals("NEW")));
+    }
+
+    @Test
+    void deleteMissingPositionsInBatches() {
+        List<Long> dbConIds = positionRepository.findAllByAccountId("U1111111").stream()
+                .map(Position::getConId).toList();
+        List<Long> snapshotConIds = new ArrayList<>(dbConIds);
+        snapshotConIds.addAll(List.of(1L, 2L, 3L, 4L, 5L, 1L));
+
+        assertEquals(0, positionSnapshotRepository.deleteMissingPositions("U1111111", snapshotConIds));
+        // The con ids of the previous snapshot are not kept
+        assertEquals(dbConIds.size() - 1,
+                positionSnapshotRepository.deleteMissingPositions("U1111111", List.of(dbConIds.get(0))));
+        assertEquals(List.of(dbConIds.get(0)), positionRepository.findAllByAccountId("U1111111").stream()
+                .map(Position::getConId).toList());
+    }
+}
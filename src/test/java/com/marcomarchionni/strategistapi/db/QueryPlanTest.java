@@ -0,0 +1,135 @@
+package com.marcomarchionni.strategistapi.db;
+
+import com.marcomarchionni.strategistapi.repositories.*;
+import com.marcomarchionni.strategistapi.repositories.specifications.DividendSpecifications;
+import com.marcomarchionni.strategistapi.repositories.specifications.PositionSpecifications;
+import com.marcomarchionni.strategistapi.repositories.specifications.TradeSpecifications;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Runs the queries of the list endpoints on H2 migrated by Flyway, captures the sql generated by Hibernate for them
+ * and checks its plans, none of them may scan a whole table.
+ */
+@Transactional
+@Sql("classpath:dbScripts/insertSampleData.sql")
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:queryPlans;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.flyway.enabled=true",
+        "spring.flyway.locations=classpath:db/migration,classpath:com/marcomarchionni/strategistapi/migrations",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.jpa.defer-datasource-initialization=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+                "com.marcomarchionni.strategistapi.db.QueryPlanTest$CapturedQueries"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(SummaryRepositoryImpl.class)
+class QueryPlanTest {
+
+    private static final String ACCOUNT_ID = "U1111111";
+
+    @Autowired
+    SummaryRepository summaryRepository;
+    @Autowired
+    TradeRepository tradeRepository;
+    @Autowired
+    DividendRepository dividendRepository;
+    @Autowired
+    StrategyRepository strategyRepository;
+    @Autowired
+    PortfolioRepository portfolioRepository;
+    @Autowired
+    FlexStatementRepository flexStatementRepository;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        CapturedQueries.QUERIES.clear();
+    }
+
+    @Test
+    void tradeQueriesUseIndexes() {
+        summaryRepository.findTradeSummaries(TradeSpecifications.byParams(ACCOUNT_ID, LocalDate.of(2022, 6, 1),
+                LocalDate.of(2022, 6, 30), null, null, null), 501);
+        summaryRepository.findTradeSummaries(TradeSpecifications.byParams(ACCOUNT_ID, null, null, null, null, null)
+                .and(TradeSpecifications.after(LocalDate.of(2022, 6, 1), 1L)), 501);
+        tradeRepository.findIbOrderIdsByAccountIdAndIbOrderIdIn(ACCOUNT_ID, List.of(1L, 2L, 3L));
+
+        assertCapturedQueriesUseIndexes();
+    }
+
+    @Test
+    void positionQueriesUseIndexes() {
+        summaryRepository.findPositionSummaries(PositionSpecifications.byParams(ACCOUNT_ID, null, "EWZ", null));
+        summaryRepository.findPositionSummaries(PositionSpecifications.byParams(ACCOUNT_ID, null, null, null));
+
+        assertCapturedQueriesUseIndexes();
+    }
+
+    @Test
+    void dividendQueriesUseIndexes() {
+        summaryRepository.findDividendSummaries(DividendSpecifications.byParams(ACCOUNT_ID, null, null,
+                LocalDate.of(2022, 6, 1), null, null, null));
+        dividendRepository.findActionStatesByAccountId(ACCOUNT_ID);
+
+        assertCapturedQueriesUseIndexes();
+    }
+
+    @Test
+    void strategyAndPortfolioQueriesUseIndexes() {
+        strategyRepository.findByParams(ACCOUNT_ID, null);
+        portfolioRepository.findAllByAccountId(ACCOUNT_ID, PageRequest.of(0, 10));
+        portfolioRepository.countByAccountId(ACCOUNT_ID);
+
+        assertCapturedQueriesUseIndexes();
+    }
+
+    @Test
+    void flexStatementQueriesUseIndexes() {
+        flexStatementRepository.findFirstByAccountIdOrderByToDateDesc(ACCOUNT_ID);
+
+        assertCapturedQueriesUseIndexes();
+    }
+
+    private void assertCapturedQueriesUseIndexes() {
+        assertFalse(CapturedQueries.QUERIES.isEmpty());
+        for (String sql : CapturedQueries.QUERIES) {
+            // The parameters are left unbound, H2 plans the statement without their values
+            String plan = jdbcTemplate.query("EXPLAIN " + sql, ps -> {
+            }, rs -> rs.next() ? rs.getString(1) : null);
+
+            assertFalse(plan.contains("tableScan"), plan);
+        }
+    }
+
+    /**
+     * Collects the select statements generated by Hibernate.
+     */
+    public static class CapturedQueries implements StatementInspector {
+        static final List<String> QUERIES = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            if (sql.trim().toLowerCase(Locale.ROOT).startsWith("select")) {
+                QUERIES.add(sql);
+            }
+            return sql;
+        }
+    }
+}
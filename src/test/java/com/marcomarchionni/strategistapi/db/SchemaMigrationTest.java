@@ -0,0 +1,94 @@
+package com.marcomarchionni.strategistapi.db;
+
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.FlywayException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the migrations on H2 on a new database and on databases created before the migrations, either by the V1
+ * script or by Hibernate from the entities, which are baselined at V1.
+ */
+class SchemaMigrationTest {
+
+    static final String[] LOCATIONS = {"classpath:db/migration",
+            "classpath:com/marcomarchionni/strategistapi/migrations"};
+
+    static final String DUPLICATE_TRADE = "INSERT INTO trade (account_id, ib_order_id, con_id, trade_date, " +
+            "symbol, multiplier, buy_sell, quantity, trade_price, trade_money) SELECT account_id, ib_order_id, " +
+            "con_id, trade_date, symbol, multiplier, buy_sell, quantity, trade_price, trade_money FROM trade LIMIT 1";
+
+    SingleConnectionDataSource dataSource =
+            new SingleConnectionDataSource("jdbc:h2:mem:schemaMigration;MODE=MySQL", "sa", "", true);
+    JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+    @AfterEach
+    void tearDown() {
+        dataSource.destroy();
+    }
+
+    @Test
+    void migrateNewDatabase() throws SQLException {
+        Flyway flyway = Flyway.configure().dataSource(dataSource).locations(LOCATIONS).load();
+
+        assertEquals(4, flyway.migrate().migrationsExecuted);
+        assertSchema(flyway);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"db/migration/V1__baseline_schema.sql", "dbScripts/hibernateSchema.sql"})
+    void migrateBaselinedDatabase(String schemaScript) throws SQLException {
+        executeScript(schemaScript);
+        Flyway flyway = Flyway.configure().dataSource(dataSource).locations(LOCATIONS)
+                .baselineOnMigrate(true).baselineVersion("1").load();
+
+        assertEquals(3, flyway.migrate().migrationsExecuted);
+        assertSchema(flyway);
+    }
+
+    @Test
+    void migrateDatabaseWithDuplicateTrades() throws SQLException {
+        executeScript("dbScripts/hibernateSchema.sql");
+        executeScript("dbScripts/insertSampleData.sql");
+        jdbcTemplate.update(DUPLICATE_TRADE);
+        Flyway flyway = Flyway.configure().dataSource(dataSource).locations(LOCATIONS)
+                .baselineOnMigrate(true).baselineVersion("1").load();
+
+        FlywayException e = assertThrows(FlywayException.class, flyway::migrate);
+
+        String message = ExceptionUtils.getRootCause(e).getMessage();
+        assertTrue(message.contains("uk_trade_account_order") && message.contains("339578772"), message);
+        // Nothing is changed before the duplicates are found
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM INFORMATION_SCHEMA.INDEXES " +
+                "WHERE LOWER(INDEX_NAME) = 'idx_trade_account_date'", Integer.class));
+    }
+
+    private void assertSchema(Flyway flyway) throws SQLException {
+        // Portfolios and strategies of different accounts share names in the sample data
+        executeScript("dbScripts/insertSampleData.sql");
+        assertThrows(DuplicateKeyException.class, () -> jdbcTemplate.update(
+                "INSERT INTO portfolio (name, account_id) VALUES ('Saver Portfolio', 'U1111111')"));
+        assertThrows(DuplicateKeyException.class, () -> jdbcTemplate.update(DUPLICATE_TRADE));
+        jdbcTemplate.update("UPDATE flex_statement SET trades_included = TRUE, dividends_included = FALSE");
+        assertEquals(0, flyway.migrate().migrationsExecuted);
+    }
+
+    private void executeScript(String script) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource(script));
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.marcomarchionni.strategistapi.db;
+
+import com.marcomarchionni.strategistapi.domain.Strategy;
+import com.marcomarchionni.strategistapi.dtos.response.DividendSummary;
+import com.marcomarchionni.strategistapi.dtos.response.PositionSummary;
+import com.marcomarchionni.strategistapi.dtos.response.TradeSummary;
+import com.marcomarchionni.strategistapi.repositories.StrategyRepository;
+import com.marcomarchionni.strategistapi.repositories.SummaryRepository;
+import com.marcomarchionni.strategistapi.repositories.SummaryRepositoryImpl;
+import com.marcomarchionni.strategistapi.repositories.specifications.DividendSpecifications;
+import com.marcomarchionni.strategistapi.repositories.specifications.PositionSpecifications;
+import com.marcomarchionni.strategistapi.repositories.specifications.TradeSpecifications;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Transactional
+@Sql("classpath:dbScripts/insertSampleData.sql")
+@DataJpaTest
+@Import(SummaryRepositoryImpl.class)
+class SummaryRepositoryTest {
+
+    @Autowired
+    SummaryRepository summaryRepository;
+
+    @Autowired
+    StrategyRepository strategyRepository;
+
+    @Test
+    void findSummariesWithStrategy() {
+        Strategy zmLong = strategyRepository.findByAccountIdAndName("U1111111", "ZM long").orElseThrow();
+
+        List<TradeSummary> trades = summaryRepository.findTradeSummaries(
+                TradeSpecifications.byParams("U1111111", null, null, null, "ZM", null), 10);
+        List<PositionSummary> positions = summaryRepository.findPositionSummaries(
+                PositionSpecifications.byParams("U1111111", true, "AAPL", null));
+        List<DividendSummary> dividends = summaryRepository.findDividendSummaries(
+                DividendSpecifications.byParams("U1111111", null, null, null, null, null, "EBAY"));
+
+        assertEquals(1, trades.size());
+        assertEquals(zmLong.getId(), trades.get(0).getStrategyId());
+        assertEquals("ZM long", trades.get(0).getStrategyName());
+        assertEquals(1, positions.size());
+        assertEquals("ZM long", positions.get(0).getStrategyName());
+        assertEquals(1, dividends.size());
+        assertNotNull(dividends.get(0).getStrategyName());
+        assertEquals("OPEN", dividends.get(0).getOpenClosed());
+    }
+
+    @Test
+    void findTradeSummariesByDates() {
+        LocalDate startDate = LocalDate.of(2022, 6, 7);
+        LocalDate endDate = LocalDate.of(2022, 6, 15);
+
+        List<TradeSummary> trades = summaryRepository.findTradeSummaries(
+                TradeSpecifications.byParams("U1111111", startDate, endDate, false, null, null), 100);
+
+        assertFalse(trades.isEmpty());
+        assertTrue(trades.stream().allMatch(trade -> trade.getStrategyId() == null));
+        assertTrue(trades.stream().noneMatch(trade -> trade.getTradeDate().isBefore(startDate)));
+        assertTrue(trades.stream().noneMatch(trade -> trade.getTradeDate().isAfter(endDate)));
+        assertEquals(trades.stream().sorted(Comparator.comparing(TradeSummary::getTradeDate)
+                .thenComparing(TradeSummary::getId)).toList(), trades);
+    }
+
+    @Test
+    void findTradeSummariesAfter() {
+        List<TradeSummary> allTrades = summaryRepository.findTradeSummaries(
+                TradeSpecifications.byParams("U1111111", null, null, null, null, null), 100);
+        List<TradeSummary> pages = new ArrayList<>();
+        List<TradeSummary> page = summaryRepository.findTradeSummaries(
+                TradeSpecifications.byParams("U1111111", null, null, null, null, null), 2);
+        while (!page.isEmpty()) {
+            pages.addAll(page);
+            TradeSummary last = page.get(page.size() - 1);
+            page = summaryRepository.findTradeSummaries(
+                    TradeSpecifications.byParams("U1111111", null, null, null, null, null)
+                            .and(TradeSpecifications.after(last.getTradeDate(), last.getId())), 2);
+        }
+
+        assertTrue(allTrades.size() > 2);
+        assertEquals(allTrades, pages);
+    }
+
+    @Test
+    void streamTradeSummaries() {
+        List<TradeSummary> trades = summaryRepository.findTradeSummaries(
+                TradeSpecifications.byParams("U1111111", null, null, true, null, "STK"), 100);
+
+        try (Stream<TradeSummary> stream = summaryRepository.streamTradeSummaries(
+                TradeSpecifications.byParams("U1111111", null, null, true, null, "STK"))) {
+            assertEquals(trades, stream.toList());
+        }
+        assertFalse(trades.isEmpty());
+        assertTrue(trades.stream().allMatch(trade -> trade.getStrategyId() != null));
+        assertTrue(trades.stream().allMatch(trade -> "STK".equals(trade.getAssetCategory())));
+    }
+
+    @Test
+    void findDividendSummariesByPayDate() {
+        // Date bounds are exclusive, CGNX is paid on 2022-06-03 and FDX on 2022-07-11
+        List<DividendSummary> dividends = summaryRepository.findDividendSummaries(DividendSpecifications.byParams(
+                "U1111111", null, null, LocalDate.of(2022, 6, 3), LocalDate.of(2022, 7, 11), null, null));
+
+        assertEquals(List.of("CME", "EBAY"), dividends.stream().map(DividendSummary::getSymbol).sorted().toList());
+    }
+
+    @Test
+    void findSummariesOfAccount() {
+        // The sample data of U2222222 has no trades, positions nor dividends
+        assertTrue(summaryRepository.findTradeSummaries(
+                TradeSpecifications.byParams("U2222222", null, null, null, null, null), 100).isEmpty());
+        assertTrue(summaryRepository.findPositionSummaries(
+                PositionSpecifications.byParams("U2222222", null, null, null)).isEmpty());
+        assertTrue(summaryRepository.findDividendSummaries(
+                DividendSpecifications.byParams("U2222222", null, null, null, null, null, null)).isEmpty());
+        // A search without account is refused instead of returning every account
+        assertThrows(NullPointerException.class,
+                () -> TradeSpecifications.byParams(null, null, null, null, null, null));
+        assertThrows(NullPointerException.class, () -> PositionSpecifications.byParams(null, null, null, null));
+        assertThrows(NullPointerException.class,
+                () -> DividendSpecifications.byParams(null, null, null, null, null, null, null));
+    }
+}
@@ -0,0 +1,168 @@
+package com.marcomarchionni.strategistapi.loadtest;
+
+import com.marcomarchionni.strategistapi.benchmarks.SyntheticFlexXml;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local imitation of the IB flex web service. SendRequest returns a reference code and the url of GetStatement,
+ * GetStatement answers "statement not ready" the configured number of times for every reference code and then
+ * returns the statement generated for the query id. Query ids are account ids of the generator.
+ */
+public class FlexWebServiceStub implements AutoCloseable {
+
+    public static final String SEND_REQUEST_PATH = "/AccountManagement/FlexWebService/SendRequest";
+    public static final String GET_STATEMENT_PATH = "/AccountManagement/FlexWebService/GetStatement";
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("dd-MMM-yy HH:mm:ss");
+
+    private final SyntheticFlexXml generator;
+    private final long latencyMillis;
+    private final int notReadyResponses;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Map<String, byte[]> statements = new ConcurrentHashMap<>();
+    private final Map<String, Pending> pendingStatements = new ConcurrentHashMap<>();
+    private final AtomicLong referenceCodes = new AtomicLong(1_000_000_000L);
+    @Getter
+    private final AtomicInteger sendRequests = new AtomicInteger();
+    @Getter
+    private final AtomicInteger getStatementRequests = new AtomicInteger();
+    @Getter
+    private final AtomicInteger notReadyCount = new AtomicInteger();
+
+    @Builder
+    public FlexWebServiceStub(SyntheticFlexXml generator, long latencyMillis, int notReadyResponses)
+            throws IOException {
+        this.generator = generator != null ? generator : SyntheticFlexXml.builder().build();
+        this.latencyMillis = latencyMillis;
+        this.notReadyResponses = notReadyResponses;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        this.executor = Executors.newCachedThreadPool();
+        server.setExecutor(executor);
+        server.createContext(SEND_REQUEST_PATH, this::sendRequest);
+        server.createContext(GET_STATEMENT_PATH, this::getStatement);
+        server.start();
+    }
+
+    public String getBaseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    /**
+     * Value of flexservice.auth-url pointing at the stub.
+     */
+    public String getAuthUrl() {
+        return getBaseUrl() + SEND_REQUEST_PATH + "?t={t}&q={q}&v=3";
+    }
+
+    private void sendRequest(HttpExchange exchange) throws IOException {
+        sendRequests.incrementAndGet();
+        Map<String, String> params = queryParams(exchange);
+        String queryId = params.get("q");
+        if (params.get("t") == null || queryId == null || !generator.getAccountIds().contains(queryId)) {
+            respond(exchange, statementResponse("Fail", null, null, "1014", "Query is invalid."));
+            return;
+        }
+        String referenceCode = String.valueOf(referenceCodes.incrementAndGet());
+        pendingStatements.put(referenceCode, new Pending(queryId));
+        respond(exchange, statementResponse("Success", referenceCode, getBaseUrl() + GET_STATEMENT_PATH, null, null));
+    }
+
+    private void getStatement(HttpExchange exchange) throws IOException {
+        getStatementRequests.incrementAndGet();
+        String referenceCode = queryParams(exchange).get("q");
+        Pending pending = referenceCode == null ? null : pendingStatements.get(referenceCode);
+        if (pending == null) {
+            respond(exchange, statementResponse("Fail", null, null, "1017", "Reference code is invalid."));
+            return;
+        }
+        if (pending.attempts.getAndIncrement() < notReadyResponses) {
+            notReadyCount.incrementAndGet();
+            respond(exchange, statementResponse("Warn", null, null, "1019",
+                    "Statement generation in progress. Please try again shortly."));
+            return;
+        }
+        pendingStatements.remove(referenceCode);
+        respond(exchange, statements.computeIfAbsent(pending.queryId, generator::generate));
+    }
+
+    private byte[] statementResponse(String status, String referenceCode, String url, String errorCode,
+                                     String errorMessage) {
+        StringBuilder xml = new StringBuilder("<FlexStatementResponse timestamp=\"")
+                .append(LocalDateTime.now().format(TIMESTAMP)).append("\">\n")
+                .append("<Status>").append(status).append("</Status>\n");
+        if (referenceCode != null) {
+            xml.append("<ReferenceCode>").append(referenceCode).append("</ReferenceCode>\n")
+                    .append("<Url>").append(url).append("</Url>\n");
+        }
+        if (errorCode != null) {
+            xml.append("<ErrorCode>").append(errorCode).append("</ErrorCode>\n")
+                    .append("<ErrorMessage>").append(errorMessage).append("</ErrorMessage>\n");
+        }
+        return xml.append("</FlexStatementResponse>\n").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void respond(HttpExchange exchange, byte[] body) throws IOException {
+        try (exchange) {
+            if (latencyMillis > 0) {
+                Thread.sleep(latencyMillis);
+            }
+            exchange.getResponseHeaders().set("Content-Type", "text/xml;charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Map<String, String> queryParams(HttpExchange exchange) {
+        Map<String, String> params = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) {
+            return params;
+        }
+        for (String param : query.split("&")) {
+            int separator = param.indexOf('=');
+            if (separator > 0) {
+                params.put(param.substring(0, separator),
+                        URLDecoder.decode(param.substring(separator + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return params;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private static class Pending {
+        private final String queryId;
+        private final AtomicInteger attempts = new AtomicInteger();
+
+        private Pending(String queryId) {
+            this.queryId = queryId;
+        }
+    }
+}
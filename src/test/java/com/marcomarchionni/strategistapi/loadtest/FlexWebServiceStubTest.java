@@ -0,0 +1,105 @@
+package com.marcomarchionni.strategistapi.loadtest;
+
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import com.marcomarchionni.strategistapi.benchmarks.SyntheticFlexXml;
+import com.marcomarchionni.strategistapi.config.XMLConfig;
+import com.marcomarchionni.strategistapi.dtos.flex.FlexQueryResponseDto;
+import com.marcomarchionni.strategistapi.dtos.response.update.UpdateDto;
+import com.marcomarchionni.strategistapi.errorhandling.exceptions.IbServerErrorException;
+import com.marcomarchionni.strategistapi.mappers.DividendMapperImpl;
+import com.marcomarchionni.strategistapi.mappers.FlexStatementMapperImpl;
+import com.marcomarchionni.strategistapi.mappers.PositionMapperImpl;
+import com.marcomarchionni.strategistapi.mappers.TradeMapperImpl;
+import com.marcomarchionni.strategistapi.services.fetchers.flexserviceclients.FlexServiceClientImpl;
+import com.marcomarchionni.strategistapi.services.fetchers.flexstatementpollers.FlexStatementPoller;
+import com.marcomarchionni.strategistapi.services.fetchers.flexstatementpollers.FlexStatementPollerImpl;
+import com.marcomarchionni.strategistapi.services.parsers.ResponseParserImpl;
+import com.marcomarchionni.strategistapi.services.util.FlexContentDigest;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlexWebServiceStubTest {
+
+    SyntheticFlexXml generator;
+    FlexWebServiceStub stub;
+    FlexStatementPoller flexStatementPoller;
+    ThreadPoolTaskScheduler scheduler;
+    XmlMapper xmlMapper;
+    CloseableHttpClient httpClient;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        generator = SyntheticFlexXml.builder().accounts(2).copies(2).build();
+        stub = FlexWebServiceStub.builder().generator(generator).notReadyResponses(1).build();
+        XMLConfig xmlConfig = new XMLConfig();
+        xmlMapper = xmlConfig.XmlMapper();
+        httpClient = HttpClients.createDefault();
+        scheduler = new ThreadPoolTaskScheduler();
+        scheduler.initialize();
+        flexStatementPoller = new FlexStatementPollerImpl(new FlexServiceClientImpl(
+                xmlConfig.xmlRestTemplate(xmlMapper, httpClient), stub.getAuthUrl(), "?t={t}&q={q}&v=3"),
+                scheduler, new SimpleAsyncTaskExecutor(), 1, 2, 10, 0.5, 3);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        scheduler.shutdown();
+        httpClient.close();
+        stub.close();
+    }
+
+    @Test
+    void pollWhileStatementNotReady() throws Exception {
+        String accountId = generator.getAccountIds().get(1);
+
+        FlexQueryResponseDto queryResponse = flexStatementPoller.poll(accountId, "token").get();
+
+        assertEquals(accountId, queryResponse.getFlexStatements().getFlexStatement().getAccountId());
+        assertEquals(FlexContentDigest.of(new ByteArrayInputStream(generator.generate(accountId))),
+                queryResponse.getContentHash());
+        assertEquals(1, stub.getSendRequests().get());
+        assertEquals(2, stub.getGetStatementRequests().get());
+        assertEquals(1, stub.getNotReadyCount().get());
+    }
+
+    @Test
+    void pollInvalidQuery() {
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> flexStatementPoller.poll("U0000000", "token").get());
+
+        assertInstanceOf(IbServerErrorException.class, e.getCause());
+        // an invalid query is not retried
+        assertEquals(1, stub.getSendRequests().get());
+    }
+
+    @Test
+    void generatedStatementIsParsed() throws IOException {
+        String accountId = generator.getAccountIds().get(1);
+        ResponseParserImpl parser = new ResponseParserImpl(new FlexStatementMapperImpl(), new TradeMapperImpl(),
+                new PositionMapperImpl(), new DividendMapperImpl());
+        UpdateDto sample = parser.parseAllData(xmlMapper.readValue(SyntheticFlexXml.builder().build()
+                .generate(SyntheticFlexXml.accountId(0)), FlexQueryResponseDto.class));
+
+        UpdateDto updateDto = parser.parseAllData(xmlMapper.readValue(generator.generate(accountId),
+                FlexQueryResponseDto.class));
+
+        // Every copy of the sample rows is a different trade, position and dividend
+        assertEquals(accountId, updateDto.getFlexStatement().getAccountId());
+        assertEquals(2 * sample.getTrades().size(), updateDto.getTrades().size());
+        assertEquals(2 * sample.getPositions().size(), updateDto.getPositions().size());
+        assertEquals(2 * sample.getDividends().size(), updateDto.getDividends().size());
+        assertTrue(updateDto.getTrades().stream().allMatch(t -> accountId.equals(t.getAccountId())));
+        assertTrue(updateDto.getPositions().stream().allMatch(p -> accountId.equals(p.getAccountId())));
+    }
+}
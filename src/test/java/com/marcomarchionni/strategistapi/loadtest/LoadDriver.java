@@ -0,0 +1,225 @@
+package com.marcomarchionni.strategistapi.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends a weighted mix of update, trades and positions requests to the api from concurrent threads and
+ * reports throughput and latency percentiles for every kind of request. Every thread uses the account of
+ * one of the signed-up users, so updates of different accounts run in parallel.
+ */
+public class LoadDriver {
+
+    public enum Operation {UPDATE, TRADES, POSITIONS}
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final String PASSWORD = "loadtest-password";
+
+    private final String baseUrl;
+    private final int threads;
+    private final Map<Operation, Integer> mix;
+    private final HttpClient httpClient;
+    private final Map<String, String> tokens = new LinkedHashMap<>();
+
+    @Builder
+    public LoadDriver(String baseUrl, int threads, Map<Operation, Integer> mix) {
+        this.baseUrl = baseUrl;
+        this.threads = threads;
+        this.mix = mix;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    /**
+     * Signs up a user for every account, or signs in if the user already exists, and keeps its token.
+     */
+    public void signUp(List<String> accountIds) throws IOException, InterruptedException {
+        for (String accountId : accountIds) {
+            String email = accountId.toLowerCase(Locale.ROOT) + "@loadtest.com";
+            String signup = OBJECT_MAPPER.writeValueAsString(Map.of(
+                    "firstName", "Load",
+                    "lastName", "Test" + accountId,
+                    "email", email,
+                    "password", PASSWORD,
+                    "accountId", accountId,
+                    "role", "USER"));
+            HttpResponse<String> response = post("/auth/signup", signup);
+            if (response.statusCode() != 200) {
+                String signin = OBJECT_MAPPER.writeValueAsString(Map.of("email", email, "password", PASSWORD));
+                response = post("/auth/signin", signin);
+            }
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Cannot authenticate " + email + ": " + response.body());
+            }
+            JsonNode token = OBJECT_MAPPER.readTree(response.body()).get("token");
+            tokens.put(accountId, token.asText());
+        }
+    }
+
+    public Report run(Duration duration) throws InterruptedException {
+        List<String> accountIds = new ArrayList<>(tokens.keySet());
+        Recorder recorder = new Recorder();
+        long deadline = System.nanoTime() + duration.toNanos();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int i = 0; i < threads; i++) {
+            String accountId = accountIds.get(i % accountIds.size());
+            Random random = new Random(i);
+            futures.add(executor.submit(() -> {
+                while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+                    Operation operation = nextOperation(random);
+                    long begin = System.nanoTime();
+                    boolean ok = send(operation, accountId);
+                    recorder.record(operation, System.nanoTime() - begin, ok);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+        executor.shutdown();
+        return recorder.report(System.nanoTime() - start);
+    }
+
+    private Operation nextOperation(Random random) {
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        int value = random.nextInt(total);
+        for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+            value -= entry.getValue();
+            if (value < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Empty operation mix");
+    }
+
+    private boolean send(Operation operation, String accountId) {
+        String path = switch (operation) {
+            case UPDATE -> "/update?sourceType=SERVER&queryId=" + accountId + "&token=loadtest";
+            case TRADES -> "/trades";
+            case POSITIONS -> "/positions";
+        };
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofMinutes(2))
+                .header("Authorization", "Bearer " + tokens.get(accountId));
+        request = operation == Operation.UPDATE ? request.POST(HttpRequest.BodyPublishers.noBody()) : request.GET();
+        try {
+            HttpResponse<Void> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.discarding());
+            return response.statusCode() == 200;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private HttpResponse<String> post(String path, String json) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static class Recorder {
+        private final Map<Operation, List<Long>> latencies = new EnumMap<>(Operation.class);
+        private final Map<Operation, AtomicInteger> errors = new EnumMap<>(Operation.class);
+
+        private Recorder() {
+            for (Operation operation : Operation.values()) {
+                latencies.put(operation, new ArrayList<>());
+                errors.put(operation, new AtomicInteger());
+            }
+        }
+
+        private void record(Operation operation, long nanos, boolean ok) {
+            List<Long> operationLatencies = latencies.get(operation);
+            synchronized (operationLatencies) {
+                operationLatencies.add(nanos);
+            }
+            if (!ok) {
+                errors.get(operation).incrementAndGet();
+            }
+        }
+
+        private Report report(long elapsedNanos) {
+            List<OperationStats> stats = new ArrayList<>();
+            for (Operation operation : Operation.values()) {
+                List<Long> operationLatencies = latencies.get(operation);
+                synchronized (operationLatencies) {
+                    long[] sorted = operationLatencies.stream().mapToLong(Long::longValue).toArray();
+                    Arrays.sort(sorted);
+                    stats.add(new OperationStats(operation, sorted.length, errors.get(operation).get(),
+                            sorted.length * 1e9 / elapsedNanos,
+                            percentile(sorted, 50), percentile(sorted, 99),
+                            sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1e6));
+                }
+            }
+            return new Report(elapsedNanos / 1e9, stats);
+        }
+
+        private static double percentile(long[] sorted, int percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+            return sorted[Math.max(index, 0)] / 1e6;
+        }
+    }
+
+    public record OperationStats(Operation operation, int count, int errors, double throughput, double p50Millis,
+                                 double p99Millis, double maxMillis) {
+    }
+
+    @Getter
+    public static class Report {
+        private final double seconds;
+        private final List<OperationStats> stats;
+
+        private Report(double seconds, List<OperationStats> stats) {
+            this.seconds = seconds;
+            this.stats = stats;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder report = new StringBuilder(String.format("%-10s %8s %7s %9s %10s %10s %10s%n",
+                    "operation", "count", "errors", "req/s", "p50 ms", "p99 ms", "max ms"));
+            for (OperationStats s : stats) {
+                report.append(String.format(Locale.ROOT, "%-10s %8d %7d %9.1f %10.1f %10.1f %10.1f%n",
+                        s.operation(), s.count(), s.errors(), s.throughput(), s.p50Millis(), s.p99Millis(),
+                        s.maxMillis()));
+            }
+            return report.append(String.format(Locale.ROOT, "duration %.1f s", seconds)).toString();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.marcomarchionni.strategistapi.loadtest;
+
+import com.marcomarchionni.strategistapi.IbPortfolioApplication;
+import com.marcomarchionni.strategistapi.benchmarks.SyntheticFlexXml;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Runs the load driver against the api, with the IB flex web service replaced by a local stub.
+ * Without a target the application is started in process on an in-memory database.
+ * <p>
+ * Arguments are key=value pairs, for example {@code accounts=4 threads=8 duration=60 mix=UPDATE:1,TRADES:5}.
+ * Run with {@code mvn -Ploadtest test -Dloadtest.args="..."}.
+ */
+public class LoadTestRunner {
+
+    private static final Map<String, String> DEFAULTS = Map.ofEntries(
+            Map.entry("accounts", "4"),
+            Map.entry("threads", "8"),
+            Map.entry("duration", "30"),
+            Map.entry("warmup", "10"),
+            Map.entry("rows", "1200"),
+            Map.entry("latencyMs", "50"),
+            Map.entry("notReady", "1"),
+            Map.entry("mix", "UPDATE:1,TRADES:5,POSITIONS:4"),
+            Map.entry("target", ""));
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> settings = parseArgs(args);
+        SyntheticFlexXml generator = SyntheticFlexXml.builder()
+                .accounts(Integer.parseInt(settings.get("accounts")))
+                .copies(SyntheticFlexXml.copiesFor(Integer.parseInt(settings.get("rows"))))
+                .build();
+
+        try (FlexWebServiceStub stub = FlexWebServiceStub.builder()
+                .generator(generator)
+                .latencyMillis(Long.parseLong(settings.get("latencyMs")))
+                .notReadyResponses(Integer.parseInt(settings.get("notReady")))
+                .build()) {
+            String target = settings.get("target");
+            ConfigurableApplicationContext context = null;
+            if (target.isEmpty()) {
+                context = startApplication(stub);
+                int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+                target = "http://localhost:" + port + "/api/v1";
+            }
+            try {
+                LoadDriver driver = LoadDriver.builder()
+                        .baseUrl(target)
+                        .threads(Integer.parseInt(settings.get("threads")))
+                        .mix(parseMix(settings.get("mix")))
+                        .build();
+                driver.signUp(generator.getAccountIds());
+
+                int warmup = Integer.parseInt(settings.get("warmup"));
+                if (warmup > 0) {
+                    driver.run(Duration.ofSeconds(warmup));
+                }
+                LoadDriver.Report report = driver.run(Duration.ofSeconds(Integer.parseInt(settings.get("duration"))));
+                System.out.println(report);
+                System.out.printf("flex web service: %d SendRequest, %d GetStatement, %d not ready%n",
+                        stub.getSendRequests().get(), stub.getGetStatementRequests().get(),
+                        stub.getNotReadyCount().get());
+            } finally {
+                if (context != null) {
+                    context.close();
+                }
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext startApplication(FlexWebServiceStub stub) {
+        byte[] signingKey = new byte[32];
+        new SecureRandom().nextBytes(signingKey);
+        // devtools would restart the main class with the application arguments
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        return new SpringApplicationBuilder(IbPortfolioApplication.class)
+                .run("--server.port=0",
+                        "--server.servlet.contextPath=/api/v1",
+                        "--spring.config.import=optional:classpath:application-default.properties",
+                        "--spring.datasource.url=jdbc:h2:mem:loadtest;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "--spring.datasource.driverClassName=org.h2.Driver",
+                        "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.hibernate.ddl-auto=create",
+                        "--spring.jpa.show-sql=false",
+                        "--flexservice.auth-url=" + stub.getAuthUrl(),
+                        "--flexservice.poll.initial-delay-ms=100",
+                        "--token.signing.key=" + Base64.getEncoder().encodeToString(signingKey),
+                        "--spring.output.ansi.enabled=never",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.springframework.web.client.RestTemplate=WARN",
+                        "--logging.level.org.springframework.http.converter.xml=WARN",
+                        // "statement not ready" responses are retried, as expected
+                        "--logging.level.com.marcomarchionni.strategistapi.logging=ERROR",
+                        "--logging.level.com.marcomarchionni.strategistapi.services.fetchers.flexstatementpollers=ERROR");
+    }
+
+    private static Map<String, String> parseArgs(String[] args) {
+        Map<String, String> settings = new HashMap<>(DEFAULTS);
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator <= 0 || !DEFAULTS.containsKey(arg.substring(0, separator))) {
+                throw new IllegalArgumentException("Unknown argument " + arg + ", expected one of " +
+                        DEFAULTS.keySet());
+            }
+            settings.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        return settings;
+    }
+
+    private static Map<LoadDriver.Operation, Integer> parseMix(String mix) {
+        Map<LoadDriver.Operation, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] weight = entry.split(":");
+            weights.put(LoadDriver.Operation.valueOf(weight[0].trim().toUpperCase()), Integer.parseInt(weight[1]));
+        }
+        return weights;
+    }
+}
@@ -1,13 +1,11 @@
 package com.marcomarchionni.strategistapi.mappers;
 
-import com.marcomarchionni.strategistapi.config.ModelMapperConfig;
 import com.marcomarchionni.strategistapi.domain.Dividend;
 import com.marcomarchionni.strategistapi.domain.Strategy;
 import com.marcomarchionni.strategistapi.dtos.flex.FlexQueryResponseDto;
 import com.marcomarchionni.strategistapi.dtos.response.DividendSummary;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.modelmapper.ModelMapper;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -21,9 +19,7 @@ class DividendMapperImplTest {
 
     @BeforeEach
     void init() {
-        ModelMapperConfig modelMapperConfig = new ModelMapperConfig();
-        ModelMapper mapper = modelMapperConfig.modelMapper();
-        dividendMapper = new DividendMapperImpl(mapper);
+        dividendMapper = new DividendMapperImpl();
     }
 
     @Test
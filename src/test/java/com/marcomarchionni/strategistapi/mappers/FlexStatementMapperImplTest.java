@@ -1,11 +1,9 @@
 package com.marcomarchionni.strategistapi.mappers;
 
-import com.marcomarchionni.strategistapi.config.ModelMapperConfig;
 import com.marcomarchionni.strategistapi.domain.FlexStatement;
 import com.marcomarchionni.strategistapi.dtos.flex.FlexQueryResponseDto;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.modelmapper.ModelMapper;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -17,9 +15,7 @@ class FlexStatementMapperImplTest {
 
     @BeforeEach
     void init() {
-        ModelMapperConfig mapperConfig = new ModelMapperConfig();
-        ModelMapper mapper = mapperConfig.modelMapper();
-        flexStatementMapper = new FlexStatementMapperImpl(mapper);
+        flexStatementMapper = new FlexStatementMapperImpl();
 
     }
 
@@ -42,5 +38,25 @@ class FlexStatementMapperImplTest {
         assertEquals(flexDto.getFromDate(), flexStatement.getFromDate());
         assertEquals(flexDto.getToDate(), flexStatement.getToDate());
         assertNull(flexStatement.getId());
+        assertFalse(flexStatement.getTradesIncluded());
+        assertFalse(flexStatement.getDividendsIncluded());
+    }
+
+    @Test
+    void toFlexStatementWithSections() {
+        FlexQueryResponseDto.FlexStatement flexDto = FlexQueryResponseDto.FlexStatement.builder()
+                .accountId("U7169936")
+                .trades(new FlexQueryResponseDto.Trades())
+                .changeInDividendAccruals(new FlexQueryResponseDto.ChangeInDividendAccruals())
+                .build();
+
+        FlexStatement flexStatement = flexStatementMapper.toFlexStatement(flexDto);
+        flexDto.setIncomplete(true);
+        FlexStatement incompleteStatement = flexStatementMapper.toFlexStatement(flexDto);
+
+        assertTrue(flexStatement.getTradesIncluded());
+        assertTrue(flexStatement.getDividendsIncluded());
+        assertFalse(incompleteStatement.getTradesIncluded());
+        assertFalse(incompleteStatement.getDividendsIncluded());
     }
 }
\ No newline at end of file
@@ -0,0 +1,165 @@
+package com.marcomarchionni.strategistapi.mappers;
+
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import com.marcomarchionni.strategistapi.benchmarks.ModelMapperBaseline;
+import com.marcomarchionni.strategistapi.config.XMLConfig;
+import com.marcomarchionni.strategistapi.domain.*;
+import com.marcomarchionni.strategistapi.dtos.flex.FlexQueryResponseDto;
+import com.marcomarchionni.strategistapi.dtos.request.PortfolioSave;
+import com.marcomarchionni.strategistapi.dtos.response.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.marcomarchionni.strategistapi.util.TestUtils.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the hand-written mappers return the same results as the ModelMapper configuration they replaced.
+ */
+class ModelMapperParityTest {
+
+    ModelMapper modelMapper;
+    FlexStatementMapper flexStatementMapper;
+    TradeMapper tradeMapper;
+    PositionMapper positionMapper;
+    DividendMapper dividendMapper;
+    StrategyMapper strategyMapper;
+    PortfolioMapper portfolioMapper;
+    FlexQueryResponseDto.FlexStatement flexStatementDto;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        modelMapper = ModelMapperBaseline.configureModelMapper();
+        flexStatementMapper = new FlexStatementMapperImpl();
+        tradeMapper = new TradeMapperImpl();
+        positionMapper = new PositionMapperImpl();
+        dividendMapper = new DividendMapperImpl();
+        strategyMapper = new StrategyMapperImpl(tradeMapper, positionMapper, dividendMapper);
+        portfolioMapper = new PortfolioMapperImpl(strategyMapper);
+
+        XmlMapper xmlMapper = new XMLConfig().XmlMapper();
+        try (InputStream is = getClass().getClassLoader().getResourceAsStream("flex/Flex.xml")) {
+            assertNotNull(is);
+            flexStatementDto = xmlMapper.readValue(is, FlexQueryResponseDto.class).getFlexStatements()
+                    .getFlexStatement();
+        }
+    }
+
+    @Test
+    void flexRows() {
+        // The sections of the statement were not recorded with ModelMapper
+        FlexStatement expectedFlexStatement = modelMapper.map(flexStatementDto, FlexStatement.class);
+        expectedFlexStatement.setTradesIncluded(true);
+        expectedFlexStatement.setDividendsIncluded(true);
+        assertEquals(expectedFlexStatement, flexStatementMapper.toFlexStatement(flexStatementDto));
+
+        List<FlexQueryResponseDto.Order> orders = flexStatementDto.getTrades().getOrderList();
+        assertFalse(orders.isEmpty());
+        orders.forEach(order -> assertEquals(modelMapper.map(order, Trade.class), tradeMapper.toTrade(order)));
+
+        List<FlexQueryResponseDto.OpenPosition> openPositions = flexStatementDto.getOpenPositions()
+                .getOpenPositionList();
+        assertFalse(openPositions.isEmpty());
+        openPositions.forEach(openPosition -> assertEquals(modelMapper.map(openPosition, Position.class),
+                positionMapper.toPosition(openPosition)));
+
+        List<FlexQueryResponseDto.ChangeInDividendAccrual> closedDividends = flexStatementDto
+                .getChangeInDividendAccruals().getChangeInDividendAccrualList();
+        assertFalse(closedDividends.isEmpty());
+        closedDividends.forEach(closedDividend -> assertEquals(modelMapper.map(closedDividend, Dividend.class),
+                dividendMapper.toClosedDividend(closedDividend)));
+
+        List<FlexQueryResponseDto.OpenDividendAccrual> openDividends = flexStatementDto.getOpenDividendAccruals()
+                .getOpenDividendAccrualList();
+        assertFalse(openDividends.isEmpty());
+        openDividends.forEach(openDividend -> assertEquals(modelMapper.map(openDividend, Dividend.class),
+                dividendMapper.toOpenDividend(openDividend)));
+    }
+
+    @Test
+    void emptyFlexRows() {
+        var order = new FlexQueryResponseDto.Order();
+        var openPosition = new FlexQueryResponseDto.OpenPosition();
+        var closedDividend = new FlexQueryResponseDto.ChangeInDividendAccrual();
+        var openDividend = new FlexQueryResponseDto.OpenDividendAccrual();
+
+        assertEquals(modelMapper.map(order, Trade.class), tradeMapper.toTrade(order));
+        assertEquals(modelMapper.map(openPosition, Position.class), positionMapper.toPosition(openPosition));
+        assertEquals(modelMapper.map(closedDividend, Dividend.class), dividendMapper.toClosedDividend(closedDividend));
+        assertEquals(modelMapper.map(openDividend, Dividend.class), dividendMapper.toOpenDividend(openDividend));
+    }
+
+    @Test
+    void summaries() {
+        List<Trade> trades = new ArrayList<>(getSampleTrades());
+        List<Position> positions = new ArrayList<>(getSamplePositions());
+        List<Dividend> dividends = new ArrayList<>(getSampleDividends());
+        trades.get(0).setStrategy(getZMStrategy());
+        positions.get(0).setStrategy(getEBAYStrategy());
+        dividends.get(0).setStrategy(getZMStrategy());
+
+        trades.forEach(trade -> assertEquals(modelMapper.map(trade, TradeSummary.class),
+                tradeMapper.toTradeSummary(trade)));
+        positions.forEach(position -> assertEquals(modelMapper.map(position, PositionSummary.class),
+                positionMapper.toPositionSummary(position)));
+        dividends.forEach(dividend -> assertEquals(modelMapper.map(dividend, DividendSummary.class),
+                dividendMapper.toDividendSummary(dividend)));
+    }
+
+    @Test
+    void strategiesAndPortfolios() {
+        Portfolio portfolio = getSamplePortfolio("Saver");
+        portfolio.setCreatedAt(LocalDate.of(2023, 1, 1));
+        Strategy strategy = getZMStrategy();
+        strategy.setPortfolio(portfolio);
+        strategy.setTrades(getSampleTrades());
+        strategy.setPositions(getSamplePositions());
+        strategy.setDividends(getSampleDividends());
+        portfolio.setStrategies(List.of(strategy, getEBAYStrategy()));
+
+        assertEquals(modelMapper.map(strategy, StrategySummary.class), strategyMapper.toStrategySummaryDto(strategy));
+        assertEquals(modelMapper.map(strategy, StrategyDetail.class), strategyMapper.toStrategyDetailDto(strategy));
+        assertEquals(modelMapper.map(portfolio, PortfolioSummary.class),
+                portfolioMapper.portfolioToPortfolioSummary(portfolio));
+        assertEquals(modelMapper.map(portfolio, PortfolioDetail.class), portfolioMapper.toPortfolioDetailDto(portfolio));
+    }
+
+    @Test
+    void merges() {
+        Position newPosition = getADYENPosition();
+        newPosition.setId(null);
+        newPosition.setCostBasisMoney(null);
+        Position expectedPosition = getADBEPosition();
+        expectedPosition.setStrategy(getZMStrategy());
+        Position mergedPosition = getADBEPosition();
+        mergedPosition.setStrategy(getZMStrategy());
+        modelMapper.map(newPosition, expectedPosition);
+        assertEquals(expectedPosition, positionMapper.mergeFlexProperties(newPosition, mergedPosition));
+
+        Dividend newDividend = getFDXOpenDividend();
+        newDividend.setId(null);
+        newDividend.setTax(null);
+        Dividend expectedDividend = getNKEOpenDividend();
+        expectedDividend.setStrategy(getZMStrategy());
+        Dividend mergedDividend = getNKEOpenDividend();
+        mergedDividend.setStrategy(getZMStrategy());
+        modelMapper.map(newDividend, expectedDividend);
+        assertEquals(expectedDividend, dividendMapper.mergeFlexProperties(newDividend, mergedDividend));
+
+        PortfolioSave portfolioSave = PortfolioSave.builder().id(2L).name("Saver").createdAt(LocalDate.now()).build();
+        Portfolio expectedPortfolio = getSamplePortfolio("MFOptions");
+        expectedPortfolio.setDescription("description");
+        Portfolio mergedPortfolio = getSamplePortfolio("MFOptions");
+        mergedPortfolio.setDescription("description");
+        modelMapper.map(portfolioSave, expectedPortfolio);
+        portfolioMapper.mergePortfolioSaveToPortfolio(portfolioSave, mergedPortfolio);
+        assertEquals(expectedPortfolio, mergedPortfolio);
+    }
+}
@@ -11,7 +11,6 @@ import org.junit.jupiter.api.Test;
 import java.time.LocalDate;
 import java.util.List;
 
-import static com.marcomarchionni.strategistapi.config.ModelMapperConfig.configureModelMapper;
 import static com.marcomarchionni.strategistapi.util.TestUtils.getSampleTrades;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -22,7 +21,8 @@ class PortfolioMapperImplTest {
 
     @BeforeEach
     void setup() {
-        portfolioMapper = new PortfolioMapperImpl(configureModelMapper());
+        portfolioMapper = new PortfolioMapperImpl(new StrategyMapperImpl(new TradeMapperImpl(),
+                new PositionMapperImpl(), new DividendMapperImpl()));
     }
 
     @Test
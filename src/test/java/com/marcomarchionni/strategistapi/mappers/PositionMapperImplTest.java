@@ -1,13 +1,11 @@
 package com.marcomarchionni.strategistapi.mappers;
 
-import com.marcomarchionni.strategistapi.config.ModelMapperConfig;
 import com.marcomarchionni.strategistapi.domain.Position;
 import com.marcomarchionni.strategistapi.domain.Strategy;
 import com.marcomarchionni.strategistapi.dtos.flex.FlexQueryResponseDto;
 import com.marcomarchionni.strategistapi.dtos.response.PositionSummary;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.modelmapper.ModelMapper;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -22,9 +20,7 @@ class PositionMapperImplTest {
 
     @BeforeEach
     void setUp() {
-        ModelMapperConfig modelMapperConfig = new ModelMapperConfig();
-        ModelMapper mapper = modelMapperConfig.modelMapper();
-        positionMapper = new PositionMapperImpl(mapper);
+        positionMapper = new PositionMapperImpl();
     }
 
     @Test
@@ -5,7 +5,6 @@ import com.marcomarchionni.strategistapi.domain.Strategy;
 import com.marcomarchionni.strategistapi.dtos.response.StrategySummary;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.modelmapper.ModelMapper;
 
 import static com.marcomarchionni.strategistapi.util.TestUtils.getSamplePortfolio;
 import static com.marcomarchionni.strategistapi.util.TestUtils.getSampleStrategy;
@@ -18,7 +17,8 @@ class StrategyMapperImplTest {
 
     @BeforeEach
     void setup() {
-        strategyMapper = new StrategyMapperImpl(new ModelMapper());
+        strategyMapper = new StrategyMapperImpl(new TradeMapperImpl(),
+                new PositionMapperImpl(), new DividendMapperImpl());
     }
 
     @Test
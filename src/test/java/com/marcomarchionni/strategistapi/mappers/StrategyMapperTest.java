@@ -7,7 +7,6 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.ModelMapper;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -18,7 +17,8 @@ class StrategyMapperTest {
 
     @BeforeEach
     void setup() {
-        strategyMapper = new StrategyMapperImpl(new ModelMapper());
+        strategyMapper = new StrategyMapperImpl(new TradeMapperImpl(),
+                new PositionMapperImpl(), new DividendMapperImpl());
     }
     @Test
     void toEntitySuccess() {
@@ -1,13 +1,11 @@
 package com.marcomarchionni.strategistapi.mappers;
 
-import com.marcomarchionni.strategistapi.config.ModelMapperConfig;
 import com.marcomarchionni.strategistapi.domain.Strategy;
 import com.marcomarchionni.strategistapi.domain.Trade;
 import com.marcomarchionni.strategistapi.dtos.flex.FlexQueryResponseDto;
 import com.marcomarchionni.strategistapi.dtos.response.TradeSummary;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.modelmapper.ModelMapper;
 
 import static com.marcomarchionni.strategistapi.util.TestUtils.getSampleStrategy;
 import static com.marcomarchionni.strategistapi.util.TestUtils.getSampleTrade;
@@ -15,15 +13,12 @@ import static org.junit.jupiter.api.Assertions.*;
 
 class TradeMapperTest {
 
-    ModelMapper mapper;
 
     TradeMapperImpl tradeMapper;
 
     @BeforeEach
     void setup() {
-        ModelMapperConfig mapperConfig = new ModelMapperConfig();
-        mapper = mapperConfig.modelMapper();
-        tradeMapper = new TradeMapperImpl(mapper);
+        tradeMapper = new TradeMapperImpl();
     }
 
     @Test
@@ -62,7 +57,7 @@ class TradeMapperTest {
                 .ibOrderID(339580463L)
                 .build();
 
-        Trade trade = mapper.map(order, Trade.class);
+        Trade trade = tradeMapper.toTrade(order);
 
         assertNotNull(trade);
         assertNull(trade.getId());
@@ -1,16 +1,39 @@
 package com.marcomarchionni.strategistapi.services;
 
 import com.marcomarchionni.strategistapi.domain.Dividend;
+import com.marcomarchionni.strategistapi.domain.User;
+import com.marcomarchionni.strategistapi.dtos.response.DividendSummary;
+import com.marcomarchionni.strategistapi.dtos.response.update.UpdateReport;
 import com.marcomarchionni.strategistapi.repositories.DividendRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static com.marcomarchionni.strategistapi.util.TestUtils.getEBAYClosedDividend;
+import static com.marcomarchionni.strategistapi.util.TestUtils.getSampleUser;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
 @SpringBootTest
+@Transactional
+@Sql("classpath:dbScripts/insertSampleData.sql")
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 public class DividendServiceImplIT {
 
     @Autowired
@@ -19,6 +42,11 @@ public class DividendServiceImplIT {
     @Autowired
     DividendServiceImpl dividendService;
 
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    Statistics statistics;
+
     Dividend closedDividend;
 
     @BeforeEach
@@ -35,6 +63,58 @@ public class DividendServiceImplIT {
         closedDividend.setGrossAmount(BigDecimal.valueOf(2.86));
         closedDividend.setNetAmount(BigDecimal.valueOf(2.43));
         closedDividend.setOpenClosed(Dividend.OpenClosed.CLOSED);
+
+        User user = getSampleUser();
+        Authentication auth = new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+        SecurityContextHolder.getContext().setAuthentication(auth);
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    private List<Dividend> newClosedDividends(int count) {
+        return LongStream.range(0, count).mapToObj(i -> {
+            Dividend dividend = getEBAYClosedDividend();
+            dividend.setId(null);
+            dividend.setActionId(100_000L + i);
+            return dividend;
+        }).collect(Collectors.toList());
+    }
+
+    private Dividend withActionId(Long actionId) {
+        Dividend dividend = getEBAYClosedDividend();
+        dividend.setId(null);
+        dividend.setActionId(actionId);
+        return dividend;
+    }
+
+    @Test
+    void updateDividendsQueryCount() {
+        // 1111 and 4444 are closed dividends already in the database
+        List<Dividend> dividends = newClosedDividends(50);
+        dividends.add(withActionId(1111L));
+        dividends.add(withActionId(4444L));
+
+        UpdateReport<DividendSummary> report = dividendService.updateDividends(dividends);
+
+        assertEquals(50, report.getAdded().size());
+        assertEquals(2, report.getSkipped().size());
+        // A single query classifies all the dividends, whatever their number
+        assertEquals(1, statistics.getQueryExecutionCount());
+    }
+
+    @Test
+    void updateDividendsWithOpenMatchQueryCount() {
+        // 2222 is an open dividend in the database
+        List<Dividend> dividends = newClosedDividends(50);
+        dividends.add(withActionId(2222L));
+
+        UpdateReport<DividendSummary> report = dividendService.updateDividends(dividends);
+
+        assertEquals(50, report.getAdded().size());
+        assertEquals(1, report.getMerged().size());
+        // The open dividends to merge are loaded with a second query
+        assertEquals(2, statistics.getQueryExecutionCount());
     }
 
     @AfterEach
@@ -2,7 +2,6 @@ package com.marcomarchionni.strategistapi.services;
 
 import com.marcomarchionni.strategistapi.accessservice.DividendAccessService;
 import com.marcomarchionni.strategistapi.accessservice.StrategyAccessService;
-import com.marcomarchionni.strategistapi.config.ModelMapperConfig;
 import com.marcomarchionni.strategistapi.domain.Dividend;
 import com.marcomarchionni.strategistapi.domain.Strategy;
 import com.marcomarchionni.strategistapi.domain.User;
@@ -13,12 +12,12 @@ import com.marcomarchionni.strategistapi.dtos.response.update.UpdateReport;
 import com.marcomarchionni.strategistapi.errorhandling.exceptions.EntityNotFoundException;
 import com.marcomarchionni.strategistapi.mappers.DividendMapper;
 import com.marcomarchionni.strategistapi.mappers.DividendMapperImpl;
+import com.marcomarchionni.strategistapi.repositories.projections.DividendActionState;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.ModelMapper;
 
 import java.util.List;
 import java.util.Optional;
@@ -27,7 +26,7 @@ import static com.marcomarchionni.strategistapi.util.TestUtils.*;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class DividendServiceImplTest {
@@ -51,9 +50,7 @@ class DividendServiceImplTest {
         dividend = getSampleClosedDividend();
         strategy = getSampleStrategy();
         dividendFind = getSampleDividendCriteria();
-        ModelMapperConfig modelMapperConfig = new ModelMapperConfig();
-        ModelMapper mapper = modelMapperConfig.modelMapper();
-        dividendMapper = new DividendMapperImpl(mapper);
+        dividendMapper = new DividendMapperImpl();
         dividendService = new DividendServiceImpl(dividendAccessService, strategyAccessService, dividendMapper);
     }
 
@@ -61,13 +58,14 @@ class DividendServiceImplTest {
     @Test
     void findByParams() {
         // setup mocks
-        when(dividendAccessService.findByParams(
+        when(dividendAccessService.findSummariesByParams(
                 dividendFind.getExDateAfter(),
                 dividendFind.getExDateBefore(),
                 dividendFind.getPayDateAfter(),
                 dividendFind.getPayDateBefore(),
                 dividendFind.getTagged(),
-                dividendFind.getSymbol())).thenReturn(userDividends);
+                dividendFind.getSymbol()))
+                .thenReturn(userDividends.stream().map(dividendMapper::toDividendSummary).toList());
 
         // execute method
         List<DividendSummary> foundDividends = dividendService.findByFilter(
@@ -146,9 +144,10 @@ class DividendServiceImplTest {
         List<Dividend> newDividends = List.of(getFDXOpenDividend(), getNKEClosedDividend(), getEBAYClosedDividend());
 
         // setup mocks
+        when(dividendAccessService.findActionStates()).thenReturn(List.of(
+                new DividendActionState(NKEOpenDividend.getActionId(), Dividend.OpenClosed.OPEN),
+                new DividendActionState(EBAYClosedDividend.getActionId(), Dividend.OpenClosed.CLOSED)));
         when(dividendAccessService.findOpenDividends()).thenReturn(existingOpenDividends);
-        when(dividendAccessService.existsByActionId(EBAYClosedDividend.getActionId())).thenReturn(true);
-        when(dividendAccessService.existsByActionId(getFDXOpenDividend().getActionId())).thenReturn(false);
         when(dividendAccessService.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
         when(dividendAccessService.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
 
@@ -163,4 +162,19 @@ class DividendServiceImplTest {
         assertEquals("NKE", result.getMerged().get(0).getSymbol());
         assertEquals("EBAY", result.getSkipped().get(0).getSymbol());
     }
-}
\ No newline at end of file
+
+    @Test
+    void updateDividendsWithoutOpenMatches() {
+        when(dividendAccessService.findActionStates()).thenReturn(List.of(
+                new DividendActionState(getEBAYClosedDividend().getActionId(), Dividend.OpenClosed.CLOSED)));
+        when(dividendAccessService.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        UpdateReport<DividendSummary> result = dividendService.updateDividends(
+                List.of(getFDXOpenDividend(), getEBAYClosedDividend()));
+
+        assertEquals(1, result.getAdded().size());
+        assertEquals(1, result.getSkipped().size());
+        verify(dividendAccessService, never()).findOpenDividends();
+        verify(dividendAccessService, never()).existsByActionId(any());
+    }
+}
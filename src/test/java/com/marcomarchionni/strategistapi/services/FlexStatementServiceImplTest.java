@@ -4,6 +4,7 @@ import com.marcomarchionni.strategistapi.accessservice.FlexStatementAccessServic
 import com.marcomarchionni.strategistapi.domain.FlexStatement;
 import com.marcomarchionni.strategistapi.domain.User;
 import com.marcomarchionni.strategistapi.dtos.response.update.UpdateReport;
+import com.marcomarchionni.strategistapi.services.util.DateRanges;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -12,11 +13,11 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import static com.marcomarchionni.strategistapi.util.TestUtils.getSampleUser;
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -32,7 +33,7 @@ class FlexStatementServiceImplTest {
     @BeforeEach
     void setUp() {
         user = getSampleUser();
-        flexStatementService = new FlexStatementServiceImpl(dataGateway);
+        flexStatementService = new FlexStatementServiceImpl(dataGateway, true);
 
         flexStatement = FlexStatement.builder()
                 .accountId(user.getAccountId())
@@ -62,4 +63,28 @@ class FlexStatementServiceImplTest {
         assertNotNull(report.getAdded());
         assertEquals(user.getAccountId(), report.getAdded().get(0).getAccountId());
     }
-}
\ No newline at end of file
+
+    @Test
+    void findAllSaved() {
+        when(dataGateway.findAllById(List.of(1L, 2L))).thenReturn(List.of(flexStatement));
+        when(dataGateway.findAllById(List.of(1L))).thenReturn(List.of(flexStatement));
+
+        assertTrue(flexStatementService.findAllSaved(List.of(1L, 2L)).isEmpty());
+        assertEquals(Optional.of(List.of(flexStatement)), flexStatementService.findAllSaved(List.of(1L)));
+        assertTrue(flexStatementService.findAllSaved(List.of()).isEmpty());
+    }
+
+    @Test
+    void findIngestedDates() {
+        flexStatement.setTradesIncluded(true);
+        flexStatement.setDividendsIncluded(true);
+        when(dataGateway.findAll()).thenReturn(List.of(flexStatement));
+
+        DateRanges ingestedDates = flexStatementService.findIngestedDates();
+
+        assertTrue(ingestedDates.contains(flexStatement.getFromDate()));
+        // the statement was generated during its last day
+        assertFalse(ingestedDates.contains(flexStatement.getToDate()));
+        assertTrue(new FlexStatementServiceImpl(dataGateway, false).findIngestedDates().isEmpty());
+    }
+}
@@ -0,0 +1,274 @@
+package com.marcomarchionni.strategistapi.services;
+
+import com.marcomarchionni.strategistapi.domain.Dividend;
+import com.marcomarchionni.strategistapi.domain.FlexStatement;
+import com.marcomarchionni.strategistapi.domain.Position;
+import com.marcomarchionni.strategistapi.domain.Trade;
+import com.marcomarchionni.strategistapi.dtos.flex.FlexQueryResponseDto;
+import com.marcomarchionni.strategistapi.dtos.request.UpdateContext;
+import com.marcomarchionni.strategistapi.dtos.response.DividendSummary;
+import com.marcomarchionni.strategistapi.dtos.response.PositionSummary;
+import com.marcomarchionni.strategistapi.dtos.response.TradeSummary;
+import com.marcomarchionni.strategistapi.dtos.response.update.CombinedUpdateReport;
+import com.marcomarchionni.strategistapi.dtos.response.update.UpdateDto;
+import com.marcomarchionni.strategistapi.dtos.response.update.UpdateReport;
+import com.marcomarchionni.strategistapi.errorhandling.exceptions.FlexReadTimeoutException;
+import com.marcomarchionni.strategistapi.errorhandling.exceptions.InvalidUserDataException;
+import com.marcomarchionni.strategistapi.errorhandling.exceptions.InvalidXMLFileException;
+import com.marcomarchionni.strategistapi.errorhandling.exceptions.UpdateJobRejectedException;
+import com.marcomarchionni.strategistapi.services.fetchers.StreamingDataFetcher;
+import com.marcomarchionni.strategistapi.services.parsers.FlexStreamHandler;
+import com.marcomarchionni.strategistapi.services.util.PositionsCache;
+import com.marcomarchionni.strategistapi.validators.UpdateDtoValidator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.marcomarchionni.strategistapi.util.TestUtils.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PipelinedUpdateServiceImplTest {
+
+    @Mock
+    FlexStatementService flexStatementService;
+    @Mock
+    PositionService positionService;
+    @Mock
+    TradeService tradeService;
+    @Mock
+    DividendService dividendService;
+    @Mock
+    UpdateDtoValidator updateDtoValidator;
+    @Mock
+    UserService userService;
+    PipelinedUpdateService pipelinedUpdateService;
+    UpdateContext context;
+    FlexStatement flexStatement;
+
+    @BeforeEach
+    void setUp() {
+        pipelinedUpdateService = new PipelinedUpdateServiceImpl(flexStatementService, positionService, tradeService,
+                dividendService, updateDtoValidator, userService, new SimpleAsyncTaskExecutor(), 1, 1000);
+        context = UpdateContext.builder().sourceType(UpdateContext.SourceType.FILE).build();
+        flexStatement = getSampleFlexStatement();
+        when(userService.getUserAccountId()).thenReturn("U1111111");
+    }
+
+    private StreamingDataFetcher fetcherOf(List<UpdateDto> chunks, RuntimeException failure) {
+        return new StreamingDataFetcher() {
+            @Override
+            public void fetch(UpdateContext context, FlexStreamHandler handler) {
+                handler.onFlexStatement(flexStatement);
+                chunks.forEach(handler::onChunk);
+                if (failure != null) {
+                    throw failure;
+                }
+                handler.onFlexStatementEnd(flexStatement);
+            }
+
+            @Override
+            public FlexQueryResponseDto fetch(UpdateContext context) {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    private UpdateDto chunkOf(List<Trade> trades, List<Position> positions, List<Dividend> dividends) {
+        return UpdateDto.builder()
+                .flexStatement(flexStatement)
+                .trades(trades)
+                .positions(positions)
+                .dividends(dividends)
+                .build();
+    }
+
+    @Test
+    void updateInChunks() {
+        when(flexStatementService.findLatestToDate()).thenReturn(LocalDate.MIN);
+        when(flexStatementService.updateFlexStatements(flexStatement))
+                .thenReturn(UpdateReport.<FlexStatement>builder().added(List.of(flexStatement)).build());
+        PositionsCache positionsCache = PositionsCache.createPositionsCache(List.of());
+        when(positionService.createPositionsCache()).thenReturn(positionsCache);
+        when(tradeService.updateTrades(anyList())).thenReturn(
+                UpdateReport.<TradeSummary>builder().added(List.of(new TradeSummary())).build());
+        when(dividendService.updateDividends(anyList())).thenReturn(
+                UpdateReport.<DividendSummary>builder().skipped(List.of(new DividendSummary())).build());
+        when(positionService.deleteMissingPositions(positionsCache)).thenReturn(UpdateReport.<PositionSummary>builder()
+                .added(List.of(new PositionSummary(), new PositionSummary()))
+                .deleted(List.of(new PositionSummary())).build());
+
+        var fetcher = fetcherOf(List.of(
+                chunkOf(List.of(getZMTrade()), List.of(getADYENPosition()), List.of(getEBAYClosedDividend())),
+                chunkOf(List.of(getFVRRTrade()), List.of(getADBEPosition()), List.of(getFDXOpenDividend()))), null);
+
+        CombinedUpdateReport report = pipelinedUpdateService.update(context, fetcher);
+
+        // Flex statement and positions cache are shared by the chunks of the same statement
+        verify(flexStatementService, times(1)).updateFlexStatements(flexStatement);
+        verify(positionService, times(1)).createPositionsCache();
+        verify(positionService, times(2)).upsertPositions(anyList(), eq(positionsCache));
+        verify(positionService, times(1)).deleteMissingPositions(positionsCache);
+        verify(updateDtoValidator, times(2)).validate(any());
+
+        // Partial reports are combined
+        assertEquals(1, report.getFlexStatements().getAdded().size());
+        assertEquals(2, report.getPositions().getAdded().size());
+        assertEquals(1, report.getPositions().getDeleted().size());
+        assertEquals(2, report.getTrades().getAdded().size());
+        assertEquals(2, report.getDividends().getSkipped().size());
+    }
+
+    @Test
+    void updateHistoricalData() {
+        when(flexStatementService.findLatestToDate()).thenReturn(LocalDate.MAX);
+        when(flexStatementService.updateFlexStatements(flexStatement))
+                .thenReturn(UpdateReport.<FlexStatement>builder().added(List.of(flexStatement)).build());
+        when(tradeService.updateTrades(anyList())).thenReturn(UpdateReport.<TradeSummary>builder().build());
+        when(dividendService.updateDividends(anyList())).thenReturn(UpdateReport.<DividendSummary>builder().build());
+
+        var fetcher = fetcherOf(List.of(
+                chunkOf(List.of(getZMTrade()), List.of(getADYENPosition()), getSampleDividends())), null);
+
+        pipelinedUpdateService.update(context, fetcher);
+
+        // Positions and open dividends are not updated from historical data
+        verify(positionService, never()).createPositionsCache();
+        verify(positionService, never()).deleteMissingPositions(any());
+        verify(dividendService).updateDividends(List.of(getEBAYClosedDividend()));
+    }
+
+    @Test
+    void updateFetcherFailure() {
+        when(flexStatementService.findLatestToDate()).thenReturn(LocalDate.MIN);
+        when(positionService.createPositionsCache()).thenReturn(PositionsCache.createPositionsCache(List.of()));
+        when(tradeService.updateTrades(anyList())).thenReturn(UpdateReport.<TradeSummary>builder().build());
+        when(dividendService.updateDividends(anyList())).thenReturn(UpdateReport.<DividendSummary>builder().build());
+
+        var fetcher = fetcherOf(List.of(
+                chunkOf(List.of(getZMTrade()), List.of(getADYENPosition()), List.of())),
+                new InvalidXMLFileException());
+
+        assertThrows(InvalidXMLFileException.class, () -> pipelinedUpdateService.update(context, fetcher));
+
+        // Neither the flex statement is saved nor positions deleted when the flex query is not read completely
+        verify(flexStatementService, never()).updateFlexStatements(any());
+        verify(positionService, never()).deleteMissingPositions(any());
+    }
+
+    @Test
+    void updateFetcherError() {
+        when(flexStatementService.findLatestToDate()).thenReturn(LocalDate.MIN);
+        var fetcher = new StreamingDataFetcher() {
+            @Override
+            public void fetch(UpdateContext context, FlexStreamHandler handler) {
+                throw new OutOfMemoryError("Java heap space");
+            }
+
+            @Override
+            public FlexQueryResponseDto fetch(UpdateContext context) {
+                throw new UnsupportedOperationException();
+            }
+        };
+
+        // The error reaches the caller without waiting for the chunk timeout
+        assertThrows(OutOfMemoryError.class, () -> pipelinedUpdateService.update(context, fetcher));
+        verify(flexStatementService, never()).updateFlexStatements(any());
+    }
+
+    @Test
+    void updateSkipsStatementsOfOtherAccounts() {
+        FlexStatement otherAccountStatement = getSampleFlexStatement();
+        otherAccountStatement.setAccountId("U2222222");
+        UpdateDto otherAccountChunk = UpdateDto.builder()
+                .flexStatement(otherAccountStatement)
+                .trades(List.of(getFVRRTrade()))
+                .positions(List.of())
+                .dividends(List.of())
+                .build();
+        when(flexStatementService.findLatestToDate()).thenReturn(LocalDate.MAX);
+        when(flexStatementService.updateFlexStatements(flexStatement))
+                .thenReturn(UpdateReport.<FlexStatement>builder().added(List.of(flexStatement)).build());
+        when(tradeService.updateTrades(anyList())).thenReturn(
+                UpdateReport.<TradeSummary>builder().added(List.of(new TradeSummary())).build());
+        when(dividendService.updateDividends(anyList())).thenReturn(UpdateReport.<DividendSummary>builder().build());
+        when(updateDtoValidator.hasValidAccountId(any(), any())).thenReturn(true);
+        doThrow(new InvalidUserDataException()).when(updateDtoValidator)
+                .hasValidAccountId(otherAccountChunk, "U1111111");
+        var fetcher = new StreamingDataFetcher() {
+            @Override
+            public void fetch(UpdateContext context, FlexStreamHandler handler) {
+                handler.onChunk(chunkOf(List.of(getZMTrade()), List.of(), List.of()));
+                handler.onChunk(otherAccountChunk);
+            }
+
+            @Override
+            public FlexQueryResponseDto fetch(UpdateContext context) {
+                throw new UnsupportedOperationException();
+            }
+        };
+
+        CombinedUpdateReport report = pipelinedUpdateService.update(context, fetcher);
+
+        verify(tradeService).updateTrades(List.of(getZMTrade()));
+        verify(flexStatementService, never()).updateFlexStatements(otherAccountStatement);
+        assertEquals(1, report.getTrades().getAdded().size());
+        assertEquals(2, report.getAccounts().size());
+        assertNotNull(report.getAccounts().get(0).getReport());
+        assertNotNull(report.getAccounts().get(1).getError());
+    }
+
+    @Test
+    void updateRejectedWhenReadersBusy() {
+        pipelinedUpdateService = new PipelinedUpdateServiceImpl(flexStatementService, positionService, tradeService,
+                dividendService, updateDtoValidator, userService, new SimpleAsyncTaskExecutor() {
+                    @Override
+                    public Future<?> submit(Runnable task) {
+                        throw new TaskRejectedException("No reader available");
+                    }
+                }, 1, 1000);
+        var fetcher = fetcherOf(List.of(), null);
+
+        assertThrows(UpdateJobRejectedException.class, () -> pipelinedUpdateService.update(context, fetcher));
+    }
+
+    @Test
+    void updateTimesOutWaitingForChunks() throws InterruptedException {
+        pipelinedUpdateService = new PipelinedUpdateServiceImpl(flexStatementService, positionService, tradeService,
+                dividendService, updateDtoValidator, userService, new SimpleAsyncTaskExecutor(), 1, 100);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        var fetcher = new StreamingDataFetcher() {
+            @Override
+            public void fetch(UpdateContext context, FlexStreamHandler handler) {
+                try {
+                    Thread.sleep(60000);
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+            }
+
+            @Override
+            public FlexQueryResponseDto fetch(UpdateContext context) {
+                throw new UnsupportedOperationException();
+            }
+        };
+
+        assertThrows(FlexReadTimeoutException.class, () -> pipelinedUpdateService.update(context, fetcher));
+
+        // The reader is stopped
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+}
@@ -7,14 +7,17 @@ import com.marcomarchionni.strategistapi.dtos.request.PortfolioSave;
 import com.marcomarchionni.strategistapi.dtos.response.PortfolioDetail;
 import com.marcomarchionni.strategistapi.dtos.response.PortfolioSummary;
 import com.marcomarchionni.strategistapi.errorhandling.exceptions.EntityNotFoundException;
+import com.marcomarchionni.strategistapi.mappers.DividendMapperImpl;
 import com.marcomarchionni.strategistapi.mappers.PortfolioMapper;
 import com.marcomarchionni.strategistapi.mappers.PortfolioMapperImpl;
+import com.marcomarchionni.strategistapi.mappers.PositionMapperImpl;
+import com.marcomarchionni.strategistapi.mappers.StrategyMapperImpl;
+import com.marcomarchionni.strategistapi.mappers.TradeMapperImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.ModelMapper;
 
 import java.util.List;
 import java.util.Optional;
@@ -38,7 +41,8 @@ class PortfolioServiceImplTest {
 
     @BeforeEach
     void setup() {
-        portfolioMapper = new PortfolioMapperImpl(new ModelMapper());
+        portfolioMapper = new PortfolioMapperImpl(new StrategyMapperImpl(new TradeMapperImpl(),
+                new PositionMapperImpl(), new DividendMapperImpl()));
         portfolioService = new PortfolioServiceImpl(portfolioAccessService, userService, portfolioMapper);
 
         user = getSampleUser();
@@ -2,7 +2,6 @@ package com.marcomarchionni.strategistapi.services;
 
 import com.marcomarchionni.strategistapi.accessservice.PositionAccessService;
 import com.marcomarchionni.strategistapi.accessservice.StrategyAccessService;
-import com.marcomarchionni.strategistapi.config.ModelMapperConfig;
 import com.marcomarchionni.strategistapi.domain.Position;
 import com.marcomarchionni.strategistapi.domain.Strategy;
 import com.marcomarchionni.strategistapi.domain.User;
@@ -19,12 +18,13 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.ModelMapper;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import static com.marcomarchionni.strategistapi.util.TestUtils.*;
 import static org.junit.jupiter.api.Assertions.*;
@@ -57,9 +57,7 @@ class PositionServiceImplTest {
         samplePosition = getSamplePosition();
         sampleStrategy = getSampleStrategy();
         positionFind = getSamplePositionCriteria();
-        ModelMapperConfig modelMapperConfig = new ModelMapperConfig();
-        ModelMapper mapper = modelMapperConfig.modelMapper();
-        positionMapper = new PositionMapperImpl(mapper);
+        positionMapper = new PositionMapperImpl();
         positionService = new PositionServiceImpl(positionAccessService, strategyAccessService, positionMapper);
     }
 
@@ -90,7 +88,8 @@ class PositionServiceImplTest {
 
     @Test
     void findWithParameters() {
-        when(positionAccessService.findByParams(any(), any(), any())).thenReturn(samplePositions);
+        when(positionAccessService.findSummariesByParams(any(), any(), any()))
+                .thenReturn(samplePositions.stream().map(new PositionMapperImpl()::toPositionSummary).toList());
 
         List<PositionSummary> positions = positionService.findByFilter(positionFind);
 
@@ -150,12 +149,16 @@ class PositionServiceImplTest {
         newAMZNposition.setId(null);
         newAMZNposition.setReportDate(LocalDate.of(2022, 7, 7));
 
-        List<Position> existingPositions = List.of(existingADYENposition, existingADBEposition);
         List<Position> newPositions = List.of(newADYENposition, newAMZNposition);
+        // the upsert keeps the strategy of the merged position
+        newADYENposition.setStrategy(sampleStrategy);
+        newADYENposition.setId(existingADYENposition.getId());
+        newAMZNposition.setId(100L);
 
         // mock
-        when(positionAccessService.findAll()).thenReturn(existingPositions);
-        when(positionAccessService.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(positionAccessService.findSummariesByParams(null, null, null)).thenReturn(
+                Stream.of(existingADYENposition, existingADBEposition).map(positionMapper::toPositionSummary).toList(),
+                newPositions.stream().map(positionMapper::toPositionSummary).toList());
 
         // test
         UpdateReport<PositionSummary> result = positionService.updatePositions(newPositions);
@@ -168,6 +171,13 @@ class PositionServiceImplTest {
         assertEquals(result.getDeleted().get(0).getSymbol(), "ADBE");
         assertEquals(LocalDate.of(2022, 7, 7), result.getMerged().get(0).getReportDate());
         assertEquals(sampleStrategy.getId(), result.getMerged().get(0).getStrategyId());
+        assertNotNull(result.getAdded().get(0).getId());
+        verify(positionAccessService).upsertAll(newPositions);
+        verify(positionAccessService).deleteMissingPositions(
+                Set.of(newADYENposition.getConId(), newAMZNposition.getConId()));
+        verify(positionAccessService, never()).findAll();
+        verify(positionAccessService, never()).saveAll(anyList());
+        verify(positionAccessService, never()).deleteAll(anyList());
     }
 
     @Test
@@ -10,14 +10,16 @@ import com.marcomarchionni.strategistapi.dtos.request.StrategyCreate;
 import com.marcomarchionni.strategistapi.dtos.request.StrategyFind;
 import com.marcomarchionni.strategistapi.dtos.response.StrategyDetail;
 import com.marcomarchionni.strategistapi.dtos.response.StrategySummary;
+import com.marcomarchionni.strategistapi.mappers.DividendMapperImpl;
+import com.marcomarchionni.strategistapi.mappers.PositionMapperImpl;
 import com.marcomarchionni.strategistapi.mappers.StrategyMapper;
 import com.marcomarchionni.strategistapi.mappers.StrategyMapperImpl;
+import com.marcomarchionni.strategistapi.mappers.TradeMapperImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.ModelMapper;
 
 import java.util.List;
 import java.util.Optional;
@@ -42,7 +44,8 @@ class StrategyServiceImplTest {
 
     @BeforeEach
     void setup() {
-        strategyMapper = new StrategyMapperImpl(new ModelMapper());
+        strategyMapper = new StrategyMapperImpl(new TradeMapperImpl(),
+                new PositionMapperImpl(), new DividendMapperImpl());
         strategyService = new StrategyServiceImpl(strategyAccessService, portfolioAccessService, strategyMapper);
 
         user = getSampleUser();
@@ -7,25 +7,31 @@ import com.marcomarchionni.strategistapi.domain.Trade;
 import com.marcomarchionni.strategistapi.domain.User;
 import com.marcomarchionni.strategistapi.dtos.request.StrategyAssign;
 import com.marcomarchionni.strategistapi.dtos.request.TradeFind;
+import com.marcomarchionni.strategistapi.dtos.response.TradePage;
 import com.marcomarchionni.strategistapi.dtos.response.TradeSummary;
 import com.marcomarchionni.strategistapi.dtos.response.update.UpdateReport;
 import com.marcomarchionni.strategistapi.errorhandling.exceptions.EntityNotFoundException;
 import com.marcomarchionni.strategistapi.errorhandling.exceptions.UnableToSaveEntitiesException;
 import com.marcomarchionni.strategistapi.mappers.TradeMapper;
 import com.marcomarchionni.strategistapi.mappers.TradeMapperImpl;
+import com.marcomarchionni.strategistapi.services.util.LongHashSet;
+import com.marcomarchionni.strategistapi.services.util.TradeCursor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.ModelMapper;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static com.marcomarchionni.strategistapi.util.TestUtils.*;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -36,6 +42,7 @@ class TradeServiceImplTest {
     StrategyAccessService strategyAccessService;
     TradeService tradeService;
     List<Trade> trades;
+    List<TradeSummary> summaries;
     Trade trade;
     Strategy strategy;
     StrategyAssign tradeUpdate;
@@ -49,8 +56,9 @@ class TradeServiceImplTest {
         trade = getSampleTrade();
         strategy = getSampleStrategy();
         tradeCriteria = getSampleTradeCriteria();
-        TradeMapper tradeMapper = new TradeMapperImpl(new ModelMapper());
-        tradeService = new TradeServiceImpl(tradeAccessService, strategyAccessService, tradeMapper);
+        TradeMapper tradeMapper = new TradeMapperImpl();
+        summaries = trades.stream().map(tradeMapper::toTradeSummary).toList();
+        tradeService = new TradeServiceImpl(tradeAccessService, strategyAccessService, tradeMapper, 500, 5000);
     }
 
     @Test
@@ -108,13 +116,66 @@ class TradeServiceImplTest {
 
     @Test
     void findWithParametersSuccess() {
+        doAnswer(invocation -> {
+            Consumer<TradeSummary> action = invocation.getArgument(5);
+            summaries.forEach(action);
+            return null;
+        }).when(tradeAccessService).forEachSummaryByParams(any(), any(), any(), any(), any(), any());
+
+        TradePage actualTrades = tradeService.findByFilter(tradeCriteria);
+
+        // Without limit nor cursor every matching trade is returned
+        assertEquals(summaries, actualTrades.getTrades());
+        assertNull(actualTrades.getNextCursor());
+        verify(tradeAccessService, never()).findSummaryPageByParams(any(), any(), any(), any(), any(), any(),
+                anyInt());
+    }
+
+    @Test
+    void findPageWithCursorOnly() {
+        tradeCriteria.setCursor(TradeCursor.of(summaries.get(0)).encode());
+        when(tradeAccessService.findSummaryPageByParams(any(), any(), any(), any(), any(),
+                eq(TradeCursor.of(summaries.get(0))), eq(501))).thenReturn(summaries.subList(1, summaries.size()));
+
+        TradePage page = tradeService.findByFilter(tradeCriteria);
+
+        assertEquals(summaries.subList(1, summaries.size()), page.getTrades());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void findNextPage() {
+        tradeCriteria.setLimit(2);
+        when(tradeAccessService.findSummaryPageByParams(any(), any(), any(), any(), any(), isNull(), eq(3)))
+                .thenReturn(summaries.subList(0, 3));
 
-        when(tradeAccessService.findByParams(any(), any(), any(), any(), any())).thenReturn(trades);
-        int expectedSize = trades.size();
+        TradePage firstPage = tradeService.findByFilter(tradeCriteria);
+
+        assertEquals(2, firstPage.getTrades().size());
+        assertEquals(TradeCursor.of(summaries.get(1)), TradeCursor.decode(firstPage.getNextCursor()));
+
+        tradeCriteria.setCursor(firstPage.getNextCursor());
+        when(tradeAccessService.findSummaryPageByParams(any(), any(), any(), any(), any(),
+                eq(TradeCursor.of(summaries.get(1))), eq(3))).thenReturn(summaries.subList(2, 3));
+
+        TradePage lastPage = tradeService.findByFilter(tradeCriteria);
+
+        assertEquals(trades.get(2).getId(), lastPage.getTrades().get(0).getId());
+        assertNull(lastPage.getNextCursor());
+    }
+
+    @Test
+    void streamByFilter() {
+        doAnswer(invocation -> {
+            Consumer<TradeSummary> action = invocation.getArgument(5);
+            summaries.forEach(action);
+            return null;
+        }).when(tradeAccessService).forEachSummaryByParams(any(), any(), any(), any(), any(), any());
+        List<TradeSummary> streamed = new ArrayList<>();
 
-        List<TradeSummary> actualTrades = tradeService.findByFilter(tradeCriteria);
+        tradeService.streamByFilter(tradeCriteria, streamed::add);
 
-        assertEquals(expectedSize, actualTrades.size());
+        assertEquals(trades.size(), streamed.size());
     }
 
     @Test
@@ -123,8 +184,10 @@ class TradeServiceImplTest {
         List<Trade> newTrades = List.of(getTTWO1Trade(), getTTWO2Trade(), getEURUSDTrade());
 
         // setup mock, assuming that TTWO1 and TTWO2 already exist in the database
-        when(tradeAccessService.existsByIbOrderId(getTTWO1Trade().getIbOrderId())).thenReturn(true);
-        when(tradeAccessService.existsByIbOrderId(getTTWO2Trade().getIbOrderId())).thenReturn(true);
+        LongHashSet existingIbOrderIds = new LongHashSet();
+        existingIbOrderIds.add(getTTWO1Trade().getIbOrderId());
+        existingIbOrderIds.add(getTTWO2Trade().getIbOrderId());
+        when(tradeAccessService.findExistingIbOrderIds(anyCollection())).thenReturn(existingIbOrderIds);
         when(tradeAccessService.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
 
         // execute method
@@ -134,6 +197,7 @@ class TradeServiceImplTest {
         assertEquals(1, result.getAdded().size());
         assertEquals(2, result.getSkipped().size());
         assertEquals("EUR.USD", result.getAdded().get(0).getSymbol());
+        verify(tradeAccessService, never()).existsByIbOrderId(any());
     }
 
     @Test
@@ -0,0 +1,160 @@
+package com.marcomarchionni.strategistapi.services;
+
+import com.marcomarchionni.strategistapi.dtos.request.UpdateContext;
+import com.marcomarchionni.strategistapi.dtos.response.TradeSummary;
+import com.marcomarchionni.strategistapi.dtos.response.update.CombinedUpdateReport;
+import com.marcomarchionni.strategistapi.dtos.response.update.UpdateJobStatus;
+import com.marcomarchionni.strategistapi.dtos.response.update.UpdateReport;
+import com.marcomarchionni.strategistapi.dtos.response.update.UpdateStage;
+import com.marcomarchionni.strategistapi.errorhandling.exceptions.InvalidXMLFileException;
+import com.marcomarchionni.strategistapi.errorhandling.exceptions.UpdateJobNotFoundException;
+import com.marcomarchionni.strategistapi.services.util.UpdateProgressListener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UpdateJobServiceImplTest {
+
+    @Mock
+    UpdateOrchestrator updateOrchestrator;
+    @Mock
+    UserService userService;
+    ThreadPoolTaskExecutor executor;
+    UpdateJobService updateJobService;
+    UpdateContext context;
+    CombinedUpdateReport report;
+
+    @BeforeEach
+    void setUp() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.initialize();
+        updateJobService = new UpdateJobServiceImpl(updateOrchestrator, userService, executor, 60);
+        context = UpdateContext.builder().sourceType(UpdateContext.SourceType.SAMPLEDATA).build();
+        report = CombinedUpdateReport.builder()
+                .trades(UpdateReport.<TradeSummary>builder().added(List.of(new TradeSummary())).build())
+                .build();
+        lenient().when(userService.getUserAccountId()).thenReturn("U1111111");
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    private UpdateJobStatus awaitJob(String jobId) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            UpdateJobStatus status = updateJobService.getStatus(jobId);
+            if (status.getState() == UpdateJobStatus.JobState.COMPLETED ||
+                    status.getState() == UpdateJobStatus.JobState.FAILED) {
+                return status;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("Job " + jobId + " not finished");
+    }
+
+    @Test
+    void submitCompleted() throws Exception {
+        when(updateOrchestrator.update(any(), any())).thenAnswer(invocation -> {
+            UpdateProgressListener listener = invocation.getArgument(1);
+            listener.stageStarted(UpdateStage.FETCH);
+            listener.stageCompleted(UpdateStage.FETCH);
+            listener.rowsProcessed(UpdateStage.TRADES, 1);
+            return report;
+        });
+
+        UpdateJobStatus submitted = updateJobService.submit(context);
+        UpdateJobStatus finished = awaitJob(submitted.getId());
+
+        assertEquals(UpdateJobStatus.JobState.COMPLETED, finished.getState());
+        assertEquals("U1111111", finished.getAccountId());
+        assertSame(report, finished.getReport());
+        assertEquals(UpdateJobStatus.StageState.COMPLETED, finished.getStages().get(UpdateStage.FETCH).getState());
+        assertEquals(1, finished.getStages().get(UpdateStage.TRADES).getRows());
+        assertEquals(UpdateJobStatus.StageState.PENDING, finished.getStages().get(UpdateStage.PARSE).getState());
+    }
+
+    @Test
+    void submitFailed() throws Exception {
+        when(updateOrchestrator.update(any(), any())).thenThrow(new InvalidXMLFileException());
+
+        UpdateJobStatus finished = awaitJob(updateJobService.submit(context).getId());
+
+        assertEquals(UpdateJobStatus.JobState.FAILED, finished.getState());
+        assertNull(finished.getReport());
+        assertEquals(400, finished.getError().getStatus());
+    }
+
+    @Test
+    void submitJoinsRunningJob() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(updateOrchestrator.update(any(), any())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return report;
+        });
+
+        UpdateJobStatus first = updateJobService.submit(context);
+        UpdateJobStatus second = updateJobService.submit(context);
+        release.countDown();
+
+        assertEquals(first.getId(), second.getId());
+        assertEquals(UpdateJobStatus.JobState.COMPLETED, awaitJob(first.getId()).getState());
+        verify(updateOrchestrator, times(1)).update(any(), any());
+
+        // A new job starts once the previous one is finished
+        UpdateJobStatus third = updateJobService.submit(context);
+        assertNotEquals(first.getId(), third.getId());
+        awaitJob(third.getId());
+    }
+
+    @Test
+    void submitCopiesFile() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "Flex.xml", "text/xml", "<xml/>".getBytes());
+        UpdateContext fileContext = UpdateContext.builder()
+                .sourceType(UpdateContext.SourceType.FILE)
+                .file(file)
+                .build();
+        when(updateOrchestrator.update(any(), any())).thenAnswer(invocation -> {
+            UpdateContext jobContext = invocation.getArgument(0);
+            assertNotSame(file, jobContext.getFile());
+            assertEquals("Flex.xml", jobContext.getFile().getOriginalFilename());
+            assertArrayEquals(file.getBytes(), jobContext.getFile().getBytes());
+            return report;
+        });
+
+        UpdateJobStatus finished = awaitJob(updateJobService.submit(fileContext).getId());
+
+        assertEquals(UpdateJobStatus.JobState.COMPLETED, finished.getState());
+    }
+
+    @Test
+    void getStatusOfAnotherAccount() throws Exception {
+        when(updateOrchestrator.update(any(), any())).thenReturn(report);
+        String jobId = updateJobService.submit(context).getId();
+        awaitJob(jobId);
+
+        when(userService.getUserAccountId()).thenReturn("U2222222");
+
+        assertThrows(UpdateJobNotFoundException.class, () -> updateJobService.getStatus(jobId));
+    }
+
+    @Test
+    void getStatusNotFound() {
+        assertThrows(UpdateJobNotFoundException.class, () -> updateJobService.getStatus("unknown"));
+    }
+}
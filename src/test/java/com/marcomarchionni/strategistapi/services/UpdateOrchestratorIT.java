@@ -6,6 +6,7 @@ import com.marcomarchionni.strategistapi.dtos.response.DividendSummary;
 import com.marcomarchionni.strategistapi.dtos.response.update.CombinedUpdateReport;
 import com.marcomarchionni.strategistapi.mappers.DividendMapper;
 import com.marcomarchionni.strategistapi.repositories.*;
+import com.marcomarchionni.strategistapi.services.util.FlexUploadReader;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -16,6 +17,7 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.test.context.jdbc.Sql;
+import org.springframework.util.unit.DataSize;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -46,6 +48,8 @@ public class UpdateOrchestratorIT {
     UpdateOrchestrator updateOrchestrator;
     @Autowired
     DividendMapper dividendMapper;
+    @Autowired
+    UserRepository userRepository;
     UpdateContext updateContext;
     User user = getSampleUser();
 
@@ -176,4 +180,44 @@ public class UpdateOrchestratorIT {
             assertEquals(reportedMergedDividend, dividendMapper.toDividendSummary(dividendAfterMerge));
         }
     }
+
+    @Test
+    void updateFromSameFileTwiceTest() throws IOException {
+        // The hash of the last payload is kept on the row of the account
+        User accountUser = userRepository.save(User.builder().email(user.getEmail()).password("password")
+                .accountId(user.getAccountId()).role(User.Role.USER).build());
+        // The upload is hashed while it is received, as by the upload endpoint
+        try (InputStream flexQueryStream = getClass().getResourceAsStream("/flex/Flex.xml")) {
+            updateContext.setFile(new FlexUploadReader(DataSize.ofMegabytes(1), DataSize.ofMegabytes(10))
+                    .read(flexQueryStream, "Flex.xml"));
+        }
+
+        try {
+            updateSameFileTwice();
+        } finally {
+            userRepository.delete(accountUser);
+        }
+    }
+
+    private void updateSameFileTwice() throws IOException {
+        CombinedUpdateReport firstReport = updateOrchestrator.update(updateContext);
+        long tradesCount = tradeRepository.count();
+        long flexStatementsCount = flexStatementRepository.count();
+
+        // upload the same file again
+        CombinedUpdateReport secondReport = updateOrchestrator.update(updateContext);
+
+        // nothing is saved and every row is reported as unchanged
+        assertEquals(tradesCount, tradeRepository.count());
+        assertEquals(flexStatementsCount, flexStatementRepository.count());
+        assertTrue(secondReport.getTrades().getAdded().isEmpty());
+        assertTrue(secondReport.getFlexStatements().getAdded().isEmpty());
+        assertEquals(firstReport.getTrades().getAdded().size(), secondReport.getTrades().getUnchanged());
+        assertEquals(firstReport.getFlexStatements().getAdded(), secondReport.getFlexStatements().getSkipped());
+
+        // once the account data is deleted the file is saved again
+        cleanDb();
+        CombinedUpdateReport thirdReport = updateOrchestrator.update(updateContext);
+        assertEquals(firstReport.getTrades().getAdded().size(), thirdReport.getTrades().getAdded().size());
+    }
 }
@@ -1,15 +1,139 @@
 package com.marcomarchionni.strategistapi.services;
 
+import com.marcomarchionni.strategistapi.domain.FlexStatement;
+import com.marcomarchionni.strategistapi.dtos.flex.FlexQueryResponseDto;
+import com.marcomarchionni.strategistapi.dtos.response.DividendSummary;
+import com.marcomarchionni.strategistapi.dtos.response.PositionSummary;
+import com.marcomarchionni.strategistapi.dtos.response.TradeSummary;
+import com.marcomarchionni.strategistapi.dtos.response.update.AccountUpdateReport;
+import com.marcomarchionni.strategistapi.dtos.response.update.CombinedUpdateReport;
+import com.marcomarchionni.strategistapi.dtos.response.update.UpdateDto;
+import com.marcomarchionni.strategistapi.dtos.response.update.UpdateReport;
+import com.marcomarchionni.strategistapi.errorhandling.exceptions.InvalidUserDataException;
+import com.marcomarchionni.strategistapi.services.parsers.ResponseParser;
+import com.marcomarchionni.strategistapi.services.util.DateRanges;
+import com.marcomarchionni.strategistapi.validators.UpdateDtoValidator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
 class UpdateServiceImplTest {
 
+    @Mock
+    ResponseParser parser;
+    @Mock
+    TradeService tradeService;
+    @Mock
+    DividendService dividendService;
+    @Mock
+    FlexStatementService flexStatementService;
+    @Mock
+    PositionService positionService;
+    @Mock
+    UpdateDtoValidator updateDtoValidator;
+    @Mock
+    UserService userService;
+    @Mock
+    PlatformTransactionManager transactionManager;
+    UpdateService updateService;
+
     @BeforeEach
     void setUp() {
+        updateService = new UpdateServiceImpl(parser, tradeService, dividendService, flexStatementService,
+                positionService, updateDtoValidator, userService, transactionManager);
+        when(userService.getUserAccountId()).thenReturn("U1111111");
+        // Statements of the user account only are parsed
+        lenient().when(flexStatementService.findLatestToDate()).thenReturn(LocalDate.MIN);
+        lenient().when(flexStatementService.findIngestedDates()).thenReturn(DateRanges.EMPTY);
+        lenient().when(parser.parseAllData(any(), any())).thenAnswer(invocation -> {
+            FlexQueryResponseDto.FlexStatement flexStatement =
+                    invocation.<FlexQueryResponseDto>getArgument(0).nullSafeGetFlexStatement();
+            return UpdateDto.builder()
+                    .flexStatement(FlexStatement.builder()
+                            .accountId(flexStatement.getAccountId())
+                            .toDate(flexStatement.getToDate())
+                            .build())
+                    .trades(List.of())
+                    .positions(List.of())
+                    .dividends(List.of())
+                    .build();
+        });
+        lenient().doAnswer(invocation -> {
+            if (!invocation.<UpdateDto>getArgument(0).getFlexStatement().getAccountId()
+                    .equals(invocation.getArgument(1))) {
+                throw new InvalidUserDataException();
+            }
+            return true;
+        }).when(updateDtoValidator).hasValidAccountId(any(), any());
+    }
+
+    private static FlexQueryResponseDto.FlexStatement statementOf(String accountId, LocalDate toDate) {
+        return FlexQueryResponseDto.FlexStatement.builder().accountId(accountId).toDate(toDate).build();
+    }
+
+    private static FlexQueryResponseDto flexQueryOf(FlexQueryResponseDto.FlexStatement... statements) {
+        return FlexQueryResponseDto.builder()
+                .queryName("name")
+                .flexStatements(FlexQueryResponseDto.FlexStatements.builder()
+                        .flexStatementList(List.of(statements))
+                        .count(statements.length)
+                        .build())
+                .build();
     }
 
     @Test
     void update() {
+        when(flexStatementService.updateFlexStatements(any())).thenAnswer(invocation ->
+                UpdateReport.<FlexStatement>builder().added(List.of(invocation.<FlexStatement>getArgument(0)))
+                        .build());
+        when(positionService.updatePositions(anyList())).thenReturn(UpdateReport.<PositionSummary>builder().build());
+        when(tradeService.updateTrades(anyList())).thenReturn(UpdateReport.<TradeSummary>builder().build());
+        when(dividendService.updateDividends(anyList())).thenReturn(UpdateReport.<DividendSummary>builder().build());
+        LocalDate june = LocalDate.of(2022, 6, 30);
+        LocalDate may = LocalDate.of(2022, 5, 31);
+
+        CombinedUpdateReport report = updateService.update(flexQueryOf(statementOf("U1111111", june),
+                statementOf("U2222222", june), statementOf("U1111111", may)));
+
+        // Statements of the same account are updated from the oldest, in one transaction
+        InOrder inOrder = inOrder(flexStatementService);
+        inOrder.verify(flexStatementService).updateFlexStatements(argThat(fs -> may.equals(fs.getToDate())));
+        inOrder.verify(flexStatementService).updateFlexStatements(argThat(fs -> june.equals(fs.getToDate())));
+        verify(transactionManager).getTransaction(any());
+        verify(transactionManager).commit(any());
+
+        // Statements of other accounts are rejected without being parsed
+        verify(parser, times(2)).parseAllData(any(), any());
+        List<AccountUpdateReport> accounts = report.getAccounts();
+        assertEquals(List.of("U1111111", "U2222222"), accounts.stream().map(AccountUpdateReport::getAccountId)
+                .toList());
+        assertEquals(2, accounts.get(0).getReport().getFlexStatements().getAdded().size());
+        assertNull(accounts.get(0).getError());
+        assertNull(accounts.get(1).getReport());
+        assertNotNull(accounts.get(1).getError());
+        assertEquals(2, report.getFlexStatements().getAdded().size());
+    }
+
+    @Test
+    void updateRejected() {
+        FlexQueryResponseDto dto = flexQueryOf(statementOf("U2222222", LocalDate.of(2022, 6, 30)));
+
+        assertThrows(InvalidUserDataException.class, () -> updateService.update(dto));
+
+        verify(parser, never()).parseAllData(any(), any());
+        verify(transactionManager, never()).getTransaction(any());
     }
-}
\ No newline at end of file
+}
@@ -3,24 +3,42 @@ package com.marcomarchionni.strategistapi.services.fetchers;
 import com.fasterxml.jackson.core.JsonParseException;
 import com.fasterxml.jackson.dataformat.xml.XmlMapper;
 import com.marcomarchionni.strategistapi.config.XMLConfig;
+import com.marcomarchionni.strategistapi.domain.FlexStatement;
 import com.marcomarchionni.strategistapi.dtos.flex.FlexQueryResponseDto;
 import com.marcomarchionni.strategistapi.dtos.request.UpdateContext;
+import com.marcomarchionni.strategistapi.dtos.response.update.UpdateDto;
 import com.marcomarchionni.strategistapi.errorhandling.exceptions.InvalidXMLFileException;
+import com.marcomarchionni.strategistapi.mappers.DividendMapperImpl;
+import com.marcomarchionni.strategistapi.mappers.FlexStatementMapperImpl;
+import com.marcomarchionni.strategistapi.mappers.PositionMapperImpl;
+import com.marcomarchionni.strategistapi.mappers.TradeMapperImpl;
+import com.marcomarchionni.strategistapi.services.parsers.FlexStreamHandler;
+import com.marcomarchionni.strategistapi.services.parsers.FlexStreamReaderImpl;
+import com.marcomarchionni.strategistapi.services.util.FlexContentDigest;
+import com.marcomarchionni.strategistapi.services.util.FlexUpload;
+import com.marcomarchionni.strategistapi.services.util.FlexUploadReader;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.util.unit.DataSize;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 @ExtendWith(SpringExtension.class)
-@ContextConfiguration(classes = {XMLConfig.class, FileDataFetcher.class})
+@ContextConfiguration(classes = {XMLConfig.class, FileDataFetcher.class,
+        FlexStreamReaderImpl.class, FlexStatementMapperImpl.class, TradeMapperImpl.class, PositionMapperImpl.class,
+        DividendMapperImpl.class})
 class FileDataFetcherTest {
 
     @Autowired
@@ -78,6 +96,7 @@ class FileDataFetcherTest {
 
         // Verify data
         assertNotNull(dto);
+        assertEquals(FlexContentDigest.of(mockMultipartFile.getInputStream()), dto.getContentHash());
         FlexQueryResponseDto.FlexStatement flexStatement = dto.getFlexStatements().getFlexStatement();
         assertNotNull(flexStatement);
         LocalDate fromDate = flexStatement.getFromDate();
@@ -92,4 +111,60 @@ class FileDataFetcherTest {
         int actualOpenDividendsSize = flexStatement.getOpenDividendAccruals().getOpenDividendAccrualList().size();
         assertEquals(3, actualOpenDividendsSize);
     }
-}
\ No newline at end of file
+
+    @Test
+    void fetchAsStream() throws IOException {
+
+        // Initialize fetch context
+        InputStream stream = getClass().getClassLoader().getResourceAsStream("flex/Flex.xml");
+        assertNotNull(stream);
+        MockMultipartFile mockMultipartFile = new MockMultipartFile("file", "Flex.xml", "text/xml", stream);
+        UpdateContext context = UpdateContext.builder().file(mockMultipartFile).build();
+
+        // Fetch data as a stream of chunks
+        List<FlexStatement> flexStatements = new ArrayList<>();
+        List<UpdateDto> chunks = new ArrayList<>();
+        fileDataFetcher.fetch(context, new FlexStreamHandler() {
+            @Override
+            public void onFlexStatement(FlexStatement flexStatement) {
+                flexStatements.add(flexStatement);
+            }
+
+            @Override
+            public void onChunk(UpdateDto chunk) {
+                chunks.add(chunk);
+            }
+        });
+
+        // Verify data
+        assertEquals(1, flexStatements.size());
+        assertEquals(LocalDate.of(2022, 6, 1), flexStatements.get(0).getFromDate());
+        assertEquals(8, chunks.stream().mapToInt(chunk -> chunk.getTrades().size()).sum());
+        assertEquals(3, chunks.stream().mapToInt(chunk -> chunk.getPositions().size()).sum());
+        assertEquals(6, chunks.stream().mapToInt(chunk -> chunk.getDividends().size()).sum());
+    }
+
+    @Test
+    void fetchAsStreamFileInvalid() {
+        InputStream stream = getClass().getClassLoader().getResourceAsStream("flex/Malformed.xml");
+        assertNotNull(stream);
+        UpdateContext context = UpdateContext.builder().build();
+        assertDoesNotThrow(() -> context.setFile(new MockMultipartFile("file", "Malformed.xml", "text/xml", stream)));
+
+        assertThrows(InvalidXMLFileException.class, () -> fileDataFetcher.fetch(context, chunk -> {
+        }));
+    }
+
+    @Test
+    void contentHashOfReceivedUpload() throws IOException {
+        byte[] xml = new ClassPathResource("flex/Flex.xml").getContentAsByteArray();
+        FlexUpload upload = new FlexUploadReader(DataSize.ofMegabytes(1), DataSize.ofMegabytes(10))
+                .read(new ByteArrayInputStream(xml), "Flex.xml");
+
+        assertEquals(upload.getContentHash(),
+                fileDataFetcher.contentHash(UpdateContext.builder().file(upload).build()));
+        // Files not hashed when received are hashed while they are parsed
+        assertNull(fileDataFetcher.contentHash(UpdateContext.builder()
+                .file(new MockMultipartFile("file", "Flex.xml", "text/xml", xml)).build()));
+    }
+}
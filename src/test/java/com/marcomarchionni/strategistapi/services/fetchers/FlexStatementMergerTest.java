@@ -0,0 +1,161 @@
+package com.marcomarchionni.strategistapi.services.fetchers;
+
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import com.marcomarchionni.strategistapi.benchmarks.SyntheticFlexXml;
+import com.marcomarchionni.strategistapi.config.XMLConfig;
+import com.marcomarchionni.strategistapi.dtos.flex.FlexQueryResponseDto;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlexStatementMergerTest {
+
+    XmlMapper xmlMapper = new XMLConfig().XmlMapper();
+    SyntheticFlexXml generator = SyntheticFlexXml.builder().accounts(2).build();
+
+    private FlexQueryResponseDto statement(String accountId) throws IOException {
+        return xmlMapper.readValue(generator.generate(accountId), FlexQueryResponseDto.class);
+    }
+
+    @Test
+    void mergeSplitQueries() throws IOException {
+        String accountId = generator.getAccountIds().get(0);
+        FlexQueryResponseDto full = statement(accountId);
+        FlexQueryResponseDto tradesQuery = statement(accountId);
+        tradesQuery.getFlexStatements().getFlexStatement().setOpenPositions(null);
+        tradesQuery.getFlexStatements().getFlexStatement().setChangeInDividendAccruals(null);
+        tradesQuery.getFlexStatements().getFlexStatement().setOpenDividendAccruals(null);
+        FlexQueryResponseDto positionsQuery = statement(accountId);
+        positionsQuery.getFlexStatements().getFlexStatement().setTrades(null);
+
+        FlexQueryResponseDto merged = FlexStatementMerger.merge(List.of(tradesQuery, positionsQuery));
+
+        assertEquals(accountId, merged.nullSafeGetFlexStatement().getAccountId());
+        assertEquals(full.nullSafeGetOrders(), merged.nullSafeGetOrders());
+        assertEquals(full.nullSafeGetTrades(), merged.nullSafeGetTrades());
+        assertEquals(full.nullSafeGetOpenPositions(), merged.nullSafeGetOpenPositions());
+        assertEquals(full.nullSafeGetChangeInDividendAccruals(), merged.nullSafeGetChangeInDividendAccruals());
+        assertEquals(full.nullSafeGetOpenDividendAccruals(), merged.nullSafeGetOpenDividendAccruals());
+        assertTrue(merged.isPopulated());
+    }
+
+    @Test
+    void mergeMarksUncoveredPeriodsIncomplete() throws IOException {
+        String accountId = generator.getAccountIds().get(0);
+        FlexQueryResponseDto january = statement(accountId);
+        setPeriod(january, "2022-01-01", "2022-01-31", "2022-02-01T08:00");
+        FlexQueryResponseDto february = statement(accountId);
+        setPeriod(february, "2022-02-01", "2022-02-28", "2022-03-01T08:00");
+        FlexQueryResponseDto march = statement(accountId);
+        setPeriod(march, "2022-03-01", "2022-03-31", "2022-04-01T08:00");
+        FlexQueryResponseDto februaryPositions = statement(accountId);
+        setPeriod(februaryPositions, "2022-02-01", "2022-02-28", "2022-03-01T08:00");
+        februaryPositions.getFlexStatements().getFlexStatement().setTrades(null);
+        februaryPositions.getFlexStatements().getFlexStatement().setChangeInDividendAccruals(null);
+
+        var contiguous = FlexStatementMerger.merge(List.of(january, february, march)).nullSafeGetFlexStatement();
+        var disjoint = FlexStatementMerger.merge(List.of(january, march)).nullSafeGetFlexStatement();
+        var withoutSections = FlexStatementMerger.merge(List.of(january, februaryPositions))
+                .nullSafeGetFlexStatement();
+
+        assertEquals(LocalDate.parse("2022-01-01"), contiguous.getFromDate());
+        assertEquals(LocalDate.parse("2022-03-31"), contiguous.getToDate());
+        assertFalse(contiguous.isIncomplete());
+        assertEquals(LocalDate.parse("2022-03-31"), disjoint.getToDate());
+        assertTrue(disjoint.isIncomplete());
+        assertTrue(withoutSections.isIncomplete());
+    }
+
+    private static void setPeriod(FlexQueryResponseDto dto, String fromDate, String toDate, String whenGenerated) {
+        FlexQueryResponseDto.FlexStatement flexStatement = dto.getFlexStatements().getFlexStatement();
+        flexStatement.setFromDate(LocalDate.parse(fromDate));
+        flexStatement.setToDate(LocalDate.parse(toDate));
+        flexStatement.setWhenGenerated(LocalDateTime.parse(whenGenerated));
+    }
+
+    @Test
+    void mergeRemovesDuplicateRows() throws IOException {
+        String accountId = generator.getAccountIds().get(0);
+        FlexQueryResponseDto full = statement(accountId);
+
+        FlexQueryResponseDto merged = FlexStatementMerger.merge(List.of(statement(accountId), statement(accountId)));
+
+        assertEquals(full.nullSafeGetOrders().size(), merged.nullSafeGetOrders().size());
+        assertEquals(full.nullSafeGetOpenPositions().size(), merged.nullSafeGetOpenPositions().size());
+        assertEquals(full.nullSafeGetChangeInDividendAccruals().size(),
+                merged.nullSafeGetChangeInDividendAccruals().size());
+        assertEquals(full.nullSafeGetOpenDividendAccruals().size(), merged.nullSafeGetOpenDividendAccruals().size());
+    }
+
+    @Test
+    void mergeRemovesDuplicateRowsWithoutId() throws IOException {
+        String accountId = generator.getAccountIds().get(0);
+        FlexQueryResponseDto first = statement(accountId);
+        FlexQueryResponseDto second = statement(accountId);
+        for (FlexQueryResponseDto dto : List.of(first, second)) {
+            dto.getFlexStatements().getFlexStatement().getTrades().setTradeList(List.of(
+                    FlexQueryResponseDto.Trade.builder().accountId(accountId).symbol("S1").quantity(BigDecimal.ONE)
+                            .build(),
+                    FlexQueryResponseDto.Trade.builder().accountId(accountId).symbol("S1").quantity(BigDecimal.TEN)
+                            .build()));
+        }
+
+        FlexQueryResponseDto merged = FlexStatementMerger.merge(List.of(first, second));
+
+        assertEquals(first.nullSafeGetTrades(), merged.nullSafeGetTrades());
+    }
+
+    @Test
+    void mergeKeepsLotsOpenedAtTheSameTime() throws IOException {
+        String accountId = generator.getAccountIds().get(0);
+        FlexQueryResponseDto first = statement(accountId);
+        FlexQueryResponseDto second = statement(accountId);
+        for (FlexQueryResponseDto dto : List.of(first, second)) {
+            FlexQueryResponseDto.OpenPosition lot = FlexQueryResponseDto.OpenPosition.builder().accountId(accountId)
+                    .conid(1L).levelOfDetail("LOT").openDateTime(LocalDateTime.parse("2016-06-01T10:08:23")).build();
+            dto.getFlexStatements().getFlexStatement().getOpenPositions().setOpenPositionList(List.of(
+                    lot.toBuilder().originatingTransactionID("6497832428").build(),
+                    lot.toBuilder().originatingTransactionID("6497832450").build()));
+        }
+
+        FlexQueryResponseDto merged = FlexStatementMerger.merge(List.of(first, second));
+
+        assertEquals(first.nullSafeGetOpenPositions(), merged.nullSafeGetOpenPositions());
+    }
+
+    @Test
+    void mergeDifferentAccounts() throws IOException {
+        List<String> accountIds = generator.getAccountIds();
+        FlexQueryResponseDto first = statement(accountIds.get(0));
+
+        FlexQueryResponseDto merged = FlexStatementMerger.merge(List.of(first, statement(accountIds.get(1)),
+                statement(accountIds.get(0))));
+
+        List<FlexQueryResponseDto.FlexStatement> statements = merged.getFlexStatements().getFlexStatementList();
+        assertEquals(2, statements.size());
+        assertEquals(2, merged.getFlexStatements().getCount());
+        assertEquals(accountIds, statements.stream().map(FlexQueryResponseDto.FlexStatement::getAccountId).toList());
+        assertEquals(first.nullSafeGetTrades(), merged.nullSafeGetTrades());
+    }
+
+    @Test
+    void readMultiAccountStatement() throws IOException {
+        List<String> accountIds = generator.getAccountIds();
+
+        FlexQueryResponseDto dto = xmlMapper.readValue(generator.generateMultiAccount(), FlexQueryResponseDto.class);
+        List<FlexQueryResponseDto> statements = dto.splitByFlexStatement();
+
+        assertEquals(2, dto.getFlexStatements().getCount());
+        assertEquals(2, statements.size());
+        for (int i = 0; i < statements.size(); i++) {
+            assertEquals(accountIds.get(i), statements.get(i).nullSafeGetFlexStatement().getAccountId());
+            assertEquals(statement(accountIds.get(i)).nullSafeGetTrades(), statements.get(i).nullSafeGetTrades());
+        }
+    }
+}
@@ -67,6 +67,26 @@ class SampleDataFetcherTest {
         assertFalse(dtoString.contains("U1111111"));
     }
 
+    @Test
+    void fetchCopiesForEachAccount() {
+
+        sampleDataFetcher = new SampleDataFetcher("classpath:flex/Flex.xml", xmlMapper, userService, resourceLoader);
+        when(userService.getUserAccountId()).thenReturn("U0000001", "U0000002");
+
+        var first = sampleDataFetcher.fetch(null);
+        var second = sampleDataFetcher.fetch(null);
+
+        // each fetch gets its own rows, the rows of the first fetch keep their account id
+        assertFalse(first.nullSafeGetTrades().isEmpty());
+        assertTrue(first.nullSafeGetTrades().stream().allMatch(t -> t.getAccountId().equals("U0000001")));
+        assertTrue(second.nullSafeGetTrades().stream().allMatch(t -> t.getAccountId().equals("U0000002")));
+        assertTrue(first.nullSafeGetOpenPositions().stream().allMatch(p -> p.getAccountId().equals("U0000001")));
+        assertTrue(first.nullSafeGetChangeInDividendAccruals().stream()
+                .allMatch(d -> d.getAccountId().equals("U0000001")));
+        assertEquals(first.nullSafeGetTrades().size(), second.nullSafeGetTrades().size());
+        assertNotNull(sampleDataFetcher.contentHash(null));
+    }
+
     @Test
     void fetchException() {
 
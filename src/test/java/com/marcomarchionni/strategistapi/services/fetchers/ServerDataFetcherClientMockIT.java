@@ -3,7 +3,6 @@ package com.marcomarchionni.strategistapi.services.fetchers;
 import com.marcomarchionni.strategistapi.dtos.flex.FlexQueryResponseDto;
 import com.marcomarchionni.strategistapi.dtos.flex.FlexStatementResponseDto;
 import com.marcomarchionni.strategistapi.dtos.request.UpdateContext;
-import com.marcomarchionni.strategistapi.services.fetchers.flexserviceclientmanagers.FlexServiceClientManager;
 import com.marcomarchionni.strategistapi.services.fetchers.flexserviceclients.FlexServiceClient;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -29,8 +28,6 @@ class ServerDataFetcherClientMockIT {
             .token("token").build();
     @Autowired
     ServerDataFetcher serverDataFetcher;
-    @Autowired
-    FlexServiceClientManager flexServiceClientManager;
     @MockBean
     FlexServiceClient flexServiceClient;
 
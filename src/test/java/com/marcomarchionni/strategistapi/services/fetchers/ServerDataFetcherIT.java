@@ -12,7 +12,7 @@ import org.springframework.test.context.TestPropertySource;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
 @SpringBootTest
-@TestPropertySource(properties = {"flexservice.retry-delay=1000"})
+@TestPropertySource(properties = {"flexservice.poll.initial-delay-ms=1000"})
 class ServerDataFetcherIT {
 
     @Autowired
@@ -1,9 +1,9 @@
 package com.marcomarchionni.strategistapi.services.fetchers;
 
 import com.marcomarchionni.strategistapi.dtos.flex.FlexQueryResponseDto;
-import com.marcomarchionni.strategistapi.dtos.flex.FlexStatementResponseDto;
 import com.marcomarchionni.strategistapi.dtos.request.UpdateContext;
-import com.marcomarchionni.strategistapi.services.fetchers.flexserviceclientmanagers.FlexServiceClientManager;
+import com.marcomarchionni.strategistapi.errorhandling.exceptions.IbServerErrorException;
+import com.marcomarchionni.strategistapi.services.fetchers.flexstatementpollers.FlexStatementPoller;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -11,44 +11,74 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import static com.marcomarchionni.strategistapi.util.TestUtils.getPopulatedFlexQueryResponseDto;
-import static com.marcomarchionni.strategistapi.util.TestUtils.getPopulatedFlexStatementResponseDto;
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertNotNull;
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.when;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class ServerDataFetcherTest {
     @Mock
-    FlexServiceClientManager clientManager;
+    FlexStatementPoller flexStatementPoller;
 
     ServerDataFetcher serverDataFetcher;
 
     UpdateContext updateContext;
 
-    FlexStatementResponseDto flexStatementResponseDto;
     FlexQueryResponseDto flexQueryResponseDto;
 
     @BeforeEach
     void setUp() {
         updateContext = UpdateContext.builder().sourceType(UpdateContext.SourceType.SERVER).queryId("queryId")
                 .token("token").build();
-        flexStatementResponseDto = getPopulatedFlexStatementResponseDto();
         flexQueryResponseDto = getPopulatedFlexQueryResponseDto();
-        serverDataFetcher = new ServerDataFetcher(clientManager);
+        serverDataFetcher = new ServerDataFetcher(flexStatementPoller, 2);
     }
 
     @Test
     void fetch() {
         // setup mock
-        when(clientManager.fetchFlexStatementResponseWithRetry(any(), any()))
-                .thenReturn(flexStatementResponseDto);
-        when(clientManager.fetchFlexQueryResponseWithRetry(any(), any()))
-                .thenReturn(flexQueryResponseDto);
+        when(flexStatementPoller.poll("queryId", "token"))
+                .thenReturn(CompletableFuture.completedFuture(flexQueryResponseDto));
 
         FlexQueryResponseDto responseDto = serverDataFetcher.fetch(updateContext);
 
         assertNotNull(responseDto);
         assertEquals(flexQueryResponseDto, responseDto);
     }
-}
\ No newline at end of file
+
+    @Test
+    void fetchFailure() {
+        IbServerErrorException exception = new IbServerErrorException("Token has expired.");
+        when(flexStatementPoller.poll("queryId", "token")).thenReturn(CompletableFuture.failedFuture(exception));
+
+        assertSame(exception, assertThrows(IbServerErrorException.class,
+                () -> serverDataFetcher.fetch(updateContext)));
+    }
+
+    @Test
+    void fetchSeveralQueries() {
+        updateContext.setQueryId("query1, query2,query3,");
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        when(flexStatementPoller.poll(anyString(), eq("token"))).thenAnswer(invocation -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            return CompletableFuture.supplyAsync(() -> {
+                inFlight.decrementAndGet();
+                return getPopulatedFlexQueryResponseDto();
+            });
+        });
+
+        FlexQueryResponseDto responseDto = serverDataFetcher.fetch(updateContext);
+
+        assertEquals(flexQueryResponseDto.nullSafeGetFlexStatement().getAccountId(),
+                responseDto.nullSafeGetFlexStatement().getAccountId());
+        verify(flexStatementPoller).poll("query1", "token");
+        verify(flexStatementPoller).poll("query2", "token");
+        verify(flexStatementPoller).poll("query3", "token");
+        assertTrue(maxInFlight.get() <= 2);
+    }
+}
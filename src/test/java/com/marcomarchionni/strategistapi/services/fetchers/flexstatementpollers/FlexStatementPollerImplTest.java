@@ -0,0 +1,173 @@
+package com.marcomarchionni.strategistapi.services.fetchers.flexstatementpollers;
+
+import com.marcomarchionni.strategistapi.dtos.flex.FlexQueryResponseDto;
+import com.marcomarchionni.strategistapi.dtos.flex.FlexStatementResponseDto;
+import com.marcomarchionni.strategistapi.errorhandling.exceptions.IbServerErrorException;
+import com.marcomarchionni.strategistapi.services.fetchers.flexserviceclients.FlexServiceClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.net.SocketException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.marcomarchionni.strategistapi.util.TestUtils.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FlexStatementPollerImplTest {
+
+    @Mock
+    FlexServiceClient flexServiceClient;
+    ThreadPoolTaskScheduler scheduler;
+    final SimpleAsyncTaskExecutor requestExecutor = new SimpleAsyncTaskExecutor("flex-request-");
+    FlexStatementPollerImpl flexStatementPoller;
+
+    final ResponseEntity<FlexStatementResponseDto> validFlexStatementResponse =
+            ResponseEntity.ok(getPopulatedFlexStatementResponseDto());
+    final ResponseEntity<FlexQueryResponseDto> validFlexQueryResponse =
+            ResponseEntity.ok(getPopulatedFlexQueryResponseDto());
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new ThreadPoolTaskScheduler();
+        scheduler.initialize();
+        flexStatementPoller = new FlexStatementPollerImpl(flexServiceClient, scheduler, requestExecutor, 1, 2, 10, 0.5, 3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdown();
+    }
+
+    private static FlexQueryResponseDto notReady() {
+        return FlexQueryResponseDto.builder()
+                .errorCode(FlexErrorCodes.STATEMENT_GENERATION_IN_PROGRESS)
+                .errorMessage("Statement generation in progress. Please try again shortly.")
+                .build();
+    }
+
+    @Test
+    void pollFlexStatementResponseWithRetry() throws Exception {
+        when(flexServiceClient.fetchFlexStatementResponse(any(), any()))
+                .thenReturn(ResponseEntity.internalServerError().build())
+                .thenReturn(ResponseEntity.ok(getEmptyFlexStatementResponseDto()))
+                .thenReturn(validFlexStatementResponse);
+        when(flexServiceClient.fetchFlexQueryResponse(any(), any())).thenReturn(validFlexQueryResponse);
+
+        FlexQueryResponseDto responseDto = flexStatementPoller.poll("queryId", "token").get();
+
+        assertEquals(validFlexQueryResponse.getBody(), responseDto);
+        verify(flexServiceClient, times(3)).fetchFlexStatementResponse(any(), any());
+        verify(flexServiceClient).fetchFlexQueryResponse(validFlexStatementResponse.getBody(), "token");
+    }
+
+    @Test
+    void pollFlexQueryResponseWhileNotReady() throws Exception {
+        when(flexServiceClient.fetchFlexStatementResponse(any(), any())).thenReturn(validFlexStatementResponse);
+        when(flexServiceClient.fetchFlexQueryResponse(any(), any()))
+                .thenReturn(ResponseEntity.ok(notReady()))
+                .thenThrow(new IbServerErrorException("Connection reset"))
+                .thenReturn(validFlexQueryResponse);
+
+        FlexQueryResponseDto responseDto = flexStatementPoller.poll("queryId", "token").get();
+
+        assertEquals(validFlexQueryResponse.getBody(), responseDto);
+        verify(flexServiceClient, times(3)).fetchFlexQueryResponse(any(), any());
+    }
+
+    @Test
+    void pollRetriesConnectionFailures() throws Exception {
+        when(flexServiceClient.fetchFlexStatementResponse(any(), any()))
+                .thenThrow(new ResourceAccessException("I/O error", new SocketException("Connection reset")))
+                .thenReturn(validFlexStatementResponse);
+        when(flexServiceClient.fetchFlexQueryResponse(any(), any())).thenReturn(validFlexQueryResponse);
+
+        FlexQueryResponseDto responseDto = flexStatementPoller.poll("queryId", "token").get();
+
+        assertEquals(validFlexQueryResponse.getBody(), responseDto);
+        verify(flexServiceClient, times(2)).fetchFlexStatementResponse(any(), any());
+    }
+
+    @Test
+    void pollRunsRequestsOutsideTheScheduler() throws Exception {
+        AtomicReference<String> requestThread = new AtomicReference<>();
+        when(flexServiceClient.fetchFlexStatementResponse(any(), any())).thenAnswer(invocation -> {
+            requestThread.set(Thread.currentThread().getName());
+            return validFlexStatementResponse;
+        });
+        when(flexServiceClient.fetchFlexQueryResponse(any(), any())).thenReturn(validFlexQueryResponse);
+
+        assertEquals(validFlexQueryResponse.getBody(), flexStatementPoller.poll("queryId", "token").get());
+        assertTrue(requestThread.get().startsWith("flex-request-"));
+    }
+
+    @Test
+    void pollFlexQueryResponseFailure() {
+        when(flexServiceClient.fetchFlexStatementResponse(any(), any())).thenReturn(validFlexStatementResponse);
+        when(flexServiceClient.fetchFlexQueryResponse(any(), any())).thenReturn(ResponseEntity.ok(notReady()));
+
+        CompletableFuture<FlexQueryResponseDto> future = flexStatementPoller.poll("queryId", "token");
+
+        ExecutionException e = assertThrows(ExecutionException.class, future::get);
+        assertInstanceOf(IbServerErrorException.class, e.getCause());
+        verify(flexServiceClient, times(3)).fetchFlexQueryResponse(any(), any());
+    }
+
+    @Test
+    void pollNotRetryableError() {
+        FlexStatementResponseDto tokenExpired = FlexStatementResponseDto.builder()
+                .status("Fail")
+                .errorCode("1012")
+                .errorMessage("Token has expired.")
+                .build();
+        when(flexServiceClient.fetchFlexStatementResponse(any(), any())).thenReturn(ResponseEntity.ok(tokenExpired));
+
+        CompletableFuture<FlexQueryResponseDto> future = flexStatementPoller.poll("queryId", "token");
+
+        ExecutionException e = assertThrows(ExecutionException.class, future::get);
+        assertInstanceOf(IbServerErrorException.class, e.getCause());
+        assertTrue(e.getCause().getMessage().contains("1012"));
+        verify(flexServiceClient, times(1)).fetchFlexStatementResponse(any(), any());
+        verify(flexServiceClient, never()).fetchFlexQueryResponse(any(), any());
+    }
+
+    @Test
+    void cancelPoll() {
+        FlexStatementPollerImpl poller = new FlexStatementPollerImpl(flexServiceClient, scheduler, requestExecutor, 100, 1, 100, 0,
+                10);
+        when(flexServiceClient.fetchFlexStatementResponse(any(), any())).thenReturn(validFlexStatementResponse);
+        when(flexServiceClient.fetchFlexQueryResponse(any(), any())).thenReturn(ResponseEntity.ok(notReady()));
+
+        CompletableFuture<FlexQueryResponseDto> future = poller.poll("queryId", "token");
+        verify(flexServiceClient, timeout(1000)).fetchFlexQueryResponse(any(), any());
+        future.cancel(true);
+
+        // The attempt scheduled after the first one does not run
+        verify(flexServiceClient, after(500).times(1)).fetchFlexQueryResponse(any(), any());
+        assertTrue(future.isCancelled());
+    }
+
+    @Test
+    void delay() {
+        FlexStatementPollerImpl poller = new FlexStatementPollerImpl(flexServiceClient, scheduler, requestExecutor, 1000, 2, 30000,
+                0.5, 10);
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(poller.delay(1) >= 500 && poller.delay(1) <= 1000);
+            assertTrue(poller.delay(3) >= 2000 && poller.delay(3) <= 4000);
+            assertTrue(poller.delay(10) >= 15000 && poller.delay(10) <= 30000);
+        }
+    }
+}
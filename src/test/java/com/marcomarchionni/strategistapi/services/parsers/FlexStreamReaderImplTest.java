@@ -0,0 +1,172 @@
+package com.marcomarchionni.strategistapi.services.parsers;
+
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import com.marcomarchionni.strategistapi.config.XMLConfig;
+import com.marcomarchionni.strategistapi.domain.FlexStatement;
+import com.marcomarchionni.strategistapi.dtos.flex.FlexQueryResponseDto;
+import com.marcomarchionni.strategistapi.dtos.response.update.UpdateDto;
+import com.marcomarchionni.strategistapi.errorhandling.exceptions.InvalidXMLFileException;
+import com.marcomarchionni.strategistapi.mappers.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlexStreamReaderImplTest {
+
+    XmlMapper xmlMapper;
+    FlexStatementMapper flexStatementMapper;
+    PositionMapper positionMapper;
+    TradeMapper tradeMapper;
+    DividendMapper dividendMapper;
+    List<FlexStatement> flexStatements;
+    List<FlexStatement> endedFlexStatements;
+    List<UpdateDto> chunks;
+    FlexStreamHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        xmlMapper = new XMLConfig().XmlMapper();
+        flexStatementMapper = new FlexStatementMapperImpl();
+        positionMapper = new PositionMapperImpl();
+        tradeMapper = new TradeMapperImpl();
+        dividendMapper = new DividendMapperImpl();
+
+        flexStatements = new ArrayList<>();
+        endedFlexStatements = new ArrayList<>();
+        chunks = new ArrayList<>();
+        handler = new FlexStreamHandler() {
+            @Override
+            public void onFlexStatement(FlexStatement flexStatement) {
+                flexStatements.add(flexStatement);
+            }
+
+            @Override
+            public void onChunk(UpdateDto chunk) {
+                chunks.add(chunk);
+            }
+
+            @Override
+            public void onFlexStatementEnd(FlexStatement flexStatement) {
+                endedFlexStatements.add(flexStatement);
+            }
+        };
+    }
+
+    private FlexStreamReader createReader(int chunkSize) {
+        return new FlexStreamReaderImpl(xmlMapper, flexStatementMapper, tradeMapper, positionMapper, dividendMapper,
+                chunkSize);
+    }
+
+    private void readSampleFile(FlexStreamReader reader) throws IOException {
+        try (InputStream is = getClass().getClassLoader().getResourceAsStream("flex/Flex.xml")) {
+            assertNotNull(is);
+            reader.read(is, handler);
+        }
+    }
+
+    @Test
+    void readMatchesResponseParser() throws IOException {
+        // Parse the sample file with the tree based parser
+        UpdateDto expected;
+        try (InputStream is = getClass().getClassLoader().getResourceAsStream("flex/Flex.xml")) {
+            var dto = xmlMapper.readValue(is, FlexQueryResponseDto.class);
+            expected = new ResponseParserImpl(flexStatementMapper, tradeMapper, positionMapper, dividendMapper)
+                    .parseAllData(dto);
+        }
+
+        // Read the sample file as a stream
+        readSampleFile(createReader(500));
+
+        assertEquals(1, flexStatements.size());
+        assertEquals(flexStatements, endedFlexStatements);
+        assertEquals(expected.getFlexStatement(), flexStatements.get(0));
+        assertEquals(1, chunks.size());
+        UpdateDto chunk = chunks.get(0);
+        assertSame(flexStatements.get(0), chunk.getFlexStatement());
+        assertEquals(expected.getTrades(), chunk.getTrades());
+        assertEquals(expected.getPositions(), chunk.getPositions());
+        assertEquals(expected.getDividends().size(), chunk.getDividends().size());
+        assertTrue(chunk.getDividends().containsAll(expected.getDividends()));
+    }
+
+    @Test
+    void readInChunks() throws IOException {
+        readSampleFile(createReader(4));
+
+        // 8 trades, 3 positions and 6 dividends split in chunks of 4 rows
+        assertEquals(5, chunks.size());
+        chunks.forEach(chunk -> assertTrue(
+                chunk.getTrades().size() + chunk.getPositions().size() + chunk.getDividends().size() <= 4));
+        assertEquals(8, chunks.stream().mapToInt(chunk -> chunk.getTrades().size()).sum());
+        assertEquals(3, chunks.stream().mapToInt(chunk -> chunk.getPositions().size()).sum());
+        assertEquals(6, chunks.stream().mapToInt(chunk -> chunk.getDividends().size()).sum());
+    }
+
+    @Test
+    void readStatementWithoutRows() throws IOException {
+        String xml = """
+                <FlexQueryResponse queryName="Flex" type="AF">
+                    <FlexStatements count="1">
+                        <FlexStatement accountId="U1111111" fromDate="20220601" toDate="20220730" period=""
+                                       whenGenerated="20221228;124835">
+                            <OpenPositions/>
+                        </FlexStatement>
+                    </FlexStatements>
+                </FlexQueryResponse>""";
+
+        createReader(500).read(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)), handler);
+
+        assertEquals(1, flexStatements.size());
+        assertEquals("U1111111", flexStatements.get(0).getAccountId());
+        assertEquals(1, chunks.size());
+        assertTrue(chunks.get(0).getTrades().isEmpty());
+        assertTrue(chunks.get(0).getPositions().isEmpty());
+        assertTrue(chunks.get(0).getDividends().isEmpty());
+        assertFalse(flexStatements.get(0).getTradesIncluded());
+        assertFalse(flexStatements.get(0).getDividendsIncluded());
+    }
+
+    @Test
+    void readEmptySections() throws IOException {
+        String xml = """
+                <FlexQueryResponse queryName="Flex" type="AF">
+                    <FlexStatements count="1">
+                        <FlexStatement accountId="U1111111" fromDate="20220601" toDate="20220730" period=""
+                                       whenGenerated="20221228;124835">
+                            <Trades/>
+                            <ChangeInDividendAccruals>
+                            </ChangeInDividendAccruals>
+                            <OpenPositions/>
+                        </FlexStatement>
+                    </FlexStatements>
+                </FlexQueryResponse>""";
+        var dto = xmlMapper.readValue(xml, FlexQueryResponseDto.class);
+
+        createReader(500).read(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)), handler);
+
+        assertEquals(1, flexStatements.size());
+        assertTrue(flexStatements.get(0).getTradesIncluded());
+        assertTrue(flexStatements.get(0).getDividendsIncluded());
+        assertEquals(flexStatementMapper.toFlexStatement(dto.nullSafeGetFlexStatement()), flexStatements.get(0));
+        assertEquals(1, chunks.size());
+        assertTrue(chunks.get(0).getTrades().isEmpty());
+    }
+
+    @Test
+    void readWithoutFlexStatement() {
+        String xml = "<FlexQueryResponse queryName=\"Flex\" type=\"AF\"><FlexStatements count=\"0\"/>" +
+                "</FlexQueryResponse>";
+        var reader = createReader(500);
+        var stream = new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(InvalidXMLFileException.class, () -> reader.read(stream, handler));
+    }
+}
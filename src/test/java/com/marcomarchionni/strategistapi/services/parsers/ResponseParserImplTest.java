@@ -1,21 +1,24 @@
 package com.marcomarchionni.strategistapi.services.parsers;
 
 import com.fasterxml.jackson.dataformat.xml.XmlMapper;
-import com.marcomarchionni.strategistapi.config.ModelMapperConfig;
 import com.marcomarchionni.strategistapi.config.XMLConfig;
+import com.marcomarchionni.strategistapi.domain.FlexStatement;
 import com.marcomarchionni.strategistapi.dtos.flex.FlexQueryResponseDto;
 import com.marcomarchionni.strategistapi.dtos.response.update.UpdateDto;
 import com.marcomarchionni.strategistapi.mappers.*;
+import com.marcomarchionni.strategistapi.services.util.DateRanges;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -41,13 +44,10 @@ class ResponseParserImplTest {
             flexQueryResponseDto = xmlMapper.readValue(is, FlexQueryResponseDto.class);
         }
 
-        // config model mapper
-        ModelMapperConfig config = new ModelMapperConfig();
-        ModelMapper modelMapper = config.modelMapper();
-        flexStatementMapper = new FlexStatementMapperImpl(modelMapper);
-        positionMapper = new PositionMapperImpl(modelMapper);
-        tradeMapper = new TradeMapperImpl(modelMapper);
-        dividendMapper = new DividendMapperImpl(modelMapper);
+        flexStatementMapper = new FlexStatementMapperImpl();
+        positionMapper = new PositionMapperImpl();
+        tradeMapper = new TradeMapperImpl();
+        dividendMapper = new DividendMapperImpl();
         responseParser = new ResponseParserImpl(flexStatementMapper, tradeMapper, positionMapper, dividendMapper);
     }
 
@@ -72,4 +72,23 @@ class ResponseParserImplTest {
         assertEquals(0, updateDto.getPositions().size());
         assertEquals(3, updateDto.getDividends().size());
     }
-}
\ No newline at end of file
+
+    @Test
+    void parseAllDataSkipsIngestedDates() {
+        // a saved statement covering the whole flex query
+        DateRanges ingestedDates = DateRanges.of(List.of(FlexStatement.builder()
+                .fromDate(LocalDate.of(2022, 1, 1))
+                .toDate(LocalDate.of(2022, 7, 30))
+                .whenGenerated(LocalDateTime.of(2022, 7, 31, 8, 0))
+                .tradesIncluded(true)
+                .dividendsIncluded(true)
+                .build()));
+
+        UpdateDto updateDto = responseParser.parseAllData(flexQueryResponseDto, ingestedDates);
+
+        assertEquals(0, updateDto.getTrades().size());
+        assertEquals(3, updateDto.getPositions().size());
+        // only the open dividends are left
+        assertEquals(3, updateDto.getDividends().size());
+    }
+}
@@ -0,0 +1,97 @@
+package com.marcomarchionni.strategistapi.services.util;
+
+import com.marcomarchionni.strategistapi.domain.FlexStatement;
+import com.marcomarchionni.strategistapi.dtos.response.DividendSummary;
+import com.marcomarchionni.strategistapi.dtos.response.PositionSummary;
+import com.marcomarchionni.strategistapi.dtos.response.TradeSummary;
+import com.marcomarchionni.strategistapi.dtos.response.update.AccountUpdateReport;
+import com.marcomarchionni.strategistapi.dtos.response.update.CombinedUpdateReport;
+import com.marcomarchionni.strategistapi.dtos.response.update.UpdateReport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static com.marcomarchionni.strategistapi.util.TestUtils.getSampleFlexStatement;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Transactional
+@Sql("classpath:dbScripts/insertSampleData.sql")
+@DataJpaTest
+@Import(ContentHashIndex.class)
+class ContentHashIndexTest {
+
+    @Autowired
+    ContentHashIndex contentHashIndex;
+
+    private static CombinedUpdateReport report(FlexStatement flexStatement) {
+        return CombinedUpdateReport.builder()
+                .flexStatements(UpdateReport.<FlexStatement>builder().added(List.of(flexStatement)).build())
+                .trades(UpdateReport.<TradeSummary>builder()
+                        .added(List.of(new TradeSummary(), new TradeSummary()))
+                        .skipped(List.of(new TradeSummary()))
+                        .build())
+                .positions(UpdateReport.<PositionSummary>builder()
+                        .merged(List.of(new PositionSummary()))
+                        .deleted(List.of(new PositionSummary()))
+                        .build())
+                .dividends(UpdateReport.<DividendSummary>builder().build())
+                .build();
+    }
+
+    @Test
+    void noChangesReport() {
+        FlexStatement flexStatement = getSampleFlexStatement();
+        flexStatement.setId(7L);
+        CombinedUpdateReport accountReport = report(flexStatement);
+        CombinedUpdateReport report = CombinedUpdateReport.builder()
+                .flexStatements(accountReport.getFlexStatements())
+                .trades(accountReport.getTrades())
+                .positions(accountReport.getPositions())
+                .dividends(accountReport.getDividends())
+                .accounts(List.of(
+                        AccountUpdateReport.builder().accountId(flexStatement.getAccountId())
+                                .report(accountReport).build(),
+                        AccountUpdateReport.builder().accountId("U2222222").error("Invalid account").build()))
+                .build();
+        contentHashIndex.put(flexStatement.getAccountId(), "hash", report);
+
+        ContentHashIndex.Entry entry = contentHashIndex.find(flexStatement.getAccountId(), "hash").orElseThrow();
+        CombinedUpdateReport noChanges = entry.noChangesReport(List.of(flexStatement));
+
+        assertEquals(List.of(7L), entry.flexStatementIds());
+        assertEquals(List.of(flexStatement), noChanges.getFlexStatements().getSkipped());
+        assertTrue(noChanges.getTrades().getAdded().isEmpty());
+        assertEquals(3, noChanges.getTrades().getUnchanged());
+        // deleted positions are not part of the payload
+        assertEquals(1, noChanges.getPositions().getUnchanged());
+        assertEquals(0, noChanges.getDividends().getUnchanged());
+        assertEquals(2, noChanges.getAccounts().size());
+        assertEquals(3, noChanges.getAccounts().get(0).getReport().getTrades().getUnchanged());
+        assertEquals(List.of(flexStatement),
+                noChanges.getAccounts().get(0).getReport().getFlexStatements().getSkipped());
+        assertNull(noChanges.getAccounts().get(1).getReport());
+        assertEquals("Invalid account", noChanges.getAccounts().get(1).getError());
+    }
+
+    @Test
+    void findOnlyTheLastPayload() {
+        FlexStatement flexStatement = getSampleFlexStatement();
+        contentHashIndex.put("U1111111", "first", report(flexStatement));
+        contentHashIndex.put("U1111111", "second", report(flexStatement));
+        contentHashIndex.put("U2222222", "other", report(flexStatement));
+
+        assertTrue(contentHashIndex.find("U1111111", "first").isEmpty());
+        assertTrue(contentHashIndex.find("U1111111", "second").isPresent());
+        assertTrue(contentHashIndex.find("U2222222", "second").isEmpty());
+        assertTrue(contentHashIndex.find("U2222222", "other").isPresent());
+        contentHashIndex.put("U2222222", null, report(flexStatement));
+        assertTrue(contentHashIndex.find("U2222222", "other").isEmpty());
+        contentHashIndex.remove("U1111111");
+        assertTrue(contentHashIndex.find("U1111111", "second").isEmpty());
+    }
+}
@@ -0,0 +1,65 @@
+package com.marcomarchionni.strategistapi.services.util;
+
+import com.marcomarchionni.strategistapi.domain.FlexStatement;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DateRangesTest {
+
+    private static FlexStatement statement(String fromDate, String toDate, String whenGenerated) {
+        return FlexStatement.builder()
+                .fromDate(LocalDate.parse(fromDate))
+                .toDate(LocalDate.parse(toDate))
+                .whenGenerated(LocalDateTime.parse(whenGenerated))
+                .tradesIncluded(true)
+                .dividendsIncluded(true)
+                .build();
+    }
+
+    @Test
+    void contains() {
+        DateRanges ranges = DateRanges.of(List.of(
+                statement("2022-03-01", "2022-03-31", "2022-04-01T08:00"),
+                statement("2022-01-01", "2022-01-31", "2022-02-01T08:00"),
+                // overlaps and extends the March statement
+                statement("2022-03-15", "2022-04-10", "2022-04-11T08:00")));
+
+        assertFalse(ranges.contains(LocalDate.parse("2021-12-31")));
+        assertTrue(ranges.contains(LocalDate.parse("2022-01-01")));
+        assertTrue(ranges.contains(LocalDate.parse("2022-01-31")));
+        assertFalse(ranges.contains(LocalDate.parse("2022-02-15")));
+        assertTrue(ranges.contains(LocalDate.parse("2022-03-20")));
+        assertTrue(ranges.contains(LocalDate.parse("2022-04-10")));
+        assertFalse(ranges.contains(LocalDate.parse("2022-04-11")));
+        assertFalse(ranges.contains(null));
+    }
+
+    @Test
+    void statementGeneratedDuringItsLastDay() {
+        DateRanges ranges = DateRanges.of(List.of(statement("2022-03-01", "2022-03-31", "2022-03-31T15:00")));
+
+        assertTrue(ranges.contains(LocalDate.parse("2022-03-30")));
+        assertFalse(ranges.contains(LocalDate.parse("2022-03-31")));
+        assertTrue(DateRanges.EMPTY.isEmpty());
+    }
+
+    @Test
+    void statementsWithoutTradesOrDividendsAreSkipped() {
+        FlexStatement positionsOnly = statement("2022-01-01", "2022-01-31", "2022-02-01T08:00");
+        positionsOnly.setTradesIncluded(false);
+        positionsOnly.setDividendsIncluded(false);
+        FlexStatement tradesOnly = statement("2022-02-01", "2022-02-28", "2022-03-01T08:00");
+        tradesOnly.setDividendsIncluded(false);
+        // saved before the sections were recorded
+        FlexStatement unknown = statement("2022-03-01", "2022-03-31", "2022-04-01T08:00");
+        unknown.setTradesIncluded(null);
+        unknown.setDividendsIncluded(null);
+
+        assertTrue(DateRanges.of(List.of(positionsOnly, tradesOnly, unknown)).isEmpty());
+    }
+}
@@ -0,0 +1,50 @@
+package com.marcomarchionni.strategistapi.services.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlexContentDigestTest {
+
+    private static final String STATEMENT = "<FlexQueryResponse queryName=\"q\" type=\"AF\">\n" +
+            "<FlexStatements count=\"1\">\n" +
+            "<FlexStatement accountId=\"U1111111\" fromDate=\"20220701\" toDate=\"20220730\" " +
+            "period=\"LastMonth\" whenGenerated=\"%s\">\n" +
+            "<Trades><Order tradeID=\"\" ibOrderID=\"%d\"/></Trades>\n" +
+            "</FlexStatement>\n</FlexStatements>\n</FlexQueryResponse>\n";
+
+    private static String hash(String payload) throws IOException {
+        return FlexContentDigest.of(new ByteArrayInputStream(payload.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void sameStatementGeneratedTwice() throws IOException {
+        String first = hash(STATEMENT.formatted("20220731;101500", 1));
+
+        assertEquals(64, first.length());
+        assertEquals(first, hash(STATEMENT.formatted("20220801;093000", 1)));
+        assertNotEquals(first, hash(STATEMENT.formatted("20220731;101500", 2)));
+    }
+
+    @Test
+    void hashDoesNotDependOnReads() throws IOException {
+        byte[] payload = STATEMENT.formatted("20220731;101500", 1).getBytes(StandardCharsets.UTF_8);
+        FlexContentDigest digest = new FlexContentDigest();
+
+        // read a few bytes at a time so that the whenGenerated attribute is split between reads
+        try (InputStream stream = digest.wrap(new ByteArrayInputStream(payload))) {
+            byte[] buffer = new byte[7];
+            stream.read();
+            while (stream.read(buffer, 0, buffer.length) != -1) {
+                // read to the end
+            }
+        }
+
+        assertEquals(FlexContentDigest.of(new ByteArrayInputStream(payload)), digest.hex());
+    }
+}
@@ -0,0 +1,77 @@
+package com.marcomarchionni.strategistapi.services.util;
+
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import com.marcomarchionni.strategistapi.config.XMLConfig;
+import com.marcomarchionni.strategistapi.dtos.flex.FlexQueryResponseDto;
+import com.marcomarchionni.strategistapi.services.parsers.FlexRowFilters;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlexStringsTest {
+
+    @Test
+    void intern() {
+        FlexStrings strings = new FlexStrings();
+
+        String first = strings.intern(new String("EUR"));
+        String second = strings.intern(new String("EUR"));
+
+        assertEquals("EUR", first);
+        assertSame(first, second);
+        assertNull(strings.intern(null));
+    }
+
+    @Test
+    void longValuesAreNotInterned() {
+        FlexStrings strings = new FlexStrings();
+        String value = "x".repeat(FlexStrings.MAX_LENGTH + 1);
+
+        assertSame(value, strings.intern(value));
+        assertEquals(0, strings.size());
+    }
+
+    @Test
+    void tableStopsGrowingWhenFull() {
+        FlexStrings strings = new FlexStrings();
+        for (int i = 0; i < FlexStrings.MAX_SIZE; i++) {
+            strings.intern("V" + i);
+        }
+        String value = new String("EUR");
+
+        assertSame(value, strings.intern(value));
+        assertEquals(FlexStrings.MAX_SIZE, strings.size());
+        // A new parse starts from an empty table
+        assertEquals(0, new FlexStrings().size());
+    }
+
+    @Test
+    void rowValuesAreInternedWhileRead() throws Exception {
+        XmlMapper xmlMapper = new XMLConfig().XmlMapper();
+        String xml = """
+                <OpenPositions>
+                <OpenPosition accountId="U1111111" currency="USD" assetCategory="STK" levelOfDetail="SUMMARY"/>
+                <OpenPosition accountId="U1111111" currency="USD" assetCategory="STK" levelOfDetail="summary"/>
+                </OpenPositions>
+                """;
+
+        List<FlexQueryResponseDto.OpenPosition> positions = xmlMapper.readValue(xml,
+                FlexQueryResponseDto.OpenPositions.class).getOpenPositionList();
+
+        assertEquals(2, positions.size());
+        assertSame(positions.get(0).getAccountId(), positions.get(1).getAccountId());
+        assertSame(positions.get(0).getCurrency(), positions.get(1).getCurrency());
+        assertSame(positions.get(0).getAssetCategory(), positions.get(1).getAssetCategory());
+        assertTrue(positions.stream().allMatch(FlexRowFilters::isValidOpenPosition));
+    }
+
+    @Test
+    void filtersDoNotDependOnInterning() {
+        FlexQueryResponseDto.OpenPosition position = FlexQueryResponseDto.OpenPosition.builder()
+                .levelOfDetail(new String("SUMMARY")).build();
+
+        assertTrue(FlexRowFilters.isValidOpenPosition(position));
+    }
+}
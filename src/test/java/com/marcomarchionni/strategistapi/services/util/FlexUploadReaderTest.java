@@ -0,0 +1,103 @@
+package com.marcomarchionni.strategistapi.services.util;
+
+import com.marcomarchionni.strategistapi.benchmarks.SyntheticFlexXml;
+import com.marcomarchionni.strategistapi.errorhandling.exceptions.InvalidXMLFileException;
+import com.marcomarchionni.strategistapi.errorhandling.exceptions.UploadTooLargeException;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlexUploadReaderTest {
+
+    FlexUploadReader reader = new FlexUploadReader(DataSize.ofKilobytes(16), DataSize.ofMegabytes(10));
+    byte[] xml = SyntheticFlexXml.builder().build().generate(SyntheticFlexXml.accountId(0));
+
+    @Test
+    void readSmallUploadInMemory() throws IOException {
+        FlexUpload upload = new FlexUploadReader(DataSize.ofMegabytes(1), DataSize.ofMegabytes(10))
+                .read(new ByteArrayInputStream(xml), "Flex.xml");
+
+        assertFalse(upload.isMapped());
+        assertEquals("Flex.xml", upload.getOriginalFilename());
+        assertArrayEquals(xml, upload.getBytes());
+        assertEquals(FlexContentDigest.of(new ByteArrayInputStream(xml)), upload.getContentHash());
+    }
+
+    @Test
+    void spillLargeUploadToMappedFile() throws IOException {
+        FlexUpload upload = reader.read(new ByteArrayInputStream(xml), null);
+        try {
+            assertTrue(upload.isMapped());
+            assertEquals(xml.length, upload.getSize());
+            assertEquals(FlexContentDigest.of(new ByteArrayInputStream(xml)), upload.getContentHash());
+            // every stream reads the whole file
+            for (int i = 0; i < 2; i++) {
+                try (InputStream stream = upload.getInputStream()) {
+                    assertArrayEquals(xml, stream.readAllBytes());
+                }
+            }
+        } finally {
+            upload.delete();
+        }
+    }
+
+    @Test
+    void readGzipUpload() throws IOException {
+        ByteArrayOutputStream gzip = new ByteArrayOutputStream();
+        try (GZIPOutputStream stream = new GZIPOutputStream(gzip)) {
+            stream.write(xml);
+        }
+
+        FlexUpload upload = reader.read(new ByteArrayInputStream(gzip.toByteArray()), "Flex.xml.gz");
+        try {
+            assertEquals("Flex.xml", upload.getOriginalFilename());
+            assertArrayEquals(xml, upload.getBytes());
+            // The decompressed content is hashed
+            assertEquals(FlexContentDigest.of(new ByteArrayInputStream(xml)), upload.getContentHash());
+        } finally {
+            upload.delete();
+        }
+    }
+
+    @Test
+    void readZipUpload() throws IOException {
+        ByteArrayOutputStream zip = new ByteArrayOutputStream();
+        try (ZipOutputStream stream = new ZipOutputStream(zip)) {
+            stream.putNextEntry(new ZipEntry("readme.txt"));
+            stream.write("flex query".getBytes());
+            stream.putNextEntry(new ZipEntry("statements/Flex.xml"));
+            stream.write(xml);
+        }
+
+        FlexUpload upload = reader.read(new ByteArrayInputStream(zip.toByteArray()), "Flex.zip");
+        try {
+            assertEquals("Flex.xml", upload.getOriginalFilename());
+            assertArrayEquals(xml, upload.getBytes());
+        } finally {
+            upload.delete();
+        }
+    }
+
+    @Test
+    void rejectInvalidUploads() throws IOException {
+        ByteArrayOutputStream zip = new ByteArrayOutputStream();
+        try (ZipOutputStream stream = new ZipOutputStream(zip)) {
+            stream.putNextEntry(new ZipEntry("readme.txt"));
+            stream.write("flex query".getBytes());
+        }
+        FlexUploadReader smallReader = new FlexUploadReader(DataSize.ofKilobytes(1), DataSize.ofKilobytes(8));
+
+        assertThrows(InvalidXMLFileException.class,
+                () -> reader.read(new ByteArrayInputStream(zip.toByteArray()), "Flex.zip"));
+        assertThrows(UploadTooLargeException.class, () -> smallReader.read(new ByteArrayInputStream(xml), null));
+    }
+}
@@ -0,0 +1,49 @@
+package com.marcomarchionni.strategistapi.services.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongHashSetTest {
+
+    @Test
+    void addAndContains() {
+        LongHashSet set = new LongHashSet();
+
+        assertTrue(set.add(2222222222L));
+        assertFalse(set.add(2222222222L));
+        assertTrue(set.add(0L));
+        assertTrue(set.add(-1L));
+
+        assertEquals(3, set.size());
+        assertTrue(set.contains(2222222222L));
+        assertTrue(set.contains(0L));
+        assertTrue(set.contains(-1L));
+        assertFalse(set.contains(11111111L));
+    }
+
+    @Test
+    void growsBeyondExpectedSize() {
+        LongHashSet set = new LongHashSet(4);
+        for (long id = 1; id <= 10_000; id++) {
+            set.add(id * 1_000L);
+        }
+
+        assertEquals(10_000, set.size());
+        for (long id = 1; id <= 10_000; id++) {
+            assertTrue(set.contains(id * 1_000L));
+        }
+        assertFalse(set.contains(1_500L));
+    }
+
+    @Test
+    void addAll() {
+        LongHashSet set = new LongHashSet(0);
+        set.addAll(List.of(1L, 2L, 2L));
+
+        assertEquals(2, set.size());
+        assertFalse(set.isEmpty());
+    }
+}
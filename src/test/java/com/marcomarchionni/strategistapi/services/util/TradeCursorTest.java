@@ -0,0 +1,27 @@
+package com.marcomarchionni.strategistapi.services.util;
+
+import com.marcomarchionni.strategistapi.errorhandling.exceptions.InvalidCursorException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TradeCursorTest {
+
+    @Test
+    void encodeDecode() {
+        TradeCursor cursor = new TradeCursor(LocalDate.of(2022, 6, 7), 1180785204L);
+
+        assertEquals(cursor, TradeCursor.decode(cursor.encode()));
+        assertNull(TradeCursor.decode(null));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "not a cursor", "MjAyMi0wNi0wNw", "MjAyMi0wNi0wNzp4"})
+    void decodeInvalid(String token) {
+        assertThrows(InvalidCursorException.class, () -> TradeCursor.decode(token));
+    }
+}
@@ -0,0 +1,121 @@
+-- Schema of the databases created by Hibernate from the entities, before the migrations
+CREATE TABLE `user_details`
+(
+    `id`         BIGINT       NOT NULL AUTO_INCREMENT,
+    `account_id` VARCHAR(255) NOT NULL,
+    `email`      VARCHAR(255) NOT NULL,
+    `first_name` VARCHAR(255),
+    `last_name`  VARCHAR(255),
+    `password`   VARCHAR(255) NOT NULL,
+    `role`       VARCHAR(255),
+    PRIMARY KEY (`id`),
+    CONSTRAINT `UK_tpx9llq6mx8il4lfjpq4gqt88` UNIQUE (`account_id`),
+    CONSTRAINT `UK_4d9rdl7d52k8x3etihxlaujvh` UNIQUE (`email`)
+) ENGINE = InnoDB;
+
+CREATE TABLE `flex_statement`
+(
+    `id`             BIGINT NOT NULL AUTO_INCREMENT,
+    `account_id`     VARCHAR(255),
+    `from_date`      DATE,
+    `to_date`        DATE,
+    `period`         VARCHAR(255),
+    `when_generated` TIMESTAMP(6) NULL,
+    PRIMARY KEY (`id`)
+) ENGINE = InnoDB;
+
+CREATE TABLE `portfolio`
+(
+    `id`          BIGINT NOT NULL AUTO_INCREMENT,
+    `account_id`  VARCHAR(255),
+    `name`        VARCHAR(255),
+    `description` VARCHAR(255),
+    `created_at`  DATE,
+    PRIMARY KEY (`id`),
+    CONSTRAINT `UKnn46hbfyal8h5qbi1rvnkacsf` UNIQUE (`name`, `account_id`)
+) ENGINE = InnoDB;
+
+CREATE TABLE `strategy`
+(
+    `id`                    BIGINT NOT NULL AUTO_INCREMENT,
+    `account_id`            VARCHAR(255),
+    `name`                  VARCHAR(255),
+    `strategy_portfolio_id` BIGINT,
+    PRIMARY KEY (`id`),
+    CONSTRAINT `UK6llydqqp6jxh5aboiwhad22o7` UNIQUE (`name`, `account_id`),
+    CONSTRAINT `FKsdkdowpn5j1vwwfv0fu6rxhxf` FOREIGN KEY (`strategy_portfolio_id`) REFERENCES `portfolio` (`id`)
+) ENGINE = InnoDB;
+
+CREATE TABLE `trade`
+(
+    `id`                BIGINT NOT NULL AUTO_INCREMENT,
+    `account_id`        VARCHAR(255),
+    `trade_id`          BIGINT,
+    `ib_order_id`       BIGINT,
+    `con_id`            BIGINT,
+    `trade_strategy_id` BIGINT,
+    `symbol`            VARCHAR(255),
+    `description`       VARCHAR(255),
+    `asset_category`    VARCHAR(255),
+    `multiplier`        INTEGER,
+    `strike`            NUMERIC(38, 2),
+    `expiry`            DATE,
+    `put_call`          VARCHAR(255),
+    `trade_date`        DATE,
+    `date_time`         TIMESTAMP(6) NULL,
+    `quantity`          NUMERIC(38, 2),
+    `trade_price`       NUMERIC(38, 2),
+    `trade_money`       NUMERIC(38, 2),
+    `fifo_pnl_realized` NUMERIC(38, 2),
+    `ib_commission`     NUMERIC(38, 2),
+    `buy_sell`          VARCHAR(255),
+    PRIMARY KEY (`id`),
+    CONSTRAINT `FKh8emdq1t8taicbggpdwgdw6q3` FOREIGN KEY (`trade_strategy_id`) REFERENCES `strategy` (`id`)
+) ENGINE = InnoDB;
+
+CREATE TABLE `position`
+(
+    `id`                   BIGINT NOT NULL AUTO_INCREMENT,
+    `account_id`           VARCHAR(255),
+    `con_id`               BIGINT,
+    `position_strategy_id` BIGINT,
+    `report_date`          DATE,
+    `symbol`               VARCHAR(255),
+    `description`          VARCHAR(255),
+    `asset_category`       VARCHAR(255),
+    `put_call`             VARCHAR(255),
+    `strike`               NUMERIC(38, 2),
+    `expiry`               DATE,
+    `quantity`             NUMERIC(38, 2),
+    `cost_basis_price`     NUMERIC(38, 2),
+    `cost_basis_money`     NUMERIC(38, 2),
+    `mark_price`           NUMERIC(38, 2),
+    `multiplier`           INTEGER,
+    `position_value`       NUMERIC(38, 2),
+    `fifo_pnl_unrealized`  NUMERIC(38, 2),
+    PRIMARY KEY (`id`),
+    CONSTRAINT `UKli5i5s42dy0sc5egvmaujhb9i` UNIQUE (`con_id`, `account_id`),
+    CONSTRAINT `FKp3mvn6hap6ieb28ybn8m95n9b` FOREIGN KEY (`position_strategy_id`) REFERENCES `strategy` (`id`)
+) ENGINE = InnoDB;
+
+CREATE TABLE `dividend`
+(
+    `id`                   BIGINT NOT NULL AUTO_INCREMENT,
+    `account_id`           VARCHAR(255),
+    `con_id`               BIGINT,
+    `action_id`            BIGINT,
+    `dividend_strategy_id` BIGINT,
+    `symbol`               VARCHAR(255),
+    `description`          VARCHAR(255),
+    `ex_date`              DATE,
+    `pay_date`             DATE,
+    `gross_rate`           NUMERIC(38, 2),
+    `quantity`             NUMERIC(38, 2),
+    `gross_amount`         NUMERIC(38, 2),
+    `tax`                  NUMERIC(38, 2),
+    `net_amount`           NUMERIC(38, 2),
+    `open_closed`          VARCHAR(255),
+    PRIMARY KEY (`id`),
+    CONSTRAINT `UKsl9n85274jg9ap7equmbad4ao` UNIQUE (`action_id`, `account_id`),
+    CONSTRAINT `FKral12hxdesaafjkqc2mh63hhu` FOREIGN KEY (`dividend_strategy_id`) REFERENCES `strategy` (`id`)
+) ENGINE = InnoDB;